@@ -1,8 +1,5 @@
 package de.scravy.bedrock;
 
-import lombok.AccessLevel;
-import lombok.RequiredArgsConstructor;
-
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
@@ -20,12 +17,14 @@ import java.util.stream.Collectors;
  * Some operations are implemented quite space efficiently. For instance
  * both mapValues and mapValuesWithKey share the key array with the source
  * ArrayMap.
+ * <p>
+ * Maps with many keys which are queried a lot can be turned into lookup optimized ones using
+ * {@link #lookupOptimized()}.
  *
  * @param <K> The type of the keys of this ArrayMap. Must implement Comparable. Does not allow for null values.
  * @param <V> The type of the values of this ArrayMap. Can be anything. Allows for null values.
  */
 @Immutable
-@RequiredArgsConstructor(access = AccessLevel.PACKAGE)
 public final class ArrayMap<K extends Comparable<? super K>, V> implements Mapping<K, V> {
 
   private static final ArrayMap EMPTY;
@@ -41,6 +40,45 @@ public final class ArrayMap<K extends Comparable<? super K>, V> implements Mappi
   private final Object[] keys;
   private final Object[] values;
 
+  /**
+   * The keys in Eytzinger order, or null if this ArrayMap is not lookup optimized, see {@link #lookupOptimized()}.
+   */
+  private final ArrayMapIndex index;
+
+  ArrayMap(final Object[] keys, final Object[] values) {
+    this(keys, values, null);
+  }
+
+  private ArrayMap(final Object[] keys, final Object[] values, final ArrayMapIndex index) {
+    this.keys = keys;
+    this.values = values;
+    this.index = index;
+  }
+
+  /**
+   * Returns this ArrayMap with its keys additionally stored in Eytzinger order, which speeds up {@link #get(Comparable)}
+   * and {@link #apply(Comparable)} on large maps, as the first steps of every lookup hit the same few cache lines.
+   * Integer and Long keys are furthermore stored unboxed. The layout is built right away, which costs O(n) time and
+   * about n ints and n references or longs of memory.
+   * <p>
+   * Iteration, {@link #keys()} and {@link #values()} still follow the sorted order. The result of
+   * {@link #mapValues(Function)} and {@link #mapValuesWithKey(BiFunction)} is lookup optimized too, other maps
+   * derived from the returned one are not.
+   */
+  @Nonnull
+  public ArrayMap<K, V> lookupOptimized() {
+    if (index != null || keys.length == 0) {
+      return this;
+    }
+    final ArrayMap<K, V> result = new ArrayMap<>(keys, values, ArrayMapIndex.of(keys));
+    result.defaultReturnValue = defaultReturnValue;
+    return result;
+  }
+
+  public boolean isLookupOptimized() {
+    return index != null;
+  }
+
   public ArrayMap<K, V> setDefaultReturnValue(@Nullable final V value) {
     defaultReturnValue = ignore -> value;
     return this;
@@ -50,7 +88,7 @@ public final class ArrayMap<K extends Comparable<? super K>, V> implements Mappi
   @Nonnull
   @Override
   public Optional<V> get(@Nonnull final K key) {
-    final int ix = Arrays.binarySearch(keys, key);
+    final int ix = index == null ? Arrays.binarySearch(keys, key) : index.indexOf(keys, key);
     if (ix >= 0) {
       return Optional.ofNullable((V) values[ix]);
     } else {
@@ -75,7 +113,7 @@ public final class ArrayMap<K extends Comparable<? super K>, V> implements Mappi
     for (int i = 0; i < values.length; i += 1) {
       vs[i] = f.apply((V) values[i]);
     }
-    return new ArrayMap<>(keys, vs);
+    return new ArrayMap<>(keys, vs, index);
   }
 
   @Nonnull
@@ -85,7 +123,7 @@ public final class ArrayMap<K extends Comparable<? super K>, V> implements Mappi
     for (int i = 0; i < values.length; i += 1) {
       vs[i] = f.apply((K) keys[i], (V) values[i]);
     }
-    return new ArrayMap<>(keys, vs);
+    return new ArrayMap<>(keys, vs, index);
   }
 
   @Nonnull
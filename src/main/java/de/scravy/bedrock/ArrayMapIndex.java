@@ -0,0 +1,149 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+
+/**
+ * The keys of an {@link ArrayMap} in Eytzinger order, see {@link ArrayMap#lookupOptimized()}.
+ * <p>
+ * The sorted keys are laid out as an implicit binary search tree in breadth first order, the children of the key at
+ * position k being at 2k and 2k + 1. A lookup touches positions 1, 2 or 3, 4 to 7 and so on, so the top levels of the
+ * tree are packed into a few cache lines which stay hot across lookups, whereas a binary search spreads its first
+ * probes over the whole array.
+ * <p>
+ * If all keys are Integers or all keys are Longs they are unboxed into a long[], so a lookup does not dereference a
+ * single key object. Up to {@link #BRANCH_FREE_LIMIT} of them are searched without branching on the outcome of the
+ * comparisons. Beyond that the tree does not fit into the cache anymore and the branching search is faster, as the
+ * processor speculatively loads the next level while the current one is still compared, which is the closest Java
+ * gets to prefetching. The same holds for keys which are compared via {@link Comparable#compareTo(Object)}, as every
+ * comparison dereferences the key object.
+ */
+final class ArrayMapIndex {
+
+  static final int BRANCH_FREE_LIMIT = 1 << 16;
+
+  /**
+   * The class of all the keys if they are unboxed into {@link #longs}, or null.
+   */
+  private final Class<?> kind;
+
+  /**
+   * The unboxed keys in Eytzinger order, starting at position 1, or null.
+   */
+  private final long[] longs;
+
+  /**
+   * The keys in Eytzinger order, starting at position 1, or null if they are unboxed into {@link #longs}.
+   */
+  private final Object[] objects;
+
+  /**
+   * The position of the key at each position of the tree within the sorted keys.
+   */
+  private final int[] ranks;
+
+  private ArrayMapIndex(final Class<?> kind, final long[] longs, final Object[] objects, @Nonnull final int[] ranks) {
+    this.kind = kind;
+    this.longs = longs;
+    this.objects = objects;
+    this.ranks = ranks;
+  }
+
+  @Nonnull
+  static ArrayMapIndex of(@Nonnull final Object[] sortedKeys) {
+    final int[] ranks = ranksOf(sortedKeys.length);
+    final Class<?> kind = kindOf(sortedKeys);
+    if (kind != null) {
+      final long[] longs = new long[ranks.length];
+      for (int k = 1; k < ranks.length; k += 1) {
+        longs[k] = ((Number) sortedKeys[ranks[k]]).longValue();
+      }
+      return new ArrayMapIndex(kind, longs, null, ranks);
+    }
+    final Object[] objects = new Object[ranks.length];
+    for (int k = 1; k < ranks.length; k += 1) {
+      objects[k] = sortedKeys[ranks[k]];
+    }
+    return new ArrayMapIndex(null, null, objects, ranks);
+  }
+
+  /**
+   * Walks the implicit tree over n keys in order, assigning every position the rank of the key stored there.
+   */
+  @Nonnull
+  private static int[] ranksOf(final int n) {
+    final int[] ranks = new int[n + 1];
+    int rank = 0;
+    int k = 1;
+    while (true) {
+      while (k <= n) {
+        k <<= 1;
+      }
+      k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+      if (k == 0) {
+        return ranks;
+      }
+      ranks[k] = rank;
+      rank += 1;
+      k = 2 * k + 1;
+    }
+  }
+
+  private static Class<?> kindOf(@Nonnull final Object[] keys) {
+    final Class<?> kind = keys[0].getClass();
+    if (kind != Integer.class && kind != Long.class) {
+      return null;
+    }
+    for (final Object key : keys) {
+      if (key.getClass() != kind) {
+        return null;
+      }
+    }
+    return kind;
+  }
+
+  /**
+   * Returns the position of the given key within the sorted keys, or a negative number if it is not contained, like
+   * {@link Arrays#binarySearch(Object[], Object)} does on the sorted keys.
+   */
+  @SuppressWarnings("unchecked")
+  int indexOf(@Nonnull final Object[] sortedKeys, @Nonnull final Object key) {
+    final int n = ranks.length - 1;
+    int k = 1;
+    if (longs != null) {
+      if (key.getClass() != kind) {
+        return Arrays.binarySearch(sortedKeys, key);
+      }
+      final long value = ((Number) key).longValue();
+      if (n <= BRANCH_FREE_LIMIT) {
+        while (k <= n) {
+          k = 2 * k + (longs[k] < value ? 1 : 0);
+        }
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+        return k != 0 && longs[k] == value ? ranks[k] : -1;
+      }
+      while (k <= n) {
+        final long current = longs[k];
+        if (current < value) {
+          k = 2 * k + 1;
+        } else if (current > value) {
+          k = 2 * k;
+        } else {
+          return ranks[k];
+        }
+      }
+      return -1;
+    }
+    while (k <= n) {
+      final int c = ((Comparable<Object>) objects[k]).compareTo(key);
+      if (c < 0) {
+        k = 2 * k + 1;
+      } else if (c > 0) {
+        k = 2 * k;
+      } else {
+        return ranks[k];
+      }
+    }
+    return -1;
+  }
+}
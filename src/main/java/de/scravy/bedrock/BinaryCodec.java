@@ -0,0 +1,823 @@
+package de.scravy.bedrock;
+
+import lombok.experimental.UtilityClass;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.*;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Predicate;
+
+/**
+ * A compact binary format for {@link Seq}, {@link Set}, {@link ArrayMap}, {@link Pair}, {@link Triple} and
+ * {@link Quadruple} and the values nested in them.
+ * <p>
+ * Every value is written as a one byte tag followed by its payload; collections are prefixed with their length.
+ * Ints, longs, doubles, booleans, strings (UTF-8) and UUIDs are written without any overhead, Seqs which contain
+ * only ints, longs, doubles or only strings are written without per element tags. Strings which contain unpaired
+ * surrogates, which UTF-8 can not represent, are written as UTF-16 chars instead. Any other value is written using
+ * Java serialization. Sets and ArrayMaps are written in their sorted order and read back without sorting them
+ * again, and Seqs of ints, longs or doubles are read back as unboxed {@link IntSeq#boxed()} (and friends) views.
+ * <p>
+ * Values are written to and read from streams incrementally through a buffer of {@value #BUFFER_SIZE} bytes, and
+ * several values can be written to and read from the same stream one after another. Reading from a stream never
+ * consumes more bytes than the value occupies, so wrap unbuffered streams in a {@link BufferedInputStream}.
+ * <p>
+ * Corrupt lengths are detected before they are allocated: arrays read from a stream grow as their data arrives,
+ * arrays read from a buffer must fit into its remaining bytes.
+ * <p>
+ * <b>Reading values written using Java serialization is unsafe for untrusted input</b>, as deserializing may
+ * instantiate any serializable class on the class path. When reading untrusted input pass a class filter to
+ * {@link #read(InputStream, Predicate)}, {@link #read(ByteBuffer, Predicate)} or
+ * {@link #fromByteArray(byte[], Predicate)}, which is consulted for every class in the serialized data before
+ * it is instantiated (for arrays their element class, arrays of primitives are always accepted),
+ * <code>cls -&gt; false</code> rejects Java serialization altogether.
+ */
+@UtilityClass
+public class BinaryCodec {
+
+  static final int BUFFER_SIZE = 1 << 16;
+
+  /**
+   * The number of elements allocated up front for arrays read from a stream.
+   */
+  private static final int INITIAL_CAPACITY = 1 << 10;
+
+  private static final Predicate<Class<?>> ANY_CLASS = cls -> true;
+
+  private static final byte TAG_NULL = 0;
+  private static final byte TAG_TRUE = 1;
+  private static final byte TAG_FALSE = 2;
+  private static final byte TAG_INT = 3;
+  private static final byte TAG_LONG = 4;
+  private static final byte TAG_DOUBLE = 5;
+  private static final byte TAG_STRING = 6;
+  private static final byte TAG_UUID = 7;
+  private static final byte TAG_SEQ = 8;
+  private static final byte TAG_INT_SEQ = 9;
+  private static final byte TAG_LONG_SEQ = 10;
+  private static final byte TAG_DOUBLE_SEQ = 11;
+  private static final byte TAG_STRING_SEQ = 12;
+  private static final byte TAG_SET = 13;
+  private static final byte TAG_ARRAY_MAP = 14;
+  private static final byte TAG_PAIR = 15;
+  private static final byte TAG_TRIPLE = 16;
+  private static final byte TAG_QUADRUPLE = 17;
+  private static final byte TAG_SERIALIZED = 18;
+  private static final byte TAG_UTF16_STRING = 19;
+
+  /**
+   * Writes the given value to the given stream. The stream is flushed but not closed.
+   */
+  public static void write(@Nullable final Object value, @Nonnull final OutputStream outputStream) throws IOException {
+    final StreamOutput output = new StreamOutput(outputStream);
+    writeValue(value, output);
+    output.flush();
+  }
+
+  /**
+   * Writes the given value into the given buffer, starting at its current position.
+   *
+   * @throws java.nio.BufferOverflowException If the buffer is too small.
+   */
+  public static void write(@Nullable final Object value, @Nonnull final ByteBuffer buffer) throws IOException {
+    writeValue(value, new BufferOutput(buffer));
+  }
+
+  /**
+   * Encodes the given value into a new byte array.
+   */
+  @Nonnull
+  public static byte[] toByteArray(@Nullable final Object value) throws IOException {
+    final ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+    write(value, outputStream);
+    return outputStream.toByteArray();
+  }
+
+  /**
+   * Reads the next value from the given stream. Do not use this on untrusted input, see
+   * {@link #read(InputStream, Predicate)}.
+   *
+   * @throws EOFException If the stream ends before the value does.
+   */
+  @Nullable
+  public static <T> T read(@Nonnull final InputStream inputStream) throws IOException {
+    return read(inputStream, ANY_CLASS);
+  }
+
+  /**
+   * Reads the next value from the given stream, deserializing only classes accepted by the given filter.
+   *
+   * @throws EOFException          If the stream ends before the value does.
+   * @throws InvalidClassException If the value contains a class rejected by the filter.
+   */
+  @Nullable
+  public static <T> T read(
+    @Nonnull final InputStream inputStream,
+    @Nonnull final Predicate<? super Class<?>> classFilter
+  ) throws IOException {
+    Objects.requireNonNull(classFilter, "'classFilter' must not be null");
+    return readValue(new StreamInput(inputStream, classFilter));
+  }
+
+  /**
+   * Reads the next value from the given buffer, starting at its current position. Do not use this on untrusted
+   * input, see {@link #read(ByteBuffer, Predicate)}.
+   *
+   * @throws java.nio.BufferUnderflowException If the buffer ends before the value does.
+   */
+  @Nullable
+  public static <T> T read(@Nonnull final ByteBuffer buffer) throws IOException {
+    return read(buffer, ANY_CLASS);
+  }
+
+  /**
+   * Reads the next value from the given buffer, starting at its current position, deserializing only classes
+   * accepted by the given filter.
+   *
+   * @throws java.nio.BufferUnderflowException If the buffer ends before the value does.
+   * @throws InvalidClassException             If the value contains a class rejected by the filter.
+   */
+  @Nullable
+  public static <T> T read(
+    @Nonnull final ByteBuffer buffer,
+    @Nonnull final Predicate<? super Class<?>> classFilter
+  ) throws IOException {
+    Objects.requireNonNull(classFilter, "'classFilter' must not be null");
+    return readValue(new BufferInput(buffer, classFilter));
+  }
+
+  /**
+   * Decodes a value from the given byte array. Do not use this on untrusted input, see
+   * {@link #fromByteArray(byte[], Predicate)}.
+   */
+  @Nullable
+  public static <T> T fromByteArray(@Nonnull final byte[] bytes) throws IOException {
+    return read(ByteBuffer.wrap(bytes));
+  }
+
+  /**
+   * Decodes a value from the given byte array, deserializing only classes accepted by the given filter.
+   *
+   * @throws InvalidClassException If the value contains a class rejected by the filter.
+   */
+  @Nullable
+  public static <T> T fromByteArray(
+    @Nonnull final byte[] bytes,
+    @Nonnull final Predicate<? super Class<?>> classFilter
+  ) throws IOException {
+    return read(ByteBuffer.wrap(bytes), classFilter);
+  }
+
+  private abstract static class Output {
+
+    /**
+     * @return A buffer with at least the given number of bytes remaining, n must not exceed BUFFER_SIZE.
+     */
+    abstract ByteBuffer ensure(@Nonnegative final int n) throws IOException;
+  }
+
+  private static final class StreamOutput extends Output {
+
+    private final OutputStream outputStream;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    StreamOutput(@Nonnull final OutputStream outputStream) {
+      this.outputStream = outputStream;
+    }
+
+    @Override
+    ByteBuffer ensure(@Nonnegative final int n) throws IOException {
+      if (buffer.remaining() < n) {
+        outputStream.write(buffer.array(), 0, buffer.position());
+        buffer.clear();
+      }
+      return buffer;
+    }
+
+    void flush() throws IOException {
+      outputStream.write(buffer.array(), 0, buffer.position());
+      buffer.clear();
+      outputStream.flush();
+    }
+  }
+
+  private static final class BufferOutput extends Output {
+
+    private final ByteBuffer buffer;
+
+    BufferOutput(@Nonnull final ByteBuffer buffer) {
+      this.buffer = buffer;
+    }
+
+    @Override
+    ByteBuffer ensure(@Nonnegative final int n) {
+      return buffer;
+    }
+  }
+
+  private abstract static class Input {
+
+    final Predicate<? super Class<?>> classFilter;
+
+    Input(@Nonnull final Predicate<? super Class<?>> classFilter) {
+      this.classFilter = classFilter;
+    }
+
+    /**
+     * @return A buffer with at least the given number of bytes remaining, n must not exceed BUFFER_SIZE.
+     */
+    abstract ByteBuffer require(@Nonnegative final int n) throws IOException;
+
+    /**
+     * @return The number of elements to allocate up front for an array of the given length whose elements occupy
+     * at least the given number of bytes each.
+     */
+    abstract int capacity(@Nonnegative final int length, @Nonnegative final int elementSize);
+  }
+
+  private static final class StreamInput extends Input {
+
+    private final InputStream inputStream;
+    private final ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+
+    StreamInput(@Nonnull final InputStream inputStream, @Nonnull final Predicate<? super Class<?>> classFilter) {
+      super(classFilter);
+      this.inputStream = inputStream;
+      buffer.limit(0);
+    }
+
+    @Override
+    int capacity(@Nonnegative final int length, @Nonnegative final int elementSize) {
+      return Math.min(length, INITIAL_CAPACITY);
+    }
+
+    @Override
+    ByteBuffer require(@Nonnegative final int n) throws IOException {
+      if (buffer.remaining() < n) {
+        buffer.compact();
+        while (buffer.position() < n) {
+          final int read = inputStream.read(buffer.array(), buffer.position(), n - buffer.position());
+          if (read < 0) {
+            throw new EOFException();
+          }
+          buffer.position(buffer.position() + read);
+        }
+        buffer.flip();
+      }
+      return buffer;
+    }
+  }
+
+  private static final class BufferInput extends Input {
+
+    private final ByteBuffer buffer;
+
+    BufferInput(@Nonnull final ByteBuffer buffer, @Nonnull final Predicate<? super Class<?>> classFilter) {
+      super(classFilter);
+      this.buffer = buffer;
+    }
+
+    @Override
+    int capacity(@Nonnegative final int length, @Nonnegative final int elementSize) {
+      if ((long) length * elementSize > buffer.remaining()) {
+        throw new BufferUnderflowException();
+      }
+      return length;
+    }
+
+    @Override
+    ByteBuffer require(@Nonnegative final int n) {
+      return buffer;
+    }
+  }
+
+  private static void writeLength(final int length, final Output output) throws IOException {
+    final ByteBuffer buffer = output.ensure(5);
+    int value = length;
+    while ((value & ~0x7F) != 0) {
+      buffer.put((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.put((byte) value);
+  }
+
+  private static int readLength(final Input input) throws IOException {
+    int value = 0;
+    for (int shift = 0; shift < 35; shift += 7) {
+      final byte b = input.require(1).get();
+      if (shift == 28 && (b & 0xF8) != 0) {
+        // a fifth byte may only carry the bits 28 to 30, anything else would not fit into a non-negative int
+        break;
+      }
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new StreamCorruptedException("malformed length");
+  }
+
+  private static void writeBytes(final byte[] bytes, final Output output) throws IOException {
+    writeLength(bytes.length, output);
+    int offset = 0;
+    while (offset < bytes.length) {
+      final int n = Math.min(BUFFER_SIZE, bytes.length - offset);
+      output.ensure(n).put(bytes, offset, n);
+      offset += n;
+    }
+  }
+
+  /**
+   * The capacity to grow an array being read to once it is full, given its current capacity and its final length.
+   */
+  private static int grow(@Nonnegative final int capacity, @Nonnegative final int length) {
+    return (int) Math.min(length, Math.max(INITIAL_CAPACITY, capacity * 2L));
+  }
+
+  private static byte[] readBytes(final Input input) throws IOException {
+    final int length = readLength(input);
+    byte[] bytes = new byte[input.capacity(length, 1)];
+    int offset = 0;
+    while (offset < length) {
+      if (offset == bytes.length) {
+        bytes = Arrays.copyOf(bytes, grow(bytes.length, length));
+      }
+      final int n = Math.min(BUFFER_SIZE, bytes.length - offset);
+      input.require(n).get(bytes, offset, n);
+      offset += n;
+    }
+    return bytes;
+  }
+
+  private static void writeString(final String string, final Output output) throws IOException {
+    writeBytes(string.getBytes(StandardCharsets.UTF_8), output);
+  }
+
+  private static String readString(final Input input) throws IOException {
+    return new String(readBytes(input), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Whether the given string can be encoded in UTF-8 without loss, i.e. whether all of its surrogates are paired.
+   */
+  private static boolean isWellFormed(@Nonnull final String string) {
+    final int length = string.length();
+    int i = 0;
+    while (i < length) {
+      final char c = string.charAt(i);
+      if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(string.charAt(i + 1))) {
+        i += 2;
+      } else if (Character.isSurrogate(c)) {
+        return false;
+      } else {
+        i += 1;
+      }
+    }
+    return true;
+  }
+
+  private static void writeChars(@Nonnull final String string, @Nonnull final Output output) throws IOException {
+    writeLength(string.length(), output);
+    int offset = 0;
+    while (offset < string.length()) {
+      final int n = Math.min(BUFFER_SIZE / 2, string.length() - offset);
+      final ByteBuffer buffer = output.ensure(n * 2);
+      buffer.asCharBuffer().put(string, offset, offset + n);
+      buffer.position(buffer.position() + n * 2);
+      offset += n;
+    }
+  }
+
+  @Nonnull
+  private static String readChars(@Nonnull final Input input) throws IOException {
+    final int length = readLength(input);
+    char[] array = new char[input.capacity(length, 2)];
+    int offset = 0;
+    while (offset < length) {
+      if (offset == array.length) {
+        array = Arrays.copyOf(array, grow(array.length, length));
+      }
+      final int n = Math.min(BUFFER_SIZE / 2, array.length - offset);
+      final ByteBuffer buffer = input.require(n * 2);
+      buffer.asCharBuffer().get(array, offset, n);
+      buffer.position(buffer.position() + n * 2);
+      offset += n;
+    }
+    return new String(array);
+  }
+
+  private static void writeTag(final byte tag, final Output output) throws IOException {
+    output.ensure(1).put(tag);
+  }
+
+  private static void writeValue(@Nullable final Object value, @Nonnull final Output output) throws IOException {
+    if (value == null) {
+      writeTag(TAG_NULL, output);
+    } else if (value instanceof Boolean) {
+      writeTag((Boolean) value ? TAG_TRUE : TAG_FALSE, output);
+    } else if (value instanceof Integer) {
+      output.ensure(5).put(TAG_INT).putInt((Integer) value);
+    } else if (value instanceof Long) {
+      output.ensure(9).put(TAG_LONG).putLong((Long) value);
+    } else if (value instanceof Double) {
+      output.ensure(9).put(TAG_DOUBLE).putDouble((Double) value);
+    } else if (value instanceof String) {
+      final String string = (String) value;
+      if (isWellFormed(string)) {
+        writeTag(TAG_STRING, output);
+        writeString(string, output);
+      } else {
+        writeTag(TAG_UTF16_STRING, output);
+        writeChars(string, output);
+      }
+    } else if (value instanceof UUID) {
+      final UUID uuid = (UUID) value;
+      output.ensure(17).put(TAG_UUID).putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+    } else if (value instanceof Seq) {
+      writeSeq((Seq<?>) value, output);
+    } else if (value instanceof Set) {
+      writeTag(TAG_SET, output);
+      writeSeq(((Set<?>) value).toSeq(), output);
+    } else if (value instanceof ArrayMap) {
+      final ArrayMap<?, ?> arrayMap = (ArrayMap<?, ?>) value;
+      writeTag(TAG_ARRAY_MAP, output);
+      writeSeq(arrayMap.keys(), output);
+      writeSeq(arrayMap.values(), output);
+    } else if (value instanceof Pair) {
+      final Pair<?, ?> pair = (Pair<?, ?>) value;
+      writeTag(TAG_PAIR, output);
+      writeValue(pair.getFirst(), output);
+      writeValue(pair.getSecond(), output);
+    } else if (value instanceof Triple) {
+      final Triple<?, ?, ?> triple = (Triple<?, ?, ?>) value;
+      writeTag(TAG_TRIPLE, output);
+      writeValue(triple.getFirst(), output);
+      writeValue(triple.getSecond(), output);
+      writeValue(triple.getThird(), output);
+    } else if (value instanceof Quadruple) {
+      final Quadruple<?, ?, ?, ?> quadruple = (Quadruple<?, ?, ?, ?>) value;
+      writeTag(TAG_QUADRUPLE, output);
+      writeValue(quadruple.getFirst(), output);
+      writeValue(quadruple.getSecond(), output);
+      writeValue(quadruple.getThird(), output);
+      writeValue(quadruple.getFourth(), output);
+    } else {
+      final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+      try (final ObjectOutputStream objectOutputStream = new ObjectOutputStream(bytes)) {
+        objectOutputStream.writeObject(value);
+      }
+      writeTag(TAG_SERIALIZED, output);
+      writeBytes(bytes.toByteArray(), output);
+    }
+  }
+
+  /**
+   * @return The tag of the specialized encoding for the elements of the given seq, or TAG_SEQ if there is none.
+   */
+  private static byte seqTag(@Nonnull final Seq<?> seq) {
+    if (seq instanceof IntSeq.Boxed) {
+      return TAG_INT_SEQ;
+    }
+    if (seq instanceof LongSeq.Boxed) {
+      return TAG_LONG_SEQ;
+    }
+    if (seq instanceof DoubleSeq.Boxed) {
+      return TAG_DOUBLE_SEQ;
+    }
+    final int len = seq.length();
+    if (len == 0) {
+      return TAG_SEQ;
+    }
+    final Object head = seq.get(0);
+    final Class<?> clazz = head == null ? null : head.getClass();
+    if (clazz != Integer.class && clazz != Long.class && clazz != Double.class && clazz != String.class) {
+      return TAG_SEQ;
+    }
+    for (int i = 1; i < len; i += 1) {
+      final Object element = seq.get(i);
+      if (element == null || element.getClass() != clazz) {
+        return TAG_SEQ;
+      }
+    }
+    if (clazz == String.class) {
+      for (int i = 0; i < len; i += 1) {
+        if (!isWellFormed((String) seq.get(i))) {
+          return TAG_SEQ;
+        }
+      }
+    }
+    if (clazz == Integer.class) {
+      return TAG_INT_SEQ;
+    }
+    if (clazz == Long.class) {
+      return TAG_LONG_SEQ;
+    }
+    return clazz == Double.class ? TAG_DOUBLE_SEQ : TAG_STRING_SEQ;
+  }
+
+  private static void writeSeq(@Nonnull final Seq<?> seq, @Nonnull final Output output) throws IOException {
+    final byte tag = seqTag(seq);
+    final int len = seq.length();
+    writeTag(tag, output);
+    writeLength(len, output);
+    switch (tag) {
+      case TAG_INT_SEQ:
+        if (seq instanceof IntSeq.Boxed) {
+          writeInts(((IntSeq.Boxed) seq).source.backingArray, output);
+          break;
+        }
+        for (int i = 0; i < len; i += 1) {
+          output.ensure(4).putInt((Integer) seq.get(i));
+        }
+        break;
+      case TAG_LONG_SEQ:
+        for (int i = 0; i < len; i += 1) {
+          output.ensure(8).putLong((Long) seq.get(i));
+        }
+        break;
+      case TAG_DOUBLE_SEQ:
+        for (int i = 0; i < len; i += 1) {
+          output.ensure(8).putDouble((Double) seq.get(i));
+        }
+        break;
+      case TAG_STRING_SEQ:
+        for (int i = 0; i < len; i += 1) {
+          writeString((String) seq.get(i), output);
+        }
+        break;
+      default:
+        for (int i = 0; i < len; i += 1) {
+          writeValue(seq.get(i), output);
+        }
+        break;
+    }
+  }
+
+  private static void writeInts(@Nonnull final int[] array, @Nonnull final Output output) throws IOException {
+    int offset = 0;
+    while (offset < array.length) {
+      final int n = Math.min(BUFFER_SIZE / 4, array.length - offset);
+      final ByteBuffer buffer = output.ensure(n * 4);
+      buffer.asIntBuffer().put(array, offset, n);
+      buffer.position(buffer.position() + n * 4);
+      offset += n;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nullable
+  private static <T> T readValue(@Nonnull final Input input) throws IOException {
+    return (T) readValue(input.require(1).get(), input);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  @Nullable
+  private static Object readValue(final byte tag, @Nonnull final Input input) throws IOException {
+    switch (tag) {
+      case TAG_NULL:
+        return null;
+      case TAG_TRUE:
+        return true;
+      case TAG_FALSE:
+        return false;
+      case TAG_INT:
+        return input.require(4).getInt();
+      case TAG_LONG:
+        return input.require(8).getLong();
+      case TAG_DOUBLE:
+        return input.require(8).getDouble();
+      case TAG_STRING:
+        return readString(input);
+      case TAG_UTF16_STRING:
+        return readChars(input);
+      case TAG_UUID: {
+        final ByteBuffer buffer = input.require(16);
+        return new UUID(buffer.getLong(), buffer.getLong());
+      }
+      case TAG_SEQ:
+      case TAG_STRING_SEQ: {
+        final Object[] array = readArray(tag, input);
+        return array.length == 0 ? Seq.empty() : new SeqSimple<>(array);
+      }
+      case TAG_INT_SEQ:
+        return readInts(input).boxed();
+      case TAG_LONG_SEQ:
+        return readLongs(input).boxed();
+      case TAG_DOUBLE_SEQ:
+        return readDoubles(input).boxed();
+      case TAG_SET: {
+        final Object[] array = readArray(input.require(1).get(), input);
+        requireStrictlyAscending(array, true);
+        return array.length == 0 ? Set.empty() : Set.ofSeqInternal(new SeqSimpleSorted(array));
+      }
+      case TAG_ARRAY_MAP: {
+        final Object[] keys = readArray(input.require(1).get(), input);
+        final Object[] values = readArray(input.require(1).get(), input);
+        if (keys.length != values.length) {
+          throw new StreamCorruptedException("array map with " + keys.length + " keys but " + values.length + " values");
+        }
+        requireStrictlyAscending(keys, false);
+        return new ArrayMap(keys, values);
+      }
+      case TAG_PAIR:
+        return Pair.of(readValue(input), readValue(input));
+      case TAG_TRIPLE:
+        return Triple.of(readValue(input), readValue(input), readValue(input));
+      case TAG_QUADRUPLE:
+        return Quadruple.of(readValue(input), readValue(input), readValue(input), readValue(input));
+      case TAG_SERIALIZED:
+        try (final ObjectInputStream objectInputStream = new FilteringObjectInputStream(readBytes(input), input.classFilter)) {
+          return objectInputStream.readObject();
+        } catch (final ClassNotFoundException exc) {
+          throw new InvalidClassException(exc.getMessage());
+        }
+      default:
+        throw new StreamCorruptedException("unknown tag " + tag);
+    }
+  }
+
+  /**
+   * Sets and ArrayMaps are read back without sorting them, so a corrupt stream must not produce elements or keys
+   * which are not Comparable, not sorted or not distinct, which would break lookups later on.
+   */
+  private static void requireStrictlyAscending(
+    @Nonnull final Object[] array,
+    final boolean nullAllowed
+  ) throws StreamCorruptedException {
+    for (int i = 0; i < array.length; i += 1) {
+      final Object element = array[i];
+      if (element == null ? !nullAllowed : !(element instanceof Comparable)) {
+        throw new StreamCorruptedException("not a comparable element at " + i);
+      }
+      try {
+        if (i > 0 && Seq.NULL_ACCEPTING_COMPARATOR.compare(array[i - 1], element) >= 0) {
+          throw new StreamCorruptedException("elements not in strictly ascending order at " + i);
+        }
+      } catch (final ClassCastException exc) {
+        throw new StreamCorruptedException("elements not comparable at " + i);
+      }
+    }
+  }
+
+  /**
+   * Reads the payload of a seq with the given tag into an array of boxed elements.
+   */
+  @Nonnull
+  private static Object[] readArray(final byte tag, @Nonnull final Input input) throws IOException {
+    switch (tag) {
+      case TAG_INT_SEQ: {
+        final int[] ints = readInts(input).backingArray;
+        final Object[] array = new Object[ints.length];
+        for (int i = 0; i < ints.length; i += 1) {
+          array[i] = ints[i];
+        }
+        return array;
+      }
+      case TAG_LONG_SEQ: {
+        final long[] longs = readLongs(input).backingArray;
+        final Object[] array = new Object[longs.length];
+        for (int i = 0; i < longs.length; i += 1) {
+          array[i] = longs[i];
+        }
+        return array;
+      }
+      case TAG_DOUBLE_SEQ: {
+        final double[] doubles = readDoubles(input).backingArray;
+        final Object[] array = new Object[doubles.length];
+        for (int i = 0; i < doubles.length; i += 1) {
+          array[i] = doubles[i];
+        }
+        return array;
+      }
+      case TAG_STRING_SEQ: {
+        final int length = readLength(input);
+        Object[] array = new Object[input.capacity(length, 1)];
+        for (int i = 0; i < length; i += 1) {
+          if (i == array.length) {
+            array = Arrays.copyOf(array, grow(array.length, length));
+          }
+          array[i] = readString(input);
+        }
+        return array;
+      }
+      case TAG_SEQ: {
+        final int length = readLength(input);
+        Object[] array = new Object[input.capacity(length, 1)];
+        for (int i = 0; i < length; i += 1) {
+          if (i == array.length) {
+            array = Arrays.copyOf(array, grow(array.length, length));
+          }
+          array[i] = readValue(input);
+        }
+        return array;
+      }
+      default:
+        throw new StreamCorruptedException("expected a seq but got tag " + tag);
+    }
+  }
+
+  @Nonnull
+  private static IntSeq readInts(@Nonnull final Input input) throws IOException {
+    final int length = readLength(input);
+    int[] array = new int[input.capacity(length, 4)];
+    int offset = 0;
+    while (offset < length) {
+      if (offset == array.length) {
+        array = Arrays.copyOf(array, grow(array.length, length));
+      }
+      final int n = Math.min(BUFFER_SIZE / 4, array.length - offset);
+      final ByteBuffer buffer = input.require(n * 4);
+      buffer.asIntBuffer().get(array, offset, n);
+      buffer.position(buffer.position() + n * 4);
+      offset += n;
+    }
+    return new IntSeq(array);
+  }
+
+  @Nonnull
+  private static LongSeq readLongs(@Nonnull final Input input) throws IOException {
+    final int length = readLength(input);
+    long[] array = new long[input.capacity(length, 8)];
+    int offset = 0;
+    while (offset < length) {
+      if (offset == array.length) {
+        array = Arrays.copyOf(array, grow(array.length, length));
+      }
+      final int n = Math.min(BUFFER_SIZE / 8, array.length - offset);
+      final ByteBuffer buffer = input.require(n * 8);
+      buffer.asLongBuffer().get(array, offset, n);
+      buffer.position(buffer.position() + n * 8);
+      offset += n;
+    }
+    return new LongSeq(array);
+  }
+
+  @Nonnull
+  private static DoubleSeq readDoubles(@Nonnull final Input input) throws IOException {
+    final int length = readLength(input);
+    double[] array = new double[input.capacity(length, 8)];
+    int offset = 0;
+    while (offset < length) {
+      if (offset == array.length) {
+        array = Arrays.copyOf(array, grow(array.length, length));
+      }
+      final int n = Math.min(BUFFER_SIZE / 8, array.length - offset);
+      final ByteBuffer buffer = input.require(n * 8);
+      buffer.asDoubleBuffer().get(array, offset, n);
+      buffer.position(buffer.position() + n * 8);
+      offset += n;
+    }
+    return new DoubleSeq(array);
+  }
+
+  /**
+   * An ObjectInputStream which rejects classes not accepted by the given filter before instantiating them.
+   */
+  private static final class FilteringObjectInputStream extends ObjectInputStream {
+
+    private final Predicate<? super Class<?>> classFilter;
+
+    FilteringObjectInputStream(
+      @Nonnull final byte[] bytes,
+      @Nonnull final Predicate<? super Class<?>> classFilter
+    ) throws IOException {
+      super(new ByteArrayInputStream(bytes));
+      this.classFilter = classFilter;
+    }
+
+    @Override
+    protected Class<?> resolveClass(final ObjectStreamClass desc) throws IOException, ClassNotFoundException {
+      return check(super.resolveClass(desc));
+    }
+
+    @Override
+    protected Class<?> resolveProxyClass(final String[] interfaces) throws IOException, ClassNotFoundException {
+      final Class<?> proxyClass = super.resolveProxyClass(interfaces);
+      for (final Class<?> cls : proxyClass.getInterfaces()) {
+        check(cls);
+      }
+      return proxyClass;
+    }
+
+    /**
+     * Arrays are checked by their element type, arrays of primitives are always accepted.
+     */
+    private Class<?> check(final Class<?> cls) throws InvalidClassException {
+      Class<?> elementType = cls;
+      while (elementType.isArray()) {
+        elementType = elementType.getComponentType();
+      }
+      if (!elementType.isPrimitive() && !classFilter.test(elementType)) {
+        throw new InvalidClassException(cls.getName(), "rejected by the class filter");
+      }
+      return cls;
+    }
+  }
+}
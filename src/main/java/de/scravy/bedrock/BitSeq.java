@@ -0,0 +1,424 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.IntPredicate;
+
+/**
+ * An immutable sequence of booleans, packed into the bits of a long[] array.
+ * <p>
+ * Bulk operations like {@link #and(BitSeq)}, {@link #cardinality()} or {@link Seq#filter(BitSeq)} process 64
+ * elements at a time. A {@link Seq} view can be obtained via {@link #boxed()} without copying any data, and
+ * {@link #ofSeq(Seq)} turns such a view back into the BitSeq it was created from, again without copying.
+ */
+@Immutable
+public final class BitSeq implements Serializable, RandomAccess {
+
+  public static final long serialVersionUID = 4503417710365283L;
+
+  private static final BitSeq EMPTY = new BitSeq(new long[0], 0);
+
+  /**
+   * Bits at positions beyond length are always zero.
+   */
+  final long[] words;
+  private final int length;
+
+  /**
+   * The number of bits set in the words before every word, calculated on first use by {@link #rank(int)} and
+   * {@link #select(int)}. The array is published only once it is filled; threads racing for it may each calculate
+   * it, which yields the same contents. It is not serialized and thus calculated anew after deserialization.
+   */
+  private transient volatile int[] ranks;
+
+  BitSeq(@Nonnull final long[] words, @Nonnegative final int length) {
+    this.words = words;
+    this.length = length;
+  }
+
+  static int wordCount(@Nonnegative final int length) {
+    return (length + 63) >>> 6;
+  }
+
+  public boolean get(@Nonnegative final int index) {
+    if (index < 0 || index >= length) {
+      throw new IndexOutOfBoundsException();
+    }
+    return (words[index >>> 6] & (1L << index)) != 0;
+  }
+
+  @Nonnegative
+  public int length() {
+    return length;
+  }
+
+  /**
+   * Exactly the same as length().
+   */
+  @Nonnegative
+  public int size() {
+    return length;
+  }
+
+  public boolean isEmpty() {
+    return length == 0;
+  }
+
+  public boolean nonEmpty() {
+    return length > 0;
+  }
+
+  /**
+   * The number of bits set, i.e. the number of elements which are true.
+   */
+  @Nonnegative
+  public int cardinality() {
+    int c = 0;
+    for (final long word : words) {
+      c += Long.bitCount(word);
+    }
+    return c;
+  }
+
+  public boolean any() {
+    for (final long word : words) {
+      if (word != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  public boolean all() {
+    return cardinality() == length;
+  }
+
+  /**
+   * Returns the index of the first bit set at or after the given index, or -1 if there is no such bit.
+   */
+  public int nextSetBit(@Nonnegative final int fromIndex) {
+    if (fromIndex < 0) {
+      throw new IndexOutOfBoundsException();
+    }
+    int w = fromIndex >>> 6;
+    if (w >= words.length) {
+      return -1;
+    }
+    long word = words[w] & (-1L << fromIndex);
+    while (word == 0) {
+      w += 1;
+      if (w == words.length) {
+        return -1;
+      }
+      word = words[w];
+    }
+    return (w << 6) + Long.numberOfTrailingZeros(word);
+  }
+
+  /**
+   * Returns the index of the first bit not set at or after the given index, or -1 if there is no such bit.
+   */
+  public int nextClearBit(@Nonnegative final int fromIndex) {
+    if (fromIndex < 0) {
+      throw new IndexOutOfBoundsException();
+    }
+    int w = fromIndex >>> 6;
+    if (w >= words.length) {
+      return -1;
+    }
+    long word = ~words[w] & (-1L << fromIndex);
+    while (word == 0) {
+      w += 1;
+      if (w == words.length) {
+        return -1;
+      }
+      word = ~words[w];
+    }
+    final int index = (w << 6) + Long.numberOfTrailingZeros(word);
+    return index < length ? index : -1;
+  }
+
+  @Nonnull
+  private int[] ranks() {
+    int[] result = ranks;
+    if (result == null) {
+      result = new int[words.length];
+      int c = 0;
+      for (int i = 0; i < words.length; i += 1) {
+        result[i] = c;
+        c += Long.bitCount(words[i]);
+      }
+      ranks = result;
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of bits set before the given index in O(1), using a table of the number of bits set per
+   * word which is calculated on first use.
+   *
+   * @throws IndexOutOfBoundsException If the index is negative or greater than length().
+   */
+  @Nonnegative
+  public int rank(@Nonnegative final int index) {
+    if (index < 0 || index > length) {
+      throw new IndexOutOfBoundsException();
+    }
+    final int w = index >>> 6;
+    if (w == words.length) {
+      return cardinality();
+    }
+    return ranks()[w] + Long.bitCount(words[w] & ((1L << index) - 1));
+  }
+
+  /**
+   * Returns the index of the n-th bit set, counting from zero, in O(log n), using the same table as
+   * {@link #rank(int)}.
+   *
+   * @throws NoSuchElementException If less than n + 1 bits are set.
+   */
+  @Nonnegative
+  public int select(@Nonnegative final int n) {
+    final int[] ranks = ranks();
+    if (n < 0 || words.length == 0 || n >= ranks[words.length - 1] + Long.bitCount(words[words.length - 1])) {
+      throw new NoSuchElementException();
+    }
+    int lo = 0;
+    int hi = words.length - 1;
+    while (lo < hi) {
+      final int mid = (lo + hi + 1) >>> 1;
+      if (ranks[mid] <= n) {
+        lo = mid;
+      } else {
+        hi = mid - 1;
+      }
+    }
+    long word = words[lo];
+    for (int i = ranks[lo]; i < n; i += 1) {
+      word &= word - 1;
+    }
+    return (lo << 6) + Long.numberOfTrailingZeros(word);
+  }
+
+  /**
+   * The indices of all bits set, in ascending order.
+   */
+  @Nonnull
+  public IntSeq setBits() {
+    final int[] array = new int[cardinality()];
+    int c = 0;
+    for (int w = 0; w < words.length; w += 1) {
+      for (long word = words[w]; word != 0; word &= word - 1) {
+        array[c] = (w << 6) + Long.numberOfTrailingZeros(word);
+        c += 1;
+      }
+    }
+    return IntSeq.ofArrayZeroCopyInternal(array);
+  }
+
+  /**
+   * Returns the element wise conjunction of this and the given BitSeq. The shorter one is padded with false
+   * values, i.e. the result is as long as the longer one.
+   */
+  @Nonnull
+  public BitSeq and(@Nonnull final BitSeq that) {
+    Objects.requireNonNull(that, "'that' must not be null");
+    final long[] array = new long[Math.max(words.length, that.words.length)];
+    final int common = Math.min(words.length, that.words.length);
+    for (int i = 0; i < common; i += 1) {
+      array[i] = words[i] & that.words[i];
+    }
+    return new BitSeq(array, Math.max(length, that.length));
+  }
+
+  /**
+   * Returns the element wise disjunction of this and the given BitSeq. The shorter one is padded with false
+   * values, i.e. the result is as long as the longer one.
+   */
+  @Nonnull
+  public BitSeq or(@Nonnull final BitSeq that) {
+    Objects.requireNonNull(that, "'that' must not be null");
+    final long[] array = Arrays.copyOf(words, Math.max(words.length, that.words.length));
+    for (int i = 0; i < that.words.length; i += 1) {
+      array[i] |= that.words[i];
+    }
+    return new BitSeq(array, Math.max(length, that.length));
+  }
+
+  /**
+   * Returns the element wise exclusive disjunction of this and the given BitSeq. The shorter one is padded with
+   * false values, i.e. the result is as long as the longer one.
+   */
+  @Nonnull
+  public BitSeq xor(@Nonnull final BitSeq that) {
+    Objects.requireNonNull(that, "'that' must not be null");
+    final long[] array = Arrays.copyOf(words, Math.max(words.length, that.words.length));
+    for (int i = 0; i < that.words.length; i += 1) {
+      array[i] ^= that.words[i];
+    }
+    return new BitSeq(array, Math.max(length, that.length));
+  }
+
+  /**
+   * Returns this BitSeq with all the bits cleared that are set in the given BitSeq. The shorter one is padded with
+   * false values, i.e. the result is as long as the longer one.
+   */
+  @Nonnull
+  public BitSeq andNot(@Nonnull final BitSeq that) {
+    Objects.requireNonNull(that, "'that' must not be null");
+    final long[] array = Arrays.copyOf(words, Math.max(words.length, that.words.length));
+    final int common = Math.min(words.length, that.words.length);
+    for (int i = 0; i < common; i += 1) {
+      array[i] &= ~that.words[i];
+    }
+    return new BitSeq(array, Math.max(length, that.length));
+  }
+
+  /**
+   * Returns the element wise negation of this BitSeq.
+   */
+  @Nonnull
+  public BitSeq not() {
+    final long[] array = new long[words.length];
+    for (int i = 0; i < words.length; i += 1) {
+      array[i] = ~words[i];
+    }
+    clearTail(array, length);
+    return new BitSeq(array, length);
+  }
+
+  private static void clearTail(@Nonnull final long[] words, @Nonnegative final int length) {
+    if ((length & 63) != 0) {
+      words[words.length - 1] &= (1L << length) - 1;
+    }
+  }
+
+  @Nonnull
+  public BitSet toBitSet() {
+    return BitSet.valueOf(words);
+  }
+
+  @Nonnull
+  public boolean[] toArray() {
+    final boolean[] array = new boolean[length];
+    for (int w = 0; w < words.length; w += 1) {
+      for (long word = words[w]; word != 0; word &= word - 1) {
+        array[(w << 6) + Long.numberOfTrailingZeros(word)] = true;
+      }
+    }
+    return array;
+  }
+
+  /**
+   * A view of this BitSeq as a {@link Seq}. No data is copied, elements are boxed when accessed.
+   */
+  @Nonnull
+  public Seq<Boolean> boxed() {
+    if (isEmpty()) {
+      return Seq.empty();
+    }
+    return new Boxed(this);
+  }
+
+  @Override
+  public boolean equals(final Object that) {
+    if (this == that) {
+      return true;
+    }
+    return that instanceof BitSeq && length == ((BitSeq) that).length && Arrays.equals(words, ((BitSeq) that).words);
+  }
+
+  /**
+   * Calculated the same way as {@link Seq#hashCode()}, thus equal to the hash code of {@link #boxed()}.
+   */
+  @Override
+  public int hashCode() {
+    int result = 1;
+    for (int i = 0; i < length; i += 1) {
+      result = 31 * result + Boolean.hashCode(get(i));
+    }
+    return result;
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(toArray());
+  }
+
+  @Nonnull
+  public static BitSeq empty() {
+    return EMPTY;
+  }
+
+  @Nonnull
+  public static BitSeq of(@Nonnull final boolean... es) {
+    return ofArray(es);
+  }
+
+  @Nonnull
+  public static BitSeq ofArray(@Nonnull final boolean[] array) {
+    Objects.requireNonNull(array);
+    return ofGenerator(i -> array[i], array.length);
+  }
+
+  @Nonnull
+  public static BitSeq ofGenerator(@Nonnull final IntPredicate generator, @Nonnegative final int length) {
+    Objects.requireNonNull(generator, "'generator' must not be null");
+    if (length <= 0) {
+      return EMPTY;
+    }
+    final long[] words = new long[wordCount(length)];
+    for (int i = 0; i < length; i += 1) {
+      if (generator.test(i)) {
+        words[i >>> 6] |= 1L << i;
+      }
+    }
+    return new BitSeq(words, length);
+  }
+
+  /**
+   * Creates a BitSeq of the given length from the bits of the given BitSet. Bits at or beyond length are ignored.
+   */
+  @Nonnull
+  public static BitSeq ofBitSet(@Nonnull final BitSet bitSet, @Nonnegative final int length) {
+    Objects.requireNonNull(bitSet, "'bitSet' must not be null");
+    if (length <= 0) {
+      return EMPTY;
+    }
+    final long[] words = Arrays.copyOf(bitSet.toLongArray(), wordCount(length));
+    clearTail(words, length);
+    return new BitSeq(words, length);
+  }
+
+  /**
+   * Creates a BitSeq from the given Seq. If the given Seq is a view obtained via {@link #boxed()} the BitSeq
+   * that backs it is returned and no data is copied.
+   *
+   * @throws NullPointerException If the given Seq contains null values.
+   */
+  @Nonnull
+  public static BitSeq ofSeq(@Nonnull final Seq<Boolean> seq) {
+    Objects.requireNonNull(seq, "'seq' must not be null");
+    if (seq instanceof Boxed) {
+      return ((Boxed) seq).source;
+    }
+    return ofGenerator(seq::get, seq.length());
+  }
+
+  static final class Boxed extends SeqGenerated<Boolean> {
+
+    final BitSeq source;
+
+    Boxed(@Nonnull final BitSeq source) {
+      super(source::get, source.length());
+      this.source = source;
+    }
+  }
+}
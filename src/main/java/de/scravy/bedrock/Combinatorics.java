@@ -0,0 +1,135 @@
+package de.scravy.bedrock;
+
+import lombok.experimental.UtilityClass;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+
+/**
+ * Index arithmetic for enumerating permutations and combinations of a {@link Seq} in lexicographic order without
+ * materializing them, see {@link Seq#permutationsSpliterator()} and {@link Seq#combinations(int)}.
+ */
+@UtilityClass
+class Combinatorics {
+
+  /**
+   * 20! is the largest factorial that fits into a long.
+   */
+  static final int MAXIMUM_FACTORIAL = 20;
+
+  /**
+   * Returns n!, or Long.MAX_VALUE if n! does not fit into a long.
+   */
+  static long factorial(@Nonnegative final int n) {
+    if (n > MAXIMUM_FACTORIAL) {
+      return Long.MAX_VALUE;
+    }
+    long result = 1;
+    for (int i = 2; i <= n; i += 1) {
+      result *= i;
+    }
+    return result;
+  }
+
+  /**
+   * Rearranges the given indices into the lexicographically next permutation.
+   *
+   * @return false if the indices already were the last permutation, in which case they are left unchanged.
+   */
+  static boolean nextPermutation(@Nonnull final int[] indices) {
+    int i = indices.length - 2;
+    while (i >= 0 && indices[i] >= indices[i + 1]) {
+      i -= 1;
+    }
+    if (i < 0) {
+      return false;
+    }
+    int j = indices.length - 1;
+    while (indices[j] <= indices[i]) {
+      j -= 1;
+    }
+    Control.swap(indices, i, j);
+    for (int l = i + 1, r = indices.length - 1; l < r; l += 1, r -= 1) {
+      Control.swap(indices, l, r);
+    }
+    return true;
+  }
+
+  /**
+   * Fills the given array with the permutation of the indices 0 to indices.length - 1 which has the given
+   * lexicographic rank, using the factorial number system. Leading positions whose factorial does not fit into a
+   * long always get the smallest remaining index.
+   */
+  static void unrankPermutation(@Nonnegative final long rank, @Nonnull final int[] indices) {
+    final int n = indices.length;
+    for (int i = 0; i < n; i += 1) {
+      indices[i] = i;
+    }
+    long remaining = rank;
+    for (int i = 0; i < n - 1; i += 1) {
+      final long factorial = factorial(n - 1 - i);
+      final int digit = (int) (remaining / factorial);
+      remaining -= digit * factorial;
+      // move the digit-th remaining index to position i, shifting the ones in between to the right
+      final int chosen = indices[i + digit];
+      System.arraycopy(indices, i, indices, i + 1, digit);
+      indices[i] = chosen;
+    }
+  }
+
+  /**
+   * Returns the binomial coefficient n choose k, or Long.MAX_VALUE if it does not fit into a long.
+   */
+  static long binomial(@Nonnegative final int n, final int k) {
+    if (k < 0 || k > n) {
+      return 0;
+    }
+    final int r = Math.min(k, n - k);
+    long result = 1;
+    for (int i = 1; i <= r; i += 1) {
+      // result * factor / i is (n - r + i) choose i and thus integral, hence i / gcd divides factor
+      final long gcd = gcd(result, i);
+      final long a = result / gcd;
+      final long b = (n - r + i) / (i / gcd);
+      if (a > Long.MAX_VALUE / b) {
+        return Long.MAX_VALUE;
+      }
+      result = a * b;
+    }
+    return result;
+  }
+
+  private static long gcd(final long a, final long b) {
+    long x = a;
+    long y = b;
+    while (y != 0) {
+      final long t = x % y;
+      x = y;
+      y = t;
+    }
+    return x;
+  }
+
+  /**
+   * Fills the given array with the ascending indices of the k-combination of the indices 0 to n - 1 which has the
+   * given lexicographic rank, k being the length of the array. The rank must be less than n choose k.
+   */
+  static void unrankCombination(@Nonnegative final long rank, @Nonnegative final int n, @Nonnull final int[] indices) {
+    final int k = indices.length;
+    long remaining = rank;
+    int candidate = 0;
+    for (int p = 0; p < k; p += 1) {
+      final int r = k - p - 1;
+      // the number of combinations which continue with the candidate index at position p
+      long count = binomial(n - candidate - 1, r);
+      while (remaining >= count) {
+        remaining -= count;
+        final int m = n - candidate - 1;
+        count = count * (m - r) / m;
+        candidate += 1;
+      }
+      indices[p] = candidate;
+      candidate += 1;
+    }
+  }
+}
@@ -0,0 +1,382 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.*;
+import java.util.stream.DoubleStream;
+
+/**
+ * An immutable sequence of primitive doubles.
+ * <p>
+ * A DoubleSeq is backed by a double[] array, none of its operations box the elements. A {@link Seq} view can be
+ * obtained via {@link #boxed()} without copying any data, and {@link #ofSeq(Seq)} turns such a view back
+ * into the DoubleSeq it was created from, again without copying. Views obtained via {@link Seq#wrap(double[])} share the
+ * array of the caller, which may still change, so {@link #ofSeq(Seq)} copies them.
+ */
+@Immutable
+public final class DoubleSeq implements Serializable, RandomAccess {
+
+  public static final long serialVersionUID = 5906613201745821L;
+
+  private static final DoubleSeq EMPTY = new DoubleSeq(new double[0]);
+
+  final double[] backingArray;
+
+  DoubleSeq(@Nonnull final double[] array) {
+    this.backingArray = array;
+  }
+
+  public double get(@Nonnegative final int index) {
+    return backingArray[index];
+  }
+
+  @Nonnegative
+  public int length() {
+    return backingArray.length;
+  }
+
+  /**
+   * Exactly the same as length().
+   */
+  @Nonnegative
+  public int size() {
+    return backingArray.length;
+  }
+
+  public boolean isEmpty() {
+    return backingArray.length == 0;
+  }
+
+  public boolean nonEmpty() {
+    return backingArray.length > 0;
+  }
+
+  public double head() {
+    return get(0);
+  }
+
+  public double last() {
+    return get(backingArray.length - 1);
+  }
+
+  @Nonnull
+  public DoubleSeq map(@Nonnull final DoubleUnaryOperator function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    final double[] array = new double[backingArray.length];
+    for (int i = 0; i < array.length; i += 1) {
+      array[i] = function.applyAsDouble(backingArray[i]);
+    }
+    return new DoubleSeq(array);
+  }
+
+  @Nonnull
+  public <E> Seq<E> mapToObj(@Nonnull final DoubleFunction<? extends E> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    if (isEmpty()) {
+      return Seq.empty();
+    }
+    final Object[] array = new Object[backingArray.length];
+    for (int i = 0; i < array.length; i += 1) {
+      array[i] = function.apply(backingArray[i]);
+    }
+    return Seq.ofArrayZeroCopyInternal(array);
+  }
+
+  @Nonnull
+  public DoubleSeq filter(@Nonnull final DoublePredicate predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    final double[] array = new double[backingArray.length];
+    int c = 0;
+    for (final double e : backingArray) {
+      if (predicate.test(e)) {
+        array[c++] = e;
+      }
+    }
+    return ofArrayZeroCopyInternal(c == array.length ? array : Arrays.copyOf(array, c));
+  }
+
+  public double foldl(@Nonnull final DoubleBinaryOperator function, final double startValue) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    double acc = startValue;
+    for (final double e : backingArray) {
+      acc = function.applyAsDouble(acc, e);
+    }
+    return acc;
+  }
+
+  public double foldr(@Nonnull final DoubleBinaryOperator function, final double startValue) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    double acc = startValue;
+    for (int i = backingArray.length - 1; i >= 0; i -= 1) {
+      acc = function.applyAsDouble(backingArray[i], acc);
+    }
+    return acc;
+  }
+
+  public double sum() {
+    double sum = 0;
+    for (final double e : backingArray) {
+      sum += e;
+    }
+    return sum;
+  }
+
+  public double product() {
+    double product = 1;
+    for (final double e : backingArray) {
+      product *= e;
+    }
+    return product;
+  }
+
+  public double minimum() throws NoSuchElementException {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    double minimum = backingArray[0];
+    for (final double e : backingArray) {
+      minimum = Double.compare(e, minimum) < 0 ? e : minimum;
+    }
+    return minimum;
+  }
+
+  public double maximum() throws NoSuchElementException {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    double maximum = backingArray[0];
+    for (final double e : backingArray) {
+      maximum = Double.compare(e, maximum) > 0 ? e : maximum;
+    }
+    return maximum;
+  }
+
+  @Nonnegative
+  public int count(final double e) {
+    int c = 0;
+    for (final double el : backingArray) {
+      if (Double.compare(el, e) == 0) {
+        c += 1;
+      }
+    }
+    return c;
+  }
+
+  @Nonnegative
+  public int countBy(@Nonnull final DoublePredicate predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    int c = 0;
+    for (final double el : backingArray) {
+      if (predicate.test(el)) {
+        c += 1;
+      }
+    }
+    return c;
+  }
+
+  public int find(final double e) {
+    for (int i = 0; i < backingArray.length; i += 1) {
+      if (Double.compare(backingArray[i], e) == 0) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public boolean contains(final double e) {
+    return find(e) > -1;
+  }
+
+  /**
+   * Searches for the given value using binary search. This DoubleSeq must be sorted, see {@link #sorted()}.
+   *
+   * @return The index of the value, or (-(insertion point) - 1) if it is not contained in this sequence.
+   * @see Arrays#binarySearch(double[], double)
+   */
+  public int binarySearch(final double e) {
+    return Arrays.binarySearch(backingArray, e);
+  }
+
+  @Nonnull
+  public DoubleSeq sorted() {
+    final double[] array = backingArray.clone();
+    Arrays.sort(array);
+    return new DoubleSeq(array);
+  }
+
+  @Nonnull
+  public DoubleSeq reversed() {
+    final int len = backingArray.length;
+    final double[] array = new double[len];
+    for (int i = 0; i < len; i += 1) {
+      array[i] = backingArray[len - i - 1];
+    }
+    return new DoubleSeq(array);
+  }
+
+  /**
+   * Returns a copy of this DoubleSeq with no duplicates.
+   * <p>
+   * Order is maintained.
+   */
+  @Nonnull
+  public DoubleSeq distinct() {
+    final double[] ranks = sortedDistinct(backingArray);
+    final boolean[] seen = new boolean[ranks.length];
+    final double[] array = new double[ranks.length];
+    int c = 0;
+    for (final double e : backingArray) {
+      final int rank = Arrays.binarySearch(ranks, e);
+      if (!seen[rank]) {
+        seen[rank] = true;
+        array[c++] = e;
+      }
+    }
+    return new DoubleSeq(array);
+  }
+
+  @Nonnull
+  static double[] sortedDistinct(@Nonnull final double[] source) {
+    if (source.length == 0) {
+      return source;
+    }
+    final double[] array = source.clone();
+    Arrays.sort(array);
+    int c = 1;
+    for (int i = 1; i < array.length; i += 1) {
+      if (Double.compare(array[i], array[c - 1]) != 0) {
+        array[c++] = array[i];
+      }
+    }
+    return c == array.length ? array : Arrays.copyOf(array, c);
+  }
+
+  @Nonnull
+  public DoubleSeq subSequence(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    final int begin = Math.max(0, beginOffset);
+    final int end = Math.min(length(), endOffset);
+    if (end - begin <= 0) {
+      return EMPTY;
+    }
+    return new DoubleSeq(Arrays.copyOfRange(backingArray, begin, end));
+  }
+
+  public void forEach(@Nonnull final DoubleConsumer consumer) {
+    Objects.requireNonNull(consumer, "'consumer' must not be null");
+    for (final double e : backingArray) {
+      consumer.accept(e);
+    }
+  }
+
+  @Nonnull
+  public DoubleStream stream() {
+    return Arrays.stream(backingArray);
+  }
+
+  @Nonnull
+  public double[] toArray() {
+    return backingArray.clone();
+  }
+
+  /**
+   * A view of this DoubleSeq as a {@link Seq}. No data is copied, elements are boxed when accessed.
+   */
+  @Nonnull
+  public Seq<Double> boxed() {
+    if (isEmpty()) {
+      return Seq.empty();
+    }
+    return new Boxed(this);
+  }
+
+  @Override
+  public boolean equals(final Object that) {
+    if (this == that) {
+      return true;
+    }
+    return that instanceof DoubleSeq && Arrays.equals(backingArray, ((DoubleSeq) that).backingArray);
+  }
+
+  /**
+   * Calculated the same way as {@link Seq#hashCode()}, thus equal to the hash code of {@link #boxed()}.
+   */
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(backingArray);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(backingArray);
+  }
+
+  @Nonnull
+  public static DoubleSeq empty() {
+    return EMPTY;
+  }
+
+  @Nonnull
+  public static DoubleSeq of(@Nonnull final double... es) {
+    return ofArray(es);
+  }
+
+  @Nonnull
+  public static DoubleSeq ofArray(@Nonnull final double[] array) {
+    Objects.requireNonNull(array);
+    return ofArrayZeroCopyInternal(array.clone());
+  }
+
+  @Nonnull
+  static DoubleSeq ofArrayZeroCopyInternal(@Nonnull final double[] array) {
+    if (array.length == 0) {
+      return EMPTY;
+    }
+    return new DoubleSeq(array);
+  }
+
+  /**
+   * Creates a DoubleSeq from the given Seq. If the given Seq is a view obtained via {@link #boxed()} the DoubleSeq
+   * that backs it is returned and no data is copied.
+   *
+   * @throws NullPointerException If the given Seq contains null values.
+   */
+  @Nonnull
+  public static DoubleSeq ofSeq(@Nonnull final Seq<Double> seq) {
+    Objects.requireNonNull(seq, "'seq' must not be null");
+    if (seq instanceof Boxed) {
+      final Boxed boxed = (Boxed) seq;
+      return boxed.shared ? new DoubleSeq(boxed.source.backingArray.clone()) : boxed.source;
+    }
+    final double[] array = new double[seq.length()];
+    for (int i = 0; i < array.length; i += 1) {
+      array[i] = seq.get(i);
+    }
+    return ofArrayZeroCopyInternal(array);
+  }
+
+  static final class Boxed extends SeqGenerated<Double> {
+
+    final DoubleSeq source;
+
+    /**
+     * Whether the backing array of the source is shared with a caller of {@link Seq#wrap(double[])}.
+     */
+    final boolean shared;
+
+    Boxed(@Nonnull final DoubleSeq source) {
+      this(source, false);
+    }
+
+    Boxed(@Nonnull final DoubleSeq source, final boolean shared) {
+      super(source::get, source.length());
+      this.source = source;
+      this.shared = shared;
+    }
+  }
+}
@@ -0,0 +1,657 @@
+package de.scravy.bedrock;
+
+import lombok.experimental.UtilityClass;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.BiFunction;
+
+/**
+ * The nodes of the hash array mapped tries behind {@link TrieMap} and {@link TrieSet}.
+ * <p>
+ * Every level of the trie consumes 5 bits of the hash of a key. A {@link BitmapNode} has up to 32 slots, of which
+ * only the occupied ones are allocated as told by a 32 bit bitmap. Every slot holds either a key and its value or a
+ * child node. Keys with the very same hash end up in a {@link CollisionNode}. An update copies the O(log32 n) nodes
+ * on the path to its key and shares all other nodes with the original trie.
+ * <p>
+ * Nodes created by a builder carry the owner token of that builder and are updated in place by it, until the builder
+ * hands out its result and takes a new token. All other nodes are never modified.
+ */
+@UtilityClass
+class Hamt {
+
+  private static final int BITS = 5;
+  private static final int MASK = (1 << BITS) - 1;
+
+  /**
+   * Seven levels of bitmap nodes consume all 32 bits of a hash, only a collision node can be below them.
+   */
+  private static final int MAX_DEPTH = 8;
+
+  /**
+   * Stands in for the null key, as a null key marks a slot holding a child node.
+   */
+  private static final Object NULL_KEY = new Object();
+
+  static final Object NOT_FOUND = new Object();
+
+  static final Node EMPTY = new BitmapNode(null, 0, new Object[0], 0);
+
+  @Nonnull
+  static Object encode(@Nullable final Object key) {
+    return key == null ? NULL_KEY : key;
+  }
+
+  @Nullable
+  private static Object decode(@Nonnull final Object key) {
+    return key == NULL_KEY ? null : key;
+  }
+
+  static int hash(@Nonnull final Object key) {
+    if (key == NULL_KEY) {
+      return 0;
+    }
+    final int h = key.hashCode();
+    return h ^ (h >>> 16);
+  }
+
+  private static int bit(final int hash, @Nonnegative final int shift) {
+    return 1 << ((hash >>> shift) & MASK);
+  }
+
+  private static boolean equal(@Nonnull final Object key, @Nonnull final Object other) {
+    return key == other || key.equals(other);
+  }
+
+  abstract static class Node {
+
+    /**
+     * The builder which may update this node in place, or null.
+     */
+    @Nullable
+    Object owner;
+
+    /**
+     * Pairs of keys and values. In a {@link BitmapNode} a null key marks a slot holding a child node instead of a
+     * value.
+     */
+    @Nonnull
+    Object[] array;
+
+    /**
+     * The number of entries in this node and all nodes below it.
+     */
+    @Nonnegative
+    int size;
+
+    Node(@Nullable final Object owner, @Nonnull final Object[] array, @Nonnegative final int size) {
+      this.owner = owner;
+      this.array = array;
+      this.size = size;
+    }
+
+    boolean isOwnedBy(@Nullable final Object owner) {
+      return owner != null && owner == this.owner;
+    }
+
+    /**
+     * Whether this node holds exactly one entry and no child node, in which case its parent holds the entry itself.
+     */
+    boolean isSingleEntry() {
+      return array.length == 2 && array[0] != null;
+    }
+
+    /**
+     * The value the given key is mapped to or {@link #NOT_FOUND}.
+     */
+    abstract Object find(@Nonnegative int shift, int hash, @Nonnull Object key);
+
+    /**
+     * Maps the given key to the given value. If the key is mapped already its value is only replaced if replace is
+     * true.
+     */
+    @Nonnull
+    abstract Node put(
+      @Nullable Object owner,
+      @Nonnegative int shift,
+      int hash,
+      @Nonnull Object key,
+      Object value,
+      boolean replace
+    );
+
+    /**
+     * Removes the given key, returns null if no entry is left.
+     */
+    @Nullable
+    abstract Node remove(@Nullable Object owner, @Nonnegative int shift, int hash, @Nonnull Object key);
+  }
+
+  static final class BitmapNode extends Node {
+
+    int bitmap;
+
+    BitmapNode(
+      @Nullable final Object owner,
+      final int bitmap,
+      @Nonnull final Object[] array,
+      @Nonnegative final int size
+    ) {
+      super(owner, array, size);
+      this.bitmap = bitmap;
+    }
+
+    private int position(final int bit) {
+      return 2 * Integer.bitCount(bitmap & (bit - 1));
+    }
+
+    @Nonnull
+    private BitmapNode editable(@Nullable final Object owner) {
+      return isOwnedBy(owner) ? this : new BitmapNode(owner, bitmap, array.clone(), size);
+    }
+
+    @Override
+    Object find(@Nonnegative final int shift, final int hash, @Nonnull final Object key) {
+      final int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return NOT_FOUND;
+      }
+      final int i = position(bit);
+      final Object k = array[i];
+      if (k == null) {
+        return ((Node) array[i + 1]).find(shift + BITS, hash, key);
+      }
+      return equal(key, k) ? array[i + 1] : NOT_FOUND;
+    }
+
+    @Nonnull
+    @Override
+    Node put(
+      @Nullable final Object owner,
+      @Nonnegative final int shift,
+      final int hash,
+      @Nonnull final Object key,
+      final Object value,
+      final boolean replace
+    ) {
+      final int bit = bit(hash, shift);
+      final int i = position(bit);
+      if ((bitmap & bit) != 0) {
+        final Object k = array[i];
+        final Object v = array[i + 1];
+        if (k == null) {
+          final Node child = (Node) v;
+          final int childSize = child.size;
+          final Node newChild = child.put(owner, shift + BITS, hash, key, value, replace);
+          if (newChild == child && newChild.size == childSize) {
+            return this;
+          }
+          final BitmapNode node = editable(owner);
+          node.array[i + 1] = newChild;
+          node.size += newChild.size - childSize;
+          return node;
+        }
+        if (equal(key, k)) {
+          if (!replace || v == value) {
+            return this;
+          }
+          final BitmapNode node = editable(owner);
+          node.array[i + 1] = value;
+          return node;
+        }
+        final BitmapNode node = editable(owner);
+        node.array[i] = null;
+        node.array[i + 1] = createNode(owner, shift + BITS, k, v, hash, key, value);
+        node.size += 1;
+        return node;
+      }
+      final Object[] newArray = new Object[array.length + 2];
+      System.arraycopy(array, 0, newArray, 0, i);
+      newArray[i] = key;
+      newArray[i + 1] = value;
+      System.arraycopy(array, i, newArray, i + 2, array.length - i);
+      if (isOwnedBy(owner)) {
+        bitmap |= bit;
+        array = newArray;
+        size += 1;
+        return this;
+      }
+      return new BitmapNode(owner, bitmap | bit, newArray, size + 1);
+    }
+
+    @Nullable
+    @Override
+    Node remove(@Nullable final Object owner, @Nonnegative final int shift, final int hash, @Nonnull final Object key) {
+      final int bit = bit(hash, shift);
+      if ((bitmap & bit) == 0) {
+        return this;
+      }
+      final int i = position(bit);
+      final Object k = array[i];
+      if (k == null) {
+        final Node child = (Node) array[i + 1];
+        final int childSize = child.size;
+        final Node newChild = child.remove(owner, shift + BITS, hash, key);
+        if (newChild == child && newChild.size == childSize) {
+          return this;
+        }
+        if (newChild == null) {
+          return removeSlot(owner, bit, i, childSize);
+        }
+        final BitmapNode node = editable(owner);
+        if (newChild.isSingleEntry()) {
+          node.array[i] = newChild.array[0];
+          node.array[i + 1] = newChild.array[1];
+        } else {
+          node.array[i + 1] = newChild;
+        }
+        node.size -= childSize - newChild.size;
+        return node;
+      }
+      return equal(key, k) ? removeSlot(owner, bit, i, 1) : this;
+    }
+
+    @Nullable
+    private BitmapNode removeSlot(@Nullable final Object owner, final int bit, final int i, final int removed) {
+      if (bitmap == bit) {
+        return null;
+      }
+      final Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, i);
+      System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+      if (isOwnedBy(owner)) {
+        bitmap ^= bit;
+        array = newArray;
+        size -= removed;
+        return this;
+      }
+      return new BitmapNode(owner, bitmap ^ bit, newArray, size - removed);
+    }
+  }
+
+  static final class CollisionNode extends Node {
+
+    final int hash;
+
+    CollisionNode(@Nullable final Object owner, final int hash, @Nonnull final Object[] array) {
+      super(owner, array, array.length / 2);
+      this.hash = hash;
+    }
+
+    private int indexOf(@Nonnull final Object key) {
+      for (int i = 0; i < array.length; i += 2) {
+        if (equal(key, array[i])) {
+          return i;
+        }
+      }
+      return -1;
+    }
+
+    @Override
+    Object find(@Nonnegative final int shift, final int hash, @Nonnull final Object key) {
+      if (hash != this.hash) {
+        return NOT_FOUND;
+      }
+      final int i = indexOf(key);
+      return i < 0 ? NOT_FOUND : array[i + 1];
+    }
+
+    @Nonnull
+    @Override
+    Node put(
+      @Nullable final Object owner,
+      @Nonnegative final int shift,
+      final int hash,
+      @Nonnull final Object key,
+      final Object value,
+      final boolean replace
+    ) {
+      if (hash != this.hash) {
+        return new BitmapNode(owner, bit(this.hash, shift), new Object[]{null, this}, size)
+          .put(owner, shift, hash, key, value, replace);
+      }
+      final int i = indexOf(key);
+      if (i >= 0) {
+        if (!replace || array[i + 1] == value) {
+          return this;
+        }
+        if (isOwnedBy(owner)) {
+          array[i + 1] = value;
+          return this;
+        }
+        final Object[] newArray = array.clone();
+        newArray[i + 1] = value;
+        return new CollisionNode(owner, hash, newArray);
+      }
+      final Object[] newArray = Arrays.copyOf(array, array.length + 2);
+      newArray[array.length] = key;
+      newArray[array.length + 1] = value;
+      if (isOwnedBy(owner)) {
+        array = newArray;
+        size += 1;
+        return this;
+      }
+      return new CollisionNode(owner, hash, newArray);
+    }
+
+    @Nullable
+    @Override
+    Node remove(@Nullable final Object owner, @Nonnegative final int shift, final int hash, @Nonnull final Object key) {
+      final int i = hash == this.hash ? indexOf(key) : -1;
+      if (i < 0) {
+        return this;
+      }
+      if (array.length == 2) {
+        return null;
+      }
+      final Object[] newArray = new Object[array.length - 2];
+      System.arraycopy(array, 0, newArray, 0, i);
+      System.arraycopy(array, i + 2, newArray, i, newArray.length - i);
+      if (isOwnedBy(owner)) {
+        array = newArray;
+        size -= 1;
+        return this;
+      }
+      return new CollisionNode(owner, hash, newArray);
+    }
+  }
+
+  /**
+   * Creates a node at the given level holding two entries with different keys.
+   */
+  @Nonnull
+  private static Node createNode(
+    @Nullable final Object owner,
+    @Nonnegative final int shift,
+    @Nonnull final Object key1,
+    final Object value1,
+    final int hash2,
+    @Nonnull final Object key2,
+    final Object value2
+  ) {
+    final int hash1 = hash(key1);
+    if (hash1 == hash2) {
+      return new CollisionNode(owner, hash1, new Object[]{key1, value1, key2, value2});
+    }
+    final int bit1 = bit(hash1, shift);
+    final int bit2 = bit(hash2, shift);
+    if (bit1 == bit2) {
+      final Node child = createNode(owner, shift + BITS, key1, value1, hash2, key2, value2);
+      return new BitmapNode(owner, bit1, new Object[]{null, child}, 2);
+    }
+    final Object[] array = Integer.compareUnsigned(bit1, bit2) < 0
+      ? new Object[]{key1, value1, key2, value2}
+      : new Object[]{key2, value2, key1, value1};
+    return new BitmapNode(owner, bit1 | bit2, array, 2);
+  }
+
+  /**
+   * The entries of both nodes, taking the value from a if a key is contained in both. Shares a if b adds nothing.
+   */
+  @Nonnull
+  static Node union(@Nonnull final Node a, @Nonnull final Node b, @Nonnegative final int shift) {
+    if (a == b || b.size == 0) {
+      return a;
+    }
+    if (a.size == 0) {
+      return b;
+    }
+    if (!(a instanceof BitmapNode && b instanceof BitmapNode)) {
+      return putAll(a, b, shift);
+    }
+    final BitmapNode x = (BitmapNode) a;
+    final BitmapNode y = (BitmapNode) b;
+    final int bitmap = x.bitmap | y.bitmap;
+    final Object[] array = new Object[2 * Integer.bitCount(bitmap)];
+    int size = 0;
+    int c = 0;
+    for (int remaining = bitmap; remaining != 0; remaining &= remaining - 1) {
+      final int bit = remaining & -remaining;
+      final boolean inX = (x.bitmap & bit) != 0;
+      final boolean inY = (y.bitmap & bit) != 0;
+      final Object[] source = inX ? x.array : y.array;
+      final int i = inX ? x.position(bit) : y.position(bit);
+      Object key = source[i];
+      Object value = source[i + 1];
+      if (inX && inY) {
+        final int j = y.position(bit);
+        final Object keyY = y.array[j];
+        final Object valueY = y.array[j + 1];
+        if (key != null && keyY != null) {
+          if (!equal(key, keyY)) {
+            value = createNode(null, shift + BITS, key, value, hash(keyY), keyY, valueY);
+            key = null;
+          }
+        } else if (key != null) {
+          value = ((Node) valueY).put(null, shift + BITS, hash(key), key, value, true);
+          key = null;
+        } else if (keyY != null) {
+          value = ((Node) value).put(null, shift + BITS, hash(keyY), keyY, valueY, false);
+        } else {
+          value = union((Node) value, (Node) valueY, shift + BITS);
+        }
+      }
+      array[c] = key;
+      array[c + 1] = value;
+      size += key == null ? ((Node) value).size : 1;
+      c += 2;
+    }
+    return size == a.size ? a : new BitmapNode(null, bitmap, array, size);
+  }
+
+  /**
+   * The entries of a whose keys are contained in b, or null if there are none. Shares a if nothing is removed.
+   */
+  @Nullable
+  static Node intersect(@Nonnull final Node a, @Nonnull final Node b, @Nonnegative final int shift) {
+    if (a == b) {
+      return a;
+    }
+    if (a.size == 0 || b.size == 0) {
+      return null;
+    }
+    if (!(a instanceof BitmapNode && b instanceof BitmapNode)) {
+      return retainAll(a, a, b, shift);
+    }
+    final BitmapNode x = (BitmapNode) a;
+    final BitmapNode y = (BitmapNode) b;
+    final Object[] array = new Object[2 * Integer.bitCount(x.bitmap & y.bitmap)];
+    int bitmap = 0;
+    int size = 0;
+    int c = 0;
+    for (int remaining = x.bitmap & y.bitmap; remaining != 0; remaining &= remaining - 1) {
+      final int bit = remaining & -remaining;
+      final int i = x.position(bit);
+      final int j = y.position(bit);
+      Object key = x.array[i];
+      Object value = x.array[i + 1];
+      final Object keyY = y.array[j];
+      final Object valueY = y.array[j + 1];
+      if (key != null) {
+        final boolean contained = keyY != null
+          ? equal(key, keyY)
+          : ((Node) valueY).find(shift + BITS, hash(key), key) != NOT_FOUND;
+        if (!contained) {
+          continue;
+        }
+      } else if (keyY != null) {
+        value = ((Node) value).find(shift + BITS, hash(keyY), keyY);
+        if (value == NOT_FOUND) {
+          continue;
+        }
+        key = keyY;
+      } else {
+        final Node child = intersect((Node) value, (Node) valueY, shift + BITS);
+        if (child == null) {
+          continue;
+        }
+        value = child.isSingleEntry() ? child.array[1] : child;
+        key = child.isSingleEntry() ? child.array[0] : null;
+      }
+      bitmap |= bit;
+      array[c] = key;
+      array[c + 1] = value;
+      size += key == null ? ((Node) value).size : 1;
+      c += 2;
+    }
+    if (size == 0) {
+      return null;
+    }
+    return size == a.size ? a : new BitmapNode(null, bitmap, Arrays.copyOf(array, c), size);
+  }
+
+  /**
+   * The entries of a whose keys are not contained in b, or null if there are none. Shares a if nothing is removed.
+   */
+  @Nullable
+  static Node without(@Nonnull final Node a, @Nonnull final Node b, @Nonnegative final int shift) {
+    if (a == b || a.size == 0) {
+      return null;
+    }
+    if (b.size == 0) {
+      return a;
+    }
+    if (!(a instanceof BitmapNode && b instanceof BitmapNode)) {
+      return removeAll(a, b, shift);
+    }
+    final BitmapNode x = (BitmapNode) a;
+    final BitmapNode y = (BitmapNode) b;
+    final Object[] array = new Object[x.array.length];
+    int bitmap = 0;
+    int size = 0;
+    int c = 0;
+    for (int remaining = x.bitmap; remaining != 0; remaining &= remaining - 1) {
+      final int bit = remaining & -remaining;
+      final int i = x.position(bit);
+      Object key = x.array[i];
+      Object value = x.array[i + 1];
+      if ((y.bitmap & bit) != 0) {
+        final int j = y.position(bit);
+        final Object keyY = y.array[j];
+        final Object valueY = y.array[j + 1];
+        if (key != null) {
+          final boolean contained = keyY != null
+            ? equal(key, keyY)
+            : ((Node) valueY).find(shift + BITS, hash(key), key) != NOT_FOUND;
+          if (contained) {
+            continue;
+          }
+        } else {
+          final Node child = keyY != null
+            ? ((Node) value).remove(null, shift + BITS, hash(keyY), keyY)
+            : without((Node) value, (Node) valueY, shift + BITS);
+          if (child == null) {
+            continue;
+          }
+          value = child.isSingleEntry() ? child.array[1] : child;
+          key = child.isSingleEntry() ? child.array[0] : null;
+        }
+      }
+      bitmap |= bit;
+      array[c] = key;
+      array[c + 1] = value;
+      size += key == null ? ((Node) value).size : 1;
+      c += 2;
+    }
+    if (size == 0) {
+      return null;
+    }
+    return size == a.size ? a : new BitmapNode(null, bitmap, Arrays.copyOf(array, c), size);
+  }
+
+  @Nonnull
+  private static Node putAll(@Nonnull final Node target, @Nonnull final Node source, @Nonnegative final int shift) {
+    Node result = target;
+    final Object[] array = source.array;
+    for (int i = 0; i < array.length; i += 2) {
+      result = array[i] == null
+        ? putAll(result, (Node) array[i + 1], shift)
+        : result.put(null, shift, hash(array[i]), array[i], array[i + 1], false);
+    }
+    return result;
+  }
+
+  /**
+   * Removes the entries of source from target which are not contained in other.
+   */
+  @Nullable
+  private static Node retainAll(
+    @Nullable final Node target,
+    @Nonnull final Node source,
+    @Nonnull final Node other,
+    @Nonnegative final int shift
+  ) {
+    Node result = target;
+    final Object[] array = source.array;
+    for (int i = 0; i < array.length && result != null; i += 2) {
+      if (array[i] == null) {
+        result = retainAll(result, (Node) array[i + 1], other, shift);
+      } else if (other.find(shift, hash(array[i]), array[i]) == NOT_FOUND) {
+        result = result.remove(null, shift, hash(array[i]), array[i]);
+      }
+    }
+    return result;
+  }
+
+  @Nullable
+  private static Node removeAll(@Nullable final Node target, @Nonnull final Node source, @Nonnegative final int shift) {
+    Node result = target;
+    final Object[] array = source.array;
+    for (int i = 0; i < array.length && result != null; i += 2) {
+      result = array[i] == null
+        ? removeAll(result, (Node) array[i + 1], shift)
+        : result.remove(null, shift, hash(array[i]), array[i]);
+    }
+    return result;
+  }
+
+  /**
+   * Iterates the entries of a trie depth first, passing the key and the value of every entry to a function.
+   */
+  static final class Entries<T> implements Iterator<T> {
+
+    private final BiFunction<Object, Object, T> function;
+    private final Object[][] arrays = new Object[MAX_DEPTH + 1][];
+    private final int[] positions = new int[MAX_DEPTH + 1];
+    private int depth = 0;
+
+    Entries(@Nonnull final Node root, @Nonnull final BiFunction<Object, Object, T> function) {
+      this.function = function;
+      this.arrays[0] = root.array;
+    }
+
+    @Override
+    public boolean hasNext() {
+      while (depth >= 0) {
+        final Object[] array = arrays[depth];
+        final int p = positions[depth];
+        if (p >= array.length) {
+          depth -= 1;
+        } else if (array[p] != null) {
+          return true;
+        } else {
+          positions[depth] = p + 2;
+          depth += 1;
+          arrays[depth] = ((Node) array[p + 1]).array;
+          positions[depth] = 0;
+        }
+      }
+      return false;
+    }
+
+    @Override
+    public T next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      final Object[] array = arrays[depth];
+      final int p = positions[depth];
+      positions[depth] = p + 2;
+      return function.apply(decode(array[p]), array[p + 1]);
+    }
+  }
+}
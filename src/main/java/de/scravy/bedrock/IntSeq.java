@@ -0,0 +1,425 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.*;
+import java.util.stream.IntStream;
+
+/**
+ * An immutable sequence of primitive ints.
+ * <p>
+ * An IntSeq is backed by an int[] array, none of its operations box the elements. A {@link Seq} view can be
+ * obtained via {@link #boxed()} without copying any data, and {@link #ofSeq(Seq)} turns such a view back
+ * into the IntSeq it was created from, again without copying. Views obtained via {@link Seq#wrap(int[])} share the
+ * array of the caller, which may still change, so {@link #ofSeq(Seq)} copies them.
+ */
+@Immutable
+public final class IntSeq implements Serializable, RandomAccess {
+
+  public static final long serialVersionUID = 7719358204619131L;
+
+  private static final IntSeq EMPTY = new IntSeq(new int[0]);
+
+  final int[] backingArray;
+
+  IntSeq(@Nonnull final int[] array) {
+    this.backingArray = array;
+  }
+
+  public int get(@Nonnegative final int index) {
+    return backingArray[index];
+  }
+
+  @Nonnegative
+  public int length() {
+    return backingArray.length;
+  }
+
+  /**
+   * Exactly the same as length().
+   */
+  @Nonnegative
+  public int size() {
+    return backingArray.length;
+  }
+
+  public boolean isEmpty() {
+    return backingArray.length == 0;
+  }
+
+  public boolean nonEmpty() {
+    return backingArray.length > 0;
+  }
+
+  public int head() {
+    return get(0);
+  }
+
+  public int last() {
+    return get(backingArray.length - 1);
+  }
+
+  @Nonnull
+  public IntSeq map(@Nonnull final IntUnaryOperator function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    final int[] array = new int[backingArray.length];
+    for (int i = 0; i < array.length; i += 1) {
+      array[i] = function.applyAsInt(backingArray[i]);
+    }
+    return new IntSeq(array);
+  }
+
+  @Nonnull
+  public <E> Seq<E> mapToObj(@Nonnull final IntFunction<? extends E> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    if (isEmpty()) {
+      return Seq.empty();
+    }
+    final Object[] array = new Object[backingArray.length];
+    for (int i = 0; i < array.length; i += 1) {
+      array[i] = function.apply(backingArray[i]);
+    }
+    return Seq.ofArrayZeroCopyInternal(array);
+  }
+
+  @Nonnull
+  public IntSeq filter(@Nonnull final IntPredicate predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    final int[] array = new int[backingArray.length];
+    int c = 0;
+    for (final int e : backingArray) {
+      if (predicate.test(e)) {
+        array[c++] = e;
+      }
+    }
+    return ofArrayZeroCopyInternal(c == array.length ? array : Arrays.copyOf(array, c));
+  }
+
+  public int foldl(@Nonnull final IntBinaryOperator function, final int startValue) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    int acc = startValue;
+    for (final int e : backingArray) {
+      acc = function.applyAsInt(acc, e);
+    }
+    return acc;
+  }
+
+  public int foldr(@Nonnull final IntBinaryOperator function, final int startValue) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    int acc = startValue;
+    for (int i = backingArray.length - 1; i >= 0; i -= 1) {
+      acc = function.applyAsInt(backingArray[i], acc);
+    }
+    return acc;
+  }
+
+  public int sum() {
+    int sum = 0;
+    for (final int e : backingArray) {
+      sum += e;
+    }
+    return sum;
+  }
+
+  public int product() {
+    int product = 1;
+    for (final int e : backingArray) {
+      product *= e;
+    }
+    return product;
+  }
+
+  public int minimum() throws NoSuchElementException {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    int minimum = backingArray[0];
+    for (final int e : backingArray) {
+      minimum = Math.min(minimum, e);
+    }
+    return minimum;
+  }
+
+  public int maximum() throws NoSuchElementException {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    int maximum = backingArray[0];
+    for (final int e : backingArray) {
+      maximum = Math.max(maximum, e);
+    }
+    return maximum;
+  }
+
+  @Nonnegative
+  public int count(final int e) {
+    int c = 0;
+    for (final int el : backingArray) {
+      if (el == e) {
+        c += 1;
+      }
+    }
+    return c;
+  }
+
+  @Nonnegative
+  public int countBy(@Nonnull final IntPredicate predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    int c = 0;
+    for (final int el : backingArray) {
+      if (predicate.test(el)) {
+        c += 1;
+      }
+    }
+    return c;
+  }
+
+  public int find(final int e) {
+    for (int i = 0; i < backingArray.length; i += 1) {
+      if (backingArray[i] == e) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public boolean contains(final int e) {
+    return find(e) > -1;
+  }
+
+  /**
+   * Searches for the given value using binary search. This IntSeq must be sorted, see {@link #sorted()}.
+   *
+   * @return The index of the value, or (-(insertion point) - 1) if it is not contained in this sequence.
+   * @see Arrays#binarySearch(int[], int)
+   */
+  public int binarySearch(final int e) {
+    return Arrays.binarySearch(backingArray, e);
+  }
+
+  @Nonnull
+  public IntSeq sorted() {
+    final int[] array = backingArray.clone();
+    Arrays.sort(array);
+    return new IntSeq(array);
+  }
+
+  /**
+   * Returns the k smallest values of this IntSeq in ascending order, using a bounded heap (O(n log k) time and
+   * O(k) extra memory).
+   */
+  @Nonnull
+  public IntSeq bottomK(@Nonnegative final int k) {
+    return atIndices(SeqSelection.bottomKIndicesOnInt(backingArray.length, Math.max(0, k), i -> backingArray[i], false));
+  }
+
+  /**
+   * Returns the k largest values of this IntSeq in descending order, using a bounded heap (O(n log k) time and
+   * O(k) extra memory).
+   */
+  @Nonnull
+  public IntSeq topK(@Nonnegative final int k) {
+    return atIndices(SeqSelection.bottomKIndicesOnInt(backingArray.length, Math.max(0, k), i -> backingArray[i], true));
+  }
+
+  @Nonnull
+  private IntSeq atIndices(@Nonnull final int[] indices) {
+    if (indices.length == 0) {
+      return EMPTY;
+    }
+    final int[] array = new int[indices.length];
+    for (int i = 0; i < indices.length; i += 1) {
+      array[i] = backingArray[indices[i]];
+    }
+    return new IntSeq(array);
+  }
+
+  /**
+   * Returns the value that would be at index n if this IntSeq was sorted, using introselect (O(n) time on
+   * average).
+   *
+   * @throws IndexOutOfBoundsException If n is not a valid index into this IntSeq.
+   */
+  public int nthElement(@Nonnegative final int n) {
+    if (n < 0 || n >= backingArray.length) {
+      throw new IndexOutOfBoundsException();
+    }
+    return SeqSelection.select(backingArray.clone(), n);
+  }
+
+  @Nonnull
+  public IntSeq reversed() {
+    final int len = backingArray.length;
+    final int[] array = new int[len];
+    for (int i = 0; i < len; i += 1) {
+      array[i] = backingArray[len - i - 1];
+    }
+    return new IntSeq(array);
+  }
+
+  /**
+   * Returns a copy of this IntSeq with no duplicates.
+   * <p>
+   * Order is maintained.
+   */
+  @Nonnull
+  public IntSeq distinct() {
+    final int[] ranks = sortedDistinct(backingArray);
+    final boolean[] seen = new boolean[ranks.length];
+    final int[] array = new int[ranks.length];
+    int c = 0;
+    for (final int e : backingArray) {
+      final int rank = Arrays.binarySearch(ranks, e);
+      if (!seen[rank]) {
+        seen[rank] = true;
+        array[c++] = e;
+      }
+    }
+    return new IntSeq(array);
+  }
+
+  @Nonnull
+  static int[] sortedDistinct(@Nonnull final int[] source) {
+    if (source.length == 0) {
+      return source;
+    }
+    final int[] array = source.clone();
+    Arrays.sort(array);
+    int c = 1;
+    for (int i = 1; i < array.length; i += 1) {
+      if (array[i] != array[c - 1]) {
+        array[c++] = array[i];
+      }
+    }
+    return c == array.length ? array : Arrays.copyOf(array, c);
+  }
+
+  @Nonnull
+  public IntSeq subSequence(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    final int begin = Math.max(0, beginOffset);
+    final int end = Math.min(length(), endOffset);
+    if (end - begin <= 0) {
+      return EMPTY;
+    }
+    return new IntSeq(Arrays.copyOfRange(backingArray, begin, end));
+  }
+
+  public void forEach(@Nonnull final IntConsumer consumer) {
+    Objects.requireNonNull(consumer, "'consumer' must not be null");
+    for (final int e : backingArray) {
+      consumer.accept(e);
+    }
+  }
+
+  @Nonnull
+  public IntStream stream() {
+    return Arrays.stream(backingArray);
+  }
+
+  @Nonnull
+  public int[] toArray() {
+    return backingArray.clone();
+  }
+
+  /**
+   * A view of this IntSeq as a {@link Seq}. No data is copied, elements are boxed when accessed.
+   */
+  @Nonnull
+  public Seq<Integer> boxed() {
+    if (isEmpty()) {
+      return Seq.empty();
+    }
+    return new Boxed(this);
+  }
+
+  @Override
+  public boolean equals(final Object that) {
+    if (this == that) {
+      return true;
+    }
+    return that instanceof IntSeq && Arrays.equals(backingArray, ((IntSeq) that).backingArray);
+  }
+
+  /**
+   * Calculated the same way as {@link Seq#hashCode()}, thus equal to the hash code of {@link #boxed()}.
+   */
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(backingArray);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(backingArray);
+  }
+
+  @Nonnull
+  public static IntSeq empty() {
+    return EMPTY;
+  }
+
+  @Nonnull
+  public static IntSeq of(@Nonnull final int... es) {
+    return ofArray(es);
+  }
+
+  @Nonnull
+  public static IntSeq ofArray(@Nonnull final int[] array) {
+    Objects.requireNonNull(array);
+    return ofArrayZeroCopyInternal(array.clone());
+  }
+
+  @Nonnull
+  static IntSeq ofArrayZeroCopyInternal(@Nonnull final int[] array) {
+    if (array.length == 0) {
+      return EMPTY;
+    }
+    return new IntSeq(array);
+  }
+
+  /**
+   * Creates an IntSeq from the given Seq. If the given Seq is a view obtained via {@link #boxed()} the IntSeq
+   * that backs it is returned and no data is copied.
+   *
+   * @throws NullPointerException If the given Seq contains null values.
+   */
+  @Nonnull
+  public static IntSeq ofSeq(@Nonnull final Seq<Integer> seq) {
+    Objects.requireNonNull(seq, "'seq' must not be null");
+    if (seq instanceof Boxed) {
+      final Boxed boxed = (Boxed) seq;
+      return boxed.shared ? new IntSeq(boxed.source.backingArray.clone()) : boxed.source;
+    }
+    final int[] array = new int[seq.length()];
+    for (int i = 0; i < array.length; i += 1) {
+      array[i] = seq.get(i);
+    }
+    return ofArrayZeroCopyInternal(array);
+  }
+
+  static final class Boxed extends SeqGenerated<Integer> {
+
+    final IntSeq source;
+
+    /**
+     * Whether the backing array of the source is shared with a caller of {@link Seq#wrap(int[])}.
+     */
+    final boolean shared;
+
+    Boxed(@Nonnull final IntSeq source) {
+      this(source, false);
+    }
+
+    Boxed(@Nonnull final IntSeq source, final boolean shared) {
+      super(source::get, source.length());
+      this.source = source;
+      this.shared = shared;
+    }
+  }
+}
@@ -0,0 +1,382 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.concurrent.Immutable;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.function.*;
+import java.util.stream.LongStream;
+
+/**
+ * An immutable sequence of primitive longs.
+ * <p>
+ * A LongSeq is backed by a long[] array, none of its operations box the elements. A {@link Seq} view can be
+ * obtained via {@link #boxed()} without copying any data, and {@link #ofSeq(Seq)} turns such a view back
+ * into the LongSeq it was created from, again without copying. Views obtained via {@link Seq#wrap(long[])} share the
+ * array of the caller, which may still change, so {@link #ofSeq(Seq)} copies them.
+ */
+@Immutable
+public final class LongSeq implements Serializable, RandomAccess {
+
+  public static final long serialVersionUID = -3301884519270637L;
+
+  private static final LongSeq EMPTY = new LongSeq(new long[0]);
+
+  final long[] backingArray;
+
+  LongSeq(@Nonnull final long[] array) {
+    this.backingArray = array;
+  }
+
+  public long get(@Nonnegative final int index) {
+    return backingArray[index];
+  }
+
+  @Nonnegative
+  public int length() {
+    return backingArray.length;
+  }
+
+  /**
+   * Exactly the same as length().
+   */
+  @Nonnegative
+  public int size() {
+    return backingArray.length;
+  }
+
+  public boolean isEmpty() {
+    return backingArray.length == 0;
+  }
+
+  public boolean nonEmpty() {
+    return backingArray.length > 0;
+  }
+
+  public long head() {
+    return get(0);
+  }
+
+  public long last() {
+    return get(backingArray.length - 1);
+  }
+
+  @Nonnull
+  public LongSeq map(@Nonnull final LongUnaryOperator function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    final long[] array = new long[backingArray.length];
+    for (int i = 0; i < array.length; i += 1) {
+      array[i] = function.applyAsLong(backingArray[i]);
+    }
+    return new LongSeq(array);
+  }
+
+  @Nonnull
+  public <E> Seq<E> mapToObj(@Nonnull final LongFunction<? extends E> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    if (isEmpty()) {
+      return Seq.empty();
+    }
+    final Object[] array = new Object[backingArray.length];
+    for (int i = 0; i < array.length; i += 1) {
+      array[i] = function.apply(backingArray[i]);
+    }
+    return Seq.ofArrayZeroCopyInternal(array);
+  }
+
+  @Nonnull
+  public LongSeq filter(@Nonnull final LongPredicate predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    final long[] array = new long[backingArray.length];
+    int c = 0;
+    for (final long e : backingArray) {
+      if (predicate.test(e)) {
+        array[c++] = e;
+      }
+    }
+    return ofArrayZeroCopyInternal(c == array.length ? array : Arrays.copyOf(array, c));
+  }
+
+  public long foldl(@Nonnull final LongBinaryOperator function, final long startValue) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    long acc = startValue;
+    for (final long e : backingArray) {
+      acc = function.applyAsLong(acc, e);
+    }
+    return acc;
+  }
+
+  public long foldr(@Nonnull final LongBinaryOperator function, final long startValue) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    long acc = startValue;
+    for (int i = backingArray.length - 1; i >= 0; i -= 1) {
+      acc = function.applyAsLong(backingArray[i], acc);
+    }
+    return acc;
+  }
+
+  public long sum() {
+    long sum = 0;
+    for (final long e : backingArray) {
+      sum += e;
+    }
+    return sum;
+  }
+
+  public long product() {
+    long product = 1;
+    for (final long e : backingArray) {
+      product *= e;
+    }
+    return product;
+  }
+
+  public long minimum() throws NoSuchElementException {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    long minimum = backingArray[0];
+    for (final long e : backingArray) {
+      minimum = Math.min(minimum, e);
+    }
+    return minimum;
+  }
+
+  public long maximum() throws NoSuchElementException {
+    if (isEmpty()) {
+      throw new NoSuchElementException();
+    }
+    long maximum = backingArray[0];
+    for (final long e : backingArray) {
+      maximum = Math.max(maximum, e);
+    }
+    return maximum;
+  }
+
+  @Nonnegative
+  public int count(final long e) {
+    int c = 0;
+    for (final long el : backingArray) {
+      if (el == e) {
+        c += 1;
+      }
+    }
+    return c;
+  }
+
+  @Nonnegative
+  public int countBy(@Nonnull final LongPredicate predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    int c = 0;
+    for (final long el : backingArray) {
+      if (predicate.test(el)) {
+        c += 1;
+      }
+    }
+    return c;
+  }
+
+  public int find(final long e) {
+    for (int i = 0; i < backingArray.length; i += 1) {
+      if (backingArray[i] == e) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  public boolean contains(final long e) {
+    return find(e) > -1;
+  }
+
+  /**
+   * Searches for the given value using binary search. This LongSeq must be sorted, see {@link #sorted()}.
+   *
+   * @return The index of the value, or (-(insertion point) - 1) if it is not contained in this sequence.
+   * @see Arrays#binarySearch(long[], long)
+   */
+  public int binarySearch(final long e) {
+    return Arrays.binarySearch(backingArray, e);
+  }
+
+  @Nonnull
+  public LongSeq sorted() {
+    final long[] array = backingArray.clone();
+    Arrays.sort(array);
+    return new LongSeq(array);
+  }
+
+  @Nonnull
+  public LongSeq reversed() {
+    final int len = backingArray.length;
+    final long[] array = new long[len];
+    for (int i = 0; i < len; i += 1) {
+      array[i] = backingArray[len - i - 1];
+    }
+    return new LongSeq(array);
+  }
+
+  /**
+   * Returns a copy of this LongSeq with no duplicates.
+   * <p>
+   * Order is maintained.
+   */
+  @Nonnull
+  public LongSeq distinct() {
+    final long[] ranks = sortedDistinct(backingArray);
+    final boolean[] seen = new boolean[ranks.length];
+    final long[] array = new long[ranks.length];
+    int c = 0;
+    for (final long e : backingArray) {
+      final int rank = Arrays.binarySearch(ranks, e);
+      if (!seen[rank]) {
+        seen[rank] = true;
+        array[c++] = e;
+      }
+    }
+    return new LongSeq(array);
+  }
+
+  @Nonnull
+  static long[] sortedDistinct(@Nonnull final long[] source) {
+    if (source.length == 0) {
+      return source;
+    }
+    final long[] array = source.clone();
+    Arrays.sort(array);
+    int c = 1;
+    for (int i = 1; i < array.length; i += 1) {
+      if (array[i] != array[c - 1]) {
+        array[c++] = array[i];
+      }
+    }
+    return c == array.length ? array : Arrays.copyOf(array, c);
+  }
+
+  @Nonnull
+  public LongSeq subSequence(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    final int begin = Math.max(0, beginOffset);
+    final int end = Math.min(length(), endOffset);
+    if (end - begin <= 0) {
+      return EMPTY;
+    }
+    return new LongSeq(Arrays.copyOfRange(backingArray, begin, end));
+  }
+
+  public void forEach(@Nonnull final LongConsumer consumer) {
+    Objects.requireNonNull(consumer, "'consumer' must not be null");
+    for (final long e : backingArray) {
+      consumer.accept(e);
+    }
+  }
+
+  @Nonnull
+  public LongStream stream() {
+    return Arrays.stream(backingArray);
+  }
+
+  @Nonnull
+  public long[] toArray() {
+    return backingArray.clone();
+  }
+
+  /**
+   * A view of this LongSeq as a {@link Seq}. No data is copied, elements are boxed when accessed.
+   */
+  @Nonnull
+  public Seq<Long> boxed() {
+    if (isEmpty()) {
+      return Seq.empty();
+    }
+    return new Boxed(this);
+  }
+
+  @Override
+  public boolean equals(final Object that) {
+    if (this == that) {
+      return true;
+    }
+    return that instanceof LongSeq && Arrays.equals(backingArray, ((LongSeq) that).backingArray);
+  }
+
+  /**
+   * Calculated the same way as {@link Seq#hashCode()}, thus equal to the hash code of {@link #boxed()}.
+   */
+  @Override
+  public int hashCode() {
+    return Arrays.hashCode(backingArray);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.toString(backingArray);
+  }
+
+  @Nonnull
+  public static LongSeq empty() {
+    return EMPTY;
+  }
+
+  @Nonnull
+  public static LongSeq of(@Nonnull final long... es) {
+    return ofArray(es);
+  }
+
+  @Nonnull
+  public static LongSeq ofArray(@Nonnull final long[] array) {
+    Objects.requireNonNull(array);
+    return ofArrayZeroCopyInternal(array.clone());
+  }
+
+  @Nonnull
+  static LongSeq ofArrayZeroCopyInternal(@Nonnull final long[] array) {
+    if (array.length == 0) {
+      return EMPTY;
+    }
+    return new LongSeq(array);
+  }
+
+  /**
+   * Creates a LongSeq from the given Seq. If the given Seq is a view obtained via {@link #boxed()} the LongSeq
+   * that backs it is returned and no data is copied.
+   *
+   * @throws NullPointerException If the given Seq contains null values.
+   */
+  @Nonnull
+  public static LongSeq ofSeq(@Nonnull final Seq<Long> seq) {
+    Objects.requireNonNull(seq, "'seq' must not be null");
+    if (seq instanceof Boxed) {
+      final Boxed boxed = (Boxed) seq;
+      return boxed.shared ? new LongSeq(boxed.source.backingArray.clone()) : boxed.source;
+    }
+    final long[] array = new long[seq.length()];
+    for (int i = 0; i < array.length; i += 1) {
+      array[i] = seq.get(i);
+    }
+    return ofArrayZeroCopyInternal(array);
+  }
+
+  static final class Boxed extends SeqGenerated<Long> {
+
+    final LongSeq source;
+
+    /**
+     * Whether the backing array of the source is shared with a caller of {@link Seq#wrap(long[])}.
+     */
+    final boolean shared;
+
+    Boxed(@Nonnull final LongSeq source) {
+      this(source, false);
+    }
+
+    Boxed(@Nonnull final LongSeq source, final boolean shared) {
+      super(source::get, source.length());
+      this.source = source;
+      this.shared = shared;
+    }
+  }
+}
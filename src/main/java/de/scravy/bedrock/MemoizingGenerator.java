@@ -0,0 +1,94 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.IntFunction;
+
+/**
+ * A thread safe memoizing generator for {@link Seq#ofGeneratorMemoizing(IntFunction, int)} which caches the
+ * results in a table with one slot per index.
+ * <p>
+ * Reading a computed slot is a single volatile read. An empty slot is claimed by a compare-and-set of a
+ * placeholder, thus the underlying function is invoked at most once per index even under contention; other
+ * threads asking for the same index wait for the thread which claimed it. If the function throws, the slot is
+ * released again and the next access retries.
+ *
+ * @param <E> The type of the generated elements.
+ */
+final class MemoizingGenerator<E> implements IntFunction<E> {
+
+  /**
+   * Stands in for null results, as null marks an empty slot.
+   */
+  private static final Object NULL = new Object();
+
+  private static final class Placeholder extends CountDownLatch {
+
+    private final Thread owner = Thread.currentThread();
+
+    private Placeholder() {
+      super(1);
+    }
+
+    private void await(@Nonnegative final int index) {
+      if (owner == Thread.currentThread()) {
+        throw new IllegalStateException("Element " + index + " depends on itself");
+      }
+      boolean interrupted = false;
+      while (true) {
+        try {
+          await();
+          break;
+        } catch (final InterruptedException exc) {
+          interrupted = true;
+        }
+      }
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private final IntFunction<E> function;
+  private final AtomicReferenceArray<Object> slots;
+
+  MemoizingGenerator(@Nonnull final IntFunction<E> function, @Nonnegative final int length) {
+    this.function = function;
+    this.slots = new AtomicReferenceArray<>(length);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public E apply(@Nonnegative final int index) {
+    while (true) {
+      final Object value = slots.get(index);
+      if (value == null) {
+        final Placeholder placeholder = new Placeholder();
+        if (slots.compareAndSet(index, null, placeholder)) {
+          return compute(index, placeholder);
+        }
+      } else if (value instanceof Placeholder) {
+        ((Placeholder) value).await(index);
+      } else {
+        return value == NULL ? null : (E) value;
+      }
+    }
+  }
+
+  private E compute(@Nonnegative final int index, @Nonnull final Placeholder placeholder) {
+    boolean computed = false;
+    try {
+      final E result = function.apply(index);
+      slots.set(index, result == null ? NULL : result);
+      computed = true;
+      return result;
+    } finally {
+      if (!computed) {
+        slots.set(index, null);
+      }
+      placeholder.countDown();
+    }
+  }
+}
@@ -0,0 +1,97 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnull;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Objects;
+import java.util.function.BinaryOperator;
+
+/**
+ * An associative binary operation with a neutral element, see {@link Seq#reduce(Monoid)}.
+ * <p>
+ * Implementations must satisfy <code>combine(a, combine(b, c)) == combine(combine(a, b), c)</code> and
+ * <code>combine(identity(), a) == a == combine(a, identity())</code>, which allows reducing arbitrary parts of a
+ * sequence independently (and thus in parallel) and combining the results afterwards.
+ *
+ * @param <E> The type of the values combined.
+ */
+public interface Monoid<E> {
+
+  E identity();
+
+  E combine(final E left, final E right);
+
+  @Nonnull
+  static <E> Monoid<E> of(final E identity, @Nonnull final BinaryOperator<E> operator) {
+    Objects.requireNonNull(operator, "'operator' must not be null");
+    return new Monoid<E>() {
+      @Override
+      public E identity() {
+        return identity;
+      }
+
+      @Override
+      public E combine(final E left, final E right) {
+        return operator.apply(left, right);
+      }
+    };
+  }
+
+  @Nonnull
+  static Monoid<Integer> intSum() {
+    return of(0, Operators::plus);
+  }
+
+  @Nonnull
+  static Monoid<Long> longSum() {
+    return of(0L, Operators::plus);
+  }
+
+  /**
+   * Floating point addition is not exactly associative, results of parallel reductions may thus differ slightly
+   * from sequential ones.
+   */
+  @Nonnull
+  static Monoid<Double> doubleSum() {
+    return of(0.0, Operators::plus);
+  }
+
+  @Nonnull
+  static Monoid<BigInteger> bigIntegerSum() {
+    return of(BigInteger.ZERO, Operators::plus);
+  }
+
+  @Nonnull
+  static Monoid<BigDecimal> bigDecimalSum() {
+    return of(BigDecimal.ZERO, Operators::plus);
+  }
+
+  @Nonnull
+  static Monoid<Integer> intProduct() {
+    return of(1, Operators::times);
+  }
+
+  @Nonnull
+  static Monoid<Long> longProduct() {
+    return of(1L, Operators::times);
+  }
+
+  /**
+   * Floating point multiplication is not exactly associative, results of parallel reductions may thus differ
+   * slightly from sequential ones.
+   */
+  @Nonnull
+  static Monoid<Double> doubleProduct() {
+    return of(1.0, Operators::times);
+  }
+
+  @Nonnull
+  static Monoid<Boolean> and() {
+    return of(true, Boolean::logicalAnd);
+  }
+
+  @Nonnull
+  static Monoid<Boolean> or() {
+    return of(false, Boolean::logicalOr);
+  }
+}
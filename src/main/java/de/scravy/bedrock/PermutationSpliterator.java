@@ -0,0 +1,89 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A Spliterator over the permutations of a {@link Seq} in lexicographic order of their indices which splits by
+ * rank in halves. Every part starts by unranking its first permutation and then steps from one permutation to the
+ * next in amortized constant time.
+ * <p>
+ * Seqs with more than 20 elements have more permutations than fit into a long, only the first Long.MAX_VALUE of
+ * them are enumerated and the Spliterator does not report to be {@link Spliterator#SIZED}.
+ *
+ * @param <E> The type of the elements of the Seq.
+ */
+final class PermutationSpliterator<E> implements Spliterator<Seq<E>> {
+
+  private final Seq<E> source;
+  private long rank;
+  private final long fence;
+
+  /**
+   * The permutation with the current rank, or null if it has not been unranked yet.
+   */
+  private int[] indices;
+
+  PermutationSpliterator(@Nonnull final Seq<E> source, @Nonnegative final long rank, @Nonnegative final long fence) {
+    this.source = source;
+    this.rank = rank;
+    this.fence = fence;
+  }
+
+  private Seq<E> current() {
+    if (indices == null) {
+      indices = new int[source.length()];
+      Combinatorics.unrankPermutation(rank, indices);
+    }
+    final Object[] array = new Object[indices.length];
+    for (int i = 0; i < indices.length; i += 1) {
+      array[i] = source.get(indices[i]);
+    }
+    return new SeqSimple<>(array);
+  }
+
+  @Override
+  public boolean tryAdvance(@Nonnull final Consumer<? super Seq<E>> action) {
+    Objects.requireNonNull(action);
+    if (rank >= fence) {
+      return false;
+    }
+    action.accept(current());
+    rank += 1;
+    if (rank < fence) {
+      Combinatorics.nextPermutation(indices);
+    }
+    return true;
+  }
+
+  @Override
+  public Spliterator<Seq<E>> trySplit() {
+    final long begin = rank;
+    final long middle = begin + (fence - begin) / 2;
+    if (begin >= middle) {
+      return null;
+    }
+    final PermutationSpliterator<E> prefix = new PermutationSpliterator<>(source, begin, middle);
+    prefix.indices = indices;
+    indices = null;
+    rank = middle;
+    return prefix;
+  }
+
+  @Override
+  public long estimateSize() {
+    return fence - rank;
+  }
+
+  @Override
+  public int characteristics() {
+    final int characteristics = IMMUTABLE | ORDERED | NONNULL;
+    if (source.length() > Combinatorics.MAXIMUM_FACTORIAL) {
+      return characteristics;
+    }
+    return characteristics | SIZED | SUBSIZED;
+  }
+}
@@ -0,0 +1,24 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.nio.ByteBuffer;
+
+/**
+ * Decodes a fixed-width record from a buffer, see {@link Seq#mapped(java.nio.channels.FileChannel, int, RecordCodec)}.
+ *
+ * @param <E> The type of the decoded records.
+ */
+@FunctionalInterface
+public interface RecordCodec<E> {
+
+  /**
+   * Decodes the record starting at the given offset. Implementations must only use the absolute get methods of
+   * the buffer (like {@link ByteBuffer#getInt(int)}), as the buffer is shared between threads.
+   *
+   * @param buffer The buffer containing the record, in big endian byte order.
+   * @param offset The offset of the first byte of the record within the buffer.
+   * @return The decoded record.
+   */
+  E decode(@Nonnull final ByteBuffer buffer, @Nonnegative final int offset);
+}
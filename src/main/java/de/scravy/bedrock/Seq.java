@@ -4,11 +4,18 @@ import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
+import java.io.IOException;
 import java.io.Serializable;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.*;
 import java.util.stream.Collector;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 import static de.scravy.bedrock.Control.swap;
 
@@ -67,10 +74,185 @@ public abstract class Seq<E> implements
   @Nonnull
   public abstract Seq<E> sortedBy(@Nonnull final Comparator<? super E> comparator);
 
+  /**
+   * Returns a copy of this Seq sorted by the keys extracted using the given function. Equal keys keep the order
+   * they have in this Seq.
+   * <p>
+   * Every key is computed exactly once (instead of O(n log n) times as with
+   * <code>sortedBy(Comparator.comparing(function))</code>), which pays off if the function is expensive.
+   */
   @Nonnull
   public <F extends Comparable<? super F>> Seq<E> sortedOn(@Nonnull final Function<? super E, ? extends F> function) {
     Objects.requireNonNull(function, "'function' must not be null");
-    return sortedBy(Comparator.comparing(function));
+    final int len = length();
+    final Object[] keys = new Object[len];
+    for (int i = 0; i < len; i += 1) {
+      keys[i] = function.apply(get(i));
+    }
+    @SuppressWarnings("unchecked") final IntBinaryOperator cmp = (a, b) -> ((F) keys[a]).compareTo((F) keys[b]);
+    return atIndices(SeqSorting.sortedIndices(len, cmp));
+  }
+
+  /**
+   * Like {@link #sortedOn(Function)} for int valued keys, which are not boxed.
+   */
+  @Nonnull
+  public Seq<E> sortedOnInt(@Nonnull final ToIntFunction<? super E> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    final int len = length();
+    final int[] keys = new int[len];
+    for (int i = 0; i < len; i += 1) {
+      keys[i] = function.applyAsInt(get(i));
+    }
+    return atIndices(SeqSorting.sortedIndices(keys));
+  }
+
+  /**
+   * Like {@link #sortedOn(Function)} for long valued keys, which are not boxed.
+   */
+  @Nonnull
+  public Seq<E> sortedOnLong(@Nonnull final ToLongFunction<? super E> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    final int len = length();
+    final long[] keys = new long[len];
+    for (int i = 0; i < len; i += 1) {
+      keys[i] = function.applyAsLong(get(i));
+    }
+    return atIndices(SeqSorting.sortedIndices(len, (a, b) -> Long.compare(keys[a], keys[b])));
+  }
+
+  /**
+   * Like {@link #sortedOn(Function)} for double valued keys, which are not boxed. Keys are compared using
+   * {@link Double#compare(double, double)}.
+   */
+  @Nonnull
+  public Seq<E> sortedOnDouble(@Nonnull final ToDoubleFunction<? super E> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    final int len = length();
+    final double[] keys = new double[len];
+    for (int i = 0; i < len; i += 1) {
+      keys[i] = function.applyAsDouble(get(i));
+    }
+    return atIndices(SeqSorting.sortedIndices(len, (a, b) -> Double.compare(keys[a], keys[b])));
+  }
+
+  /**
+   * Returns the k smallest elements of this Seq according to the given comparator in ascending order, the same
+   * as <code>sortedBy(comparator).take(k)</code> (including the order of equal elements).
+   * <p>
+   * Uses a bounded heap, i.e. takes O(n log k) time and O(k) extra memory.
+   */
+  @Nonnull
+  public Seq<E> bottomK(@Nonnegative final int k, @Nonnull final Comparator<? super E> comparator) {
+    Objects.requireNonNull(comparator, "'comparator' must not be null");
+    return atIndices(SeqSelection.bottomKIndices(this, Math.max(0, k), comparator));
+  }
+
+  /**
+   * Returns the k largest elements of this Seq according to the given comparator in descending order, the same
+   * as <code>sortedBy(comparator.reversed()).take(k)</code> (including the order of equal elements).
+   * <p>
+   * Uses a bounded heap, i.e. takes O(n log k) time and O(k) extra memory.
+   */
+  @Nonnull
+  public Seq<E> topK(@Nonnegative final int k, @Nonnull final Comparator<? super E> comparator) {
+    Objects.requireNonNull(comparator, "'comparator' must not be null");
+    return bottomK(k, comparator.reversed());
+  }
+
+  /**
+   * Like {@link #bottomK(int, Comparator)} for an int valued sort key which is computed exactly once per element
+   * and compared without boxing.
+   */
+  @Nonnull
+  public Seq<E> bottomKOnInt(@Nonnegative final int k, @Nonnull final ToIntFunction<? super E> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    return atIndices(SeqSelection.bottomKIndicesOnInt(length(), Math.max(0, k), i -> function.applyAsInt(get(i)), false));
+  }
+
+  /**
+   * Like {@link #topK(int, Comparator)} for an int valued sort key which is computed exactly once per element
+   * and compared without boxing.
+   */
+  @Nonnull
+  public Seq<E> topKOnInt(@Nonnegative final int k, @Nonnull final ToIntFunction<? super E> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    return atIndices(SeqSelection.bottomKIndicesOnInt(length(), Math.max(0, k), i -> function.applyAsInt(get(i)), true));
+  }
+
+  /**
+   * Returns a SeqSimple with the elements at the given indices, in the given order.
+   */
+  @Nonnull
+  private Seq<E> atIndices(@Nonnull final int[] indices) {
+    if (indices.length == 0) {
+      return empty();
+    }
+    final Object[] array = new Object[indices.length];
+    for (int i = 0; i < indices.length; i += 1) {
+      array[i] = get(indices[i]);
+    }
+    return new SeqSimple<>(array);
+  }
+
+  /**
+   * Returns the element that would be at index n if this Seq was sorted using the given comparator.
+   * <p>
+   * Uses introselect on a copy of this Seq, i.e. takes O(n) time on average and never more than O(n log n).
+   *
+   * @throws IndexOutOfBoundsException If n is not a valid index into this Seq.
+   */
+  public E nthElement(@Nonnegative final int n, @Nonnull final Comparator<? super E> comparator) {
+    Objects.requireNonNull(comparator, "'comparator' must not be null");
+    checkBounds(n);
+    return SeqSelection.select(toArray(), n, comparator);
+  }
+
+  /**
+   * Returns the element that would be at index n if this Seq was sorted, see {@link #sorted()}.
+   *
+   * @throws IndexOutOfBoundsException If n is not a valid index into this Seq.
+   */
+  public E nthElement(@Nonnegative final int n) {
+    return nthElement(n, NULL_ACCEPTING_COMPARATOR);
+  }
+
+  /**
+   * Returns a copy of this Seq whose first k elements are <code>bottomK(k, comparator)</code>, followed by the
+   * remaining elements in the order in which they appear in this Seq.
+   * <p>
+   * Takes O(n log k) time instead of the O(n log n) a full sort would take.
+   */
+  @Nonnull
+  public Seq<E> partiallySortedBy(@Nonnegative final int k, @Nonnull final Comparator<? super E> comparator) {
+    Objects.requireNonNull(comparator, "'comparator' must not be null");
+    final int[] indices = SeqSelection.bottomKIndices(this, Math.max(0, k), comparator);
+    final int len = length();
+    if (indices.length == len) {
+      return atIndices(indices);
+    }
+    final Object[] array = new Object[len];
+    final boolean[] taken = new boolean[len];
+    for (int i = 0; i < indices.length; i += 1) {
+      array[i] = get(indices[i]);
+      taken[indices[i]] = true;
+    }
+    int c = indices.length;
+    for (int i = 0; i < len; i += 1) {
+      if (!taken[i]) {
+        array[c++] = get(i);
+      }
+    }
+    return new SeqSimple<>(array);
+  }
+
+  /**
+   * Like {@link #partiallySortedBy(int, Comparator)} using the natural order of the elements, see
+   * {@link #sorted()}.
+   */
+  @Nonnull
+  public Seq<E> partiallySorted(@Nonnegative final int k) {
+    return partiallySortedBy(k, NULL_ACCEPTING_COMPARATOR);
   }
 
   @Nonnull
@@ -79,6 +261,16 @@ public abstract class Seq<E> implements
   @Nonnull
   public abstract Object[] toArray();
 
+  /**
+   * Copies the elements of this Seq into the given array, starting at the given offset.
+   */
+  void copyInto(@Nonnull final Object[] target, @Nonnegative final int offset) {
+    final int len = length();
+    for (int i = 0; i < len; i += 1) {
+      target[offset + i] = get(i);
+    }
+  }
+
   @Override
   @Nonnull
   public String asString(@Nonnull final String delimiter) {
@@ -127,6 +319,31 @@ public abstract class Seq<E> implements
     return -1;
   }
 
+  public int findLast(@Nullable final E e) {
+    for (int i = length() - 1; i >= 0; i -= 1) {
+      final E el = get(i);
+      if (Objects.equals(el, e)) {
+        return i;
+      }
+    }
+    return -1;
+  }
+
+  /**
+   * Returns this Seq with a hash index attached, which makes {@link #find(Object)}, {@link #findLast(Object)},
+   * {@link #contains(Object)} and {@link #count(Object)} O(1) instead of O(n).
+   * <p>
+   * The index is built on first use, which costs O(n), and is shared with views obtained via
+   * {@link #subSequenceView(int, int)} from the returned Seq.
+   */
+  @Nonnull
+  public Seq<E> indexed() {
+    if (isEmpty()) {
+      return this;
+    }
+    return new SeqIndexed<>(this);
+  }
+
   public int findBy(@Nonnull final Predicate<? super E> predicate) {
     Objects.requireNonNull(predicate, "'predicate' must not be null");
     final int len = length();
@@ -172,6 +389,118 @@ public abstract class Seq<E> implements
     }
   }
 
+  /**
+   * Returns a lazy pipeline over this Seq. Operations recorded on the pipeline are executed in a single fused pass
+   * when a terminal operation is invoked, see {@link SeqPipeline}.
+   */
+  @Nonnull
+  public SeqPipeline<E> lazy() {
+    return SeqPipeline.of(this);
+  }
+
+  /**
+   * Reduces the elements of this Seq using the given monoid. The index range is split into parts which are
+   * reduced in parallel on the common fork/join pool and the partial results are combined like in a tree.
+   * <p>
+   * Seqs of more than 1024 elements are thus accessed concurrently from the threads of the common pool, including the
+   * functions behind generated or mapped Seqs, which must therefore be thread safe. Use
+   * <code>foldl(monoid::combine, monoid.identity())</code>, which gives the same result, to reduce sequentially.
+   */
+  public E reduce(@Nonnull final Monoid<E> monoid) {
+    return par().reduce(monoid);
+  }
+
+  /**
+   * Maps every element of this Seq using the given function and reduces the results using the given monoid in
+   * parallel, see {@link #reduce(Monoid)}. The mapped elements are never materialized. The function is invoked
+   * concurrently from the threads of the common fork/join pool and must therefore be thread safe.
+   */
+  public <R> R mapReduce(@Nonnull final Function<? super E, ? extends R> function, @Nonnull final Monoid<R> monoid) {
+    return par().mapReduce(function, monoid);
+  }
+
+  /**
+   * Returns parallel bulk operations over this Seq that run on the common fork/join pool, see {@link SeqParallel}.
+   */
+  @Nonnull
+  public SeqParallel<E> par() {
+    return par(ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Returns parallel bulk operations over this Seq that run on the given fork/join pool, see {@link SeqParallel}.
+   */
+  @Nonnull
+  public SeqParallel<E> par(@Nonnull final ForkJoinPool pool) {
+    Objects.requireNonNull(pool, "'pool' must not be null");
+    return new SeqParallel<>(this, pool);
+  }
+
+  /**
+   * Returns a Seq with the given element added at the end.
+   * <p>
+   * Cost: O(n), unless this is a persistent Seq (see {@link #persistent()}) in which case it is O(log n).
+   */
+  @Nonnull
+  public Seq<E> appended(final E element) {
+    final Object[] array = Arrays.copyOf(toArray(), length() + 1);
+    array[length()] = element;
+    return new SeqSimple<>(array);
+  }
+
+  /**
+   * Returns a Seq with the given element added at the beginning.
+   * <p>
+   * Cost: O(n), unless this is a persistent Seq (see {@link #persistent()}) in which case it is O(log n).
+   */
+  @Nonnull
+  public Seq<E> prepended(final E element) {
+    final Object[] array = new Object[length() + 1];
+    array[0] = element;
+    System.arraycopy(toArray(), 0, array, 1, length());
+    return new SeqSimple<>(array);
+  }
+
+  /**
+   * Returns a Seq with the element at the given index replaced by the given element.
+   * <p>
+   * Cost: O(n), unless this is a persistent Seq (see {@link #persistent()}) in which case it is O(log n).
+   *
+   * @throws IndexOutOfBoundsException If the index is not within the bounds of this Seq.
+   */
+  @Nonnull
+  public Seq<E> updated(@Nonnegative final int index, final E element) {
+    checkBounds(index);
+    final Object[] array = toArray();
+    array[index] = element;
+    return new SeqSimple<>(array);
+  }
+
+  /**
+   * Returns a Seq with the elements of the given Seq added at the end.
+   * <p>
+   * Cost: O(n + m), unless this is a persistent Seq (see {@link #persistent()}) in which case it is O(log n) if the
+   * given Seq is persistent too, otherwise O(m).
+   */
+  @Nonnull
+  public Seq<E> appendedAll(@Nonnull final Seq<E> seq) {
+    Objects.requireNonNull(seq, "'seq' must not be null");
+    return concat(this, seq);
+  }
+
+  /**
+   * Returns a persistent version of this Seq which shares structure between versions, such that
+   * {@link #appended(Object)}, {@link #prepended(Object)}, {@link #updated(int, Object)},
+   * {@link #appendedAll(Seq)} and {@link #subSequence(int, int)} take O(log n) instead of O(n) on it, whereas
+   * {@link #get(int)} becomes O(log n) too.
+   * <p>
+   * Cost: O(n) - O(1) if this Seq already is persistent.
+   */
+  @Nonnull
+  public Seq<E> persistent() {
+    return SeqVector.fromArray(toArray());
+  }
+
   @Nonnull
   public <F> Seq<F> map(@Nonnull final Function<? super E, ? extends F> function) {
     Objects.requireNonNull(function, "'function' must not be null");
@@ -183,6 +512,36 @@ public abstract class Seq<E> implements
     return new SeqSimple<>(array);
   }
 
+  @Nonnull
+  public IntSeq mapToInt(@Nonnull final ToIntFunction<? super E> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    final int[] array = new int[length()];
+    for (int i = 0; i < array.length; i += 1) {
+      array[i] = function.applyAsInt(get(i));
+    }
+    return IntSeq.ofArrayZeroCopyInternal(array);
+  }
+
+  @Nonnull
+  public LongSeq mapToLong(@Nonnull final ToLongFunction<? super E> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    final long[] array = new long[length()];
+    for (int i = 0; i < array.length; i += 1) {
+      array[i] = function.applyAsLong(get(i));
+    }
+    return LongSeq.ofArrayZeroCopyInternal(array);
+  }
+
+  @Nonnull
+  public DoubleSeq mapToDouble(@Nonnull final ToDoubleFunction<? super E> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    final double[] array = new double[length()];
+    for (int i = 0; i < array.length; i += 1) {
+      array[i] = function.applyAsDouble(get(i));
+    }
+    return DoubleSeq.ofArrayZeroCopyInternal(array);
+  }
+
   @Nonnull
   public <F> Seq<F> flatMap(@Nonnull final Function<? super E, Seq<F>> function) {
     Objects.requireNonNull(function, "'function' must not be null");
@@ -310,6 +669,66 @@ public abstract class Seq<E> implements
     return Pair.of(b1.result(), b2.result());
   }
 
+  /**
+   * Returns a lazy view of this Seq split into consecutive chunks of the given size, the last chunk may be
+   * shorter. The chunks are created on access as views via {@link #subSequenceView(int, int)}, nothing is copied.
+   *
+   * @throws IllegalArgumentException If the size is not positive.
+   */
+  @Nonnull
+  public Seq<Seq<E>> chunked(@Nonnegative final int size) {
+    if (size <= 0) {
+      throw new IllegalArgumentException("'size' must be positive");
+    }
+    final int len = length();
+    if (len == 0) {
+      return empty();
+    }
+    return new SeqGenerated<>(i -> {
+      final int begin = i * size;
+      return subSequenceView(begin, begin + Math.min(size, len - begin));
+    }, (len - 1) / size + 1);
+  }
+
+  /**
+   * Returns a lazy view of all windows of the given size of this Seq, i.e. <code>windowed(size, 1)</code>.
+   *
+   * @throws IllegalArgumentException If the size is not positive.
+   */
+  @Nonnull
+  public Seq<Seq<E>> windowed(@Nonnegative final int size) {
+    return windowed(size, 1);
+  }
+
+  /**
+   * Returns a lazy view of the windows of the given size of this Seq, the first one starting at index 0 and every
+   * following one step elements after the previous one. Only complete windows are included. The windows are
+   * created on access as views via {@link #subSequenceView(int, int)}, nothing is copied.
+   *
+   * @throws IllegalArgumentException If the size or the step is not positive.
+   */
+  @Nonnull
+  public Seq<Seq<E>> windowed(@Nonnegative final int size, @Nonnegative final int step) {
+    if (size <= 0 || step <= 0) {
+      throw new IllegalArgumentException("'size' and 'step' must be positive");
+    }
+    final int len = length();
+    if (len < size) {
+      return empty();
+    }
+    return new SeqGenerated<>(i -> subSequenceView(i * step, i * step + size), (len - size) / step + 1);
+  }
+
+  /**
+   * Returns a sized, splittable stream of the chunks of this Seq, see {@link #chunked(int)}.
+   *
+   * @throws IllegalArgumentException If the size is not positive.
+   */
+  @Nonnull
+  public Stream<Seq<E>> batchStream(@Nonnegative final int size) {
+    return chunked(size).stream();
+  }
+
   @SuppressWarnings("unchecked")
   public E maximum() {
     try {
@@ -371,6 +790,37 @@ public abstract class Seq<E> implements
     return (Seq<F>) filter(element -> element != null && clazz.isAssignableFrom(element.getClass()));
   }
 
+  /**
+   * Returns the elements of this Seq at the positions of the bits set in the given mask. The mask is processed a
+   * word of 64 bits at a time and the result is allocated with its exact size.
+   *
+   * @throws IllegalArgumentException If the mask is not exactly as long as this Seq.
+   */
+  @Nonnull
+  public Seq<E> filter(@Nonnull final BitSeq mask) {
+    Objects.requireNonNull(mask, "'mask' must not be null");
+    if (mask.length() != length()) {
+      throw new IllegalArgumentException("'mask' must be exactly as long as this Seq");
+    }
+    final int cardinality = mask.cardinality();
+    if (cardinality == 0) {
+      return empty();
+    }
+    if (cardinality == length()) {
+      return this;
+    }
+    final Object[] array = new Object[cardinality];
+    final long[] words = mask.words;
+    int c = 0;
+    for (int w = 0; w < words.length; w += 1) {
+      for (long word = words[w]; word != 0; word &= word - 1) {
+        array[c] = get((w << 6) + Long.numberOfTrailingZeros(word));
+        c += 1;
+      }
+    }
+    return new SeqSimple<>(array);
+  }
+
   @Override
   @Nonnull
   public Seq<E> filter(@Nonnull final Predicate<? super E> predicate) {
@@ -591,14 +1041,39 @@ public abstract class Seq<E> implements
     return builder.result();
   }
 
+  /**
+   * Returns a predicate that tells whether an element is contained in the given Seq, to be queried about
+   * <code>queries</code> times.
+   * <p>
+   * Uses the Seq itself if it is sorted (binary search) or if linear search would be cheap, otherwise builds a
+   * hash set of its elements in O(n).
+   */
+  @Nonnull
+  static <E> Predicate<E> membership(@Nonnull final Seq<E> seq, @Nonnegative final int queries) {
+    if (seq instanceof SeqSimpleSorted || (long) queries * seq.length() <= LINEAR_SEARCH_THRESHOLD) {
+      return seq::contains;
+    }
+    final HashSet<E> elements = new HashSet<>(seq.toList());
+    return elements::contains;
+  }
+
+  private static final int LINEAR_SEARCH_THRESHOLD = 1024;
+
   /**
    * Returns a Seq with the elements from the given Seq removed.
    * <p>
    * Order is maintained, but the resuling Seq is not distinct; if this Seq contains duplicates then the result
    * may contain duplicates too.
+   * <p>
+   * Cost: O(n + m) on average, as the given Seq is hash indexed unless it is small or sorted.
    */
   public Seq<E> without(final Seq<E> seq) {
-    return filter(element -> !seq.contains(element));
+    Objects.requireNonNull(seq, "'seq' must not be null");
+    if (isEmpty() || seq.isEmpty()) {
+      return this;
+    }
+    final Predicate<E> contained = membership(seq, length());
+    return filter(element -> !contained.test(element));
   }
 
   /**
@@ -624,9 +1099,35 @@ public abstract class Seq<E> implements
    * Returns a distinct Seq that contains only the elements that occur in both sets.
    * <p>
    * Order is maintained.
+   * <p>
+   * Cost: O(n + m) on average, as the given Seq is hash indexed unless it is small or sorted.
    */
   public Seq<E> intersect(final Seq<E> seq) {
-    return union(seq).filter(e -> contains(e) && seq.contains(e));
+    Objects.requireNonNull(seq, "'seq' must not be null");
+    if (isEmpty() || seq.isEmpty()) {
+      return empty();
+    }
+    final Predicate<E> contained = membership(seq, length());
+    final HashSet<E> elements = new HashSet<>();
+    final SeqBuilder<E> builder = Seq.builder();
+    forEach(element -> {
+      if (contained.test(element) && elements.add(element)) {
+        builder.add(element);
+      }
+    });
+    return builder.result();
+  }
+
+  /**
+   * Returns a distinct Seq that contains the elements which occur in exactly one of this Seq and the given Seq.
+   * <p>
+   * Order is maintained: The elements from this Seq come first, followed by the ones from the given Seq.
+   * <p>
+   * Cost: O(n + m) on average.
+   */
+  public Seq<E> symmetricDifference(final Seq<E> seq) {
+    Objects.requireNonNull(seq, "'seq' must not be null");
+    return concat(without(seq), seq.without(this)).distinct();
   }
 
   @Override
@@ -697,26 +1198,56 @@ public abstract class Seq<E> implements
   @Nonnull
   @Override
   public Seq<E> rotated(final int amount) {
-    final Object[] array = new Object[size()];
-    if (amount == 0) {
+    final int len = length();
+    final int offset = rotationOffset(amount, len);
+    if (offset == 0) {
       return this;
     }
-    if (amount < 0) {
-      return leftRotated(-amount);
-    }
-    for (int i = 0; i < size(); i += 1) {
-      array[(i + amount) % size()] = get(i);
-    }
+    final Object[] array = new Object[len];
+    subSequenceView(offset, len).copyInto(array, 0);
+    subSequenceView(0, offset).copyInto(array, len - offset);
     return ofArrayZeroCopyInternal(array);
   }
 
+  /**
+   * Returns a view of this Seq rotated by amount positions, see {@link #rotated(int)}. Nothing is copied, the view
+   * merely translates indices.
+   *
+   * @param amount The amount of positions to rotate, positive values to the right, negative values to the left.
+   * @return The rotated view.
+   */
   @Nonnull
-  private Seq<E> leftRotated(final int amount) {
-    final Object[] array = new Object[size()];
-    for (int i = 0; i < size(); i += 1) {
-      array[i] = get((i + amount) % size());
+  public Seq<E> rotatedView(final int amount) {
+    final int len = length();
+    final int offset = rotationOffset(amount, len);
+    if (offset == 0) {
+      return this;
     }
-    return ofArrayZeroCopyInternal(array);
+    final int wrap = len - offset;
+    return new SeqGenerated<>(i -> get(i < wrap ? i + offset : i - wrap), len);
+  }
+
+  /**
+   * Returns the index in this Seq of the first element of the Seq rotated by amount positions.
+   */
+  @Nonnegative
+  private static int rotationOffset(final int amount, @Nonnegative final int length) {
+    if (length == 0) {
+      return 0;
+    }
+    final int offset = -(amount % length);
+    return offset < 0 ? offset + length : offset;
+  }
+
+  /**
+   * Returns a view of this Seq in reverse order. Nothing is copied, the view merely translates indices.
+   * <p>
+   * Array backed Seqs already return such a view from {@link #reversed()}.
+   */
+  @Nonnull
+  public Seq<E> reversedView() {
+    final int len = length();
+    return new SeqGenerated<>(i -> get(len - i - 1), len);
   }
 
   @Nonnull
@@ -725,12 +1256,156 @@ public abstract class Seq<E> implements
     return new PermutationIterator<>(this);
   }
 
+  /**
+   * Returns an iterator over the permutations of this Seq in lexicographic order of their indices which does not
+   * allocate anything per permutation.
+   * <p>
+   * Every call to next returns the same view, which reflects the current permutation until hasNext or next is
+   * called again. Use {@link #trimmedToSize()} on the view to keep a permutation.
+   */
+  @Nonnull
+  public Iterator<Seq<E>> permutationViewsIterator() {
+    final int[] indices = new int[length()];
+    Combinatorics.unrankPermutation(0, indices);
+    final Seq<E> view = new SeqGenerated<>(i -> get(indices[i]), indices.length);
+    return new Iterator<Seq<E>>() {
+      private boolean hasNext = true;
+      private boolean advance = false;
+
+      @Override
+      public boolean hasNext() {
+        if (advance) {
+          hasNext = Combinatorics.nextPermutation(indices);
+          advance = false;
+        }
+        return hasNext;
+      }
+
+      @Override
+      public Seq<E> next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        advance = true;
+        return view;
+      }
+    };
+  }
+
+  /**
+   * Writes every permutation of this Seq, in lexicographic order of their indices, into the given buffer and
+   * passes it to the consumer. Nothing is allocated per permutation.
+   *
+   * @param buffer   The buffer to write the permutations into, must have room for at least length() elements.
+   * @param consumer Receives the buffer once per permutation. The buffer must not be modified.
+   * @throws IllegalArgumentException If the buffer is too small.
+   */
+  public void forEachPermutation(@Nonnull final E[] buffer, @Nonnull final Consumer<? super E[]> consumer) {
+    Objects.requireNonNull(buffer, "'buffer' must not be null");
+    Objects.requireNonNull(consumer, "'consumer' must not be null");
+    final int len = length();
+    if (buffer.length < len) {
+      throw new IllegalArgumentException("'buffer' must have room for " + len + " elements");
+    }
+    final int[] indices = new int[len];
+    Combinatorics.unrankPermutation(0, indices);
+    do {
+      for (int i = 0; i < len; i += 1) {
+        buffer[i] = get(indices[i]);
+      }
+      consumer.accept(buffer);
+    } while (Combinatorics.nextPermutation(indices));
+  }
+
+  /**
+   * Returns a Spliterator over the permutations of this Seq in lexicographic order of their indices which splits
+   * by rank, thus parallel streams over it evenly distribute the permutations.
+   */
+  @Nonnull
+  public Spliterator<Seq<E>> permutationsSpliterator() {
+    return new PermutationSpliterator<>(this, 0, Combinatorics.factorial(length()));
+  }
+
+  /**
+   * Returns a parallel stream of the permutations of this Seq, see {@link #permutationsSpliterator()}.
+   */
+  @Nonnull
+  public Stream<Seq<E>> permutationsParallelStream() {
+    return StreamSupport.stream(permutationsSpliterator(), true);
+  }
+
   @Nonnull
   @Override
   public Seq<Seq<E>> permutations() {
     return permutationsStream().collect(collector());
   }
 
+  /**
+   * Returns a lazy view of the k-combinations of this Seq in lexicographic order of their indices, i.e. for
+   * <code>Seq.of(1, 2, 3).combinations(2)</code> the view contains [1, 2], [1, 3] and [2, 3].
+   * <p>
+   * Every combination is computed from its rank on access in O(n + k²), thus the space of combinations can be
+   * partitioned by rank using {@link #subSequenceView(int, int)} without enumerating it.
+   *
+   * @throws IllegalArgumentException If k is negative or there are more than Integer.MAX_VALUE combinations.
+   */
+  @Nonnull
+  public Seq<Seq<E>> combinations(@Nonnegative final int k) {
+    if (k < 0) {
+      throw new IllegalArgumentException("'k' must not be negative");
+    }
+    final int len = length();
+    final long count = Combinatorics.binomial(len, k);
+    if (count > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("There are more than Integer.MAX_VALUE combinations");
+    }
+    if (count == 0) {
+      return empty();
+    }
+    return new SeqGenerated<>(rank -> {
+      if (k == 0) {
+        return empty();
+      }
+      final int[] indices = new int[k];
+      Combinatorics.unrankCombination(rank, len, indices);
+      final Object[] array = new Object[k];
+      for (int i = 0; i < k; i += 1) {
+        array[i] = get(indices[i]);
+      }
+      return new SeqSimple<>(array);
+    }, (int) count);
+  }
+
+  /**
+   * Returns a lazy view of all subsets of this Seq. The subset with rank r contains the elements at the indices
+   * of the bits set in r, i.e. for <code>Seq.of(1, 2, 3).subsets()</code> the view contains [], [1], [2], [1, 2],
+   * [3], [1, 3], [2, 3] and [1, 2, 3].
+   * <p>
+   * Every subset is computed from its rank on access, thus the space of subsets can be partitioned by rank using
+   * {@link #subSequenceView(int, int)} without enumerating it.
+   *
+   * @throws IllegalArgumentException If this Seq has more than 30 elements.
+   */
+  @Nonnull
+  public Seq<Seq<E>> subsets() {
+    final int len = length();
+    if (len > 30) {
+      throw new IllegalArgumentException("A Seq with more than 30 elements has more than Integer.MAX_VALUE subsets");
+    }
+    return new SeqGenerated<>(rank -> {
+      if (rank == 0) {
+        return empty();
+      }
+      final Object[] array = new Object[Integer.bitCount(rank)];
+      int i = 0;
+      for (int bits = rank; bits != 0; bits &= bits - 1) {
+        array[i] = get(Integer.numberOfTrailingZeros(bits));
+        i += 1;
+      }
+      return new SeqSimple<>(array);
+    }, 1 << len);
+  }
+
   @Nonnull
   @Override
   public Iterator<E> iterator() {
@@ -750,6 +1425,23 @@ public abstract class Seq<E> implements
     };
   }
 
+  /**
+   * An index based Spliterator that is {@link Spliterator#SIZED}, {@link Spliterator#SUBSIZED},
+   * {@link Spliterator#IMMUTABLE} and {@link Spliterator#ORDERED} and splits in halves, thus parallel streams over
+   * a Seq scale well.
+   */
+  @Nonnull
+  @Override
+  public Spliterator<E> spliterator() {
+    return new SeqSpliterator<>(this, 0, length());
+  }
+
+  @Nonnull
+  @Override
+  public Stream<E> stream() {
+    return StreamSupport.stream(spliterator(), false);
+  }
+
   @Nonnull
   public Iterator<E> reverseIterator() {
     return reversed().iterator();
@@ -807,48 +1499,135 @@ public abstract class Seq<E> implements
     };
   }
 
+  /**
+   * A collector for building a Seq from a parallel stream.
+   * <p>
+   * Every thread accumulates into its own chunk, combining two partial results merely concatenates the lists of
+   * chunks, and all chunks are copied into the final Seq exactly once by the finisher. The regular
+   * {@link #collector()} in contrast copies the elements of the right hand side on every combine step.
+   */
+  public static <T> Collector<T, ?, Seq<T>> parallelCollector() {
+    return Collector.of(
+      ChunkedAccumulator<T>::new,
+      ChunkedAccumulator::add,
+      ChunkedAccumulator::combine,
+      ChunkedAccumulator::result
+    );
+  }
+
+  private static final class ChunkedAccumulator<T> {
+
+    private final ArrayList<SeqBuilder<T>> chunks = new ArrayList<>();
+
+    void add(final T element) {
+      if (chunks.isEmpty()) {
+        chunks.add(Seq.builder());
+      }
+      chunks.get(chunks.size() - 1).add(element);
+    }
+
+    ChunkedAccumulator<T> combine(final ChunkedAccumulator<T> other) {
+      chunks.addAll(other.chunks);
+      return this;
+    }
+
+    Seq<T> result() {
+      int size = 0;
+      for (final SeqBuilder<T> chunk : chunks) {
+        size += chunk.size();
+      }
+      if (size == 0) {
+        return Seq.empty();
+      }
+      final Object[] array = new Object[size];
+      int i = 0;
+      for (final SeqBuilder<T> chunk : chunks) {
+        for (final T element : chunk) {
+          array[i++] = element;
+        }
+      }
+      return new SeqSimple<>(array);
+    }
+  }
+
+  /**
+   * Groups the elements of this Seq by the keys computed by the given function in a single pass, invoking the
+   * function once per element. Elements within a group keep their order.
+   */
   @Nonnull
   public <K> Mapping<K, Seq<E>> toMap(@Nonnull final Function<? super E, ? extends K> groupingFunction) {
     Objects.requireNonNull(groupingFunction, "'groupingFunction' must not be null");
     final Map<K, SeqBuilder<E>> map = new HashMap<>();
-    boolean allComparable = true;
     for (final E element : this) {
-      final K key = groupingFunction.apply(element);
-      allComparable = allComparable && key instanceof Comparable;
-      if (!map.containsKey(key)) {
-        map.put(key, Seq.builder());
-      }
-      map.get(key).add(element);
+      map.computeIfAbsent(groupingFunction.apply(element), key -> Seq.builder()).add(element);
     }
     if (map.isEmpty()) {
       return Mapping.empty();
     }
-    final Map<K, Seq<E>> finalMap = new HashMap<>();
-    map.forEach((key, builder) -> finalMap.put(key, builder.result()));
-    return Mapping.wrap(finalMap);
+    return Mapping.wrap(results(map));
+  }
+
+  @Nonnull
+  static <K, E> Map<K, Seq<E>> results(@Nonnull final Map<K, SeqBuilder<E>> builders) {
+    final Map<K, Seq<E>> map = new HashMap<>(builders.size() * 4 / 3 + 1);
+    builders.forEach((key, builder) -> map.put(key, builder.result()));
+    return map;
   }
 
+  /**
+   * Groups the elements of this Seq by the keys computed by the given function into an ArrayMap, see
+   * {@link #toMap(Function)}. The elements are grouped in a hash map and the distinct keys are sorted once
+   * afterwards. Keys which compare as equal but are not equal are merged into one group, as the ArrayMap could not
+   * tell them apart.
+   */
   @Nonnull
   public <K extends Comparable<K>> ArrayMap<K, Seq<E>> toArrayMap(@Nonnull final Function<? super E, ? extends K> groupingFunction) {
     Objects.requireNonNull(groupingFunction, "'groupingFunction' must not be null");
-    final TreeMap<K, SeqBuilder<E>> map = new TreeMap<>();
-    for (final E element : this) {
-      final K key = groupingFunction.apply(element);
-      if (!map.containsKey(key)) {
-        map.put(key, Seq.builder());
+    final Map<K, Integer> ids = new HashMap<>();
+    final SeqBuilder<K> distinct = Seq.builder();
+    final int[] groupOf = new int[length()];
+    for (int i = 0; i < groupOf.length; i += 1) {
+      final K key = groupingFunction.apply(get(i));
+      Integer id = ids.get(key);
+      if (id == null) {
+        id = distinct.size();
+        ids.put(key, id);
+        distinct.add(key);
       }
-      map.get(key).add(element);
+      groupOf[i] = id;
     }
-    if (map.isEmpty()) {
-      return ArrayMap.empty();
+    return SeqGrouping.groupOnComparable(this, groupOf, distinct.result().toArray());
+  }
+
+  /**
+   * Groups the elements of this Seq by the int keys computed by the given function into an ArrayMap without
+   * boxing the keys, see {@link #toMap(Function)}.
+   * <p>
+   * Dense keys, i.e. keys whose range is smaller than the length of this Seq, are grouped using a counting sort,
+   * other keys using a hash table of primitive ints. The groups are views on a single array holding all elements.
+   */
+  @Nonnull
+  public ArrayMap<Integer, Seq<E>> toArrayMapOnInt(@Nonnull final ToIntFunction<? super E> groupingFunction) {
+    Objects.requireNonNull(groupingFunction, "'groupingFunction' must not be null");
+    final int[] keys = new int[length()];
+    for (int i = 0; i < keys.length; i += 1) {
+      keys[i] = groupingFunction.applyAsInt(get(i));
     }
-    final Object[] keys = Seq.ofCollectionInternal(map.keySet()).backingArray;
-    final Object[] values = new Object[keys.length];
+    return SeqGrouping.groupOnInt(this, keys);
+  }
+
+  /**
+   * Groups the elements of this Seq by the long keys computed by the given function into an ArrayMap without
+   * boxing the keys, see {@link #toArrayMapOnInt(ToIntFunction)}.
+   */
+  @Nonnull
+  public ArrayMap<Long, Seq<E>> toArrayMapOnLong(@Nonnull final ToLongFunction<? super E> groupingFunction) {
+    Objects.requireNonNull(groupingFunction, "'groupingFunction' must not be null");
+    final long[] keys = new long[length()];
     for (int i = 0; i < keys.length; i += 1) {
-      //noinspection SuspiciousMethodCalls
-      values[i] = map.get(keys[i]).result();
+      keys[i] = groupingFunction.applyAsLong(get(i));
     }
-    return new ArrayMap<>(keys, values);
+    return SeqGrouping.groupOnLong(this, keys);
   }
 
   @SuppressWarnings("unchecked")
@@ -955,57 +1734,18 @@ public abstract class Seq<E> implements
     return b.result();
   }
 
+  /**
+   * Creates a view on the concatenation of the given seqs without copying their elements.
+   * <p>
+   * Random access into the result takes O(log k) where k is the number of given seqs. Views created by this
+   * method are not nested when passed to this method again but merged, and the result is flattened into a single
+   * array if it consists of too many small pieces.
+   */
   @SafeVarargs
   @Nonnull
   public static <E> Seq<E> concatView(@Nonnull final Seq<E>... seqs) {
     Objects.requireNonNull(seqs);
-
-    if (seqs.length == 0) {
-      return Seq.empty();
-    }
-    int size = 0;
-    for (final Seq<E> seq : seqs) {
-      size += seq.length();
-    }
-    if (size == 0) {
-      return Seq.empty();
-    }
-    return new SeqGenerated<E>(
-      ix -> {
-        Seq<E> seq = seqs[0];
-        for (int i = 1; ix >= seq.length(); seq = seqs[i++]) {
-          ix -= seq.length();
-        }
-        return seq.get(ix);
-      },
-      size
-    ) {
-      @Nonnull
-      @Override
-      public Iterator<E> iterator() {
-        return new Iterator<E>() {
-
-          private int i = 0;
-          private int j = 0;
-
-          @Override
-          public boolean hasNext() {
-            return i < seqs.length && j < seqs[i].length();
-          }
-
-          @Override
-          public E next() {
-            final E elem = seqs[i].get(j);
-            j += 1;
-            if (j == seqs[i].length()) {
-              j = 0;
-              i += 1;
-            }
-            return elem;
-          }
-        };
-      }
-    };
+    return SeqRope.of(seqs);
   }
 
   @SafeVarargs
@@ -1022,13 +1762,53 @@ public abstract class Seq<E> implements
     final Object[] array = new Object[size];
     int i = 0;
     for (final Seq<E> seq : seqs) {
-      for (final E elem : seq) {
-        array[i++] = elem;
-      }
+      seq.copyInto(array, i);
+      i += seq.length();
     }
     return new SeqSimple<>(array);
   }
 
+  /**
+   * Returns a lazy view of the cartesian product of the given seqs, in the order of nested loops over them with
+   * the last seq varying fastest.
+   * <p>
+   * Every tuple is computed from its rank on access in O(k) where k is the number of given seqs, thus the product
+   * can be partitioned by rank using {@link #subSequenceView(int, int)} without enumerating it.
+   *
+   * @throws IllegalArgumentException If the product has more than Integer.MAX_VALUE tuples.
+   */
+  @SafeVarargs
+  @Nonnull
+  public static <E> Seq<Seq<E>> product(@Nonnull final Seq<? extends E>... seqs) {
+    Objects.requireNonNull(seqs);
+    final Seq<? extends E>[] factors = seqs.clone();
+    for (final Seq<? extends E> factor : factors) {
+      if (factor.isEmpty()) {
+        return empty();
+      }
+    }
+    long count = 1;
+    for (final Seq<? extends E> factor : factors) {
+      count *= factor.length();
+      if (count > Integer.MAX_VALUE) {
+        throw new IllegalArgumentException("The product has more than Integer.MAX_VALUE tuples");
+      }
+    }
+    return new SeqGenerated<>(rank -> {
+      if (factors.length == 0) {
+        return empty();
+      }
+      final Object[] tuple = new Object[factors.length];
+      int remaining = rank;
+      for (int i = factors.length - 1; i >= 0; i -= 1) {
+        final int len = factors[i].length();
+        tuple[i] = factors[i].get(remaining % len);
+        remaining /= len;
+      }
+      return new SeqSimple<>(tuple);
+    }, (int) count);
+  }
+
   @Nonnull
   public static <E> SeqBuilder<E> builder() {
     return new SeqBuilder<>();
@@ -1045,10 +1825,67 @@ public abstract class Seq<E> implements
     return new SeqGenerated<>(function, length);
   }
 
+  /**
+   * Creates a Seq whose elements are generated by the given function on first access and cached afterwards.
+   * <p>
+   * The Seq may be shared between threads: the function is invoked at most once per index, threads accessing
+   * an element which is being generated by another thread wait for it, and reading a cached element does not
+   * lock.
+   */
   @Nonnull
   public static <E> Seq<E> ofGeneratorMemoizing(@Nonnull final IntFunction<E> function, @Nonnegative final int length) {
     Objects.requireNonNull(function, "'function' must not be null.");
-    return new SeqGenerated<>(Control.memoizing(function), length);
+    return new SeqGenerated<>(new MemoizingGenerator<>(function, length), length);
+  }
+
+  /**
+   * Creates a Seq of the fixed-width records in the given channel, which is mapped into memory read only. The
+   * records are decoded lazily, every time they are accessed.
+   *
+   * @param channel    The channel to map. It may be closed after this method returned.
+   * @param recordSize The size of every record in bytes. The size of the channel must be a multiple of it.
+   * @param codec      Decodes a record.
+   * @throws IllegalArgumentException If the size of the channel is not a multiple of the record size or it
+   *                                  contains more than Integer.MAX_VALUE records.
+   */
+  @Nonnull
+  public static <E> Seq<E> mapped(
+    @Nonnull final FileChannel channel,
+    @Nonnegative final int recordSize,
+    @Nonnull final RecordCodec<E> codec
+  ) throws IOException {
+    return mapped(channel, recordSize, codec, 0);
+  }
+
+  /**
+   * Like {@link #mapped(FileChannel, int, RecordCodec)} with a direct mapped cache of the given (small) size which
+   * holds the most recently decoded records.
+   */
+  @Nonnull
+  public static <E> Seq<E> mapped(
+    @Nonnull final FileChannel channel,
+    @Nonnegative final int recordSize,
+    @Nonnull final RecordCodec<E> codec,
+    @Nonnegative final int cacheSize
+  ) throws IOException {
+    Objects.requireNonNull(channel, "'channel' must not be null");
+    Objects.requireNonNull(codec, "'codec' must not be null");
+    return SeqMapped.map(channel, recordSize, codec, cacheSize, SeqMapped.MAXIMUM_SEGMENT_SHIFT);
+  }
+
+  /**
+   * Like {@link #mapped(FileChannel, int, RecordCodec)} for the file at the given path.
+   */
+  @Nonnull
+  public static <E> Seq<E> mapped(
+    @Nonnull final Path path,
+    @Nonnegative final int recordSize,
+    @Nonnull final RecordCodec<E> codec
+  ) throws IOException {
+    Objects.requireNonNull(path, "'path' must not be null");
+    try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return mapped(channel, recordSize, codec);
+    }
   }
 
   @Nonnull
@@ -1088,7 +1925,7 @@ public abstract class Seq<E> implements
     if (array.length == 0) {
       return Seq.empty();
     }
-    return ofGenerator(ix -> array[ix], array.length);
+    return new IntSeq.Boxed(new IntSeq(array), true);
   }
 
   @Nonnull
@@ -1096,7 +1933,7 @@ public abstract class Seq<E> implements
     if (array.length == 0) {
       return Seq.empty();
     }
-    return ofGenerator(ix -> array[ix], array.length);
+    return new LongSeq.Boxed(new LongSeq(array), true);
   }
 
   @Nonnull
@@ -1112,7 +1949,7 @@ public abstract class Seq<E> implements
     if (array.length == 0) {
       return Seq.empty();
     }
-    return ofGenerator(ix -> array[ix], array.length);
+    return new DoubleSeq.Boxed(new DoubleSeq(array), true);
   }
 
   @Nonnull
@@ -1231,6 +2068,9 @@ public abstract class Seq<E> implements
 
   public static boolean any(@Nonnull final Seq<Boolean> seq) {
     Objects.requireNonNull(seq, "the supplied sequence must not be null");
+    if (seq instanceof BitSeq.Boxed) {
+      return ((BitSeq.Boxed) seq).source.any();
+    }
     for (final Boolean e : seq) {
       if (Boolean.TRUE.equals(e)) {
         return true;
@@ -1241,6 +2081,9 @@ public abstract class Seq<E> implements
 
   public static boolean all(@Nonnull final Seq<Boolean> seq) {
     Objects.requireNonNull(seq, "the supplied sequence must not be null");
+    if (seq instanceof BitSeq.Boxed) {
+      return ((BitSeq.Boxed) seq).source.all();
+    }
     for (final Boolean e : seq) {
       if (!Boolean.TRUE.equals(e)) {
         return false;
@@ -1251,31 +2094,49 @@ public abstract class Seq<E> implements
 
   public static int intSum(final Seq<Integer> seq) {
     Objects.requireNonNull(seq, "'seq' must not be null");
+    if (seq instanceof IntSeq.Boxed) {
+      return ((IntSeq.Boxed) seq).source.sum();
+    }
     return seq.foldl(Operators::plus, 0);
   }
 
   public static long longSum(final Seq<Long> seq) {
     Objects.requireNonNull(seq, "'seq' must not be null");
+    if (seq instanceof LongSeq.Boxed) {
+      return ((LongSeq.Boxed) seq).source.sum();
+    }
     return seq.foldl(Operators::plus, 0L);
   }
 
   public static double doubleSum(final Seq<Double> seq) {
     Objects.requireNonNull(seq, "'seq' must not be null");
+    if (seq instanceof DoubleSeq.Boxed) {
+      return ((DoubleSeq.Boxed) seq).source.sum();
+    }
     return seq.foldl(Operators::plus, 0.0);
   }
 
   public static int intProduct(final Seq<Integer> seq) {
     Objects.requireNonNull(seq, "'seq' must not be null");
+    if (seq instanceof IntSeq.Boxed) {
+      return ((IntSeq.Boxed) seq).source.product();
+    }
     return seq.foldl(Operators::times, 1);
   }
 
   public static long longProduct(final Seq<Long> seq) {
     Objects.requireNonNull(seq, "'seq' must not be null");
+    if (seq instanceof LongSeq.Boxed) {
+      return ((LongSeq.Boxed) seq).source.product();
+    }
     return seq.foldl(Operators::times, 1L);
   }
 
   public static double doubleProduct(final Seq<Double> seq) {
     Objects.requireNonNull(seq, "'seq' must not be null");
+    if (seq instanceof DoubleSeq.Boxed) {
+      return ((DoubleSeq.Boxed) seq).source.product();
+    }
     return seq.foldl(Operators::times, 1.0);
   }
 
@@ -3,53 +3,172 @@ package de.scravy.bedrock;
 import javax.annotation.Nonnegative;
 import javax.annotation.Nonnull;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 
 /**
  * A builder for immutable sequences. Can not be instantiated directly, use Seq.builder
+ * <p>
+ * Elements are collected in an array which is handed over to the resulting Seq without copying it if it is
+ * exactly full; whether a partially filled array is copied is decided by the {@link TrimPolicy}. Very large
+ * sequences are collected in chunks of 2^20 elements which are never copied into one contiguous array.
  *
  * @param <E> The type of the elements the builder accepts.
  */
 public final class SeqBuilder<E> extends AbstractBuilder<E, Seq<E>, SeqBuilder<E>> {
 
-  private final ArrayList<E> arrayList;
+  /**
+   * Decides whether the result of a {@link SeqBuilder} is compacted, i.e. copied into an array of exactly the
+   * right size, or may retain unused capacity.
+   */
+  public enum TrimPolicy {
+    /**
+     * Always compact. The result never retains unused capacity.
+     */
+    ALWAYS,
+    /**
+     * Compact only if more than a quarter of the used capacity would be wasted. This is the default.
+     */
+    AUTOMATIC,
+    /**
+     * Never compact. Use {@link Seq#trimmedToSize()} on the result to compact it later on.
+     */
+    NEVER;
+
+    boolean shouldTrim(@Nonnegative final int used, @Nonnegative final int capacity) {
+      switch (this) {
+        case ALWAYS:
+          return used < capacity;
+        case AUTOMATIC:
+          return capacity - used > used >>> 2;
+        default:
+          return false;
+      }
+    }
+  }
+
+  private static final int DEFAULT_CAPACITY = 10;
+
+  private static final Object[] NO_ELEMENTS = new Object[0];
+
+  private final int chunkShift;
+  private TrimPolicy trimPolicy = TrimPolicy.AUTOMATIC;
+
+  /**
+   * Full chunks, or null if all elements fit into <code>array</code>.
+   */
+  private ArrayList<Object[]> chunks = null;
+  private Object[] array;
+  private int fill = 0;
+  private int size = 0;
+
+  /**
+   * Whether <code>array</code> has been handed over to a Seq, which means that elements up to <code>fill</code>
+   * must not be overwritten anymore.
+   */
+  private boolean shared = false;
 
   public SeqBuilder() {
-    this.arrayList = new ArrayList<>();
+    this(0);
   }
 
   public SeqBuilder(final int sizeHint) {
-    this.arrayList = new ArrayList<>(sizeHint);
+    this(sizeHint, SeqChunked.DEFAULT_CHUNK_SHIFT);
+  }
+
+  SeqBuilder(final int sizeHint, @Nonnegative final int chunkShift) {
+    this.chunkShift = chunkShift;
+    this.array = sizeHint <= 0 ? NO_ELEMENTS : new Object[Math.min(sizeHint, 1 << chunkShift)];
+  }
+
+  /**
+   * Sets the {@link TrimPolicy} which decides whether {@link #result()} compacts the result.
+   */
+  @Nonnull
+  public SeqBuilder<E> withTrimPolicy(@Nonnull final TrimPolicy trimPolicy) {
+    this.trimPolicy = Objects.requireNonNull(trimPolicy, "'trimPolicy' must not be null");
+    return this;
   }
 
   @Nonnull
   @Override
   public SeqBuilder<E> add(final E elem) {
-    arrayList.add(elem);
+    if (fill == array.length) {
+      grow();
+    }
+    array[fill] = elem;
+    fill += 1;
+    size += 1;
     return this;
   }
 
+  private void grow() {
+    final int chunkSize = 1 << chunkShift;
+    if (array.length < chunkSize) {
+      final int capacity = Math.min(chunkSize, Math.max(DEFAULT_CAPACITY, array.length + (array.length >> 1)));
+      array = Arrays.copyOf(array, capacity);
+    } else {
+      if (chunks == null) {
+        chunks = new ArrayList<>();
+      }
+      chunks.add(array);
+      array = new Object[chunkSize];
+      fill = 0;
+    }
+    shared = false;
+  }
+
   @Nonnull
   @Override
   public Seq<E> result() {
-    if (arrayList.isEmpty()) {
+    if (size == 0) {
       return Seq.empty();
     }
-    final Object[] array = arrayList.toArray(new Object[0]);
-    return new SeqSimple<>(array);
+    if (chunks == null) {
+      if (trimPolicy.shouldTrim(fill, array.length)) {
+        return new SeqSimple<>(Arrays.copyOf(array, fill));
+      }
+      shared = true;
+      if (fill == array.length) {
+        return new SeqSimple<>(array);
+      }
+      return new SeqSimpleView<>(array, 0, fill);
+    }
+    final Object[][] all = chunks.toArray(new Object[chunks.size() + 1][]);
+    if (trimPolicy.shouldTrim(fill, array.length)) {
+      all[chunks.size()] = Arrays.copyOf(array, fill);
+    } else {
+      all[chunks.size()] = array;
+      shared = true;
+    }
+    return new SeqChunked<>(all, chunkShift, 0, size);
   }
 
   @Nonnull
   <F extends Comparable<? super F>> Seq<F> resultSortedInternal() {
-    if (arrayList.isEmpty()) {
+    if (size == 0) {
       return Seq.empty();
     }
-    final Object[] array = arrayList.toArray(new Object[0]);
-    return new SeqSimpleSorted<>(array);
+    if (chunks == null && fill == array.length) {
+      shared = true;
+      return new SeqSimpleSorted<>(array);
+    }
+    final Object[] result = new Object[size];
+    int offset = 0;
+    if (chunks != null) {
+      for (final Object[] chunk : chunks) {
+        System.arraycopy(chunk, 0, result, offset, chunk.length);
+        offset += chunk.length;
+      }
+    }
+    System.arraycopy(array, 0, result, offset, fill);
+    return new SeqSimpleSorted<>(result);
   }
 
   public boolean isEmpty() {
-    return arrayList.isEmpty();
+    return size == 0;
   }
 
   public boolean nonEmpty() {
@@ -58,19 +177,39 @@ public final class SeqBuilder<E> extends AbstractBuilder<E, Seq<E>, SeqBuilder<E
 
   @Nonnegative
   public int size() {
-    return arrayList.size();
+    return size;
   }
 
   @Nonnull
   public SeqBuilder<E> clear() {
-    arrayList.clear();
+    if (shared || chunks != null) {
+      array = NO_ELEMENTS;
+    } else {
+      Arrays.fill(array, 0, fill, null);
+    }
+    chunks = null;
+    fill = 0;
+    size = 0;
+    shared = false;
     return this;
   }
 
+  @SuppressWarnings("unchecked")
+  private E elementAt(final int index) {
+    if (chunks == null) {
+      return (E) array[index];
+    }
+    final int chunk = index >>> chunkShift;
+    if (chunk == chunks.size()) {
+      return (E) array[index & ((1 << chunkShift) - 1)];
+    }
+    return (E) chunks.get(chunk)[index & ((1 << chunkShift) - 1)];
+  }
+
   @Override
   public Iterator<E> iterator() {
     return new Iterator<E>() {
-      private int n = arrayList.size();
+      private int n = size;
       private int i = 0;
 
       @Override
@@ -80,7 +219,10 @@ public final class SeqBuilder<E> extends AbstractBuilder<E, Seq<E>, SeqBuilder<E
 
       @Override
       public E next() {
-        return arrayList.get(i++);
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return elementAt(i++);
       }
     };
   }
@@ -0,0 +1,134 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.lang.reflect.Array;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A Seq backed by a list of equally sized chunks, created by a {@link SeqBuilder} that received more elements
+ * than fit into a single chunk.
+ * <p>
+ * The chunk size is a power of two, thus {@link #get(int)} is O(1). Only the last chunk may be filled partially.
+ *
+ * @param <E> The type of the elements contained in this Sequence.
+ */
+class SeqChunked<E> extends Seq<E> {
+
+  /**
+   * The default chunk size used by {@link SeqBuilder} is 2^20.
+   */
+  static final int DEFAULT_CHUNK_SHIFT = 20;
+
+  private final Object[][] chunks;
+  private final int chunkShift;
+  private final int beginOffset;
+  private final int endOffset;
+
+  SeqChunked(
+    @Nonnull final Object[][] chunks,
+    @Nonnegative final int chunkShift,
+    @Nonnegative final int beginOffset,
+    @Nonnegative final int endOffset
+  ) {
+    this.chunks = chunks;
+    this.chunkShift = chunkShift;
+    this.beginOffset = beginOffset;
+    this.endOffset = endOffset;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public E get(@Nonnegative final int index) {
+    checkBounds(index);
+    final int i = beginOffset + index;
+    return (E) chunks[i >>> chunkShift][i & ((1 << chunkShift) - 1)];
+  }
+
+  @Nonnegative
+  @Override
+  public int length() {
+    return endOffset - beginOffset;
+  }
+
+  @Override
+  void copyInto(@Nonnull final Object[] target, final int offset) {
+    final int chunkSize = 1 << chunkShift;
+    int i = beginOffset;
+    int t = offset;
+    while (i < endOffset) {
+      final int inChunk = i & (chunkSize - 1);
+      final int n = Math.min(chunkSize - inChunk, endOffset - i);
+      System.arraycopy(chunks[i >>> chunkShift], inChunk, target, t, n);
+      i += n;
+      t += n;
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Object[] toArray() {
+    final Object[] array = new Object[length()];
+    copyInto(array, 0);
+    return array;
+  }
+
+  @Nonnull
+  @Override
+  public E[] toArray(@Nonnull final Class<E> evidence) {
+    Objects.requireNonNull(evidence);
+    @SuppressWarnings("unchecked") final E[] array = (E[]) Array.newInstance(evidence, length());
+    copyInto(array, 0);
+    return array;
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> trimmedToSize() {
+    return new SeqSimple<>(toArray());
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> subSequenceView(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    final int begin = Math.max(0, beginOffset);
+    final int end = Math.min(length(), endOffset);
+    if (end - begin <= 0) {
+      return empty();
+    }
+    return new SeqChunked<>(chunks, chunkShift, this.beginOffset + begin, this.beginOffset + end);
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> subSequence(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    return subSequenceView(beginOffset, endOffset).trimmedToSize();
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> reversed() {
+    return new SeqReversed<>(toArray());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Seq<E> sorted() {
+    final Object[] array = toArray();
+    Arrays.sort(array, NULL_ACCEPTING_COMPARATOR);
+    return new SeqSimpleSorted(array);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Seq<E> sortedBy(@Nonnull final Comparator<? super E> comparator) {
+    Objects.requireNonNull(comparator);
+    final Object[] array = toArray();
+    Arrays.sort(array, (Comparator<Object>) comparator);
+    return new SeqSimple<>(array);
+  }
+}
@@ -0,0 +1,254 @@
+package de.scravy.bedrock;
+
+import lombok.experimental.UtilityClass;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Arrays;
+
+/**
+ * Grouping by primitive keys for {@link Seq#toArrayMapOnInt(java.util.function.ToIntFunction)} and
+ * {@link Seq#toArrayMapOnLong(java.util.function.ToLongFunction)}, and by Comparable keys for
+ * {@link Seq#toArrayMap(java.util.function.Function)}.
+ * <p>
+ * Every element is assigned a group id, dense keys using their offset from the smallest key, sparse keys using an
+ * open addressing hash table of primitive keys. The elements are then scattered into a single array ordered by
+ * key (a counting sort), in which every group is a contiguous range. No key is boxed except for one per group.
+ */
+@UtilityClass
+class SeqGrouping {
+
+  private static final int MINIMUM_TABLE_SIZE = 16;
+
+  @Nonnull
+  static <E> ArrayMap<Integer, Seq<E>> groupOnInt(@Nonnull final Seq<E> seq, @Nonnull final int[] keys) {
+    final int n = keys.length;
+    if (n == 0) {
+      return ArrayMap.empty();
+    }
+    int min = keys[0];
+    int max = keys[0];
+    for (final int key : keys) {
+      min = Math.min(min, key);
+      max = Math.max(max, key);
+    }
+    if ((long) max - min < n) {
+      final int[] groupOf = new int[n];
+      for (int i = 0; i < n; i += 1) {
+        groupOf[i] = keys[i] - min;
+      }
+      final int base = min;
+      return assemble(seq, groupOf, max - min + 1, null, group -> base + group);
+    }
+    final int[] groupOf = new int[n];
+    int[] table = new int[MINIMUM_TABLE_SIZE];
+    int[] ids = new int[MINIMUM_TABLE_SIZE];
+    int[] distinct = new int[MINIMUM_TABLE_SIZE];
+    int groups = 0;
+    for (int i = 0; i < n; i += 1) {
+      final int key = keys[i];
+      int slot = hash(key, table.length);
+      while (ids[slot] != 0 && table[slot] != key) {
+        slot = (slot + 1) & (table.length - 1);
+      }
+      if (ids[slot] == 0) {
+        if (groups == distinct.length) {
+          distinct = Arrays.copyOf(distinct, groups * 2);
+        }
+        distinct[groups] = key;
+        groups += 1;
+        table[slot] = key;
+        ids[slot] = groups;
+        groupOf[i] = groups - 1;
+        if (groups * 2 > table.length) {
+          table = new int[table.length * 2];
+          ids = new int[table.length];
+          for (int g = 0; g < groups; g += 1) {
+            int s = hash(distinct[g], table.length);
+            while (ids[s] != 0) {
+              s = (s + 1) & (table.length - 1);
+            }
+            table[s] = distinct[g];
+            ids[s] = g + 1;
+          }
+        }
+      } else {
+        groupOf[i] = ids[slot] - 1;
+      }
+    }
+    final int[] distinctKeys = distinct;
+    final int[] order = SeqSorting.sortedIndices(Arrays.copyOf(distinct, groups));
+    return assemble(seq, groupOf, groups, order, group -> distinctKeys[group]);
+  }
+
+  @Nonnull
+  static <E> ArrayMap<Long, Seq<E>> groupOnLong(@Nonnull final Seq<E> seq, @Nonnull final long[] keys) {
+    final int n = keys.length;
+    if (n == 0) {
+      return ArrayMap.empty();
+    }
+    long min = keys[0];
+    long max = keys[0];
+    for (final long key : keys) {
+      min = Math.min(min, key);
+      max = Math.max(max, key);
+    }
+    final long range = max - min;
+    if (range >= 0 && range < n) {
+      final int[] groupOf = new int[n];
+      for (int i = 0; i < n; i += 1) {
+        groupOf[i] = (int) (keys[i] - min);
+      }
+      final long base = min;
+      return assemble(seq, groupOf, (int) range + 1, null, group -> base + group);
+    }
+    final int[] groupOf = new int[n];
+    long[] table = new long[MINIMUM_TABLE_SIZE];
+    int[] ids = new int[MINIMUM_TABLE_SIZE];
+    long[] distinct = new long[MINIMUM_TABLE_SIZE];
+    int groups = 0;
+    for (int i = 0; i < n; i += 1) {
+      final long key = keys[i];
+      int slot = hash(key, table.length);
+      while (ids[slot] != 0 && table[slot] != key) {
+        slot = (slot + 1) & (table.length - 1);
+      }
+      if (ids[slot] == 0) {
+        if (groups == distinct.length) {
+          distinct = Arrays.copyOf(distinct, groups * 2);
+        }
+        distinct[groups] = key;
+        groups += 1;
+        table[slot] = key;
+        ids[slot] = groups;
+        groupOf[i] = groups - 1;
+        if (groups * 2 > table.length) {
+          table = new long[table.length * 2];
+          ids = new int[table.length];
+          for (int g = 0; g < groups; g += 1) {
+            int s = hash(distinct[g], table.length);
+            while (ids[s] != 0) {
+              s = (s + 1) & (table.length - 1);
+            }
+            table[s] = distinct[g];
+            ids[s] = g + 1;
+          }
+        }
+      } else {
+        groupOf[i] = ids[slot] - 1;
+      }
+    }
+    final long[] distinctKeys = distinct;
+    final int[] order = SeqSorting.sortedIndices(groups, (a, b) -> Long.compare(distinctKeys[a], distinctKeys[b]));
+    return assemble(seq, groupOf, groups, order, group -> distinctKeys[group]);
+  }
+
+  /**
+   * Groups the elements by the given group ids, where the group with id g has the key <code>distinct[g]</code>.
+   * Group ids must be assigned in the order in which their keys are first encountered.
+   * <p>
+   * The keys are distinct according to {@link Object#equals(Object)}, but the ArrayMap looks them up using
+   * {@link Comparable#compareTo(Object)}. Groups whose keys compare as equal are therefore merged, keeping the
+   * key encountered first and the order of the elements, just like grouping in a TreeMap does.
+   */
+  @Nonnull
+  @SuppressWarnings("unchecked")
+  static <K extends Comparable<? super K>, E> ArrayMap<K, Seq<E>> groupOnComparable(
+    @Nonnull final Seq<E> seq,
+    @Nonnull final int[] groupOf,
+    @Nonnull final Object[] distinct
+  ) {
+    final int groups = distinct.length;
+    if (groups == 0) {
+      return ArrayMap.empty();
+    }
+    final int[] order = SeqSorting.sortedIndices(groups, (a, b) -> ((K) distinct[a]).compareTo((K) distinct[b]));
+    final int[] rankOf = new int[groups];
+    final Object[] rankKeys = new Object[groups];
+    int ranks = 0;
+    for (int r = 0; r < groups; r += 1) {
+      final int g = order[r];
+      if (r == 0 || ((K) distinct[g]).compareTo((K) rankKeys[ranks - 1]) != 0) {
+        rankKeys[ranks] = distinct[g];
+        ranks += 1;
+      }
+      rankOf[g] = ranks - 1;
+    }
+    if (ranks == groups) {
+      return assemble(seq, groupOf, groups, order, group -> (K) distinct[group]);
+    }
+    for (int i = 0; i < groupOf.length; i += 1) {
+      groupOf[i] = rankOf[groupOf[i]];
+    }
+    return assemble(seq, groupOf, ranks, null, rank -> (K) rankKeys[rank]);
+  }
+
+  private static int hash(final int key, @Nonnegative final int tableSize) {
+    return (key * 0x9E3779B9) >>> (32 - Integer.numberOfTrailingZeros(tableSize));
+  }
+
+  private static int hash(final long key, @Nonnegative final int tableSize) {
+    return (int) ((key * 0x9E3779B97F4A7C15L) >>> (64 - Integer.numberOfTrailingZeros(tableSize)));
+  }
+
+  @FunctionalInterface
+  private interface GroupKey<K> {
+    K of(int group);
+  }
+
+  /**
+   * Scatters the elements into one array in which the groups are ordered by key and returns every group as a
+   * view on it. Elements within a group keep their order.
+   *
+   * @param order The group ids ordered by their keys, or null if the group ids themselves are ordered by key. In
+   *              the latter case groups may be empty and are left out.
+   */
+  @Nonnull
+  private static <K extends Comparable<? super K>, E> ArrayMap<K, Seq<E>> assemble(
+    @Nonnull final Seq<E> seq,
+    @Nonnull final int[] groupOf,
+    @Nonnegative final int groups,
+    @Nullable final int[] order,
+    @Nonnull final GroupKey<K> keyOf
+  ) {
+    final int[] offsets = new int[groups + 1];
+    for (final int group : groupOf) {
+      offsets[group + 1] += 1;
+    }
+    final int[] sizes = new int[groups];
+    int nonEmpty = 0;
+    for (int g = 0; g < groups; g += 1) {
+      sizes[g] = offsets[g + 1];
+      if (sizes[g] > 0) {
+        nonEmpty += 1;
+      }
+    }
+    // turn the group sizes into the offsets of the groups in key order
+    int offset = 0;
+    for (int r = 0; r < groups; r += 1) {
+      final int g = order == null ? r : order[r];
+      offsets[g] = offset;
+      offset += sizes[g];
+    }
+    final int[] cursors = Arrays.copyOf(offsets, groups);
+    final Object[] array = new Object[groupOf.length];
+    for (int i = 0; i < groupOf.length; i += 1) {
+      array[cursors[groupOf[i]]] = seq.get(i);
+      cursors[groupOf[i]] += 1;
+    }
+    final Object[] keys = new Object[nonEmpty];
+    final Object[] values = new Object[nonEmpty];
+    int c = 0;
+    for (int r = 0; r < groups; r += 1) {
+      final int g = order == null ? r : order[r];
+      if (sizes[g] == 0) {
+        continue;
+      }
+      keys[c] = keyOf.of(g);
+      values[c] = nonEmpty == 1 ? new SeqSimple<>(array) : new SeqSimpleView<>(array, offsets[g], offsets[g] + sizes[g]);
+      c += 1;
+    }
+    return new ArrayMap<>(keys, values);
+  }
+}
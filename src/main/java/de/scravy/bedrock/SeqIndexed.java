@@ -0,0 +1,280 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A Seq with a hash index from elements to their positions, obtained via {@link Seq#indexed()}.
+ * <p>
+ * The index is built lazily on the first invocation of {@link #find(Object)}, {@link #findLast(Object)},
+ * {@link #contains(Object)} or {@link #count(Object)}, which take O(1) from then on. Views created via
+ * {@link #subSequenceView(int, int)} share the index with the Seq they were created from; within a view these
+ * lookups take O(log k) where k is the number of occurrences of the element looked for.
+ *
+ * @param <E> The type of the elements contained in this Sequence.
+ */
+class SeqIndexed<E> extends Seq<E> {
+
+  private final Seq<E> underlying;
+  private final int beginOffset;
+  private final int endOffset;
+  private final Holder holder;
+
+  SeqIndexed(@Nonnull final Seq<E> underlying) {
+    this(underlying, 0, underlying.length(), new Holder(underlying));
+  }
+
+  private SeqIndexed(
+    @Nonnull final Seq<E> underlying,
+    @Nonnegative final int beginOffset,
+    @Nonnegative final int endOffset,
+    @Nonnull final Holder holder
+  ) {
+    this.underlying = underlying;
+    this.beginOffset = beginOffset;
+    this.endOffset = endOffset;
+    this.holder = holder;
+  }
+
+  /**
+   * Builds the index for the Seq it was created for at most once and publishes it safely.
+   */
+  static final class Holder implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private final Seq<?> seq;
+    private transient volatile Index index;
+
+    Holder(@Nonnull final Seq<?> seq) {
+      this.seq = seq;
+    }
+
+    @Nonnull
+    Index get() {
+      Index result = index;
+      if (result == null) {
+        synchronized (this) {
+          result = index;
+          if (result == null) {
+            result = new Index(seq);
+            index = result;
+          }
+        }
+      }
+      return result;
+    }
+  }
+
+  /**
+   * An open addressing hash table (linear probing) from distinct elements to the range of their positions in
+   * <code>positions</code>, which is grouped by element and ascending within every group.
+   */
+  static final class Index {
+
+    private final Object[] keys;
+    private final int[] starts;
+    private final int[] counts;
+    private final int[] positions;
+    private final int mask;
+
+    Index(@Nonnull final Seq<?> seq) {
+      final int length = seq.length();
+      final int capacity = Integer.highestOneBit(Math.max(2, length) * 2 - 1) << 1;
+      keys = new Object[capacity];
+      starts = new int[capacity];
+      counts = new int[capacity];
+      positions = new int[length];
+      mask = capacity - 1;
+
+      final int[] slots = new int[length];
+      for (int i = 0; i < length; i += 1) {
+        final Object element = seq.get(i);
+        int slot = hash(element) & mask;
+        while (counts[slot] > 0 && !Objects.equals(keys[slot], element)) {
+          slot = (slot + 1) & mask;
+        }
+        keys[slot] = element;
+        counts[slot] += 1;
+        slots[i] = slot;
+      }
+      final int[] next = new int[capacity];
+      int offset = 0;
+      for (int slot = 0; slot < capacity; slot += 1) {
+        starts[slot] = offset;
+        next[slot] = offset;
+        offset += counts[slot];
+      }
+      for (int i = 0; i < length; i += 1) {
+        positions[next[slots[i]]++] = i;
+      }
+    }
+
+    private static int hash(@Nullable final Object element) {
+      final int h = Objects.hashCode(element) * 0x9E3779B9;
+      return h ^ (h >>> 16);
+    }
+
+    /**
+     * @return The slot of the given element or -1 if it is not contained.
+     */
+    int slotOf(@Nullable final Object element) {
+      int slot = hash(element) & mask;
+      while (counts[slot] > 0) {
+        if (Objects.equals(keys[slot], element)) {
+          return slot;
+        }
+        slot = (slot + 1) & mask;
+      }
+      return -1;
+    }
+
+    /**
+     * @return The index within the group of the given slot of the first position that is greater or equal than
+     * the given position.
+     */
+    int lowerBound(final int slot, final int position) {
+      int low = starts[slot];
+      int high = starts[slot] + counts[slot];
+      while (low < high) {
+        final int middle = (low + high) >>> 1;
+        if (positions[middle] < position) {
+          low = middle + 1;
+        } else {
+          high = middle;
+        }
+      }
+      return low;
+    }
+  }
+
+  @Nonnull
+  private Seq<E> range() {
+    if (beginOffset == 0 && endOffset == underlying.length()) {
+      return underlying;
+    }
+    return underlying.subSequenceView(beginOffset, endOffset);
+  }
+
+  @Override
+  public E get(@Nonnegative final int index) {
+    checkBounds(index);
+    return underlying.get(beginOffset + index);
+  }
+
+  @Nonnegative
+  @Override
+  public int length() {
+    return endOffset - beginOffset;
+  }
+
+  @Override
+  public int find(@Nullable final E e) {
+    final Index index = holder.get();
+    final int slot = index.slotOf(e);
+    if (slot < 0) {
+      return -1;
+    }
+    final int i = index.lowerBound(slot, beginOffset);
+    if (i == index.starts[slot] + index.counts[slot] || index.positions[i] >= endOffset) {
+      return -1;
+    }
+    return index.positions[i] - beginOffset;
+  }
+
+  @Override
+  public int findLast(@Nullable final E e) {
+    final Index index = holder.get();
+    final int slot = index.slotOf(e);
+    if (slot < 0) {
+      return -1;
+    }
+    final int i = index.lowerBound(slot, endOffset) - 1;
+    if (i < index.starts[slot] || index.positions[i] < beginOffset) {
+      return -1;
+    }
+    return index.positions[i] - beginOffset;
+  }
+
+  @Override
+  public boolean contains(@Nullable final E e) {
+    return find(e) >= 0;
+  }
+
+  @Nonnegative
+  @Override
+  public int count(@Nullable final E e) {
+    final Index index = holder.get();
+    final int slot = index.slotOf(e);
+    if (slot < 0) {
+      return 0;
+    }
+    if (beginOffset == 0 && endOffset == underlying.length()) {
+      return index.counts[slot];
+    }
+    return index.lowerBound(slot, endOffset) - index.lowerBound(slot, beginOffset);
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> indexed() {
+    return this;
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> subSequence(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    return range().subSequence(beginOffset, endOffset);
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> subSequenceView(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    final int begin = Math.max(0, beginOffset);
+    final int end = Math.min(length(), endOffset);
+    if (end - begin <= 0) {
+      return empty();
+    }
+    return new SeqIndexed<>(underlying, this.beginOffset + begin, this.beginOffset + end, holder);
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> reversed() {
+    return range().reversed();
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> sorted() {
+    return range().sorted();
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> sortedBy(@Nonnull final Comparator<? super E> comparator) {
+    return range().sortedBy(comparator);
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> trimmedToSize() {
+    return range().trimmedToSize();
+  }
+
+  @Nonnull
+  @Override
+  public E[] toArray(@Nonnull final Class<E> clazz) {
+    return range().toArray(clazz);
+  }
+
+  @Nonnull
+  @Override
+  public Object[] toArray() {
+    return range().toArray();
+  }
+}
@@ -0,0 +1,207 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.io.IOException;
+import java.io.ObjectStreamException;
+import java.lang.reflect.Array;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * A Seq of fixed-width records in a memory mapped file, created by
+ * {@link Seq#mapped(FileChannel, int, RecordCodec)}.
+ * <p>
+ * Records are decoded lazily on every {@link #get(int)}, optionally backed by a small direct mapped cache of
+ * decoded records. Files larger than 2 GiB are mapped in several segments, each of which holds a power of two
+ * number of records, thus {@link #get(int)} is O(1). Operations which copy (like {@link #trimmedToSize()} or
+ * {@link #sorted()}) decode all records onto the heap; serializing a SeqMapped serializes the decoded records.
+ *
+ * @param <E> The type of the elements contained in this Sequence.
+ */
+class SeqMapped<E> extends Seq<E> {
+
+  /**
+   * Segments are at most 2^30 bytes large.
+   */
+  static final int MAXIMUM_SEGMENT_SHIFT = 30;
+
+  private final ByteBuffer[] segments;
+  private final int recordSize;
+  private final int recordsShift;
+  private final RecordCodec<E> codec;
+  private final Entry[] cache;
+  private final int beginOffset;
+  private final int endOffset;
+
+  /**
+   * An immutable cache entry, which can thus safely be shared between threads without synchronization.
+   */
+  private static final class Entry {
+
+    private final int index;
+    private final Object value;
+
+    Entry(final int index, final Object value) {
+      this.index = index;
+      this.value = value;
+    }
+  }
+
+  private SeqMapped(
+    @Nonnull final ByteBuffer[] segments,
+    @Nonnegative final int recordSize,
+    @Nonnegative final int recordsShift,
+    @Nonnull final RecordCodec<E> codec,
+    final Entry[] cache,
+    @Nonnegative final int beginOffset,
+    @Nonnegative final int endOffset
+  ) {
+    this.segments = segments;
+    this.recordSize = recordSize;
+    this.recordsShift = recordsShift;
+    this.codec = codec;
+    this.cache = cache;
+    this.beginOffset = beginOffset;
+    this.endOffset = endOffset;
+  }
+
+  /**
+   * Maps the given channel read only.
+   *
+   * @param segmentShift Segments hold at most 2^segmentShift bytes.
+   * @param cacheSize    The number of decoded records to cache, rounded up to a power of two. 0 disables caching.
+   */
+  @Nonnull
+  static <E> Seq<E> map(
+    @Nonnull final FileChannel channel,
+    @Nonnegative final int recordSize,
+    @Nonnull final RecordCodec<E> codec,
+    @Nonnegative final int cacheSize,
+    @Nonnegative final int segmentShift
+  ) throws IOException {
+    if (recordSize <= 0 || recordSize > 1 << segmentShift) {
+      throw new IllegalArgumentException("'recordSize' must be positive and fit into a segment");
+    }
+    final long size = channel.size();
+    if (size % recordSize != 0) {
+      throw new IllegalArgumentException("file size " + size + " is not a multiple of the record size " + recordSize);
+    }
+    final long count = size / recordSize;
+    if (count > Integer.MAX_VALUE) {
+      throw new IllegalArgumentException("file contains more than " + Integer.MAX_VALUE + " records");
+    }
+    if (count == 0) {
+      return empty();
+    }
+    final int recordsShift = 31 - Integer.numberOfLeadingZeros((1 << segmentShift) / recordSize);
+    final long segmentBytes = (long) recordSize << recordsShift;
+    final ByteBuffer[] segments = new ByteBuffer[(int) ((size + segmentBytes - 1) / segmentBytes)];
+    for (int i = 0; i < segments.length; i += 1) {
+      final long position = i * segmentBytes;
+      segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, position, Math.min(segmentBytes, size - position));
+    }
+    final Entry[] cache = cacheSize > 0 ? new Entry[Integer.highestOneBit(cacheSize * 2 - 1)] : null;
+    return new SeqMapped<>(segments, recordSize, recordsShift, codec, cache, 0, (int) count);
+  }
+
+  private E decode(final int index) {
+    return codec.decode(segments[index >>> recordsShift], (index & ((1 << recordsShift) - 1)) * recordSize);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public E get(@Nonnegative final int index) {
+    checkBounds(index);
+    final int i = beginOffset + index;
+    if (cache == null) {
+      return decode(i);
+    }
+    final int slot = i & (cache.length - 1);
+    final Entry entry = cache[slot];
+    if (entry != null && entry.index == i) {
+      return (E) entry.value;
+    }
+    final E value = decode(i);
+    cache[slot] = new Entry(i, value);
+    return value;
+  }
+
+  @Nonnegative
+  @Override
+  public int length() {
+    return endOffset - beginOffset;
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> subSequenceView(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    final int begin = Math.max(0, beginOffset);
+    final int end = Math.min(length(), endOffset);
+    if (end - begin <= 0) {
+      return empty();
+    }
+    return new SeqMapped<>(segments, recordSize, recordsShift, codec, cache, this.beginOffset + begin, this.beginOffset + end);
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> subSequence(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    return subSequenceView(beginOffset, endOffset).trimmedToSize();
+  }
+
+  @Nonnull
+  @Override
+  public Object[] toArray() {
+    final Object[] array = new Object[length()];
+    copyInto(array, 0);
+    return array;
+  }
+
+  @Nonnull
+  @Override
+  public E[] toArray(@Nonnull final Class<E> evidence) {
+    Objects.requireNonNull(evidence);
+    @SuppressWarnings("unchecked") final E[] array = (E[]) Array.newInstance(evidence, length());
+    copyInto(array, 0);
+    return array;
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> trimmedToSize() {
+    return new SeqSimple<>(toArray());
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> reversed() {
+    return new SeqReversed<>(toArray());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Seq<E> sorted() {
+    final Object[] array = toArray();
+    Arrays.sort(array, NULL_ACCEPTING_COMPARATOR);
+    return new SeqSimpleSorted(array);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Seq<E> sortedBy(@Nonnull final Comparator<? super E> comparator) {
+    Objects.requireNonNull(comparator);
+    final Object[] array = toArray();
+    Arrays.sort(array, (Comparator<Object>) comparator);
+    return new SeqSimple<>(array);
+  }
+
+  private Object writeReplace() throws ObjectStreamException {
+    return trimmedToSize();
+  }
+}
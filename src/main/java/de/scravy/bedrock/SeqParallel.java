@@ -0,0 +1,315 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Parallel bulk operations on a {@link Seq}, obtained via {@link Seq#par()} or {@link Seq#par(ForkJoinPool)}.
+ * <p>
+ * The index range of the underlying sequence is split recursively into halves until the pieces are small enough
+ * to be processed sequentially, the pieces are then processed as fork/join tasks on the given pool. Results are
+ * the same as the ones of the corresponding sequential operations on {@link Seq}, including the order of elements.
+ *
+ * @param <E> The type of the elements of the underlying sequence.
+ */
+public final class SeqParallel<E> {
+
+  private static final int MINIMUM_THRESHOLD = 1024;
+
+  private final Seq<E> seq;
+  private final ForkJoinPool pool;
+  private final int threshold;
+
+  SeqParallel(@Nonnull final Seq<E> seq, @Nonnull final ForkJoinPool pool) {
+    this.seq = seq;
+    this.pool = pool;
+    this.threshold = Math.max(MINIMUM_THRESHOLD, seq.length() / (pool.getParallelism() * 4));
+  }
+
+  @FunctionalInterface
+  private interface RangeFunction<R> {
+    R apply(int begin, int end);
+  }
+
+  private final class RangeTask<R> extends RecursiveTask<R> {
+
+    private static final long serialVersionUID = 1L;
+
+    private final int begin;
+    private final int end;
+    private final RangeFunction<R> leaf;
+    private final BinaryOperator<R> combiner;
+
+    RangeTask(
+      final int begin,
+      final int end,
+      @Nonnull final RangeFunction<R> leaf,
+      @Nonnull final BinaryOperator<R> combiner
+    ) {
+      this.begin = begin;
+      this.end = end;
+      this.leaf = leaf;
+      this.combiner = combiner;
+    }
+
+    @Override
+    protected R compute() {
+      if (end - begin <= threshold) {
+        return leaf.apply(begin, end);
+      }
+      final int middle = (begin + end) >>> 1;
+      final RangeTask<R> left = new RangeTask<>(begin, middle, leaf, combiner);
+      final RangeTask<R> right = new RangeTask<>(middle, end, leaf, combiner);
+      left.fork();
+      final R rightResult = right.compute();
+      return combiner.apply(left.join(), rightResult);
+    }
+  }
+
+  private <R> R run(@Nonnull final RangeFunction<R> leaf, @Nonnull final BinaryOperator<R> combiner) {
+    if (seq.length() <= threshold) {
+      return leaf.apply(0, seq.length());
+    }
+    return pool.invoke(new RangeTask<>(0, seq.length(), leaf, combiner));
+  }
+
+  @Nonnull
+  public <F> Seq<F> map(@Nonnull final Function<? super E, ? extends F> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    if (seq.isEmpty()) {
+      return Seq.empty();
+    }
+    final Object[] array = new Object[seq.length()];
+    run((begin, end) -> {
+      for (int i = begin; i < end; i += 1) {
+        array[i] = function.apply(seq.get(i));
+      }
+      return null;
+    }, (left, right) -> null);
+    return Seq.ofArrayZeroCopyInternal(array);
+  }
+
+  @Nonnull
+  public Seq<E> filter(@Nonnull final Predicate<? super E> predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    if (seq.isEmpty()) {
+      return Seq.empty();
+    }
+    final ArrayList<Object[]> chunks = run((begin, end) -> {
+      final Object[] chunk = new Object[end - begin];
+      int c = 0;
+      for (int i = begin; i < end; i += 1) {
+        final E e = seq.get(i);
+        if (predicate.test(e)) {
+          chunk[c++] = e;
+        }
+      }
+      final ArrayList<Object[]> result = new ArrayList<>(1);
+      result.add(c == chunk.length ? chunk : Arrays.copyOf(chunk, c));
+      return result;
+    }, (left, right) -> {
+      left.addAll(right);
+      return left;
+    });
+    int size = 0;
+    for (final Object[] chunk : chunks) {
+      size += chunk.length;
+    }
+    if (size == 0) {
+      return Seq.empty();
+    }
+    final Object[] array = new Object[size];
+    int offset = 0;
+    for (final Object[] chunk : chunks) {
+      System.arraycopy(chunk, 0, array, offset, chunk.length);
+      offset += chunk.length;
+    }
+    return Seq.ofArrayZeroCopyInternal(array);
+  }
+
+  @Nonnull
+  public Seq<E> filterNot(@Nonnull final Predicate<? super E> predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    return filter(predicate.negate());
+  }
+
+  @Nonnegative
+  public int countBy(@Nonnull final Predicate<? super E> predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    if (seq.isEmpty()) {
+      return 0;
+    }
+    return run((begin, end) -> {
+      int c = 0;
+      for (int i = begin; i < end; i += 1) {
+        if (predicate.test(seq.get(i))) {
+          c += 1;
+        }
+      }
+      return c;
+    }, Integer::sum);
+  }
+
+  @Nonnegative
+  public int count(@Nullable final E e) {
+    return countBy(element -> Objects.equals(element, e));
+  }
+
+  /**
+   * Reduces the elements of the underlying Seq using the given operator, which must be associative and for which
+   * the given identity must be a neutral element.
+   * <p>
+   * The result is the same as <code>seq.foldl(operator, identity)</code>.
+   */
+  public E reduce(final E identity, @Nonnull final BinaryOperator<E> operator) {
+    Objects.requireNonNull(operator, "'operator' must not be null");
+    if (seq.isEmpty()) {
+      return identity;
+    }
+    return run((begin, end) -> {
+      E acc = identity;
+      for (int i = begin; i < end; i += 1) {
+        acc = operator.apply(acc, seq.get(i));
+      }
+      return acc;
+    }, operator);
+  }
+
+  /**
+   * Reduces the elements of the underlying Seq using the given monoid, see {@link #reduce(Object, BinaryOperator)}.
+   */
+  public E reduce(@Nonnull final Monoid<E> monoid) {
+    Objects.requireNonNull(monoid, "'monoid' must not be null");
+    return reduce(monoid.identity(), monoid::combine);
+  }
+
+  /**
+   * Maps every element of the underlying Seq using the given function and reduces the results using the given
+   * monoid, without materializing the mapped elements.
+   * <p>
+   * The result is the same as <code>seq.map(function).foldl(monoid::combine, monoid.identity())</code>.
+   */
+  public <R> R mapReduce(@Nonnull final Function<? super E, ? extends R> function, @Nonnull final Monoid<R> monoid) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    Objects.requireNonNull(monoid, "'monoid' must not be null");
+    if (seq.isEmpty()) {
+      return monoid.identity();
+    }
+    return run((begin, end) -> {
+      R acc = monoid.identity();
+      for (int i = begin; i < end; i += 1) {
+        acc = monoid.combine(acc, function.apply(seq.get(i)));
+      }
+      return acc;
+    }, monoid::combine);
+  }
+
+  public void forEach(@Nonnull final Consumer<? super E> consumer) {
+    Objects.requireNonNull(consumer, "'consumer' must not be null");
+    if (seq.isEmpty()) {
+      return;
+    }
+    run((begin, end) -> {
+      for (int i = begin; i < end; i += 1) {
+        consumer.accept(seq.get(i));
+      }
+      return null;
+    }, (left, right) -> null);
+  }
+
+  /**
+   * Returns a copy of the underlying Seq with no duplicates.
+   * <p>
+   * Order is maintained, i.e. the result is the same as the one of {@link Seq#distinct()}.
+   */
+  @Nonnull
+  public Seq<E> distinct() {
+    if (seq.isEmpty()) {
+      return Seq.empty();
+    }
+    final Object nullKey = new Object();
+    final ConcurrentHashMap<Object, Integer> firstOccurrences = new ConcurrentHashMap<>();
+    run((begin, end) -> {
+      for (int i = begin; i < end; i += 1) {
+        final E e = seq.get(i);
+        firstOccurrences.merge(e == null ? nullKey : e, i, Math::min);
+      }
+      return null;
+    }, (left, right) -> null);
+    final Object[] array = new Object[firstOccurrences.size()];
+    int c = 0;
+    for (int i = 0; i < seq.length(); i += 1) {
+      final E e = seq.get(i);
+      if (firstOccurrences.get(e == null ? nullKey : e) == i) {
+        array[c++] = e;
+      }
+    }
+    return Seq.ofArrayZeroCopyInternal(array);
+  }
+
+  /**
+   * Groups the elements of the underlying Seq by the keys computed by the given function. Every part is grouped
+   * into a partial map of its own, the partial maps are merged pairwise.
+   * <p>
+   * Elements within a group keep their order, i.e. the result is the same as the one of {@link Seq#toMap(Function)}.
+   */
+  @Nonnull
+  public <K> Mapping<K, Seq<E>> toMap(@Nonnull final Function<? super E, ? extends K> groupingFunction) {
+    Objects.requireNonNull(groupingFunction, "'groupingFunction' must not be null");
+    if (seq.isEmpty()) {
+      return Mapping.empty();
+    }
+    final HashMap<K, SeqBuilder<E>> map = run((begin, end) -> {
+      final HashMap<K, SeqBuilder<E>> partial = new HashMap<>();
+      for (int i = begin; i < end; i += 1) {
+        final E e = seq.get(i);
+        partial.computeIfAbsent(groupingFunction.apply(e), key -> Seq.builder()).add(e);
+      }
+      return partial;
+    }, (left, right) -> {
+      right.forEach((key, builder) -> left.merge(key, builder, (l, r) -> l.addElements(r)));
+      return left;
+    });
+    return Mapping.wrap(Seq.results(map));
+  }
+
+  /**
+   * Sorts the elements of the underlying Seq using {@link Arrays#parallelSort(Object[], Comparator)}. The sort is
+   * stable.
+   */
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  public Seq<E> sortedBy(@Nonnull final Comparator<? super E> comparator) {
+    Objects.requireNonNull(comparator, "'comparator' must not be null");
+    if (seq.isEmpty()) {
+      return Seq.empty();
+    }
+    final Object[] array = seq.toArray();
+    pool.submit(() -> Arrays.parallelSort(array, (Comparator<Object>) comparator)).join();
+    return Seq.ofArrayZeroCopyInternal(array);
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  @Nonnull
+  public Seq<E> sorted() {
+    if (seq.isEmpty()) {
+      return Seq.empty();
+    }
+    final Object[] array = seq.toArray();
+    pool.submit(() -> Arrays.parallelSort(array, SequenceMethods.NULL_ACCEPTING_COMPARATOR)).join();
+    return new SeqSimpleSorted(array);
+  }
+}
@@ -0,0 +1,278 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.function.*;
+
+/**
+ * A lazy pipeline of operations on a {@link Seq}, obtained via {@link Seq#lazy()}.
+ * <p>
+ * Intermediate operations like {@link #map(Function)} or {@link #filter(Predicate)} only record what is to be done.
+ * Nothing is computed until a terminal operation like {@link #toSeq()}, {@link #foldl(BiFunction, Object)},
+ * {@link #count()} or {@link #forEach(Consumer)} is invoked, which then runs all recorded operations in a single
+ * pass over the source sequence without materializing any intermediate results.
+ * <p>
+ * As long as only length-preserving operations (i.e. {@link #map(Function)}) have been recorded the pipeline
+ * supports random access via {@link #get(int)}.
+ *
+ * @param <E> The type of the elements that come out of this pipeline.
+ */
+public final class SeqPipeline<E> {
+
+  /**
+   * Receives the elements flowing through a pipeline.
+   *
+   * @param <E> The type of the elements accepted by this sink.
+   */
+  @FunctionalInterface
+  private interface Sink<E> {
+
+    /**
+     * @return false if no further elements should be pushed into this sink.
+     */
+    boolean accept(E element);
+  }
+
+  private final Seq<?> source;
+
+  /**
+   * Turns a sink for the elements of this pipeline into a sink for the elements of the source. Invoked anew for
+   * every terminal operation so that stateful stages can keep their state in the sink.
+   */
+  private final Function<Sink<? super E>, Sink<Object>> wrapper;
+
+  /**
+   * Non-null iff every recorded stage preserves the length of the source.
+   */
+  @Nullable
+  private final IntFunction<E> accessor;
+
+  private SeqPipeline(
+    @Nonnull final Seq<?> source,
+    @Nonnull final Function<Sink<? super E>, Sink<Object>> wrapper,
+    @Nullable final IntFunction<E> accessor
+  ) {
+    this.source = source;
+    this.wrapper = wrapper;
+    this.accessor = accessor;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  static <E> SeqPipeline<E> of(@Nonnull final Seq<E> source) {
+    return new SeqPipeline<>(source, sink -> (Sink<Object>) sink, source::get);
+  }
+
+  @Nonnull
+  public <F> SeqPipeline<F> map(@Nonnull final Function<? super E, ? extends F> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    final IntFunction<E> accessor = this.accessor;
+    return new SeqPipeline<>(
+      source,
+      sink -> wrapper.apply(e -> sink.accept(function.apply(e))),
+      accessor == null ? null : index -> function.apply(accessor.apply(index))
+    );
+  }
+
+  @Nonnull
+  public SeqPipeline<E> filter(@Nonnull final Predicate<? super E> predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    return new SeqPipeline<>(
+      source,
+      sink -> wrapper.apply(e -> !predicate.test(e) || sink.accept(e)),
+      null
+    );
+  }
+
+  @Nonnull
+  public SeqPipeline<E> filterNot(@Nonnull final Predicate<? super E> predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    return filter(predicate.negate());
+  }
+
+  @Nonnull
+  public <F> SeqPipeline<F> flatMap(@Nonnull final Function<? super E, ? extends Iterable<? extends F>> function) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    return new SeqPipeline<>(
+      source,
+      sink -> wrapper.apply(e -> {
+        for (final F f : function.apply(e)) {
+          if (!sink.accept(f)) {
+            return false;
+          }
+        }
+        return true;
+      }),
+      null
+    );
+  }
+
+  @Nonnull
+  public SeqPipeline<E> takeWhile(@Nonnull final Predicate<? super E> predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    return new SeqPipeline<>(
+      source,
+      sink -> wrapper.apply(e -> predicate.test(e) && sink.accept(e)),
+      null
+    );
+  }
+
+  @Nonnull
+  public SeqPipeline<E> dropWhile(@Nonnull final Predicate<? super E> predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    return new SeqPipeline<>(
+      source,
+      sink -> {
+        final Box<Boolean> dropping = Box.box(true);
+        return wrapper.apply(e -> {
+          if (dropping.get() && predicate.test(e)) {
+            return true;
+          }
+          dropping.accept(false);
+          return sink.accept(e);
+        });
+      },
+      null
+    );
+  }
+
+  @Nonnull
+  public SeqPipeline<E> take(@Nonnegative final int length) {
+    return new SeqPipeline<>(
+      source,
+      sink -> {
+        final Box.IntBox remaining = Box.intBox(length);
+        return wrapper.apply(e -> {
+          if (remaining.getValue() <= 0) {
+            return false;
+          }
+          remaining.dec();
+          return sink.accept(e) && remaining.getValue() > 0;
+        });
+      },
+      null
+    );
+  }
+
+  /**
+   * Whether this pipeline supports random access via {@link #get(int)}, which is the case if only
+   * length-preserving operations have been recorded.
+   */
+  public boolean isRandomAccess() {
+    return accessor != null;
+  }
+
+  /**
+   * Computes the element at the given index without running the pipeline on any other element.
+   *
+   * @throws UnsupportedOperationException If this pipeline does not support random access, see
+   *                                       {@link #isRandomAccess()}.
+   */
+  public E get(@Nonnegative final int index) throws UnsupportedOperationException {
+    if (accessor == null) {
+      throw new UnsupportedOperationException("random access is not supported after a length-changing operation");
+    }
+    if (index < 0 || index >= source.length()) {
+      throw new IndexOutOfBoundsException();
+    }
+    return accessor.apply(index);
+  }
+
+  private void run(@Nonnull final Sink<? super E> sink) {
+    final Sink<Object> head = wrapper.apply(sink);
+    final int length = source.length();
+    for (int i = 0; i < length; i += 1) {
+      if (!head.accept(source.get(i))) {
+        return;
+      }
+    }
+  }
+
+  @Nonnull
+  public Seq<E> toSeq() {
+    if (accessor != null) {
+      final Object[] array = new Object[source.length()];
+      for (int i = 0; i < array.length; i += 1) {
+        array[i] = accessor.apply(i);
+      }
+      return array.length == 0 ? Seq.empty() : Seq.ofArrayZeroCopyInternal(array);
+    }
+    final SeqBuilder<E> builder = Seq.builder();
+    run(e -> {
+      builder.add(e);
+      return true;
+    });
+    return builder.result();
+  }
+
+  public <A> A foldl(@Nonnull final BiFunction<? super A, ? super E, ? extends A> function, final A startValue) {
+    Objects.requireNonNull(function, "'function' must not be null");
+    final Box<A> acc = Box.box(startValue);
+    run(e -> {
+      acc.accept(function.apply(acc.get(), e));
+      return true;
+    });
+    return acc.get();
+  }
+
+  @Nonnegative
+  public int count() {
+    if (accessor != null) {
+      return source.length();
+    }
+    final Box.IntBox count = Box.intBox(0);
+    run(e -> {
+      count.inc();
+      return true;
+    });
+    return count.getValue();
+  }
+
+  @Nonnegative
+  public int countBy(@Nonnull final Predicate<? super E> predicate) {
+    return filter(predicate).count();
+  }
+
+  public void forEach(@Nonnull final Consumer<? super E> consumer) {
+    Objects.requireNonNull(consumer, "'consumer' must not be null");
+    run(e -> {
+      consumer.accept(e);
+      return true;
+    });
+  }
+
+  @Nonnull
+  public Optional<E> findFirst(@Nonnull final Predicate<? super E> predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    final Box<E> result = Box.box();
+    run(e -> {
+      if (predicate.test(e)) {
+        result.accept(e);
+        return false;
+      }
+      return true;
+    });
+    return Optional.ofNullable(result.get());
+  }
+
+  public boolean exists(@Nonnull final Predicate<? super E> predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    final Box<Boolean> result = Box.box(false);
+    run(e -> {
+      if (predicate.test(e)) {
+        result.accept(true);
+        return false;
+      }
+      return true;
+    });
+    return result.get();
+  }
+
+  public boolean forAll(@Nonnull final Predicate<? super E> predicate) {
+    Objects.requireNonNull(predicate, "'predicate' must not be null");
+    return !exists(predicate.negate());
+  }
+}
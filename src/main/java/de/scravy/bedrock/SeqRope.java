@@ -0,0 +1,199 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * A view on the concatenation of several sequences, created by {@link Seq#concatView(Seq[])}.
+ * <p>
+ * Keeps the prefix sums of the lengths of its components, thus {@link #get(int)} takes O(log k) where k is the
+ * number of components. Concatenating ropes does not nest them but merges their component lists, and a rope that
+ * consists of too many small components is flattened into a single array.
+ *
+ * @param <E> The type of the elements contained in this Sequence.
+ */
+class SeqRope<E> extends Seq<E> {
+
+  /**
+   * A rope with more components than this is flattened if its components are shorter than
+   * {@link #MINIMUM_AVERAGE_COMPONENT_LENGTH} on average.
+   */
+  static final int FLATTEN_THRESHOLD = 32;
+
+  static final int MINIMUM_AVERAGE_COMPONENT_LENGTH = 16;
+
+  private final Seq<E>[] components;
+
+  /**
+   * <code>offsets[i]</code> is the index of the first element of <code>components[i]</code>, the last entry is
+   * the length of the rope.
+   */
+  private final int[] offsets;
+
+  private SeqRope(@Nonnull final Seq<E>[] components, @Nonnull final int[] offsets) {
+    this.components = components;
+    this.offsets = offsets;
+  }
+
+  /**
+   * Creates a Seq that is the concatenation of the given seqs.
+   */
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  @Nonnull
+  static <E> Seq<E> of(@Nonnull final Seq<E>[] seqs) {
+    final ArrayList<Seq<E>> components = new ArrayList<>(seqs.length);
+    for (final Seq<E> seq : seqs) {
+      if (seq instanceof SeqRope) {
+        components.addAll(Arrays.asList(((SeqRope<E>) seq).components));
+      } else if (!seq.isEmpty()) {
+        components.add(seq);
+      }
+    }
+    if (components.isEmpty()) {
+      return Seq.empty();
+    }
+    if (components.size() == 1) {
+      return components.get(0);
+    }
+    final int[] offsets = new int[components.size() + 1];
+    for (int i = 0; i < components.size(); i += 1) {
+      offsets[i + 1] = offsets[i] + components.get(i).length();
+    }
+    final SeqRope<E> rope = new SeqRope<>(components.toArray(new Seq[0]), offsets);
+    if (components.size() > FLATTEN_THRESHOLD
+      && rope.length() < components.size() * MINIMUM_AVERAGE_COMPONENT_LENGTH) {
+      return rope.trimmedToSize();
+    }
+    return rope;
+  }
+
+  private int componentIndex(final int index) {
+    final int ix = Arrays.binarySearch(offsets, 0, components.length, index);
+    return ix >= 0 ? ix : -ix - 2;
+  }
+
+  @Override
+  public E get(@Nonnegative final int index) {
+    checkBounds(index);
+    final int c = componentIndex(index);
+    return components[c].get(index - offsets[c]);
+  }
+
+  @Nonnegative
+  @Override
+  public int length() {
+    return offsets[components.length];
+  }
+
+  @Override
+  void copyInto(@Nonnull final Object[] target, final int offset) {
+    for (int i = 0; i < components.length; i += 1) {
+      components[i].copyInto(target, offset + offsets[i]);
+    }
+  }
+
+  @Nonnull
+  @Override
+  public Object[] toArray() {
+    final Object[] array = new Object[length()];
+    copyInto(array, 0);
+    return array;
+  }
+
+  @Nonnull
+  @Override
+  public E[] toArray(@Nonnull final Class<E> evidence) {
+    Objects.requireNonNull(evidence);
+    @SuppressWarnings("unchecked") final E[] array = (E[]) Array.newInstance(evidence, length());
+    copyInto(array, 0);
+    return array;
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> trimmedToSize() {
+    return new SeqSimple<>(toArray());
+  }
+
+  @SuppressWarnings({"unchecked", "rawtypes"})
+  @Nonnull
+  @Override
+  public Seq<E> subSequenceView(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    final int begin = Math.max(0, beginOffset);
+    final int end = Math.min(length(), endOffset);
+    if (end - begin <= 0) {
+      return empty();
+    }
+    final int first = componentIndex(begin);
+    final int last = componentIndex(end - 1);
+    final Seq<E>[] seqs = new Seq[last - first + 1];
+    for (int i = first; i <= last; i += 1) {
+      final int from = Math.max(begin, offsets[i]) - offsets[i];
+      final int to = Math.min(end, offsets[i + 1]) - offsets[i];
+      seqs[i - first] = from == 0 && to == components[i].length() ? components[i] : components[i].subSequenceView(from, to);
+    }
+    return of(seqs);
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> subSequence(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    return subSequenceView(beginOffset, endOffset).trimmedToSize();
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> reversed() {
+    return new SeqReversed<>(toArray());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Seq<E> sorted() {
+    final Object[] array = toArray();
+    Arrays.sort(array, NULL_ACCEPTING_COMPARATOR);
+    return new SeqSimpleSorted(array);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Seq<E> sortedBy(@Nonnull final Comparator<? super E> comparator) {
+    Objects.requireNonNull(comparator);
+    final Object[] array = toArray();
+    Arrays.sort(array, (Comparator<Object>) comparator);
+    return new SeqSimple<>(array);
+  }
+
+  @Nonnull
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+
+      private int i = 0;
+      private int j = 0;
+
+      @Override
+      public boolean hasNext() {
+        return i < components.length;
+      }
+
+      @Override
+      public E next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final E elem = components[i].get(j);
+        j += 1;
+        if (j == components[i].length()) {
+          j = 0;
+          i += 1;
+        }
+        return elem;
+      }
+    };
+  }
+}
@@ -0,0 +1,286 @@
+package de.scravy.bedrock;
+
+import lombok.experimental.UtilityClass;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Selection algorithms (bounded heaps and introselect) backing {@link Seq#bottomK(int, Comparator)},
+ * {@link Seq#topK(int, Comparator)}, {@link Seq#nthElement(int, Comparator)} and friends.
+ */
+@UtilityClass
+class SeqSelection {
+
+  /**
+   * Determines the indices of the k smallest elements of the given seq in O(n log k) time and O(k) space.
+   *
+   * @return The indices in the order of their elements, ties broken by index. Thus the elements at these indices
+   * are exactly the first k elements of <code>seq.sortedBy(comparator)</code>.
+   */
+  @Nonnull
+  <E> int[] bottomKIndices(
+    @Nonnull final Seq<E> seq,
+    @Nonnegative final int k,
+    @Nonnull final Comparator<? super E> comparator
+  ) {
+    final int length = seq.length();
+    final int capacity = Math.min(k, length);
+    final Object[] elements = new Object[capacity];
+    final int[] indices = new int[capacity];
+    @SuppressWarnings("unchecked") final Comparator<Object> cmp = (Comparator<Object>) comparator;
+    int size = 0;
+    for (int i = 0; i < length && capacity > 0; i += 1) {
+      final E element = seq.get(i);
+      if (size < capacity) {
+        elements[size] = element;
+        indices[size] = i;
+        siftUp(elements, indices, size, cmp);
+        size += 1;
+      } else if (cmp.compare(element, elements[0]) < 0) {
+        elements[0] = element;
+        indices[0] = i;
+        siftDown(elements, indices, size, cmp);
+      }
+    }
+    final int[] result = new int[size];
+    while (size > 0) {
+      size -= 1;
+      result[size] = indices[0];
+      elements[0] = elements[size];
+      indices[0] = indices[size];
+      siftDown(elements, indices, size, cmp);
+    }
+    return result;
+  }
+
+  private static int compare(
+    final Object[] elements,
+    final int[] indices,
+    final int a,
+    final int b,
+    final Comparator<Object> cmp
+  ) {
+    final int c = cmp.compare(elements[a], elements[b]);
+    return c != 0 ? c : Integer.compare(indices[a], indices[b]);
+  }
+
+  private static void swap(final Object[] elements, final int[] indices, final int a, final int b) {
+    final Object element = elements[a];
+    elements[a] = elements[b];
+    elements[b] = element;
+    final int index = indices[a];
+    indices[a] = indices[b];
+    indices[b] = index;
+  }
+
+  private static void siftUp(final Object[] elements, final int[] indices, final int position, final Comparator<Object> cmp) {
+    int child = position;
+    while (child > 0) {
+      final int parent = (child - 1) >>> 1;
+      if (compare(elements, indices, child, parent, cmp) <= 0) {
+        return;
+      }
+      swap(elements, indices, child, parent);
+      child = parent;
+    }
+  }
+
+  private static void siftDown(final Object[] elements, final int[] indices, final int size, final Comparator<Object> cmp) {
+    int parent = 0;
+    while (true) {
+      final int left = 2 * parent + 1;
+      if (left >= size) {
+        return;
+      }
+      final int right = left + 1;
+      final int largest = right < size && compare(elements, indices, right, left, cmp) > 0 ? right : left;
+      if (compare(elements, indices, largest, parent, cmp) <= 0) {
+        return;
+      }
+      swap(elements, indices, largest, parent);
+      parent = largest;
+    }
+  }
+
+  /**
+   * Like {@link #bottomKIndices(Seq, int, Comparator)} for int valued keys, the key of every index is computed
+   * exactly once.
+   *
+   * @param descending Whether to select the largest instead of the smallest keys.
+   */
+  @Nonnull
+  int[] bottomKIndicesOnInt(
+    @Nonnegative final int length,
+    @Nonnegative final int k,
+    @Nonnull final IntUnaryOperator keyAt,
+    final boolean descending
+  ) {
+    final int capacity = Math.min(k, length);
+    final int[] keys = new int[capacity];
+    final int[] indices = new int[capacity];
+    final int sign = descending ? -1 : 1;
+    int size = 0;
+    for (int i = 0; i < length && capacity > 0; i += 1) {
+      final int key = keyAt.applyAsInt(i);
+      if (size < capacity) {
+        keys[size] = key;
+        indices[size] = i;
+        siftUp(keys, indices, size, sign);
+        size += 1;
+      } else if (sign * Integer.compare(key, keys[0]) < 0) {
+        keys[0] = key;
+        indices[0] = i;
+        siftDown(keys, indices, size, sign);
+      }
+    }
+    final int[] result = new int[size];
+    while (size > 0) {
+      size -= 1;
+      result[size] = indices[0];
+      keys[0] = keys[size];
+      indices[0] = indices[size];
+      siftDown(keys, indices, size, sign);
+    }
+    return result;
+  }
+
+  private static int compare(final int[] keys, final int[] indices, final int a, final int b, final int sign) {
+    final int c = sign * Integer.compare(keys[a], keys[b]);
+    return c != 0 ? c : Integer.compare(indices[a], indices[b]);
+  }
+
+  private static void swap(final int[] keys, final int[] indices, final int a, final int b) {
+    final int key = keys[a];
+    keys[a] = keys[b];
+    keys[b] = key;
+    final int index = indices[a];
+    indices[a] = indices[b];
+    indices[b] = index;
+  }
+
+  private static void siftUp(final int[] keys, final int[] indices, final int position, final int sign) {
+    int child = position;
+    while (child > 0) {
+      final int parent = (child - 1) >>> 1;
+      if (compare(keys, indices, child, parent, sign) <= 0) {
+        return;
+      }
+      swap(keys, indices, child, parent);
+      child = parent;
+    }
+  }
+
+  private static void siftDown(final int[] keys, final int[] indices, final int size, final int sign) {
+    int parent = 0;
+    while (true) {
+      final int left = 2 * parent + 1;
+      if (left >= size) {
+        return;
+      }
+      final int right = left + 1;
+      final int largest = right < size && compare(keys, indices, right, left, sign) > 0 ? right : left;
+      if (compare(keys, indices, largest, parent, sign) <= 0) {
+        return;
+      }
+      swap(keys, indices, largest, parent);
+      parent = largest;
+    }
+  }
+
+  /**
+   * Reorders the given array such that the element at index n is the one that would be there if the array was
+   * sorted (introselect: quickselect with median of three pivots and three way partitioning which falls back to
+   * sorting if it recurses too deep). Expected O(n) time.
+   */
+  <E> E select(@Nonnull final Object[] array, @Nonnegative final int n, @Nonnull final Comparator<? super E> comparator) {
+    @SuppressWarnings("unchecked") final Comparator<Object> cmp = (Comparator<Object>) comparator;
+    int low = 0;
+    int high = array.length - 1;
+    int depth = 2 * (32 - Integer.numberOfLeadingZeros(array.length));
+    while (high > low) {
+      if (depth-- == 0) {
+        Arrays.sort(array, low, high + 1, cmp);
+        break;
+      }
+      final Object pivot = medianOfThree(array[low], array[(low + high) >>> 1], array[high], cmp);
+      int lt = low;
+      int gt = high;
+      int i = low;
+      while (i <= gt) {
+        final int c = cmp.compare(array[i], pivot);
+        if (c < 0) {
+          Control.swap(array, lt++, i++);
+        } else if (c > 0) {
+          Control.swap(array, i, gt--);
+        } else {
+          i += 1;
+        }
+      }
+      if (n < lt) {
+        high = lt - 1;
+      } else if (n > gt) {
+        low = gt + 1;
+      } else {
+        break;
+      }
+    }
+    @SuppressWarnings("unchecked") final E result = (E) array[n];
+    return result;
+  }
+
+  private static Object medianOfThree(final Object a, final Object b, final Object c, final Comparator<Object> cmp) {
+    if (cmp.compare(a, b) < 0) {
+      if (cmp.compare(b, c) < 0) {
+        return b;
+      }
+      return cmp.compare(a, c) < 0 ? c : a;
+    }
+    if (cmp.compare(a, c) < 0) {
+      return a;
+    }
+    return cmp.compare(b, c) < 0 ? c : b;
+  }
+
+  /**
+   * Like {@link #select(Object[], int, Comparator)} for an int array.
+   */
+  int select(@Nonnull final int[] array, @Nonnegative final int n) {
+    int low = 0;
+    int high = array.length - 1;
+    int depth = 2 * (32 - Integer.numberOfLeadingZeros(array.length));
+    while (high > low) {
+      if (depth-- == 0) {
+        Arrays.sort(array, low, high + 1);
+        break;
+      }
+      final int a = array[low];
+      final int b = array[(low + high) >>> 1];
+      final int c = array[high];
+      final int pivot = Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+      int lt = low;
+      int gt = high;
+      int i = low;
+      while (i <= gt) {
+        if (array[i] < pivot) {
+          Control.swap(array, lt++, i++);
+        } else if (array[i] > pivot) {
+          Control.swap(array, i, gt--);
+        } else {
+          i += 1;
+        }
+      }
+      if (n < lt) {
+        high = lt - 1;
+      } else if (n > gt) {
+        low = gt + 1;
+      } else {
+        break;
+      }
+    }
+    return array[n];
+  }
+}
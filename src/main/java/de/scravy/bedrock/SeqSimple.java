@@ -6,7 +6,8 @@ import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Objects;
-import java.util.stream.Stream;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 class SeqSimple<E> extends Seq<E> {
 
@@ -77,6 +78,11 @@ class SeqSimple<E> extends Seq<E> {
     return backingArray.clone();
   }
 
+  @Override
+  void copyInto(@Nonnull final Object[] target, @Nonnegative final int offset) {
+    System.arraycopy(backingArray, 0, target, offset, backingArray.length);
+  }
+
   @Nonnull
   @Override
   public Seq<E> subSequence(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
@@ -103,11 +109,10 @@ class SeqSimple<E> extends Seq<E> {
     return new SeqSimpleView<>(backingArray, begin, end);
   }
 
-  @SuppressWarnings("unchecked")
   @Nonnull
   @Override
-  public Stream<E> stream() {
-    return Arrays.stream((E[]) backingArray);
+  public Spliterator<E> spliterator() {
+    return Spliterators.spliterator(backingArray, Spliterator.IMMUTABLE | Spliterator.ORDERED);
   }
 
   @Override
@@ -5,6 +5,7 @@ import javax.annotation.Nullable;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Objects;
+import java.util.function.Predicate;
 
 class SeqSimpleSorted<E extends Comparable<? super E>> extends SeqSimple<E> {
 
@@ -95,12 +96,112 @@ class SeqSimpleSorted<E extends Comparable<? super E>> extends SeqSimple<E> {
     });
   }
 
+  /**
+   * If the given Seq is sorted too this is a single merge pass, O(n + m).
+   */
   @Nonnull
   @Override
   public Seq<E> without(final Seq<E> other) {
+    Objects.requireNonNull(other, "'other' must not be null");
+    if (!(other instanceof SeqSimpleSorted)) {
+      final Predicate<E> contained = membership(other, length());
+      return filterSortedInternal(element -> !contained.test(element));
+    }
+    final Object[] that = ((SeqSimpleSorted<?>) other).backingArray;
+    final SeqBuilder<E> builder = Seq.builder(backingArray.length);
+    int i = 0;
+    int j = 0;
+    while (i < backingArray.length) {
+      final int c = j < that.length ? NULL_ACCEPTING_COMPARATOR.compare(backingArray[i], that[j]) : -1;
+      if (c < 0) {
+        builder.add(get(i++));
+      } else if (c > 0) {
+        j += 1;
+      } else {
+        i += 1;
+      }
+    }
+    return builder.resultSortedInternal();
+  }
+
+  /**
+   * If the given Seq is sorted too this is a single merge pass, O(n + m). The result is sorted.
+   */
+  @Nonnull
+  @Override
+  public Seq<E> intersect(final Seq<E> other) {
+    Objects.requireNonNull(other, "'other' must not be null");
+    if (!(other instanceof SeqSimpleSorted)) {
+      final Predicate<E> contained = membership(other, length());
+      return filterSortedInternal(contained).distinct();
+    }
+    final Object[] that = ((SeqSimpleSorted<?>) other).backingArray;
+    final SeqBuilder<E> builder = Seq.builder();
+    int i = 0;
+    int j = 0;
+    while (i < backingArray.length && j < that.length) {
+      final int c = NULL_ACCEPTING_COMPARATOR.compare(backingArray[i], that[j]);
+      if (c < 0) {
+        i += 1;
+      } else if (c > 0) {
+        j += 1;
+      } else {
+        final E element = get(i);
+        builder.add(element);
+        while (i < backingArray.length && NULL_ACCEPTING_COMPARATOR.compare(backingArray[i], element) == 0) {
+          i += 1;
+        }
+        while (j < that.length && NULL_ACCEPTING_COMPARATOR.compare(that[j], element) == 0) {
+          j += 1;
+        }
+      }
+    }
+    return builder.resultSortedInternal();
+  }
+
+  /**
+   * If the given Seq is sorted too this is a single merge pass, O(n + m), and the result is sorted.
+   */
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Seq<E> symmetricDifference(final Seq<E> other) {
+    Objects.requireNonNull(other, "'other' must not be null");
+    if (!(other instanceof SeqSimpleSorted)) {
+      return super.symmetricDifference(other);
+    }
+    final Object[] that = ((SeqSimpleSorted<?>) other).backingArray;
     final SeqBuilder<E> builder = Seq.builder();
+    int i = 0;
+    int j = 0;
+    while (i < backingArray.length || j < that.length) {
+      final int c;
+      if (i >= backingArray.length) {
+        c = 1;
+      } else if (j >= that.length) {
+        c = -1;
+      } else {
+        c = NULL_ACCEPTING_COMPARATOR.compare(backingArray[i], that[j]);
+      }
+      final E element = (E) (c <= 0 ? backingArray[i] : that[j]);
+      if (c != 0) {
+        builder.add(element);
+      }
+      while (i < backingArray.length && NULL_ACCEPTING_COMPARATOR.compare(backingArray[i], element) == 0) {
+        i += 1;
+      }
+      while (j < that.length && NULL_ACCEPTING_COMPARATOR.compare(that[j], element) == 0) {
+        j += 1;
+      }
+    }
+    return builder.resultSortedInternal();
+  }
+
+  @Nonnull
+  private Seq<E> filterSortedInternal(@Nonnull final Predicate<? super E> predicate) {
+    final SeqBuilder<E> builder = Seq.builder(backingArray.length);
     forEach(element -> {
-      if (!other.contains(element)) {
+      if (predicate.test(element)) {
         builder.add(element);
       }
     });
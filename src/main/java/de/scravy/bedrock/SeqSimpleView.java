@@ -6,6 +6,8 @@ import java.lang.reflect.Array;
 import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Objects;
+import java.util.Spliterator;
+import java.util.Spliterators;
 
 class SeqSimpleView<E> extends Seq<E> {
 
@@ -75,6 +77,11 @@ class SeqSimpleView<E> extends Seq<E> {
     return array;
   }
 
+  @Override
+  void copyInto(@Nonnull final Object[] target, @Nonnegative final int offset) {
+    System.arraycopy(backingArray, beginOffset, target, offset, length());
+  }
+
   @Nonnull
   @Override
   public Seq<E> subSequence(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
@@ -112,6 +119,12 @@ class SeqSimpleView<E> extends Seq<E> {
     return array;
   }
 
+  @Nonnull
+  @Override
+  public Spliterator<E> spliterator() {
+    return Spliterators.spliterator(backingArray, beginOffset, endOffset, Spliterator.IMMUTABLE | Spliterator.ORDERED);
+  }
+
   @Nonnegative
   @Override
   public int length() {
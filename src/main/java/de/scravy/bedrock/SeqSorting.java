@@ -0,0 +1,99 @@
+package de.scravy.bedrock;
+
+import lombok.experimental.UtilityClass;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.function.IntBinaryOperator;
+
+/**
+ * Stable index sorts backing the key caching sorts {@link Seq#sortedOn(java.util.function.Function)},
+ * {@link Seq#sortedOnInt(java.util.function.ToIntFunction)}, {@link Seq#sortedOnLong(java.util.function.ToLongFunction)}
+ * and {@link Seq#sortedOnDouble(java.util.function.ToDoubleFunction)}.
+ */
+@UtilityClass
+class SeqSorting {
+
+  /**
+   * Runs shorter than this are sorted using insertion sort.
+   */
+  private static final int INSERTION_SORT_THRESHOLD = 16;
+
+  /**
+   * Returns the permutation of the indices 0 to length - 1 which sorts them by their int keys. Equal keys keep
+   * their relative order.
+   * <p>
+   * Key and index are packed into a single long, such that sorting these primitives sorts by key first and by
+   * index second.
+   */
+  @Nonnull
+  int[] sortedIndices(@Nonnull final int[] keys) {
+    final int length = keys.length;
+    final long[] packed = new long[length];
+    for (int i = 0; i < length; i += 1) {
+      packed[i] = ((long) keys[i] << 32) | i;
+    }
+    Arrays.sort(packed);
+    final int[] indices = new int[length];
+    for (int i = 0; i < length; i += 1) {
+      indices[i] = (int) packed[i];
+    }
+    return indices;
+  }
+
+  /**
+   * Returns the permutation of the indices 0 to length - 1 which sorts them according to the given comparison of
+   * indices, using a stable merge sort.
+   */
+  @Nonnull
+  int[] sortedIndices(@Nonnegative final int length, @Nonnull final IntBinaryOperator compareIndices) {
+    final int[] indices = new int[length];
+    for (int i = 0; i < length; i += 1) {
+      indices[i] = i;
+    }
+    mergeSort(indices, indices.clone(), 0, length, compareIndices);
+    return indices;
+  }
+
+  /**
+   * Sorts <code>target[from, to)</code>, using <code>source[from, to)</code> which has the same contents as scratch
+   * space.
+   */
+  private static void mergeSort(
+    final int[] target,
+    final int[] source,
+    final int from,
+    final int to,
+    final IntBinaryOperator cmp
+  ) {
+    if (to - from < INSERTION_SORT_THRESHOLD) {
+      for (int i = from + 1; i < to; i += 1) {
+        final int index = target[i];
+        int j = i - 1;
+        while (j >= from && cmp.applyAsInt(target[j], index) > 0) {
+          target[j + 1] = target[j];
+          j -= 1;
+        }
+        target[j + 1] = index;
+      }
+      return;
+    }
+    final int middle = (from + to) >>> 1;
+    mergeSort(source, target, from, middle, cmp);
+    mergeSort(source, target, middle, to, cmp);
+    if (cmp.applyAsInt(source[middle - 1], source[middle]) <= 0) {
+      System.arraycopy(source, from, target, from, to - from);
+      return;
+    }
+    int left = from;
+    int right = middle;
+    for (int i = from; i < to; i += 1) {
+      if (right >= to || left < middle && cmp.applyAsInt(source[left], source[right]) <= 0) {
+        target[i] = source[left++];
+      } else {
+        target[i] = source[right++];
+      }
+    }
+  }
+}
@@ -0,0 +1,66 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * An index based Spliterator over a {@link Seq} which splits in halves.
+ *
+ * @param <E> The type of the elements of the Seq.
+ */
+final class SeqSpliterator<E> implements Spliterator<E> {
+
+  static final int CHARACTERISTICS = SIZED | SUBSIZED | IMMUTABLE | ORDERED;
+
+  private final Seq<E> seq;
+  private int index;
+  private final int fence;
+
+  SeqSpliterator(@Nonnull final Seq<E> seq, @Nonnegative final int index, @Nonnegative final int fence) {
+    this.seq = seq;
+    this.index = index;
+    this.fence = fence;
+  }
+
+  @Override
+  public boolean tryAdvance(@Nonnull final Consumer<? super E> action) {
+    Objects.requireNonNull(action);
+    if (index < fence) {
+      action.accept(seq.get(index++));
+      return true;
+    }
+    return false;
+  }
+
+  @Override
+  public void forEachRemaining(@Nonnull final Consumer<? super E> action) {
+    Objects.requireNonNull(action);
+    for (; index < fence; index += 1) {
+      action.accept(seq.get(index));
+    }
+  }
+
+  @Override
+  public Spliterator<E> trySplit() {
+    final int begin = index;
+    final int middle = (begin + fence) >>> 1;
+    if (begin >= middle) {
+      return null;
+    }
+    index = middle;
+    return new SeqSpliterator<>(seq, begin, middle);
+  }
+
+  @Override
+  public long estimateSize() {
+    return fence - index;
+  }
+
+  @Override
+  public int characteristics() {
+    return CHARACTERISTICS;
+  }
+}
@@ -0,0 +1,421 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import java.io.Serializable;
+import java.lang.reflect.Array;
+import java.util.*;
+
+/**
+ * A persistent sequence backed by a height balanced tree of array chunks.
+ * <p>
+ * Appending, prepending, updating a single index, concatenation and slicing create a new SeqVector which shares
+ * all but O(log n) nodes with the original one, thus take O(log n) time and memory. Random access is O(log n).
+ *
+ * @param <E> The type of the elements contained in this Sequence.
+ */
+class SeqVector<E> extends Seq<E> {
+
+  static final int CHUNK_SIZE = 32;
+
+  @SuppressWarnings("rawtypes")
+  private static final SeqVector EMPTY = new SeqVector<>(null);
+
+  @Nullable
+  private final Node root;
+
+  private SeqVector(@Nullable final Node root) {
+    this.root = root;
+  }
+
+  private abstract static class Node implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    final int size;
+    final int height;
+
+    Node(@Nonnegative final int size, @Nonnegative final int height) {
+      this.size = size;
+      this.height = height;
+    }
+  }
+
+  private static final class Leaf extends Node {
+
+    private static final long serialVersionUID = 1L;
+
+    final Object[] elements;
+
+    Leaf(@Nonnull final Object[] elements) {
+      super(elements.length, 1);
+      this.elements = elements;
+    }
+  }
+
+  private static final class Branch extends Node {
+
+    private static final long serialVersionUID = 1L;
+
+    final Node left;
+    final Node right;
+
+    Branch(@Nonnull final Node left, @Nonnull final Node right) {
+      super(left.size + right.size, Math.max(left.height, right.height) + 1);
+      this.left = left;
+      this.right = right;
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  static <E> SeqVector<E> emptyVector() {
+    return (SeqVector<E>) EMPTY;
+  }
+
+  @Nonnull
+  static <E> SeqVector<E> fromArray(@Nonnull final Object[] array) {
+    if (array.length == 0) {
+      return emptyVector();
+    }
+    final int numberOfLeaves = (array.length + CHUNK_SIZE - 1) / CHUNK_SIZE;
+    final Node[] leaves = new Node[numberOfLeaves];
+    for (int i = 0; i < numberOfLeaves; i += 1) {
+      leaves[i] = new Leaf(Arrays.copyOfRange(array, i * CHUNK_SIZE, Math.min(array.length, (i + 1) * CHUNK_SIZE)));
+    }
+    return new SeqVector<>(build(leaves, 0, numberOfLeaves));
+  }
+
+  @Nonnull
+  private static Node build(@Nonnull final Node[] leaves, final int begin, final int end) {
+    if (end - begin == 1) {
+      return leaves[begin];
+    }
+    final int middle = (begin + end) >>> 1;
+    return new Branch(build(leaves, begin, middle), build(leaves, middle, end));
+  }
+
+  /**
+   * Creates a branch from two subtrees whose heights differ by at most two, restoring the balance if necessary.
+   */
+  @Nonnull
+  private static Node balance(@Nonnull final Node left, @Nonnull final Node right) {
+    if (left.height > right.height + 1) {
+      final Branch l = (Branch) left;
+      if (l.left.height >= l.right.height) {
+        return new Branch(l.left, new Branch(l.right, right));
+      }
+      final Branch lr = (Branch) l.right;
+      return new Branch(new Branch(l.left, lr.left), new Branch(lr.right, right));
+    }
+    if (right.height > left.height + 1) {
+      final Branch r = (Branch) right;
+      if (r.right.height >= r.left.height) {
+        return new Branch(new Branch(left, r.left), r.right);
+      }
+      final Branch rl = (Branch) r.left;
+      return new Branch(new Branch(left, rl.left), new Branch(rl.right, r.right));
+    }
+    return new Branch(left, right);
+  }
+
+  @Nullable
+  private static Node join(@Nullable final Node left, @Nullable final Node right) {
+    if (left == null) {
+      return right;
+    }
+    if (right == null) {
+      return left;
+    }
+    if (left.height > right.height + 1) {
+      final Branch l = (Branch) left;
+      return balance(l.left, Objects.requireNonNull(join(l.right, right)));
+    }
+    if (right.height > left.height + 1) {
+      final Branch r = (Branch) right;
+      return balance(Objects.requireNonNull(join(left, r.left)), r.right);
+    }
+    if (left instanceof Leaf && right instanceof Leaf && left.size + right.size <= CHUNK_SIZE) {
+      final Object[] elements = Arrays.copyOf(((Leaf) left).elements, left.size + right.size);
+      System.arraycopy(((Leaf) right).elements, 0, elements, left.size, right.size);
+      return new Leaf(elements);
+    }
+    return new Branch(left, right);
+  }
+
+  @Nullable
+  private static Node take(@Nonnull final Node node, final int n) {
+    if (n >= node.size) {
+      return node;
+    }
+    if (n <= 0) {
+      return null;
+    }
+    if (node instanceof Leaf) {
+      return new Leaf(Arrays.copyOf(((Leaf) node).elements, n));
+    }
+    final Branch branch = (Branch) node;
+    if (n <= branch.left.size) {
+      return take(branch.left, n);
+    }
+    return join(branch.left, take(branch.right, n - branch.left.size));
+  }
+
+  @Nullable
+  private static Node drop(@Nonnull final Node node, final int n) {
+    if (n <= 0) {
+      return node;
+    }
+    if (n >= node.size) {
+      return null;
+    }
+    if (node instanceof Leaf) {
+      final Object[] elements = ((Leaf) node).elements;
+      return new Leaf(Arrays.copyOfRange(elements, n, elements.length));
+    }
+    final Branch branch = (Branch) node;
+    if (n >= branch.left.size) {
+      return drop(branch.right, n - branch.left.size);
+    }
+    return join(drop(branch.left, n), branch.right);
+  }
+
+  @Nonnull
+  private static Node updated(@Nonnull final Node node, final int index, final Object value) {
+    if (node instanceof Leaf) {
+      final Object[] elements = ((Leaf) node).elements.clone();
+      elements[index] = value;
+      return new Leaf(elements);
+    }
+    final Branch branch = (Branch) node;
+    if (index < branch.left.size) {
+      return new Branch(updated(branch.left, index, value), branch.right);
+    }
+    return new Branch(branch.left, updated(branch.right, index - branch.left.size, value));
+  }
+
+  @Nonnull
+  private static Node appended(@Nonnull final Node node, final Object value) {
+    if (node instanceof Leaf) {
+      final Object[] elements = ((Leaf) node).elements;
+      if (elements.length < CHUNK_SIZE) {
+        final Object[] newElements = Arrays.copyOf(elements, elements.length + 1);
+        newElements[elements.length] = value;
+        return new Leaf(newElements);
+      }
+      return new Branch(node, new Leaf(new Object[]{value}));
+    }
+    final Branch branch = (Branch) node;
+    return balance(branch.left, appended(branch.right, value));
+  }
+
+  @Nonnull
+  private static Node prepended(@Nonnull final Node node, final Object value) {
+    if (node instanceof Leaf) {
+      final Object[] elements = ((Leaf) node).elements;
+      if (elements.length < CHUNK_SIZE) {
+        final Object[] newElements = new Object[elements.length + 1];
+        newElements[0] = value;
+        System.arraycopy(elements, 0, newElements, 1, elements.length);
+        return new Leaf(newElements);
+      }
+      return new Branch(new Leaf(new Object[]{value}), node);
+    }
+    final Branch branch = (Branch) node;
+    return balance(prepended(branch.left, value), branch.right);
+  }
+
+  @Override
+  void copyInto(@Nonnull final Object[] target, @Nonnegative final int offset) {
+    if (root != null) {
+      copyInto(root, target, offset);
+    }
+  }
+
+  private static void copyInto(@Nonnull final Node node, @Nonnull final Object[] target, final int offset) {
+    if (node instanceof Leaf) {
+      final Object[] elements = ((Leaf) node).elements;
+      //noinspection SuspiciousSystemArraycopy
+      System.arraycopy(elements, 0, target, offset, elements.length);
+      return;
+    }
+    final Branch branch = (Branch) node;
+    copyInto(branch.left, target, offset);
+    copyInto(branch.right, target, offset + branch.left.size);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Override
+  public E get(@Nonnegative final int index) {
+    checkBounds(index);
+    Node node = root;
+    int i = index;
+    while (node instanceof Branch) {
+      final Branch branch = (Branch) node;
+      if (i < branch.left.size) {
+        node = branch.left;
+      } else {
+        i -= branch.left.size;
+        node = branch.right;
+      }
+    }
+    return (E) ((Leaf) Objects.requireNonNull(node)).elements[i];
+  }
+
+  @Nonnegative
+  @Override
+  public int length() {
+    return root == null ? 0 : root.size;
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> appended(final E element) {
+    if (root == null) {
+      return new SeqVector<>(new Leaf(new Object[]{element}));
+    }
+    return new SeqVector<>(appended(root, element));
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> prepended(final E element) {
+    if (root == null) {
+      return new SeqVector<>(new Leaf(new Object[]{element}));
+    }
+    return new SeqVector<>(prepended(root, element));
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> updated(@Nonnegative final int index, final E element) {
+    checkBounds(index);
+    return new SeqVector<>(updated(Objects.requireNonNull(root), index, element));
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> appendedAll(@Nonnull final Seq<E> seq) {
+    Objects.requireNonNull(seq, "'seq' must not be null");
+    return new SeqVector<>(join(root, ((SeqVector<E>) seq.persistent()).root));
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> persistent() {
+    return this;
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> subSequence(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    final int begin = Math.max(0, beginOffset);
+    final int end = Math.min(length(), endOffset);
+    if (end - begin <= 0) {
+      return emptyVector();
+    }
+    return new SeqVector<>(drop(Objects.requireNonNull(take(Objects.requireNonNull(root), end)), begin));
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> subSequenceView(@Nonnegative final int beginOffset, @Nonnegative final int endOffset) {
+    return subSequence(beginOffset, endOffset);
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> reversed() {
+    return new SeqReversed<>(toArray());
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Seq<E> sorted() {
+    final Object[] array = toArray();
+    Arrays.sort(array, NULL_ACCEPTING_COMPARATOR);
+    return new SeqSimpleSorted(array);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Seq<E> sortedBy(@Nonnull final Comparator<? super E> comparator) {
+    Objects.requireNonNull(comparator);
+    final Object[] array = toArray();
+    Arrays.sort(array, (Comparator<Object>) comparator);
+    return new SeqSimple<>(array);
+  }
+
+  @Nonnull
+  @Override
+  public Seq<E> trimmedToSize() {
+    return this;
+  }
+
+  @Nonnull
+  @Override
+  public Object[] toArray() {
+    final Object[] array = new Object[length()];
+    if (root != null) {
+      copyInto(root, array, 0);
+    }
+    return array;
+  }
+
+  @Nonnull
+  @Override
+  public E[] toArray(@Nonnull final Class<E> evidence) {
+    Objects.requireNonNull(evidence);
+    @SuppressWarnings("unchecked") final E[] array = (E[]) Array.newInstance(evidence, length());
+    if (root != null) {
+      copyInto(root, array, 0);
+    }
+    return array;
+  }
+
+  @Nonnull
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+
+      private final ArrayDeque<Node> stack = new ArrayDeque<>();
+      private Object[] current = new Object[0];
+      private int index = 0;
+
+      {
+        if (root != null) {
+          stack.push(root);
+        }
+      }
+
+      @Override
+      public boolean hasNext() {
+        while (index >= current.length) {
+          if (stack.isEmpty()) {
+            return false;
+          }
+          Node node = stack.pop();
+          while (node instanceof Branch) {
+            stack.push(((Branch) node).right);
+            node = ((Branch) node).left;
+          }
+          current = ((Leaf) node).elements;
+          index = 0;
+        }
+        return true;
+      }
+
+      @SuppressWarnings("unchecked")
+      @Override
+      public E next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        return (E) current[index++];
+      }
+    };
+  }
+}
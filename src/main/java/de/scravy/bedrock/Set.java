@@ -1,50 +1,162 @@
 package de.scravy.bedrock;
 
-import lombok.EqualsAndHashCode;
-
 import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
 import javax.annotation.concurrent.Immutable;
 import java.io.Serializable;
 import java.util.*;
 import java.util.function.Function;
 import java.util.function.Predicate;
 
-@EqualsAndHashCode
+/**
+ * An immutable set of elements, kept sorted.
+ * <p>
+ * A Set of Integers or of the constants of a single enum type is backed by a bitmap if that takes at most one
+ * 64 bit word per element, which then takes at most 8 bytes per element, looks up elements in O(1) and computes
+ * {@link #union(Set)}, {@link #intersect(Set)} and {@link #without(Set)} of two such Sets a word at a time. Every
+ * other Set is backed by a sorted array. The representation is picked transparently whenever a Set is created.
+ *
+ * @param <E> The type of the elements.
+ */
 @Immutable
 public final class Set<E extends Comparable<? super E>> implements
   Serializable,
   Container<E> {
 
+  /**
+   * The elements, or null if this Set is empty or backed by a bitmap.
+   */
   private final SeqSimpleSorted<E> underlying;
 
-  private Set(final SeqSimpleSorted<E> underlying) {
+  /**
+   * A hash index of the elements, or null if this Set is not hashed, see {@link #hashed()}.
+   */
+  private final SeqIndexed.Holder index;
+
+  /**
+   * The elements, or null if this Set is not backed by a bitmap.
+   */
+  private final SetBitmap<E> bitmap;
+
+  /**
+   * The elements of a Set backed by a bitmap as a sorted Seq, decoded on first use by {@link #sortedSeq()}.
+   */
+  private transient volatile SeqSimpleSorted<E> decoded;
+
+  private Set(final SeqSimpleSorted<E> underlying, final SeqIndexed.Holder index, final SetBitmap<E> bitmap) {
     this.underlying = underlying;
+    this.index = index;
+    this.bitmap = bitmap;
+  }
+
+  private Set(@Nonnull final SeqSimpleSorted<E> underlying) {
+    this(underlying, null, null);
+  }
+
+  private Set(@Nonnull final SetBitmap<E> bitmap) {
+    this(null, null, bitmap);
+  }
+
+  /**
+   * Returns this Set with a hash index attached, which makes {@link #contains(Object)}, {@link #containsAll(Iterable)}
+   * and {@link #containsAny(Iterable)} O(1) per element looked up instead of O(log n). The order of the elements
+   * and all other operations are not affected, Sets derived from the returned one are not hashed though.
+   * <p>
+   * The index is built on first use, which costs O(n). It uses {@link Object#equals(Object)} and
+   * {@link Object#hashCode()}, which must thus be consistent with {@link Comparable#compareTo(Object)}.
+   * <p>
+   * A Set backed by a bitmap already looks up elements in O(1) and is returned as is.
+   */
+  @Nonnull
+  public Set<E> hashed() {
+    if (underlying == null || index != null) {
+      return this;
+    }
+    return new Set<>(underlying, new SeqIndexed.Holder(underlying), null);
+  }
+
+  public boolean isHashed() {
+    return index != null;
+  }
+
+  boolean isBitmap() {
+    return bitmap != null;
   }
 
   public boolean contains(final E element) {
+    if (bitmap != null) {
+      return bitmap.contains(element);
+    }
+    if (index != null) {
+      return index.get().slotOf(element) >= 0;
+    }
     return underlying != null && underlying.contains(element);
   }
 
+  /**
+   * The elements in ascending order, this Set must not be empty.
+   */
+  @Nonnull
+  private Object[] array() {
+    return sortedSeq().backingArray;
+  }
+
+  /**
+   * If both Sets are backed by bitmaps this is a word at a time. If this Set is hashed or backed by a bitmap this is
+   * O(1) per element of the given Iterable. Otherwise, if the given Iterable is a Set too, this is a single merge
+   * pass, or a galloping search if its size is much smaller than the size of this Set.
+   */
+  @SuppressWarnings("unchecked")
   public boolean containsAll(final Iterable<E> iterable) {
     Objects.requireNonNull(iterable, "'iterable' must not be null");
-    if (underlying == null) {
+    if (isEmpty()) {
       return !iterable.iterator().hasNext();
     }
+    if (iterable instanceof Set) {
+      final Set<E> other = (Set<E>) iterable;
+      if (other.isEmpty()) {
+        return true;
+      }
+      if (bitmap != null && other.bitmap != null) {
+        return bitmap.containsAll(other.bitmap);
+      }
+      if (underlying != null && index == null) {
+        return SortedMerge.containsAll(underlying.backingArray, other.array());
+      }
+    }
     for (final E e : iterable) {
-      if (!underlying.contains(e)) {
+      if (!contains(e)) {
         return false;
       }
     }
     return true;
   }
 
+  /**
+   * If both Sets are backed by bitmaps this is a word at a time. If this Set is hashed or backed by a bitmap this is
+   * O(1) per element of the given Iterable. Otherwise, if the given Iterable is a Set too, this is a single merge
+   * pass, or a galloping search if the sizes of the two Sets differ a lot.
+   */
+  @SuppressWarnings("unchecked")
   public boolean containsAny(final Iterable<E> iterable) {
     Objects.requireNonNull(iterable, "'iterable' must not be null");
-    if (underlying == null) {
+    if (isEmpty()) {
       return false;
     }
+    if (iterable instanceof Set) {
+      final Set<E> other = (Set<E>) iterable;
+      if (other.isEmpty()) {
+        return false;
+      }
+      if (bitmap != null && other.bitmap != null) {
+        return bitmap.intersects(other.bitmap);
+      }
+      if (underlying != null && index == null) {
+        return SortedMerge.containsAny(underlying.backingArray, other.array());
+      }
+    }
     for (final E e : iterable) {
-      if (underlying.contains(e)) {
+      if (contains(e)) {
         return true;
       }
     }
@@ -53,27 +165,33 @@ public final class Set<E extends Comparable<? super E>> implements
 
   @Override
   public boolean forAll(@Nonnull final Predicate<? super E> predicate) {
+    if (bitmap != null) {
+      return Container.super.forAll(predicate);
+    }
     return underlying == null || underlying.forAll(predicate);
   }
 
   @Override
   public boolean exists(@Nonnull final Predicate<? super E> predicate) {
+    if (bitmap != null) {
+      return Container.super.exists(predicate);
+    }
     return underlying != null && underlying.exists(predicate);
   }
 
   @Override
   public E draw(@Nonnull final Random random) throws NoSuchElementException {
-    if (underlying == null) {
+    if (isEmpty()) {
       throw new NoSuchElementException("drawing from an empty set");
     }
     final int ix = random.nextInt(size());
-    return underlying.get(ix);
+    return bitmap != null ? bitmap.get(ix) : underlying.get(ix);
   }
 
   @Nonnull
   @SuppressWarnings("unchecked")
   public <F extends E> Set<F> filter(@Nonnull final Class<F> clazz) {
-    if (underlying == null) {
+    if (isEmpty()) {
       return empty();
     }
     final Set set = filter(element -> element != null && clazz.isAssignableFrom(element.getClass()));
@@ -85,6 +203,9 @@ public final class Set<E extends Comparable<? super E>> implements
     if (isEmpty()) {
       return empty();
     }
+    if (bitmap != null) {
+      return ofBitmap(bitmap.filter(predicate));
+    }
     return ofSeqInternal(underlying.filter(predicate));
   }
 
@@ -93,6 +214,10 @@ public final class Set<E extends Comparable<? super E>> implements
     return filter(predicate.negate());
   }
 
+  /**
+   * A word at a time if both Sets are backed by bitmaps and the result is dense enough to be backed by a bitmap
+   * too, a single merge pass otherwise.
+   */
   public Set<E> union(final Set<E> other) {
     Objects.requireNonNull(other, "'other' must not be null");
     if (other.isEmpty()) {
@@ -101,23 +226,75 @@ public final class Set<E extends Comparable<? super E>> implements
     if (isEmpty()) {
       return other;
     }
-    return ofSeqInternal(underlying.union(other.underlying));
+    if (bitmap != null && other.bitmap != null) {
+      final SetBitmap<E> result = bitmap.union(other.bitmap);
+      if (result != null) {
+        return ofBitmap(result);
+      }
+    }
+    return ofSeqInternal(sortedSeq().union(other.sortedSeq()));
   }
 
+  /**
+   * A word at a time if both Sets are backed by bitmaps. Otherwise a single merge pass, O(n + m), or a galloping
+   * search, O(m log(n / m)), if the sizes of the two Sets differ a lot.
+   */
   public Set<E> intersect(final Set<E> other) {
     Objects.requireNonNull(other, "'other' must not be null");
     if (isEmpty() || other.isEmpty()) {
       return empty();
     }
-    return ofSeqInternal(underlying.intersect(other.underlying));
+    if (bitmap != null && other.bitmap != null) {
+      return ofBitmapResult(bitmap.intersect(other.bitmap));
+    }
+    return ofMergeResult(SortedMerge.intersect(array(), other.array()));
   }
 
+  /**
+   * A word at a time if both Sets are backed by bitmaps. Otherwise a single merge pass, O(n + m), or a galloping
+   * search, O(m log(n / m)), if the sizes of the two Sets differ a lot.
+   */
   public Set<E> without(final Set<E> other) {
     Objects.requireNonNull(other, "'other' must not be null");
     if (isEmpty() || other.isEmpty()) {
       return this;
     }
-    return ofSeqInternal(underlying.without(other.underlying));
+    if (bitmap != null && other.bitmap != null) {
+      return ofBitmapResult(bitmap.without(other.bitmap));
+    }
+    return ofMergeResult(SortedMerge.without(array(), other.array()));
+  }
+
+  @Nonnull
+  private Set<E> ofMergeResult(@Nonnull final Object[] array) {
+    if (array.length == size()) {
+      return this;
+    }
+    return ofSortedArray(array);
+  }
+
+  @Nonnull
+  private Set<E> ofBitmapResult(@Nonnull final SetBitmap<E> result) {
+    if (result.size() == size()) {
+      return this;
+    }
+    return ofBitmap(result);
+  }
+
+  /**
+   * The elements in ascending order, this Set must not be empty.
+   */
+  @Nonnull
+  private SeqSimpleSorted<E> sortedSeq() {
+    if (bitmap == null) {
+      return underlying;
+    }
+    SeqSimpleSorted<E> result = decoded;
+    if (result == null) {
+      result = new SeqSimpleSorted<>(bitmap.toArray());
+      decoded = result;
+    }
+    return result;
   }
 
   public <F extends Comparable<? super F>> Set<F> transform(final Function<E, F> f) {
@@ -125,52 +302,56 @@ public final class Set<E extends Comparable<? super E>> implements
   }
 
   public E maximum() {
-    return toSeq().lastOptional().orElseThrow(NoSuchElementException::new);
+    return maximumOptional().orElseThrow(NoSuchElementException::new);
   }
 
   public E minimum() {
-    return toSeq().headOptional().orElseThrow(NoSuchElementException::new);
+    return minimumOptional().orElseThrow(NoSuchElementException::new);
   }
 
   @Nonnull
   public Optional<E> maximumOptional() {
-    return toSeq().lastOptional();
+    return bitmap != null ? Optional.of(bitmap.last()) : toSeq().lastOptional();
   }
 
   @Nonnull
   public Optional<E> minimumOptional() {
-    return toSeq().headOptional();
+    return bitmap != null ? Optional.of(bitmap.first()) : toSeq().headOptional();
   }
 
   @Override
   public boolean isEmpty() {
-    return underlying == null;
+    return underlying == null && bitmap == null;
   }
 
   @Nonnull
   @Override
   public String asString(@Nonnull final String delimiter) {
-    return underlying == null ? "" : underlying.asString(delimiter);
+    return isEmpty() ? "" : toSeq().asString(delimiter);
   }
 
   public int size() {
+    if (bitmap != null) {
+      return bitmap.size();
+    }
     return underlying == null ? 0 : underlying.size();
   }
 
   /**
-   * Cost: O(1) - The underlying structure is already a Seq
+   * Cost: O(1) - The underlying structure is already a Seq. If this Set is backed by a bitmap the Seq is decoded
+   * in O(n) on the first call and kept for later ones.
    */
   @Nonnull
   public Seq<E> toSeq() {
-    return underlying == null ? Seq.empty() : underlying;
+    return isEmpty() ? Seq.empty() : sortedSeq();
   }
 
   /**
-   * Cost: O(1) - Returns a view on the underlying Seq
+   * Cost: O(1) - Returns a view on the underlying Seq, see {@link #toSeq()}.
    */
   @Nonnull
   public List<E> toList() {
-    return underlying == null ? Collections.emptyList() : underlying.toList();
+    return isEmpty() ? Collections.emptyList() : sortedSeq().toList();
   }
 
   @Nonnull
@@ -193,7 +374,7 @@ public final class Set<E extends Comparable<? super E>> implements
    * INTERNAL: Assumes the seq is a sorted, distinct seq.
    */
   @Nonnull
-  private static <E extends Comparable<? super E>> Set<E> ofSeqInternal(final Seq<E> seq) {
+  static <E extends Comparable<? super E>> Set<E> ofSeqInternal(final Seq<E> seq) {
     if (seq.isEmpty()) {
       return empty();
     }
@@ -203,7 +384,52 @@ public final class Set<E extends Comparable<? super E>> implements
     } else {
       seqSimpleSorted = (SeqSimpleSorted<E>) seq.sorted().distinct(); // if not a SeqSimpleSorted, make it one
     }
-    return new Set<>(seqSimpleSorted);
+    final SetBitmap<E> bitmap = SetBitmap.ofSortedArray(seqSimpleSorted.backingArray);
+    return bitmap != null ? new Set<>(bitmap) : new Set<>(seqSimpleSorted);
+  }
+
+  /**
+   * INTERNAL: Assumes the array is sorted and distinct.
+   */
+  @Nonnull
+  private static <E extends Comparable<? super E>> Set<E> ofSortedArray(@Nonnull final Object[] array) {
+    if (array.length == 0) {
+      return empty();
+    }
+    final SetBitmap<E> bitmap = SetBitmap.ofSortedArray(array);
+    return bitmap != null ? new Set<>(bitmap) : new Set<>(new SeqSimpleSorted<E>(array));
+  }
+
+  /**
+   * INTERNAL: Assumes the codes are sorted and distinct, see {@link SetBitmap}.
+   */
+  @Nonnull
+  static <E extends Comparable<? super E>> Set<E> ofSortedCodes(
+    @Nonnull final Class<?> kind,
+    @Nonnull final int[] codes,
+    final int count
+  ) {
+    if (count == 0) {
+      return empty();
+    }
+    final SetBitmap<E> bitmap = SetBitmap.ofSortedCodes(kind, codes, count);
+    if (bitmap != null) {
+      return new Set<>(bitmap);
+    }
+    final Object[] constants = SetBitmap.constantsOf(kind);
+    final Object[] array = new Object[count];
+    for (int i = 0; i < count; i += 1) {
+      array[i] = SetBitmap.decode(constants, codes[i]);
+    }
+    return new Set<>(new SeqSimpleSorted<E>(array));
+  }
+
+  @Nonnull
+  private static <E extends Comparable<? super E>> Set<E> ofBitmap(@Nonnull final SetBitmap<E> bitmap) {
+    if (bitmap.isEmpty()) {
+      return empty();
+    }
+    return bitmap.isDense() ? new Set<>(bitmap) : new Set<>(new SeqSimpleSorted<E>(bitmap.toArray()));
   }
 
   @SafeVarargs
@@ -254,8 +480,35 @@ public final class Set<E extends Comparable<? super E>> implements
     return ofSeqInternal(new SeqSimpleSorted<E>(elements.toArray()));
   }
 
+  /**
+   * Returns the union of all the given Sets, merging them in a single pass using a heap, O(n log k) for n elements
+   * in k Sets. If all of them are backed by bitmaps and the result is dense enough, they are merged a word at a time.
+   */
+  @Nonnull
+  public static <E extends Comparable<? super E>> Set<E> unionAll(@Nonnull final Seq<Set<E>> sets) {
+    Objects.requireNonNull(sets, "'sets' must not be null");
+    final Seq<Set<E>> nonEmpty = sets.filter(Set::nonEmpty);
+    if (nonEmpty.isEmpty()) {
+      return empty();
+    }
+    if (nonEmpty.length() == 1) {
+      return nonEmpty.head();
+    }
+    if (nonEmpty.forAll(set -> set.bitmap != null)) {
+      final SetBitmap<E> result = SetBitmap.unionAll(nonEmpty.map(set -> set.bitmap));
+      if (result != null) {
+        return ofBitmap(result);
+      }
+    }
+    final Object[][] arrays = new Object[nonEmpty.length()][];
+    for (int i = 0; i < arrays.length; i += 1) {
+      arrays[i] = nonEmpty.get(i).array();
+    }
+    return ofSortedArray(SortedMerge.unionAll(arrays));
+  }
+
   @SuppressWarnings("unchecked")
-  private static final Set EMPTY = new Set(null);
+  private static final Set EMPTY = new Set(null, null, null);
 
   @Nonnull
   public static <E extends Comparable<? super E>> SetBuilder<E> builder() {
@@ -271,13 +524,42 @@ public final class Set<E extends Comparable<? super E>> implements
   @Nonnull
   @Override
   public Iterator<E> iterator() {
+    if (bitmap != null) {
+      return bitmap.iterator();
+    }
     return underlying == null ? Seq.<E>empty().iterator() : underlying.iterator();
   }
 
+  /**
+   * Two Sets are equal if they contain the same elements, regardless of how they are represented.
+   */
+  @Override
+  public boolean equals(@Nullable final Object that) {
+    if (this == that) {
+      return true;
+    }
+    if (!(that instanceof Set)) {
+      return false;
+    }
+    final Set<?> thatSet = (Set<?>) that;
+    if (bitmap != null && thatSet.bitmap != null) {
+      return bitmap.equals(thatSet.bitmap);
+    }
+    return size() == thatSet.size() && toSeq().equals(thatSet.toSeq());
+  }
+
+  /**
+   * The same as the hash code of {@link #toSeq()}.
+   */
+  @Override
+  public int hashCode() {
+    return bitmap != null ? bitmap.hashCode() : toSeq().hashCode();
+  }
+
   @Nonnull
   @Override
   public String toString() {
-    return underlying == null ? "∅" : ('{' + underlying.asString(", ") + '}');
+    return isEmpty() ? "∅" : ('{' + asString(", ") + '}');
   }
 
 }
@@ -0,0 +1,428 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Predicate;
+
+/**
+ * The bitmap backing a {@link Set} of Integers or of the constants of a single enum type.
+ * <p>
+ * Every element is encoded as an int code, the Integer itself or the ordinal of the enum constant, which orders the
+ * codes like the elements. The codes present are the set bits of an array of words, the first of which holds the
+ * codes from {@code 64 * firstWord} on. The words are trimmed, i.e. the first and the last word are never zero.
+ * <p>
+ * A bitmap is only used if it is dense, i.e. if it needs at most one word per element (see
+ * {@link #isDense(long, long)}), so it never takes more than 8 bytes per element. Union, intersection and difference
+ * of two bitmaps are computed a word at a time, lookups are O(1).
+ *
+ * @param <E> The type of the elements, Integer or an enum type.
+ */
+@Immutable
+final class SetBitmap<E> implements Iterable<E>, Serializable {
+
+  private static final long serialVersionUID = 1L;
+
+  private static final ClassValue<Object[]> ENUM_CONSTANTS = new ClassValue<Object[]>() {
+    @Override
+    protected Object[] computeValue(@Nonnull final Class<?> type) {
+      return type.getEnumConstants();
+    }
+  };
+
+  /**
+   * Integer.class or the enum type, see {@link #kindOf(Object)}.
+   */
+  @Nonnull
+  private final Class<?> kind;
+  private final int firstWord;
+  @Nonnull
+  private final long[] words;
+  @Nonnegative
+  private final int size;
+
+  private transient int hashCode;
+
+  private SetBitmap(@Nonnull final Class<?> kind, final int firstWord, @Nonnull final long[] words) {
+    this.kind = kind;
+    this.firstWord = firstWord;
+    this.words = words;
+    int size = 0;
+    for (final long word : words) {
+      size += Long.bitCount(word);
+    }
+    this.size = size;
+  }
+
+  /**
+   * Integer.class for Integers, the declaring class for enum constants, and null for everything else.
+   */
+  @Nullable
+  static Class<?> kindOf(@Nullable final Object element) {
+    if (element instanceof Integer) {
+      return Integer.class;
+    }
+    if (element instanceof Enum) {
+      return ((Enum<?>) element).getDeclaringClass();
+    }
+    return null;
+  }
+
+  static int codeOf(@Nonnull final Object element) {
+    return element instanceof Integer ? (Integer) element : ((Enum<?>) element).ordinal();
+  }
+
+  /**
+   * The constants of the given enum type, or null for Integer.class, as required by {@link #decode(Object[], int)}.
+   */
+  @Nullable
+  static Object[] constantsOf(@Nonnull final Class<?> kind) {
+    return kind == Integer.class ? null : ENUM_CONSTANTS.get(kind);
+  }
+
+  @Nonnull
+  static Object decode(@Nullable final Object[] constants, final int code) {
+    return constants == null ? Integer.valueOf(code) : constants[code];
+  }
+
+  /**
+   * Whether a bitmap spanning the given number of words is dense enough to back a Set of the given size.
+   */
+  static boolean isDense(final long words, final long size) {
+    return words <= size;
+  }
+
+  @Nonnull
+  private static <E> SetBitmap<E> trimmed(
+    @Nonnull final Class<?> kind,
+    final int firstWord,
+    @Nonnull final long[] words
+  ) {
+    int from = 0;
+    int to = words.length;
+    while (from < to && words[from] == 0) {
+      from += 1;
+    }
+    while (to > from && words[to - 1] == 0) {
+      to -= 1;
+    }
+    if (from == 0 && to == words.length) {
+      return new SetBitmap<>(kind, firstWord, words);
+    }
+    return new SetBitmap<>(kind, from == to ? 0 : firstWord + from, Arrays.copyOfRange(words, from, to));
+  }
+
+  /**
+   * Returns a bitmap of the given sorted, distinct elements, or null if they are not all Integers or all constants
+   * of the same enum type, or if the bitmap would not be dense.
+   */
+  @Nullable
+  static <E> SetBitmap<E> ofSortedArray(@Nonnull final Object[] array) {
+    final int n = array.length;
+    if (n == 0) {
+      return null;
+    }
+    final Class<?> kind = kindOf(array[0]);
+    if (kind == null || kindOf(array[n - 1]) != kind) {
+      return null;
+    }
+    final int firstWord = codeOf(array[0]) >> 6;
+    final int lastWord = codeOf(array[n - 1]) >> 6;
+    if (!isDense((long) lastWord - firstWord + 1, n)) {
+      return null;
+    }
+    final long[] words = new long[lastWord - firstWord + 1];
+    for (final Object element : array) {
+      if (kindOf(element) != kind) {
+        return null;
+      }
+      final int code = codeOf(element);
+      words[(code >> 6) - firstWord] |= 1L << code;
+    }
+    return new SetBitmap<>(kind, firstWord, words);
+  }
+
+  /**
+   * Returns a bitmap of the given sorted, distinct codes of the given kind, or null if it would not be dense.
+   */
+  @Nullable
+  static <E> SetBitmap<E> ofSortedCodes(
+    @Nonnull final Class<?> kind,
+    @Nonnull final int[] codes,
+    @Nonnegative final int count
+  ) {
+    if (count == 0) {
+      return null;
+    }
+    final int firstWord = codes[0] >> 6;
+    final int lastWord = codes[count - 1] >> 6;
+    if (!isDense((long) lastWord - firstWord + 1, count)) {
+      return null;
+    }
+    final long[] words = new long[lastWord - firstWord + 1];
+    for (int i = 0; i < count; i += 1) {
+      words[(codes[i] >> 6) - firstWord] |= 1L << codes[i];
+    }
+    return new SetBitmap<>(kind, firstWord, words);
+  }
+
+  /**
+   * Returns the union of the given non-empty bitmaps, or null if they are not all of the same kind or if the
+   * result might not be dense.
+   */
+  @Nullable
+  static <E> SetBitmap<E> unionAll(@Nonnull final Seq<SetBitmap<E>> bitmaps) {
+    final Class<?> kind = bitmaps.head().kind;
+    int from = Integer.MAX_VALUE;
+    int to = Integer.MIN_VALUE;
+    long size = 0;
+    for (final SetBitmap<E> bitmap : bitmaps) {
+      if (bitmap.kind != kind) {
+        return null;
+      }
+      from = Math.min(from, bitmap.firstWord);
+      to = Math.max(to, bitmap.end());
+      size += bitmap.size;
+    }
+    if (!isDense((long) to - from, size)) {
+      return null;
+    }
+    final long[] words = new long[to - from];
+    for (final SetBitmap<E> bitmap : bitmaps) {
+      final int offset = bitmap.firstWord - from;
+      for (int w = 0; w < bitmap.words.length; w += 1) {
+        words[offset + w] |= bitmap.words[w];
+      }
+    }
+    return new SetBitmap<>(kind, from, words);
+  }
+
+  private int end() {
+    return firstWord + words.length;
+  }
+
+  /**
+   * The word holding the codes from {@code 64 * word} on, zero if outside of this bitmap.
+   */
+  private long word(final int word) {
+    final int w = word - firstWord;
+    return w >= 0 && w < words.length ? words[w] : 0;
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  private E element(@Nullable final Object[] constants, @Nonnegative final int word, @Nonnegative final int bit) {
+    return (E) decode(constants, (firstWord + word) << 6 | bit);
+  }
+
+  @Nonnegative
+  int size() {
+    return size;
+  }
+
+  boolean isEmpty() {
+    return size == 0;
+  }
+
+  boolean isDense() {
+    return isDense(words.length, size);
+  }
+
+  boolean contains(@Nullable final Object element) {
+    if (kindOf(element) != kind) {
+      return false;
+    }
+    final int code = codeOf(element);
+    return (word(code >> 6) & (1L << code)) != 0;
+  }
+
+  /**
+   * Whether every element of other is contained in this bitmap.
+   */
+  boolean containsAll(@Nonnull final SetBitmap<E> other) {
+    if (other.kind != kind) {
+      return other.isEmpty();
+    }
+    for (int w = 0; w < other.words.length; w += 1) {
+      if ((other.words[w] & ~word(other.firstWord + w)) != 0) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Whether any element of other is contained in this bitmap.
+   */
+  boolean intersects(@Nonnull final SetBitmap<E> other) {
+    if (other.kind != kind) {
+      return false;
+    }
+    final int to = Math.min(end(), other.end());
+    for (int w = Math.max(firstWord, other.firstWord); w < to; w += 1) {
+      if ((words[w - firstWord] & other.words[w - other.firstWord]) != 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Nonnull
+  E get(@Nonnegative final int index) {
+    if (index < 0) {
+      throw new IndexOutOfBoundsException();
+    }
+    int remaining = index;
+    for (int w = 0; w < words.length; w += 1) {
+      final int count = Long.bitCount(words[w]);
+      if (remaining < count) {
+        long word = words[w];
+        for (int r = 0; r < remaining; r += 1) {
+          word &= word - 1;
+        }
+        return element(constantsOf(kind), w, Long.numberOfTrailingZeros(word));
+      }
+      remaining -= count;
+    }
+    throw new IndexOutOfBoundsException();
+  }
+
+  @Nonnull
+  E first() {
+    return element(constantsOf(kind), 0, Long.numberOfTrailingZeros(words[0]));
+  }
+
+  @Nonnull
+  E last() {
+    final int w = words.length - 1;
+    return element(constantsOf(kind), w, 63 - Long.numberOfLeadingZeros(words[w]));
+  }
+
+  @Nullable
+  SetBitmap<E> union(@Nonnull final SetBitmap<E> other) {
+    return unionAll(Seq.of(this, other));
+  }
+
+  @Nonnull
+  SetBitmap<E> intersect(@Nonnull final SetBitmap<E> other) {
+    final int from = Math.max(firstWord, other.firstWord);
+    final int to = Math.min(end(), other.end());
+    if (other.kind != kind || from >= to) {
+      return trimmed(kind, 0, new long[0]);
+    }
+    final long[] result = new long[to - from];
+    for (int w = from; w < to; w += 1) {
+      result[w - from] = words[w - firstWord] & other.words[w - other.firstWord];
+    }
+    return trimmed(kind, from, result);
+  }
+
+  @Nonnull
+  SetBitmap<E> without(@Nonnull final SetBitmap<E> other) {
+    if (other.kind != kind) {
+      return this;
+    }
+    final long[] result = words.clone();
+    final int to = Math.min(end(), other.end());
+    for (int w = Math.max(firstWord, other.firstWord); w < to; w += 1) {
+      result[w - firstWord] &= ~other.words[w - other.firstWord];
+    }
+    return trimmed(kind, firstWord, result);
+  }
+
+  @Nonnull
+  SetBitmap<E> filter(@Nonnull final Predicate<? super E> predicate) {
+    final Object[] constants = constantsOf(kind);
+    final long[] result = new long[words.length];
+    for (int w = 0; w < words.length; w += 1) {
+      long word = words[w];
+      while (word != 0) {
+        final long lowest = word & -word;
+        if (predicate.test(element(constants, w, Long.numberOfTrailingZeros(word)))) {
+          result[w] |= lowest;
+        }
+        word ^= lowest;
+      }
+    }
+    return trimmed(kind, firstWord, result);
+  }
+
+  /**
+   * The elements in ascending order.
+   */
+  @Nonnull
+  Object[] toArray() {
+    final Object[] constants = constantsOf(kind);
+    final Object[] array = new Object[size];
+    int c = 0;
+    for (int w = 0; w < words.length; w += 1) {
+      long word = words[w];
+      while (word != 0) {
+        array[c++] = element(constants, w, Long.numberOfTrailingZeros(word));
+        word &= word - 1;
+      }
+    }
+    return array;
+  }
+
+  @Nonnull
+  @Override
+  public Iterator<E> iterator() {
+    return new Iterator<E>() {
+      private final Object[] constants = constantsOf(kind);
+      private int w = 0;
+      private long word = words.length == 0 ? 0 : words[0];
+
+      @Override
+      public boolean hasNext() {
+        while (word == 0 && w < words.length - 1) {
+          w += 1;
+          word = words[w];
+        }
+        return word != 0;
+      }
+
+      @Override
+      public E next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final int bit = Long.numberOfTrailingZeros(word);
+        word &= word - 1;
+        return element(constants, w, bit);
+      }
+    };
+  }
+
+  @Override
+  public boolean equals(@Nullable final Object that) {
+    if (this == that) {
+      return true;
+    }
+    if (!(that instanceof SetBitmap)) {
+      return false;
+    }
+    final SetBitmap<?> thatBitmap = (SetBitmap<?>) that;
+    return kind == thatBitmap.kind && firstWord == thatBitmap.firstWord && Arrays.equals(words, thatBitmap.words);
+  }
+
+  /**
+   * The same as the hash code of a {@link Seq} of the elements.
+   */
+  @Override
+  public int hashCode() {
+    if (hashCode == 0) {
+      int result = 1;
+      for (final E element : this) {
+        result = 31 * result + element.hashCode();
+      }
+      hashCode = result;
+    }
+    return hashCode;
+  }
+}
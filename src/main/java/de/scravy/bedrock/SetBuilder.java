@@ -1,8 +1,10 @@
 package de.scravy.bedrock;
 
 import javax.annotation.Nonnull;
+import java.util.Arrays;
 import java.util.Comparator;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.SortedSet;
 import java.util.TreeSet;
 
@@ -10,30 +12,109 @@ import java.util.TreeSet;
  * A builder for immutable Sets.
  * <p>
  * Supports null values.
+ * <p>
+ * As long as all elements are Integers or constants of a single enum type they are collected as unboxed int codes
+ * (see {@link SetBitmap}), which are sorted and deduplicated whenever the buffer is full, and the result is backed
+ * by a bitmap if it is dense enough. Any other element makes the builder fall back to a sorted tree.
  *
  * @param <E>
  */
 public final class SetBuilder<E extends Comparable<? super E>>
   extends AbstractBuilder<E, Set<E>, SetBuilder<E>> {
 
-  private final SortedSet<E> underlyingSet = new TreeSet<>(Comparator.nullsFirst(Comparable::compareTo));
+  private static final int MINIMUM_CAPACITY = 16;
+
+  private SortedSet<E> underlyingSet = null;
+
+  private Class<?> kind = null;
+  private int[] codes = new int[0];
+  private int count = 0;
 
   @Nonnull
   @Override
   public Set<E> result() {
-    return Set.ofSortedSet(underlyingSet);
+    if (underlyingSet != null) {
+      return Set.ofSortedSet(underlyingSet);
+    }
+    if (count == 0) {
+      return Set.empty();
+    }
+    compact();
+    return Set.ofSortedCodes(kind, codes, count);
   }
 
   @Nonnull
   @Override
   public SetBuilder<E> add(final E elem) {
+    if (underlyingSet == null) {
+      final Class<?> elemKind = SetBitmap.kindOf(elem);
+      if (elemKind != null && (kind == null || kind == elemKind)) {
+        kind = elemKind;
+        if (count == codes.length) {
+          compact();
+          if (count * 2 >= codes.length) {
+            codes = Arrays.copyOf(codes, Math.max(MINIMUM_CAPACITY, codes.length * 2));
+          }
+        }
+        codes[count] = SetBitmap.codeOf(elem);
+        count += 1;
+        return this;
+      }
+      underlyingSet = new TreeSet<>(Comparator.nullsFirst(Comparable::compareTo));
+      codesIterator().forEachRemaining(underlyingSet::add);
+      codes = null;
+    }
     underlyingSet.add(elem);
     return this;
   }
 
+  /**
+   * Sorts the codes and removes duplicates.
+   */
+  private void compact() {
+    Arrays.sort(codes, 0, count);
+    int c = 0;
+    for (int i = 0; i < count; i += 1) {
+      if (c == 0 || codes[c - 1] != codes[i]) {
+        codes[c] = codes[i];
+        c += 1;
+      }
+    }
+    count = c;
+  }
+
+  @Nonnull
+  private Iterator<E> codesIterator() {
+    compact();
+    final Object[] constants = count == 0 ? null : SetBitmap.constantsOf(kind);
+    final int[] snapshot = Arrays.copyOf(codes, count);
+    return new Iterator<E>() {
+      private int index = 0;
+
+      @Override
+      public boolean hasNext() {
+        return index < snapshot.length;
+      }
+
+      @SuppressWarnings("unchecked")
+      @Override
+      public E next() {
+        if (!hasNext()) {
+          throw new NoSuchElementException();
+        }
+        final E element = (E) SetBitmap.decode(constants, snapshot[index]);
+        index += 1;
+        return element;
+      }
+    };
+  }
+
   @Nonnull
   @Override
   public Iterator<E> iterator() {
+    if (underlyingSet == null) {
+      return codesIterator();
+    }
     return new Iterator<E>() {
       private final Iterator<E> it = underlyingSet.iterator();
 
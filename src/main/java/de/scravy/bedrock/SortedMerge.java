@@ -0,0 +1,281 @@
+package de.scravy.bedrock;
+
+import lombok.experimental.UtilityClass;
+
+import javax.annotation.Nonnegative;
+import javax.annotation.Nonnull;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Merge algorithms on sorted arrays of distinct elements, as they back every {@link Set}.
+ * <p>
+ * If both arrays have a similar length they are merged in a single pass, O(n + m). If one is much shorter than
+ * the other, every element of the shorter one is looked up in the longer one by galloping (an exponential search
+ * starting at the position of the previous match followed by a binary search), O(m log(n / m)).
+ */
+@UtilityClass
+class SortedMerge {
+
+  /**
+   * If one array is at least this many times longer than the other galloping is used instead of a linear merge.
+   */
+  private static final int GALLOP_RATIO = 8;
+
+  private static final Comparator<Object> COMPARATOR = SequenceMethods.NULL_ACCEPTING_COMPARATOR;
+
+  private static boolean skewed(@Nonnegative final int shorter, @Nonnegative final int longer) {
+    return longer / GALLOP_RATIO >= shorter;
+  }
+
+  /**
+   * Returns the index of the first element in array which is not less than key, searching from index from.
+   */
+  @Nonnegative
+  static int gallop(@Nonnull final Object[] array, @Nonnegative final int from, final Object key) {
+    final int n = array.length;
+    int lo = from;
+    int hi = from;
+    int step = 1;
+    while (hi < n && COMPARATOR.compare(array[hi], key) < 0) {
+      lo = hi + 1;
+      hi = n - lo > step ? lo + step : n;
+      step <<= 1;
+    }
+    while (lo < hi) {
+      final int mid = (lo + hi) >>> 1;
+      if (COMPARATOR.compare(array[mid], key) < 0) {
+        lo = mid + 1;
+      } else {
+        hi = mid;
+      }
+    }
+    return lo;
+  }
+
+  /**
+   * The elements of a which are also contained in b, as they are in a.
+   */
+  @Nonnull
+  static Object[] intersect(@Nonnull final Object[] a, @Nonnull final Object[] b) {
+    final Object[] result = new Object[Math.min(a.length, b.length)];
+    int c = 0;
+    if (skewed(a.length, b.length)) {
+      int j = 0;
+      for (int i = 0; i < a.length && j < b.length; i += 1) {
+        j = gallop(b, j, a[i]);
+        if (j < b.length && COMPARATOR.compare(a[i], b[j]) == 0) {
+          result[c++] = a[i];
+          j += 1;
+        }
+      }
+    } else if (skewed(b.length, a.length)) {
+      int i = 0;
+      for (int j = 0; j < b.length && i < a.length; j += 1) {
+        i = gallop(a, i, b[j]);
+        if (i < a.length && COMPARATOR.compare(a[i], b[j]) == 0) {
+          result[c++] = a[i];
+          i += 1;
+        }
+      }
+    } else {
+      int i = 0;
+      int j = 0;
+      while (i < a.length && j < b.length) {
+        final int cmp = COMPARATOR.compare(a[i], b[j]);
+        if (cmp < 0) {
+          i += 1;
+        } else if (cmp > 0) {
+          j += 1;
+        } else {
+          result[c++] = a[i];
+          i += 1;
+          j += 1;
+        }
+      }
+    }
+    return c == result.length ? result : Arrays.copyOf(result, c);
+  }
+
+  /**
+   * The elements of a which are not contained in b.
+   */
+  @Nonnull
+  static Object[] without(@Nonnull final Object[] a, @Nonnull final Object[] b) {
+    final Object[] result = new Object[a.length];
+    int c = 0;
+    if (skewed(b.length, a.length)) {
+      // copy the runs of a between the elements of b
+      int i = 0;
+      for (int j = 0; j < b.length && i < a.length; j += 1) {
+        final int k = gallop(a, i, b[j]);
+        System.arraycopy(a, i, result, c, k - i);
+        c += k - i;
+        i = k < a.length && COMPARATOR.compare(a[k], b[j]) == 0 ? k + 1 : k;
+      }
+      System.arraycopy(a, i, result, c, a.length - i);
+      c += a.length - i;
+    } else if (skewed(a.length, b.length)) {
+      int j = 0;
+      for (final Object element : a) {
+        j = gallop(b, j, element);
+        if (j == b.length || COMPARATOR.compare(element, b[j]) != 0) {
+          result[c++] = element;
+        }
+      }
+    } else {
+      int i = 0;
+      int j = 0;
+      while (i < a.length) {
+        final int cmp = j < b.length ? COMPARATOR.compare(a[i], b[j]) : -1;
+        if (cmp < 0) {
+          result[c++] = a[i];
+          i += 1;
+        } else if (cmp > 0) {
+          j += 1;
+        } else {
+          i += 1;
+          j += 1;
+        }
+      }
+    }
+    return c == result.length ? result : Arrays.copyOf(result, c);
+  }
+
+  /**
+   * Whether every element of b is contained in a.
+   */
+  static boolean containsAll(@Nonnull final Object[] a, @Nonnull final Object[] b) {
+    if (b.length > a.length) {
+      return false;
+    }
+    final boolean skewed = skewed(b.length, a.length);
+    int i = 0;
+    for (final Object element : b) {
+      i = skewed ? gallop(a, i, element) : scan(a, i, element);
+      if (i == a.length || COMPARATOR.compare(a[i], element) != 0) {
+        return false;
+      }
+      i += 1;
+    }
+    return true;
+  }
+
+  /**
+   * Whether any element of b is contained in a.
+   */
+  static boolean containsAny(@Nonnull final Object[] a, @Nonnull final Object[] b) {
+    final Object[] shorter = a.length <= b.length ? a : b;
+    final Object[] longer = a.length <= b.length ? b : a;
+    final boolean skewed = skewed(shorter.length, longer.length);
+    int i = 0;
+    for (final Object element : shorter) {
+      i = skewed ? gallop(longer, i, element) : scan(longer, i, element);
+      if (i == longer.length) {
+        return false;
+      }
+      if (COMPARATOR.compare(longer[i], element) == 0) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  @Nonnegative
+  private static int scan(@Nonnull final Object[] array, @Nonnegative final int from, final Object key) {
+    int i = from;
+    while (i < array.length && COMPARATOR.compare(array[i], key) < 0) {
+      i += 1;
+    }
+    return i;
+  }
+
+  /**
+   * Merges the given arrays into one sorted array of distinct elements using a heap of the heads of the arrays,
+   * O(n log k) for n elements in k arrays. Of equal elements the one from the first array is kept.
+   */
+  @Nonnull
+  static Object[] unionAll(@Nonnull final Object[][] arrays) {
+    final int k = arrays.length;
+    int total = 0;
+    for (final Object[] array : arrays) {
+      total += array.length;
+    }
+    final int[] cursors = new int[k];
+    // a binary min heap of the indices of the arrays, ordered by their current head and then by their index
+    final int[] heap = new int[k];
+    int size = 0;
+    for (int a = 0; a < k; a += 1) {
+      if (arrays[a].length > 0) {
+        heap[size] = a;
+        siftUp(arrays, cursors, heap, size);
+        size += 1;
+      }
+    }
+    final Object[] result = new Object[total];
+    int c = 0;
+    while (size > 0) {
+      final int a = heap[0];
+      final Object element = arrays[a][cursors[a]];
+      if (c == 0 || COMPARATOR.compare(result[c - 1], element) != 0) {
+        result[c++] = element;
+      }
+      cursors[a] += 1;
+      if (cursors[a] == arrays[a].length) {
+        size -= 1;
+        heap[0] = heap[size];
+      }
+      siftDown(arrays, cursors, heap, size);
+    }
+    return c == result.length ? result : Arrays.copyOf(result, c);
+  }
+
+  private static boolean less(
+    @Nonnull final Object[][] arrays,
+    @Nonnull final int[] cursors,
+    final int a,
+    final int b
+  ) {
+    final int cmp = COMPARATOR.compare(arrays[a][cursors[a]], arrays[b][cursors[b]]);
+    return cmp < 0 || cmp == 0 && a < b;
+  }
+
+  private static void siftUp(
+    @Nonnull final Object[][] arrays,
+    @Nonnull final int[] cursors,
+    @Nonnull final int[] heap,
+    final int index
+  ) {
+    int i = index;
+    while (i > 0) {
+      final int parent = (i - 1) >>> 1;
+      if (!less(arrays, cursors, heap[i], heap[parent])) {
+        break;
+      }
+      Control.swap(heap, i, parent);
+      i = parent;
+    }
+  }
+
+  private static void siftDown(
+    @Nonnull final Object[][] arrays,
+    @Nonnull final int[] cursors,
+    @Nonnull final int[] heap,
+    final int size
+  ) {
+    int i = 0;
+    while (true) {
+      final int left = 2 * i + 1;
+      if (left >= size) {
+        break;
+      }
+      final int right = left + 1;
+      final int child = right < size && less(arrays, cursors, heap[right], heap[left]) ? right : left;
+      if (!less(arrays, cursors, heap[child], heap[i])) {
+        break;
+      }
+      Control.swap(heap, i, child);
+      i = child;
+    }
+  }
+}
@@ -0,0 +1,230 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * A persistent hash map, backed by a hash array mapped trie.
+ * <p>
+ * {@link #put(Object, Object)} and {@link #remove(Object)} create a new TrieMap which shares all but O(log32 n) nodes
+ * with the original one, so do {@link #union(TrieMap)}, {@link #intersect(TrieMap)} and {@link #without(TrieMap)},
+ * which merge the tries node by node and take over whole subtries the two maps have in common without looking at
+ * them. Many updates at once are best done using a {@link TrieMapBuilder}, which updates its nodes in place.
+ * <p>
+ * The keys need to implement {@link Object#hashCode()} and {@link Object#equals(Object)}. Both keys and values may
+ * be null. The iteration order is unspecified, but equal TrieMaps iterate in the same order, except for keys with
+ * identical hash codes, which are iterated in the order they were added.
+ *
+ * @param <K> The type of the keys of this TrieMap.
+ * @param <V> The type of the values of this TrieMap.
+ */
+@Immutable
+public final class TrieMap<K, V> implements Mapping<K, V> {
+
+  @SuppressWarnings("rawtypes")
+  private static final TrieMap EMPTY = new TrieMap<>(Hamt.EMPTY);
+
+  @Nonnull
+  private final Hamt.Node root;
+
+  private int hashCode = 0;
+
+  private TrieMap(@Nonnull final Hamt.Node root) {
+    this.root = root;
+  }
+
+  @Nonnull
+  static <K, V> TrieMap<K, V> ofRoot(@Nullable final Hamt.Node root) {
+    return root == null || root.size == 0 ? empty() : new TrieMap<>(root);
+  }
+
+  @Nonnull
+  private TrieMap<K, V> withRoot(@Nullable final Hamt.Node newRoot) {
+    return newRoot == root ? this : ofRoot(newRoot);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Optional<V> get(final K key) {
+    final Object k = Hamt.encode(key);
+    final Object value = root.find(0, Hamt.hash(k), k);
+    return value == Hamt.NOT_FOUND ? Optional.empty() : Optional.ofNullable((V) value);
+  }
+
+  public boolean containsKey(final K key) {
+    final Object k = Hamt.encode(key);
+    return root.find(0, Hamt.hash(k), k) != Hamt.NOT_FOUND;
+  }
+
+  @Override
+  public int size() {
+    return root.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return root.size == 0;
+  }
+
+  /**
+   * Returns a TrieMap which maps the given key to the given value, O(log32 n).
+   */
+  @Nonnull
+  public TrieMap<K, V> put(final K key, final V value) {
+    final Object k = Hamt.encode(key);
+    return withRoot(root.put(null, 0, Hamt.hash(k), k, value, true));
+  }
+
+  /**
+   * Returns a TrieMap which does not contain the given key, O(log32 n).
+   */
+  @Nonnull
+  public TrieMap<K, V> remove(final K key) {
+    final Object k = Hamt.encode(key);
+    return withRoot(root.remove(null, 0, Hamt.hash(k), k));
+  }
+
+  /**
+   * The entries of both TrieMaps. If a key is contained in both its value is taken from this TrieMap.
+   */
+  @Nonnull
+  public TrieMap<K, V> union(@Nonnull final TrieMap<K, V> other) {
+    Objects.requireNonNull(other, "'other' must not be null");
+    final Hamt.Node newRoot = Hamt.union(root, other.root, 0);
+    return newRoot == other.root ? other : withRoot(newRoot);
+  }
+
+  /**
+   * The entries of this TrieMap whose keys are contained in the other one too.
+   */
+  @Nonnull
+  public TrieMap<K, V> intersect(@Nonnull final TrieMap<K, ?> other) {
+    Objects.requireNonNull(other, "'other' must not be null");
+    return withRoot(Hamt.intersect(root, other.root, 0));
+  }
+
+  /**
+   * The entries of this TrieMap whose keys are not contained in the other one.
+   */
+  @Nonnull
+  public TrieMap<K, V> without(@Nonnull final TrieMap<K, ?> other) {
+    Objects.requireNonNull(other, "'other' must not be null");
+    return withRoot(Hamt.without(root, other.root, 0));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Iterator<Pair<K, V>> iterator() {
+    return new Hamt.Entries<>(root, (key, value) -> Pair.of((K) key, (V) value));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Seq<K> keys() {
+    final SeqBuilder<K> builder = Seq.builder(size());
+    new Hamt.Entries<>(root, (key, value) -> (K) key).forEachRemaining(builder::add);
+    return builder.result();
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Seq<V> values() {
+    final SeqBuilder<V> builder = Seq.builder(size());
+    new Hamt.Entries<>(root, (key, value) -> (V) value).forEachRemaining(builder::add);
+    return builder.result();
+  }
+
+  /**
+   * Returns a builder which starts out with the entries of this TrieMap, sharing its nodes until they are updated.
+   */
+  @Nonnull
+  public TrieMapBuilder<K, V> toBuilder() {
+    return new TrieMapBuilder<>(root);
+  }
+
+  @Nonnull
+  public static <K, V> TrieMapBuilder<K, V> builder() {
+    return new TrieMapBuilder<>();
+  }
+
+  @Nonnull
+  @SuppressWarnings("unchecked")
+  public static <K, V> TrieMap<K, V> empty() {
+    return (TrieMap<K, V>) EMPTY;
+  }
+
+  @Nonnull
+  @SafeVarargs
+  public static <K, V> TrieMap<K, V> of(@Nonnull final Pair<K, V>... pairs) {
+    final TrieMapBuilder<K, V> builder = builder();
+    for (final Pair<K, V> pair : pairs) {
+      builder.add(pair);
+    }
+    return builder.result();
+  }
+
+  @Nonnull
+  public static <K, V> TrieMap<K, V> ofMap(@Nonnull final Map<K, V> map) {
+    final TrieMapBuilder<K, V> builder = builder();
+    map.forEach(builder::add);
+    return builder.result();
+  }
+
+  /**
+   * Two TrieMaps are equal if they contain the same entries. Other Mappings are never equal to a TrieMap, as they
+   * compute their hash codes differently.
+   */
+  @Override
+  public boolean equals(@Nullable final Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof TrieMap)) {
+      return false;
+    }
+    final TrieMap<?, ?> otherMap = (TrieMap<?, ?>) other;
+    if (size() != otherMap.size()) {
+      return false;
+    }
+    for (final Pair<K, V> entry : this) {
+      final Object key = Hamt.encode(entry.fst());
+      if (!Objects.equals(entry.snd(), otherMap.root.find(0, Hamt.hash(key), key))) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Like {@link Map#hashCode()} the sum of the hash codes of the key xor-ed with the value of every entry, so it does
+   * not depend on the order of the entries.
+   */
+  @Override
+  public int hashCode() {
+    if (hashCode == 0) {
+      int result = 0;
+      for (final Pair<K, V> entry : this) {
+        result += Objects.hashCode(entry.fst()) ^ Objects.hashCode(entry.snd());
+      }
+      hashCode = result;
+    }
+    return hashCode;
+  }
+
+  @Override
+  public String toString() {
+    return stream()
+      .map(entry -> String.format("%s = %s", entry.fst(), entry.snd()))
+      .collect(Collectors.joining(", ", "{ ", " }"));
+  }
+}
@@ -0,0 +1,74 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+import java.util.function.BiConsumer;
+
+/**
+ * A builder for {@link TrieMap}s which updates the nodes it created itself in place instead of copying them, so
+ * bulk loads do not produce any garbage apart from nodes that grow. Handing out a result ends the ownership of all
+ * the nodes so far, later updates copy them again.
+ *
+ * @param <K> The type of the keys.
+ * @param <V> The type of the values.
+ */
+public final class TrieMapBuilder<K, V> extends AbstractBuilder<Pair<K, V>, TrieMap<K, V>, TrieMapBuilder<K, V>> {
+
+  private Object owner = new Object();
+  private Hamt.Node root;
+
+  public TrieMapBuilder() {
+    this(Hamt.EMPTY);
+  }
+
+  TrieMapBuilder(@Nonnull final Hamt.Node root) {
+    this.root = root;
+  }
+
+  @Nonnull
+  public TrieMapBuilder<K, V> add(final K key, final V value) {
+    final Object k = Hamt.encode(key);
+    root = root.put(owner, 0, Hamt.hash(k), k, value, true);
+    return this;
+  }
+
+  @Nonnull
+  @Override
+  public TrieMapBuilder<K, V> add(@Nonnull final Pair<K, V> elem) {
+    return add(elem.fst(), elem.snd());
+  }
+
+  @Nonnull
+  public TrieMapBuilder<K, V> remove(final K key) {
+    final Object k = Hamt.encode(key);
+    final Hamt.Node newRoot = root.remove(owner, 0, Hamt.hash(k), k);
+    root = newRoot == null ? Hamt.EMPTY : newRoot;
+    return this;
+  }
+
+  public int size() {
+    return root.size;
+  }
+
+  public boolean isEmpty() {
+    return root.size == 0;
+  }
+
+  @Nonnull
+  @Override
+  public TrieMap<K, V> result() {
+    owner = new Object();
+    return TrieMap.ofRoot(root);
+  }
+
+  public void forEach(@Nonnull final BiConsumer<K, V> consumer) {
+    forEach(pair -> consumer.accept(pair.fst(), pair.snd()));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Iterator<Pair<K, V>> iterator() {
+    return new Hamt.Entries<>(root, (key, value) -> Pair.of((K) key, (V) value));
+  }
+}
@@ -0,0 +1,169 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnull;
+import javax.annotation.Nullable;
+import javax.annotation.concurrent.Immutable;
+import java.util.Iterator;
+import java.util.Objects;
+
+/**
+ * A persistent hash set, backed by a hash array mapped trie, see {@link TrieMap}.
+ * <p>
+ * {@link #add(Object)} and {@link #remove(Object)} are O(log32 n) and share all other nodes with the original
+ * TrieSet, {@link #union(TrieSet)}, {@link #intersect(TrieSet)} and {@link #without(TrieSet)} merge the tries node by
+ * node. Many updates at once are best done using a {@link TrieSetBuilder}, which updates its nodes in place.
+ * <p>
+ * Unlike {@link Set} the elements do not need to be Comparable. Null is allowed. The iteration order is unspecified,
+ * but equal TrieSets iterate in the same order, except for elements with identical hash codes, which are iterated in
+ * the order they were added.
+ *
+ * @param <E> The type of the elements.
+ */
+@Immutable
+public final class TrieSet<E> implements Container<E> {
+
+  @SuppressWarnings("rawtypes")
+  private static final TrieSet EMPTY = new TrieSet<>(Hamt.EMPTY);
+
+  @Nonnull
+  private final Hamt.Node root;
+
+  private int hashCode = 0;
+
+  private TrieSet(@Nonnull final Hamt.Node root) {
+    this.root = root;
+  }
+
+  @Nonnull
+  static <E> TrieSet<E> ofRoot(@Nullable final Hamt.Node root) {
+    return root == null || root.size == 0 ? empty() : new TrieSet<>(root);
+  }
+
+  @Nonnull
+  private TrieSet<E> withRoot(@Nullable final Hamt.Node newRoot) {
+    return newRoot == root ? this : ofRoot(newRoot);
+  }
+
+  @Override
+  public boolean contains(final E element) {
+    final Object key = Hamt.encode(element);
+    return root.find(0, Hamt.hash(key), key) != Hamt.NOT_FOUND;
+  }
+
+  public int size() {
+    return root.size;
+  }
+
+  @Override
+  public boolean isEmpty() {
+    return root.size == 0;
+  }
+
+  @Nonnull
+  public TrieSet<E> add(final E element) {
+    final Object key = Hamt.encode(element);
+    return withRoot(root.put(null, 0, Hamt.hash(key), key, null, false));
+  }
+
+  @Nonnull
+  public TrieSet<E> remove(final E element) {
+    final Object key = Hamt.encode(element);
+    return withRoot(root.remove(null, 0, Hamt.hash(key), key));
+  }
+
+  @Nonnull
+  public TrieSet<E> union(@Nonnull final TrieSet<E> other) {
+    Objects.requireNonNull(other, "'other' must not be null");
+    final Hamt.Node newRoot = Hamt.union(root, other.root, 0);
+    return newRoot == other.root ? other : withRoot(newRoot);
+  }
+
+  @Nonnull
+  public TrieSet<E> intersect(@Nonnull final TrieSet<E> other) {
+    Objects.requireNonNull(other, "'other' must not be null");
+    return withRoot(Hamt.intersect(root, other.root, 0));
+  }
+
+  @Nonnull
+  public TrieSet<E> without(@Nonnull final TrieSet<E> other) {
+    Objects.requireNonNull(other, "'other' must not be null");
+    return withRoot(Hamt.without(root, other.root, 0));
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Iterator<E> iterator() {
+    return new Hamt.Entries<>(root, (key, value) -> (E) key);
+  }
+
+  @Nonnull
+  public Seq<E> toSeq() {
+    final SeqBuilder<E> builder = Seq.builder(size());
+    forEach(builder::add);
+    return builder.result();
+  }
+
+  /**
+   * Returns a builder which starts out with the elements of this TrieSet, sharing its nodes until they are updated.
+   */
+  @Nonnull
+  public TrieSetBuilder<E> toBuilder() {
+    return new TrieSetBuilder<>(root);
+  }
+
+  @Nonnull
+  public static <E> TrieSetBuilder<E> builder() {
+    return new TrieSetBuilder<>();
+  }
+
+  @Nonnull
+  @SuppressWarnings("unchecked")
+  public static <E> TrieSet<E> empty() {
+    return (TrieSet<E>) EMPTY;
+  }
+
+  @Nonnull
+  @SafeVarargs
+  public static <E> TrieSet<E> of(@Nonnull final E... elements) {
+    return TrieSet.<E>builder().addAll(elements).result();
+  }
+
+  @Nonnull
+  public static <E> TrieSet<E> ofIterable(@Nonnull final Iterable<E> elements) {
+    return TrieSet.<E>builder().addElements(elements).result();
+  }
+
+  @Override
+  public boolean equals(@Nullable final Object other) {
+    if (this == other) {
+      return true;
+    }
+    if (!(other instanceof TrieSet)) {
+      return false;
+    }
+    final TrieSet<?> otherSet = (TrieSet<?>) other;
+    return size() == otherSet.size() && Hamt.without(root, otherSet.root, 0) == null;
+  }
+
+  /**
+   * Like {@link java.util.Set#hashCode()} the sum of the hash codes of the elements.
+   */
+  @Override
+  public int hashCode() {
+    if (hashCode == 0) {
+      int result = 0;
+      for (final E element : this) {
+        result += Objects.hashCode(element);
+      }
+      hashCode = result;
+    }
+    return hashCode;
+  }
+
+  @Nonnull
+  @Override
+  public String toString() {
+    return isEmpty() ? "∅" : ('{' + asString(", ") + '}');
+  }
+}
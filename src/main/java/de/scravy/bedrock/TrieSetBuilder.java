@@ -0,0 +1,61 @@
+package de.scravy.bedrock;
+
+import javax.annotation.Nonnull;
+import java.util.Iterator;
+
+/**
+ * A builder for {@link TrieSet}s which updates the nodes it created itself in place, see {@link TrieMapBuilder}.
+ *
+ * @param <E> The type of the elements.
+ */
+public final class TrieSetBuilder<E> extends AbstractBuilder<E, TrieSet<E>, TrieSetBuilder<E>> {
+
+  private Object owner = new Object();
+  private Hamt.Node root;
+
+  public TrieSetBuilder() {
+    this(Hamt.EMPTY);
+  }
+
+  TrieSetBuilder(@Nonnull final Hamt.Node root) {
+    this.root = root;
+  }
+
+  @Nonnull
+  @Override
+  public TrieSetBuilder<E> add(final E elem) {
+    final Object key = Hamt.encode(elem);
+    root = root.put(owner, 0, Hamt.hash(key), key, null, false);
+    return this;
+  }
+
+  @Nonnull
+  public TrieSetBuilder<E> remove(final E elem) {
+    final Object key = Hamt.encode(elem);
+    final Hamt.Node newRoot = root.remove(owner, 0, Hamt.hash(key), key);
+    root = newRoot == null ? Hamt.EMPTY : newRoot;
+    return this;
+  }
+
+  public int size() {
+    return root.size;
+  }
+
+  public boolean isEmpty() {
+    return root.size == 0;
+  }
+
+  @Nonnull
+  @Override
+  public TrieSet<E> result() {
+    owner = new Object();
+    return TrieSet.ofRoot(root);
+  }
+
+  @SuppressWarnings("unchecked")
+  @Nonnull
+  @Override
+  public Iterator<E> iterator() {
+    return new Hamt.Entries<>(root, (key, value) -> (E) key);
+  }
+}
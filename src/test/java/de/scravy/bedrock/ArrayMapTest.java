@@ -252,6 +252,69 @@ public class ArrayMapTest {
         ));
       });
     });
+    describe("lookupOptimized", () -> {
+      it("should find the same entries as the plain map", () -> {
+        for (int size = 0; size <= 40; size += 1) {
+          final ArrayMap<Integer, Integer> plain = ArrayMap.ofSeq(Seq.rangeExclusive(0, size).map(i -> pair(3 * i, i)));
+          final ArrayMap<Integer, Integer> optimized = plain.lookupOptimized();
+          for (int key = -1; key <= 3 * size; key += 1) {
+            expect(optimized.get(key)).toEqual(plain.get(key));
+          }
+        }
+      });
+      it("should find the same entries in maps beyond the branch free limit", () -> {
+        final int size = ArrayMapIndex.BRANCH_FREE_LIMIT + 1000;
+        final ArrayMap<Integer, Integer> plain = ArrayMap.ofSeq(Seq.rangeExclusive(0, size).map(i -> pair(2 * i, i)));
+        final ArrayMap<Integer, Integer> optimized = plain.lookupOptimized();
+        for (int key = -1; key <= 2 * size; key += 1) {
+          expect(optimized.get(key)).toEqual(plain.get(key));
+        }
+      });
+      it("should look up Long, String and Comparable keys", () -> {
+        val random = new Random(25);
+        final TreeMap<Long, Integer> longs = new TreeMap<>();
+        final TreeMap<String, Integer> strings = new TreeMap<>();
+        final TreeMap<BigDecimal, Integer> decimals = new TreeMap<>();
+        for (int i = 0; i < 5_000; i += 1) {
+          final long key = random.nextLong() >> 20;
+          longs.put(key, i);
+          strings.put(Long.toString(key), i);
+          decimals.put(BigDecimal.valueOf(key), i);
+        }
+        val longMap = ArrayMap.ofMap(longs).lookupOptimized();
+        val stringMap = ArrayMap.ofMap(strings).lookupOptimized();
+        val decimalMap = ArrayMap.ofMap(decimals).lookupOptimized();
+        for (int i = 0; i < 5_000; i += 1) {
+          final long key = random.nextBoolean() ? longs.firstKey() + i : random.nextLong() >> 20;
+          expect(longMap.get(key)).toEqual(Optional.ofNullable(longs.get(key)));
+          expect(stringMap.get(Long.toString(key))).toEqual(Optional.ofNullable(strings.get(Long.toString(key))));
+          expect(decimalMap.get(BigDecimal.valueOf(key))).toEqual(Optional.ofNullable(decimals.get(BigDecimal.valueOf(key))));
+        }
+        for (final long key : longs.keySet()) {
+          expect(longMap.get(key)).toEqual(Optional.of(longs.get(key)));
+        }
+      });
+      it("should keep the sorted order and equality", () -> {
+        val plain = ArrayMap.of(pair(3, "three"), pair(1, "one"), pair(2, "two"));
+        val optimized = plain.lookupOptimized();
+        expect(optimized).toEqual(plain);
+        expect(optimized.hashCode()).toEqual(plain.hashCode());
+        expect(optimized.keys()).toEqual(Seq.of(1, 2, 3));
+        expect(optimized.values()).toEqual(Seq.of("one", "two", "three"));
+        expect(optimized.isLookupOptimized()).toBeTrue();
+        expect(plain.isLookupOptimized()).toBeFalse();
+        expect(optimized.lookupOptimized() == optimized).toBeTrue();
+        expect(ArrayMap.empty().lookupOptimized() == ArrayMap.empty()).toBeTrue();
+        expect(optimized.mapValues(String::length).isLookupOptimized()).toBeTrue();
+        expect(optimized.mapValues(String::length).get(3)).toEqual(Optional.of(5));
+        expect(optimized.filter(key -> key > 1).isLookupOptimized()).toBeFalse();
+      });
+      it("should keep the default return value", () -> {
+        val optimized = ArrayMap.of(pair("a", 1)).setDefaultReturnValue(0).lookupOptimized();
+        expect(optimized.apply("a")).toEqual(1);
+        expect(optimized.apply("b")).toEqual(0);
+      });
+    });
     describe("collector", () -> {
       it("builder should collect values as collector", () -> {
         final ArrayMap<String, Integer> arrayMap = Stream.of(
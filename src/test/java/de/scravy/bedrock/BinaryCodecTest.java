@@ -0,0 +1,165 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.InvalidClassException;
+import java.io.StreamCorruptedException;
+import java.math.BigInteger;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class BinaryCodecTest {
+
+  @SneakyThrows
+  private static Object roundTrip(final Object value) {
+    val bytes = BinaryCodec.toByteArray(value);
+    final Object fromBytes = BinaryCodec.fromByteArray(bytes);
+    expect(fromBytes).toEqual(value);
+    final Object fromStream = BinaryCodec.read(new ByteArrayInputStream(bytes));
+    expect(fromStream).toEqual(value);
+    val buffer = ByteBuffer.allocate(bytes.length);
+    BinaryCodec.write(value, buffer);
+    expect(buffer.remaining()).toEqual(0);
+    buffer.flip();
+    final Object fromBuffer = BinaryCodec.read(buffer);
+    expect(fromBuffer).toEqual(value);
+    return fromBytes;
+  }
+
+  {
+    describe("round trips", () -> {
+      it("scalars", () -> {
+        roundTrip(null);
+        roundTrip(true);
+        roundTrip(false);
+        roundTrip(-17);
+        roundTrip(Long.MIN_VALUE);
+        roundTrip(3.25);
+        roundTrip("");
+        roundTrip("grüße ✓");
+        roundTrip(UUID.randomUUID());
+        roundTrip(new BigInteger("123456789012345678901234567890"));
+      });
+      it("seqs", () -> {
+        expect(roundTrip(Seq.rangeInclusive(-1000, 1000))).toBeInstanceOf(IntSeq.Boxed.class);
+        expect(roundTrip(Seq.of(1L, 2L, -3L))).toBeInstanceOf(LongSeq.Boxed.class);
+        expect(roundTrip(Seq.of(1.5, Double.NaN))).toBeInstanceOf(DoubleSeq.Boxed.class);
+        roundTrip(IntSeq.of(1, 2, 3).boxed());
+        roundTrip(Seq.of("a", "bc", ""));
+        roundTrip(Seq.of(1, "a", null, 2L));
+        roundTrip(Seq.of(1, null, 3));
+        roundTrip(Seq.of(Seq.of(1, 2), Seq.empty(), Seq.of(Seq.of("x"))));
+        roundTrip(Seq.empty());
+      });
+      it("sets and array maps", () -> {
+        @SuppressWarnings("unchecked") final Set<Integer> set = (Set<Integer>) roundTrip(Set.of(5, 1, 3));
+        expect(set.contains(3)).toBeTrue();
+        roundTrip(Set.of("b", "a"));
+        roundTrip(Set.empty());
+        @SuppressWarnings("unchecked") final ArrayMap<String, Long> map = (ArrayMap<String, Long>) roundTrip(ArrayMap.of(Pair.of("b", 2L), Pair.of("a", 1L)));
+        expect(map.get("b").orElse(null)).toEqual(2L);
+        roundTrip(ArrayMap.of(Pair.of(1, Seq.of("x")), Pair.of(2, null)));
+        roundTrip(ArrayMap.empty());
+      });
+      it("strings with unpaired surrogates", () -> {
+        roundTrip("\uD800");
+        roundTrip("a\uDC00b\uD83D");
+        roundTrip("\uD83D\uDE00" + "\uD83D");
+        roundTrip(Seq.of("x", "\uD800", "\uD83D\uDE00"));
+        roundTrip(Set.of("\uDFFF", "y"));
+        roundTrip(ArrayMap.of(Pair.of("\uD800", "\uDC00")));
+        val sb = new StringBuilder();
+        for (int i = 0; i < 100_000; i += 1) {
+          sb.append((char) (0xD800 + i % 0x800));
+        }
+        roundTrip(sb.toString());
+      });
+      it("tuples", () -> {
+        roundTrip(Pair.of(1, "a"));
+        roundTrip(Triple.of(1, 2L, Seq.of(3)));
+        roundTrip(Quadruple.of(UUID.randomUUID(), null, "x", Pair.of(true, false)));
+      });
+      it("large values", () -> {
+        val ints = Seq.rangeExclusive(0, 100_000).trimmedToSize();
+        roundTrip(ints);
+        roundTrip(ints.map(i -> (long) i));
+        roundTrip(ints.map(i -> i / 3.0));
+        roundTrip(ints.take(20_000).map(i -> Integer.toString(i)));
+        val sb = new StringBuilder();
+        for (int i = 0; i < 20_000; i += 1) {
+          sb.append("0123456789");
+        }
+        roundTrip(sb.toString());
+      });
+    });
+
+    describe("streams", () -> {
+      it("should read several values from one stream", () -> {
+        val out = new ByteArrayOutputStream();
+        BinaryCodec.write(Seq.of(1, 2), out);
+        BinaryCodec.write("x", out);
+        BinaryCodec.write(Set.of(3L), out);
+        val in = new BufferedInputStream(new ByteArrayInputStream(out.toByteArray()));
+        expect(BinaryCodec.<Object>read(in)).toEqual(Seq.of(1, 2));
+        expect(BinaryCodec.<Object>read(in)).toEqual("x");
+        expect(BinaryCodec.<Object>read(in)).toEqual(Set.of(3L));
+        expect(() -> BinaryCodec.read(in)).toThrow(EOFException.class);
+      });
+      it("should reject unknown tags", () -> {
+        expect(() -> BinaryCodec.fromByteArray(new byte[]{99})).toThrow(StreamCorruptedException.class);
+        expect(() -> BinaryCodec.fromByteArray(new byte[]{13, 3})).toThrow(StreamCorruptedException.class);
+      });
+      it("should reject Sets and ArrayMaps which are not strictly ascending", () -> {
+        val unsorted = new byte[]{13, 9, 2, 0, 0, 0, 2, 0, 0, 0, 1};
+        val duplicates = new byte[]{13, 9, 2, 0, 0, 0, 1, 0, 0, 0, 1};
+        val mixed = new byte[]{13, 8, 2, 3, 0, 0, 0, 1, 6, 1, 'a'};
+        val notComparable = new byte[]{13, 8, 1, 8, 0};
+        val unsortedKeys = new byte[]{14, 9, 2, 0, 0, 0, 2, 0, 0, 0, 1, 8, 2, 0, 0};
+        val nullKey = new byte[]{14, 8, 1, 0, 8, 1, 0};
+        val mismatched = new byte[]{14, 9, 2, 0, 0, 0, 1, 0, 0, 0, 2, 8, 1, 0};
+        for (final byte[] bytes : new byte[][]{unsorted, duplicates, mixed, notComparable, unsortedKeys, nullKey, mismatched}) {
+          expect(() -> BinaryCodec.fromByteArray(bytes)).toThrow(StreamCorruptedException.class);
+          expect(() -> BinaryCodec.read(new ByteArrayInputStream(bytes))).toThrow(StreamCorruptedException.class);
+        }
+        expect(BinaryCodec.<Object>fromByteArray(new byte[]{13, 9, 2, 0, 0, 0, 1, 0, 0, 0, 2})).toEqual(Set.of(1, 2));
+      });
+      it("should reject lengths which do not fit into a non-negative int", () -> {
+        val negative = new byte[]{9, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x0F};
+        expect(() -> BinaryCodec.fromByteArray(negative)).toThrow(StreamCorruptedException.class);
+        expect(() -> BinaryCodec.read(new ByteArrayInputStream(negative))).toThrow(StreamCorruptedException.class);
+        val tooLong = new byte[]{6, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, 0};
+        expect(() -> BinaryCodec.fromByteArray(tooLong)).toThrow(StreamCorruptedException.class);
+      });
+      it("should not allocate huge lengths before their data arrives", () -> {
+        for (final byte tag : new byte[]{6, 8, 9, 10, 11, 12}) {
+          val huge = new byte[]{tag, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, (byte) 0xFF, 0x07, 1, 2, 3};
+          expect(() -> BinaryCodec.read(new ByteArrayInputStream(huge))).toThrow(EOFException.class);
+          expect(() -> BinaryCodec.fromByteArray(huge)).toThrow(BufferUnderflowException.class);
+        }
+      });
+      it("should only deserialize classes accepted by the class filter", () -> {
+        val bytes = BinaryCodec.toByteArray(Seq.of(1, BigInteger.TEN));
+        expect(BinaryCodec.<Object>fromByteArray(bytes, cls -> Number.class.isAssignableFrom(cls)))
+          .toEqual(Seq.of(1, BigInteger.TEN));
+        expect(() -> BinaryCodec.fromByteArray(bytes, cls -> false)).toThrow(InvalidClassException.class);
+        expect(() -> BinaryCodec.read(new ByteArrayInputStream(bytes), cls -> cls == BigInteger.class))
+          .toThrow(InvalidClassException.class);
+        expect(BinaryCodec.<Object>fromByteArray(BinaryCodec.toByteArray("x"), cls -> false)).toEqual("x");
+      });
+    });
+  }
+}
@@ -0,0 +1,172 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class BitSeqTest {
+
+  private static BitSet randomBitSet(final Random random, final int length) {
+    final BitSet bitSet = new BitSet(length);
+    for (int i = 0; i < length; i += 1) {
+      if (random.nextInt(3) == 0) {
+        bitSet.set(i);
+      }
+    }
+    return bitSet;
+  }
+
+  {
+    describe("a BitSeq", () -> {
+      val seq = BitSeq.of(true, false, true, true, false);
+      it("get / length / cardinality", () -> {
+        expect(seq.get(0)).toBeTrue();
+        expect(seq.get(1)).toBeFalse();
+        expect(seq.length()).toEqual(5);
+        expect(seq.size()).toEqual(5);
+        expect(seq.cardinality()).toEqual(3);
+        expect(seq.isEmpty()).toBeFalse();
+        expect(seq.nonEmpty()).toBeTrue();
+        expect(() -> seq.get(5)).toThrow(IndexOutOfBoundsException.class);
+      });
+      it("any / all", () -> {
+        expect(seq.any()).toBeTrue();
+        expect(seq.all()).toBeFalse();
+        expect(BitSeq.of(false, false).any()).toBeFalse();
+        expect(BitSeq.of(true, true).all()).toBeTrue();
+        expect(BitSeq.empty().all()).toBeTrue();
+      });
+      it("nextSetBit / nextClearBit", () -> {
+        expect(seq.nextSetBit(1)).toEqual(2);
+        expect(seq.nextSetBit(4)).toEqual(-1);
+        expect(seq.nextClearBit(2)).toEqual(4);
+        expect(BitSeq.of(true, true).nextClearBit(0)).toEqual(-1);
+      });
+      it("rank / select / setBits", () -> {
+        expect(seq.rank(0)).toEqual(0);
+        expect(seq.rank(3)).toEqual(2);
+        expect(seq.rank(5)).toEqual(3);
+        expect(seq.select(0)).toEqual(0);
+        expect(seq.select(2)).toEqual(3);
+        expect(() -> seq.select(3)).toThrow(NoSuchElementException.class);
+        expect(seq.setBits()).toEqual(IntSeq.of(0, 2, 3));
+      });
+      it("rank / select after deserialization", () -> {
+        expect(seq.rank(5)).toEqual(3);
+        val bytes = new ByteArrayOutputStream();
+        try (val out = new ObjectOutputStream(bytes)) {
+          out.writeObject(seq);
+        }
+        try (val in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+          final BitSeq copy = (BitSeq) in.readObject();
+          expect(copy).toEqual(seq);
+          expect(copy.rank(5)).toEqual(3);
+          expect(copy.select(2)).toEqual(3);
+        }
+      });
+      it("not", () -> {
+        expect(seq.not()).toEqual(BitSeq.of(false, true, false, false, true));
+        expect(seq.not().not()).toEqual(seq);
+      });
+      it("and / or / xor / andNot should pad the shorter one with false", () -> {
+        val other = BitSeq.of(true, true, false);
+        expect(seq.and(other)).toEqual(BitSeq.of(true, false, false, false, false));
+        expect(seq.or(other)).toEqual(BitSeq.of(true, true, true, true, false));
+        expect(seq.xor(other)).toEqual(BitSeq.of(false, true, true, true, false));
+        expect(seq.andNot(other)).toEqual(BitSeq.of(false, false, true, true, false));
+        expect(other.andNot(seq)).toEqual(BitSeq.of(false, true, false, false, false));
+      });
+      it("boxed should be equal to the corresponding Seq", () -> {
+        expect(seq.boxed()).toEqual(Seq.of(true, false, true, true, false));
+        expect(seq.boxed().hashCode()).toEqual(seq.hashCode());
+        expect(BitSeq.empty().boxed()).toEqual(Seq.empty());
+        expect(seq.toString()).toEqual("[true, false, true, true, false]");
+      });
+      it("ofSeq should unwrap a boxed view without copying", () -> {
+        expect(BitSeq.ofSeq(seq.boxed()) == seq).toBeTrue();
+        expect(BitSeq.ofSeq(Seq.of(true, false, true, true, false))).toEqual(seq);
+      });
+      it("Seq.all / Seq.any should use the word path on a boxed view", () -> {
+        expect(Seq.all(seq.boxed())).toBeFalse();
+        expect(Seq.or(seq.boxed())).toBeTrue();
+        expect(Seq.and(seq.not().not().or(seq.not()).boxed())).toBeTrue();
+      });
+      it("toBitSet / ofBitSet", () -> {
+        val bitSet = seq.toBitSet();
+        expect(bitSet.cardinality()).toEqual(3);
+        expect(BitSeq.ofBitSet(bitSet, 5)).toEqual(seq);
+        expect(BitSeq.ofBitSet(bitSet, 3)).toEqual(BitSeq.of(true, false, true));
+        expect(BitSeq.ofBitSet(bitSet, 0)).toEqual(BitSeq.empty());
+      });
+    });
+
+    describe("Seq.filter(BitSeq)", () -> {
+      val seq = Seq.of("a", "b", "c", "d", "e");
+      it("should keep the elements at the positions of the set bits", () -> {
+        expect(seq.filter(BitSeq.of(true, false, true, true, false))).toEqual(Seq.of("a", "c", "d"));
+        expect(seq.filter(BitSeq.ofGenerator(i -> false, 5))).toEqual(Seq.empty());
+        expect(seq.filter(BitSeq.ofGenerator(i -> true, 5))).toEqual(seq);
+      });
+      it("should reject masks of a different length", () -> {
+        expect(() -> seq.filter(BitSeq.of(true))).toThrow(IllegalArgumentException.class);
+      });
+      it("should agree with a predicate on long seqs", () -> {
+        val numbers = Seq.rangeExclusive(0, 10_000);
+        expect(numbers.filter(BitSeq.ofGenerator(i -> i % 7 == 3, 10_000))).toEqual(numbers.filter(i -> i % 7 == 3));
+      });
+    });
+
+    describe("word at a time operations should agree with java.util.BitSet", () -> {
+      val random = new Random(18);
+      for (final int length : new int[]{1, 63, 64, 65, 200, 1000}) {
+        it("for length " + length, () -> {
+          final BitSet a = randomBitSet(random, length);
+          final BitSet b = randomBitSet(random, length);
+          val x = BitSeq.ofBitSet(a, length);
+          val y = BitSeq.ofBitSet(b, length);
+          expect(x.cardinality()).toEqual(a.cardinality());
+          final BitSet and = (BitSet) a.clone();
+          and.and(b);
+          expect(x.and(y)).toEqual(BitSeq.ofBitSet(and, length));
+          final BitSet xor = (BitSet) a.clone();
+          xor.xor(b);
+          expect(x.xor(y)).toEqual(BitSeq.ofBitSet(xor, length));
+          final BitSet andNot = (BitSet) a.clone();
+          andNot.andNot(b);
+          expect(x.andNot(y)).toEqual(BitSeq.ofBitSet(andNot, length));
+          expect(x.not().cardinality()).toEqual(length - a.cardinality());
+          int rank = 0;
+          for (int i = 0; i < length; i += 1) {
+            expect(x.rank(i)).toEqual(rank);
+            expect(x.nextSetBit(i)).toEqual(a.nextSetBit(i));
+            final int clear = a.nextClearBit(i);
+            expect(x.nextClearBit(i)).toEqual(clear < length ? clear : -1);
+            if (a.get(i)) {
+              expect(x.select(rank)).toEqual(i);
+              rank += 1;
+            }
+          }
+          expect(x.rank(length)).toEqual(rank);
+          final boolean[] expected = new boolean[length];
+          a.stream().forEach(i -> expected[i] = true);
+          expect(Arrays.equals(x.toArray(), expected)).toBeTrue();
+        });
+      }
+    });
+  }
+}
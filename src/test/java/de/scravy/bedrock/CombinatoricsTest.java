@@ -0,0 +1,186 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class CombinatoricsTest {
+
+  {
+    val seq = Seq.of("a", "b", "c", "d");
+    val lexicographic = seq.permutations().sortedBy((x, y) -> x.asString().compareTo(y.asString()));
+
+    describe("permutation indices", () -> {
+      it("should unrank every rank to the permutation reached by stepping", () -> {
+        val stepped = new int[6];
+        Combinatorics.unrankPermutation(0, stepped);
+        val unranked = new int[6];
+        for (int rank = 0; rank < 720; rank += 1) {
+          Combinatorics.unrankPermutation(rank, unranked);
+          expect(java.util.Arrays.equals(unranked, stepped)).toEqual(true);
+          expect(Combinatorics.nextPermutation(stepped)).toEqual(rank < 719);
+        }
+      });
+      it("should compute factorials and saturate beyond 20!", () -> {
+        expect(Combinatorics.factorial(0)).toEqual(1L);
+        expect(Combinatorics.factorial(20)).toEqual(2432902008176640000L);
+        expect(Combinatorics.factorial(21)).toEqual(Long.MAX_VALUE);
+      });
+    });
+
+    describe("permutationViewsIterator", () -> {
+      it("should return the same view for every permutation in lexicographic order", () -> {
+        val iterator = seq.permutationViewsIterator();
+        val first = iterator.next();
+        val result = new ArrayList<Seq<String>>();
+        result.add(first.trimmedToSize());
+        while (iterator.hasNext()) {
+          val view = iterator.next();
+          expect(view == first).toEqual(true);
+          result.add(view.trimmedToSize());
+        }
+        expect(Seq.ofCollection(result)).toEqual(lexicographic);
+      });
+      it("should yield the empty seq once for an empty seq", () -> {
+        val iterator = Seq.empty().permutationViewsIterator();
+        expect(iterator.next()).toEqual(Seq.empty());
+        expect(iterator.hasNext()).toEqual(false);
+        expect(iterator::next).toThrow(java.util.NoSuchElementException.class);
+      });
+    });
+
+    describe("forEachPermutation", () -> {
+      it("should fill the given buffer with every permutation", () -> {
+        val result = new ArrayList<Seq<String>>();
+        val buffer = new String[4];
+        seq.forEachPermutation(buffer, b -> result.add(Seq.ofArray(b)));
+        expect(Seq.ofCollection(result)).toEqual(lexicographic);
+      });
+      it("should reject a buffer that is too small", () -> {
+        expect(() -> seq.forEachPermutation(new String[3], b -> {
+        })).toThrow(IllegalArgumentException.class);
+      });
+    });
+
+    describe("permutationsSpliterator", () -> {
+      it("should be sized and yield the permutations in lexicographic order", () -> {
+        val spliterator = seq.permutationsSpliterator();
+        expect(spliterator.hasCharacteristics(Spliterator.SIZED)).toEqual(true);
+        expect(spliterator.estimateSize()).toEqual(24L);
+        val result = new ArrayList<Seq<String>>();
+        spliterator.forEachRemaining(result::add);
+        expect(Seq.ofCollection(result)).toEqual(lexicographic);
+      });
+      it("should split by rank", () -> {
+        val suffix = seq.permutationsSpliterator();
+        val prefix = suffix.trySplit();
+        expect(prefix.estimateSize()).toEqual(12L);
+        expect(suffix.estimateSize()).toEqual(12L);
+        val result = new ArrayList<Seq<String>>();
+        prefix.forEachRemaining(result::add);
+        suffix.forEachRemaining(result::add);
+        expect(Seq.ofCollection(result)).toEqual(lexicographic);
+      });
+      it("should enumerate in parallel", () -> {
+        val numbers = Seq.rangeExclusive(0, 8);
+        val permutations = numbers.permutationsParallelStream().collect(Collectors.toList());
+        expect(permutations.size()).toEqual(40320);
+        expect(Seq.ofCollection(permutations).distinct().length()).toEqual(40320);
+        expect(permutations.get(0)).toEqual(numbers);
+        expect(permutations.get(40319)).toEqual(numbers.reversed());
+      });
+      it("should not be sized for very long seqs", () -> {
+        val spliterator = Seq.rangeExclusive(0, 21).permutationsSpliterator();
+        expect(spliterator.hasCharacteristics(Spliterator.SIZED)).toEqual(false);
+        expect(spliterator.trySplit() != null).toEqual(true);
+        expect(spliterator.tryAdvance(p -> {
+        })).toEqual(true);
+      });
+    });
+
+    describe("combinations", () -> {
+      it("should contain the k-combinations in lexicographic order", () -> {
+        expect(Seq.of(1, 2, 3).combinations(2)).toEqual(Seq.of(Seq.of(1, 2), Seq.of(1, 3), Seq.of(2, 3)));
+        expect(seq.combinations(4)).toEqual(Seq.of(seq));
+        expect(seq.combinations(0).length()).toEqual(1);
+        expect(seq.combinations(0).get(0)).toEqual(Seq.empty());
+        expect(seq.combinations(5)).toEqual(Seq.empty());
+      });
+      it("should agree with a nested loop enumeration", () -> {
+        val numbers = Seq.rangeExclusive(0, 12);
+        val expected = new ArrayList<Seq<Integer>>();
+        for (int a = 0; a < 12; a += 1) {
+          for (int b = a + 1; b < 12; b += 1) {
+            for (int c = b + 1; c < 12; c += 1) {
+              expected.add(Seq.of(a, b, c));
+            }
+          }
+        }
+        expect(numbers.combinations(3)).toEqual(Seq.ofCollection(expected));
+      });
+      it("should address combinations by rank without enumeration", () -> {
+        val combinations = Seq.rangeExclusive(0, 33).combinations(16);
+        expect(combinations.length()).toEqual(1166803110);
+        expect(combinations.last()).toEqual(Seq.rangeExclusive(17, 33));
+        expect(combinations.get(1)).toEqual(Seq.concat(Seq.rangeExclusive(0, 15), Seq.of(16)));
+        expect(combinations.get(1166803108)).toEqual(Seq.concat(Seq.of(16), Seq.rangeExclusive(18, 33)));
+      });
+      it("should reject invalid arguments", () -> {
+        expect(() -> seq.combinations(-1)).toThrow(IllegalArgumentException.class);
+        expect(() -> Seq.rangeExclusive(0, 100).combinations(50)).toThrow(IllegalArgumentException.class);
+      });
+      it("should compute binomial coefficients and saturate", () -> {
+        expect(Combinatorics.binomial(5, 2)).toEqual(10L);
+        expect(Combinatorics.binomial(5, 6)).toEqual(0L);
+        expect(Combinatorics.binomial(66, 33)).toEqual(7219428434016265740L);
+        expect(Combinatorics.binomial(70, 35)).toEqual(Long.MAX_VALUE);
+      });
+    });
+
+    describe("subsets", () -> {
+      it("should contain all subsets ordered by their bit mask", () -> {
+        expect(Seq.of(1, 2, 3).subsets()).toEqual(Seq.of(
+          Seq.empty(), Seq.of(1), Seq.of(2), Seq.of(1, 2), Seq.of(3), Seq.of(1, 3), Seq.of(2, 3), Seq.of(1, 2, 3)));
+        expect(Seq.empty().subsets().length()).toEqual(1);
+      });
+      it("should address subsets by rank without enumeration", () -> {
+        val subsets = Seq.rangeExclusive(0, 30).subsets();
+        expect(subsets.length()).toEqual(1 << 30);
+        expect(subsets.get((1 << 30) - 1)).toEqual(Seq.rangeExclusive(0, 30));
+        expect(subsets.get(5)).toEqual(Seq.of(0, 2));
+        expect(() -> Seq.rangeExclusive(0, 31).subsets()).toThrow(IllegalArgumentException.class);
+      });
+    });
+
+    describe("product", () -> {
+      it("should contain the tuples in the order of nested loops", () -> {
+        expect(Seq.product(Seq.of(1, 2), Seq.of(3), Seq.of(4, 5))).toEqual(Seq.of(
+          Seq.of(1, 3, 4), Seq.of(1, 3, 5), Seq.of(2, 3, 4), Seq.of(2, 3, 5)));
+      });
+      it("should handle empty factors", () -> {
+        expect(Seq.product(Seq.of(1, 2), Seq.empty())).toEqual(Seq.empty());
+        expect(Seq.product().length()).toEqual(1);
+        expect(Seq.product().get(0)).toEqual(Seq.empty());
+      });
+      it("should address tuples by rank without enumeration", () -> {
+        val digits = Seq.rangeExclusive(0, 10);
+        val product = Seq.product(digits, digits, digits, digits, digits, digits, digits, digits, digits);
+        expect(product.length()).toEqual(1_000_000_000);
+        expect(product.get(123_456_789)).toEqual(Seq.of(1, 2, 3, 4, 5, 6, 7, 8, 9));
+        expect(product.subSequenceView(10, 12).map(Seq::last)).toEqual(Seq.of(0, 1));
+        expect(() -> Seq.product(digits, digits, digits, digits, digits, digits, digits, digits, digits, digits))
+          .toThrow(IllegalArgumentException.class);
+      });
+    });
+  }
+}
@@ -0,0 +1,74 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.util.NoSuchElementException;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class DoubleSeqTest {
+
+  {
+    describe("a DoubleSeq", () -> {
+      val seq = DoubleSeq.of(3.0, 1.0, 4.0, 1.0, 5.0, 9.0, 2.0, 6.0);
+      it("map / filter", () -> {
+        expect(seq.map(x -> x * 2).get(7)).toEqual(12.0);
+        expect(seq.filter(x -> x > 4)).toEqual(DoubleSeq.of(5.0, 9.0, 6.0));
+      });
+      it("foldl / foldr / sum / product", () -> {
+        expect(DoubleSeq.of(1.0, 2.0, 3.0).foldl((a, b) -> a * 10 + b, 0.0)).toEqual(123.0);
+        expect(DoubleSeq.of(1.0, 2.0, 3.0).foldr((a, b) -> b * 10 + a, 0.0)).toEqual(321.0);
+        expect(seq.sum()).toEqual(31.0);
+        expect(DoubleSeq.of(1.0, 2.0, 3.0, 4.0).product()).toEqual(24.0);
+      });
+      it("minimum / maximum", () -> {
+        expect(seq.minimum()).toEqual(1.0);
+        expect(seq.maximum()).toEqual(9.0);
+        expect(DoubleSeq.empty()::minimum).toThrow(NoSuchElementException.class);
+      });
+      it("count / find / contains", () -> {
+        expect(seq.count(1.0)).toEqual(2);
+        expect(seq.countBy(x -> x > 4)).toEqual(3);
+        expect(seq.find(5.0)).toEqual(4);
+        expect(seq.contains(8.0)).toBeFalse();
+      });
+      it("sorted / binarySearch / distinct / reversed", () -> {
+        expect(seq.sorted()).toEqual(DoubleSeq.of(1.0, 1.0, 2.0, 3.0, 4.0, 5.0, 6.0, 9.0));
+        expect(seq.sorted().binarySearch(6.0)).toEqual(6);
+        expect(seq.distinct()).toEqual(DoubleSeq.of(3.0, 1.0, 4.0, 5.0, 9.0, 2.0, 6.0));
+        expect(DoubleSeq.of(1.0, 2.0).reversed()).toEqual(DoubleSeq.of(2.0, 1.0));
+      });
+    });
+    describe("conversion to and from Seq", () -> {
+      it("boxed should be equal to the corresponding Seq", () -> {
+        val seq = DoubleSeq.of(1.0, 2.0, 3.0);
+        expect(seq.boxed()).toEqual(Seq.of(1.0, 2.0, 3.0));
+        expect(seq.boxed().hashCode()).toEqual(seq.hashCode());
+      });
+      it("ofSeq should unwrap a boxed view without copying", () -> {
+        val seq = DoubleSeq.of(1.0, 2.0, 3.0);
+        expect(DoubleSeq.ofSeq(seq.boxed()) == seq).toBeTrue();
+        expect(DoubleSeq.ofSeq(Seq.of(1.0, 2.0, 3.0))).toEqual(seq);
+      });
+      it("ofSeq should copy a view on a wrapped array", () -> {
+        final double[] array = new double[]{1.0, 2.0, 3.0};
+        final DoubleSeq copy = DoubleSeq.ofSeq(Seq.wrap(array));
+        array[0] = 0.0;
+        expect(copy).toEqual(DoubleSeq.of(1.0, 2.0, 3.0));
+      });
+      it("Seq.mapToDouble", () -> {
+        expect(Seq.of("a", "bb").mapToDouble(String::length)).toEqual(DoubleSeq.of(1.0, 2.0));
+      });
+      it("Seq.doubleSum / Seq.doubleProduct should use the primitive path on a boxed view", () -> {
+        expect(Seq.doubleSum(DoubleSeq.of(1.0, 2.0, 3.0).boxed())).toEqual(6.0);
+        expect(Seq.doubleProduct(Seq.wrap(new double[]{2.0, 3.0, 4.0}))).toEqual(24.0);
+      });
+    });
+  }
+}
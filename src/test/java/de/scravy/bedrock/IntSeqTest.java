@@ -0,0 +1,128 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.util.NoSuchElementException;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class IntSeqTest {
+
+  {
+    describe("an IntSeq", () -> {
+      val seq = IntSeq.of(3, 1, 4, 1, 5, 9, 2, 6);
+      it("get / length / head / last", () -> {
+        expect(seq.get(2)).toEqual(4);
+        expect(seq.length()).toEqual(8);
+        expect(seq.size()).toEqual(8);
+        expect(seq.head()).toEqual(3);
+        expect(seq.last()).toEqual(6);
+        expect(seq.isEmpty()).toBeFalse();
+        expect(seq.nonEmpty()).toBeTrue();
+      });
+      it("map", () -> {
+        expect(seq.map(x -> x * 2)).toEqual(IntSeq.of(6, 2, 8, 2, 10, 18, 4, 12));
+      });
+      it("mapToObj", () -> {
+        expect(IntSeq.of(1, 2).mapToObj(Integer::toString)).toEqual(Seq.of("1", "2"));
+        expect(IntSeq.empty().mapToObj(Integer::toString)).toEqual(Seq.empty());
+      });
+      it("filter", () -> {
+        expect(seq.filter(x -> x % 2 == 0)).toEqual(IntSeq.of(4, 2, 6));
+        expect(seq.filter(x -> true)).toEqual(seq);
+        expect(seq.filter(x -> false)).toEqual(IntSeq.empty());
+      });
+      it("foldl / foldr", () -> {
+        expect(IntSeq.of(1, 2, 3).foldl((a, b) -> a * 10 + b, 0)).toEqual(123);
+        expect(IntSeq.of(1, 2, 3).foldr((a, b) -> b * 10 + a, 0)).toEqual(321);
+      });
+      it("sum / product", () -> {
+        expect(seq.sum()).toEqual(31);
+        expect(IntSeq.of(1, 2, 3, 4).product()).toEqual(24);
+      });
+      it("minimum / maximum", () -> {
+        expect(seq.minimum()).toEqual(1);
+        expect(seq.maximum()).toEqual(9);
+        expect(IntSeq.empty()::minimum).toThrow(NoSuchElementException.class);
+        expect(IntSeq.empty()::maximum).toThrow(NoSuchElementException.class);
+      });
+      it("count / countBy / find / contains", () -> {
+        expect(seq.count(1)).toEqual(2);
+        expect(seq.countBy(x -> x > 4)).toEqual(3);
+        expect(seq.find(5)).toEqual(4);
+        expect(seq.find(7)).toEqual(-1);
+        expect(seq.contains(9)).toBeTrue();
+        expect(seq.contains(8)).toBeFalse();
+      });
+      it("sorted / binarySearch", () -> {
+        val sorted = seq.sorted();
+        expect(sorted).toEqual(IntSeq.of(1, 1, 2, 3, 4, 5, 6, 9));
+        expect(sorted.binarySearch(6)).toEqual(6);
+        expect(sorted.binarySearch(7)).toBeSmallerThan(0);
+      });
+      it("bottomK / topK / nthElement", () -> {
+        expect(seq.bottomK(3)).toEqual(IntSeq.of(1, 1, 2));
+        expect(seq.topK(3)).toEqual(IntSeq.of(9, 6, 5));
+        expect(seq.topK(20)).toEqual(IntSeq.of(9, 6, 5, 4, 3, 2, 1, 1));
+        expect(seq.bottomK(0)).toEqual(IntSeq.empty());
+        for (int i = 0; i < seq.length(); i += 1) {
+          expect(seq.nthElement(i)).toEqual(seq.sorted().get(i));
+        }
+        expect(() -> seq.nthElement(8)).toThrow(IndexOutOfBoundsException.class);
+      });
+      it("reversed", () -> {
+        expect(IntSeq.of(1, 2, 3).reversed()).toEqual(IntSeq.of(3, 2, 1));
+      });
+      it("distinct should maintain order", () -> {
+        expect(seq.distinct()).toEqual(IntSeq.of(3, 1, 4, 5, 9, 2, 6));
+        expect(IntSeq.empty().distinct()).toEqual(IntSeq.empty());
+      });
+      it("subSequence", () -> {
+        expect(seq.subSequence(2, 4)).toEqual(IntSeq.of(4, 1));
+        expect(seq.subSequence(4, 2)).toEqual(IntSeq.empty());
+      });
+      it("forEach / stream / toArray", () -> {
+        val box = Box.intBox(0);
+        seq.forEach(box::add);
+        expect(box.getValue()).toEqual(31);
+        expect(seq.stream().sum()).toEqual(31);
+        expect(seq.toArray().length).toEqual(8);
+      });
+      it("toString", () -> {
+        expect(IntSeq.of(1, 2).toString()).toEqual("[1, 2]");
+      });
+    });
+    describe("conversion to and from Seq", () -> {
+      it("boxed should be equal to the corresponding Seq", () -> {
+        val seq = IntSeq.of(1, 2, 3);
+        expect(seq.boxed()).toEqual(Seq.of(1, 2, 3));
+        expect(seq.boxed().hashCode()).toEqual(seq.hashCode());
+        expect(IntSeq.empty().boxed()).toEqual(Seq.empty());
+      });
+      it("ofSeq should unwrap a boxed view without copying", () -> {
+        val seq = IntSeq.of(1, 2, 3);
+        expect(IntSeq.ofSeq(seq.boxed()) == seq).toBeTrue();
+        expect(IntSeq.ofSeq(Seq.of(1, 2, 3))).toEqual(seq);
+      });
+      it("ofSeq should copy a view on a wrapped array", () -> {
+        final int[] array = new int[]{1, 2, 3};
+        final IntSeq copy = IntSeq.ofSeq(Seq.wrap(array));
+        array[0] = 0;
+        expect(copy).toEqual(IntSeq.of(1, 2, 3));
+      });
+      it("Seq.mapToInt", () -> {
+        expect(Seq.of("a", "bb", "ccc").mapToInt(String::length)).toEqual(IntSeq.of(1, 2, 3));
+      });
+      it("Seq.intSum / Seq.intProduct should use the primitive path on a boxed view", () -> {
+        expect(Seq.intSum(IntSeq.of(1, 2, 3).boxed())).toEqual(6);
+        expect(Seq.intProduct(Seq.wrap(new int[]{2, 3, 4}))).toEqual(24);
+      });
+    });
+  }
+}
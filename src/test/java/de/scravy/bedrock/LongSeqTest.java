@@ -0,0 +1,74 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.util.NoSuchElementException;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class LongSeqTest {
+
+  {
+    describe("a LongSeq", () -> {
+      val seq = LongSeq.of(3L, 1L, 4L, 1L, 5L, 9L, 2L, 6L);
+      it("map / filter", () -> {
+        expect(seq.map(x -> x * 2).get(7)).toEqual(12L);
+        expect(seq.filter(x -> x > 4)).toEqual(LongSeq.of(5L, 9L, 6L));
+      });
+      it("foldl / foldr / sum / product", () -> {
+        expect(LongSeq.of(1L, 2L, 3L).foldl((a, b) -> a * 10 + b, 0L)).toEqual(123L);
+        expect(LongSeq.of(1L, 2L, 3L).foldr((a, b) -> b * 10 + a, 0L)).toEqual(321L);
+        expect(seq.sum()).toEqual(31L);
+        expect(LongSeq.of(1L, 2L, 3L, 4L).product()).toEqual(24L);
+      });
+      it("minimum / maximum", () -> {
+        expect(seq.minimum()).toEqual(1L);
+        expect(seq.maximum()).toEqual(9L);
+        expect(LongSeq.empty()::minimum).toThrow(NoSuchElementException.class);
+      });
+      it("count / find / contains", () -> {
+        expect(seq.count(1L)).toEqual(2);
+        expect(seq.countBy(x -> x > 4)).toEqual(3);
+        expect(seq.find(5L)).toEqual(4);
+        expect(seq.contains(8L)).toBeFalse();
+      });
+      it("sorted / binarySearch / distinct / reversed", () -> {
+        expect(seq.sorted()).toEqual(LongSeq.of(1L, 1L, 2L, 3L, 4L, 5L, 6L, 9L));
+        expect(seq.sorted().binarySearch(6L)).toEqual(6);
+        expect(seq.distinct()).toEqual(LongSeq.of(3L, 1L, 4L, 5L, 9L, 2L, 6L));
+        expect(LongSeq.of(1L, 2L).reversed()).toEqual(LongSeq.of(2L, 1L));
+      });
+    });
+    describe("conversion to and from Seq", () -> {
+      it("boxed should be equal to the corresponding Seq", () -> {
+        val seq = LongSeq.of(1L, 2L, 3L);
+        expect(seq.boxed()).toEqual(Seq.of(1L, 2L, 3L));
+        expect(seq.boxed().hashCode()).toEqual(seq.hashCode());
+      });
+      it("ofSeq should unwrap a boxed view without copying", () -> {
+        val seq = LongSeq.of(1L, 2L, 3L);
+        expect(LongSeq.ofSeq(seq.boxed()) == seq).toBeTrue();
+        expect(LongSeq.ofSeq(Seq.of(1L, 2L, 3L))).toEqual(seq);
+      });
+      it("ofSeq should copy a view on a wrapped array", () -> {
+        final long[] array = new long[]{1L, 2L, 3L};
+        final LongSeq copy = LongSeq.ofSeq(Seq.wrap(array));
+        array[0] = 0L;
+        expect(copy).toEqual(LongSeq.of(1L, 2L, 3L));
+      });
+      it("Seq.mapToLong", () -> {
+        expect(Seq.of("a", "bb").mapToLong(String::length)).toEqual(LongSeq.of(1L, 2L));
+      });
+      it("Seq.longSum / Seq.longProduct should use the primitive path on a boxed view", () -> {
+        expect(Seq.longSum(LongSeq.of(1L, 2L, 3L).boxed())).toEqual(6L);
+        expect(Seq.longProduct(Seq.wrap(new long[]{2L, 3L, 4L}))).toEqual(24L);
+      });
+    });
+  }
+}
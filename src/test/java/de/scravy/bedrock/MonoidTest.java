@@ -0,0 +1,57 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class MonoidTest {
+
+  {
+    describe("predefined monoids", () -> {
+      it("should have neutral identities", () -> {
+        expect(Monoid.intSum().combine(Monoid.intSum().identity(), 7)).toEqual(7);
+        expect(Monoid.longProduct().combine(7L, Monoid.longProduct().identity())).toEqual(7L);
+        expect(Monoid.bigIntegerSum().combine(BigInteger.TEN, Monoid.bigIntegerSum().identity())).toEqual(BigInteger.TEN);
+        expect(Monoid.bigDecimalSum().combine(BigDecimal.ONE, Monoid.bigDecimalSum().identity())).toEqual(BigDecimal.ONE);
+        expect(Monoid.and().combine(Monoid.and().identity(), false)).toEqual(false);
+        expect(Monoid.or().combine(Monoid.or().identity(), true)).toEqual(true);
+      });
+      it("should reduce seqs", () -> {
+        val numbers = Seq.rangeInclusive(1, 10);
+        expect(numbers.reduce(Monoid.intSum())).toEqual(55);
+        expect(numbers.reduce(Monoid.intProduct())).toEqual(3628800);
+        expect(numbers.mapReduce(Integer::longValue, Monoid.longSum())).toEqual(55L);
+        expect(numbers.mapReduce(Integer::doubleValue, Monoid.doubleSum())).toEqual(55.0);
+        expect(numbers.mapReduce(Integer::doubleValue, Monoid.doubleProduct())).toEqual(3628800.0);
+        expect(numbers.mapReduce(x -> x > 0, Monoid.and())).toEqual(true);
+        expect(numbers.mapReduce(x -> x > 10, Monoid.or())).toEqual(false);
+      });
+    });
+
+    describe("Seq.reduce", () -> {
+      it("should preserve the order of a non commutative monoid", () -> {
+        val concat = Monoid.of("", String::concat);
+        val seq = Seq.rangeExclusive(0, 50_000);
+        expect(seq.mapReduce(String::valueOf, concat)).toEqual(seq.map(String::valueOf).foldl(String::concat, ""));
+      });
+      it("should return the identity for an empty seq", () -> {
+        expect(Seq.<Integer>empty().reduce(Monoid.intProduct())).toEqual(1);
+        expect(Seq.<Integer>empty().mapReduce(x -> x, Monoid.intSum())).toEqual(0);
+      });
+      it("should be used by the static sum and product helpers", () -> {
+        val seq = Seq.rangeExclusive(0, 100_000).map(x -> x % 7 - 3);
+        expect(Seq.intSum(seq)).toEqual(seq.foldl(Integer::sum, 0));
+        expect(Seq.longProduct(Seq.of(2L, 3L, 7L))).toEqual(42L);
+      });
+    });
+  }
+}
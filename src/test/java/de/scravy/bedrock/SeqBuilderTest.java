@@ -23,6 +23,64 @@ public class SeqBuilderTest {
         Seq.<Integer>builder().addAll(1, 2, 3).forEach(list::add);
         expect(list).toEqual(Arrays.asList(1, 2, 3));
       });
+      it("should hand over an exactly filled array without copying", () -> {
+        val builder = new SeqBuilder<Integer>(3).addAll(1, 2, 3);
+        val seq = builder.result();
+        expect(seq).toBeInstanceOf(SeqSimple.class);
+        expect(((SeqSimple<Integer>) seq).backingArray.length).toEqual(3);
+        builder.add(4);
+        expect(seq).toEqual(Seq.of(1, 2, 3));
+        expect(builder.result()).toEqual(Seq.of(1, 2, 3, 4));
+      });
+      it("should not let clear or add modify a previous result", () -> {
+        val builder = new SeqBuilder<Integer>(8).withTrimPolicy(SeqBuilder.TrimPolicy.NEVER).addAll(1, 2, 3);
+        val seq = builder.result();
+        builder.add(4);
+        builder.clear().addAll(7, 8);
+        expect(seq).toEqual(Seq.of(1, 2, 3));
+        expect(builder.result()).toEqual(Seq.of(7, 8));
+        expect(builder.size()).toEqual(2);
+      });
+      it("should compact according to the trim policy", () -> {
+        expect(new SeqBuilder<Integer>(100).addAll(1, 2).result()).toBeInstanceOf(SeqSimple.class);
+        expect(new SeqBuilder<Integer>(5).addAll(1, 2, 3, 4).result()).toBeInstanceOf(SeqSimpleView.class);
+        expect(new SeqBuilder<Integer>(5).withTrimPolicy(SeqBuilder.TrimPolicy.ALWAYS).addAll(1, 2, 3, 4).result())
+          .toBeInstanceOf(SeqSimple.class);
+        val untrimmed = new SeqBuilder<Integer>(100).withTrimPolicy(SeqBuilder.TrimPolicy.NEVER).addAll(1, 2).result();
+        expect(untrimmed).toBeInstanceOf(SeqSimpleView.class);
+        expect(untrimmed.trimmedToSize()).toBeInstanceOf(SeqSimple.class);
+        expect(untrimmed).toEqual(Seq.of(1, 2));
+      });
+      it("should collect large inputs in chunks", () -> {
+        val builder = new SeqBuilder<Integer>(0, 4);
+        for (int i = 0; i < 1000; i += 1) {
+          builder.add(i);
+        }
+        val seq = builder.result();
+        expect(seq).toBeInstanceOf(SeqChunked.class);
+        expect(seq).toEqual(Seq.rangeExclusive(0, 1000));
+        val list = new ArrayList<Integer>();
+        builder.forEach(list::add);
+        expect(list.size()).toEqual(1000);
+        expect(list.get(999)).toEqual(999);
+        expect(builder.<Integer>resultSortedInternal()).toEqual(Seq.rangeExclusive(0, 1000));
+        expect(builder.withTrimPolicy(SeqBuilder.TrimPolicy.NEVER).result()).toEqual(Seq.rangeExclusive(0, 1000));
+        builder.add(1000);
+        expect(seq.length()).toEqual(1000);
+        expect(builder.clear().isEmpty()).toBeTrue();
+        expect(builder.result()).toEqual(Seq.empty());
+      });
+      it("should use the default chunk size for very large inputs", () -> {
+        val builder = Seq.<Integer>builder();
+        final int n = (1 << SeqChunked.DEFAULT_CHUNK_SHIFT) + 5;
+        for (int i = 0; i < n; i += 1) {
+          builder.add(i);
+        }
+        val seq = builder.result();
+        expect(seq).toBeInstanceOf(SeqChunked.class);
+        expect(seq.length()).toEqual(n);
+        expect(seq.last()).toEqual(n - 1);
+      });
     });
 
     describe("collector", () -> {
@@ -0,0 +1,44 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class SeqChunkedTest {
+
+  {
+    describe("a chunked seq", () -> {
+      val seq = new SeqBuilder<Integer>(0, 1).addAll(1, 2, 2, 4, 3).result();
+      it("should be a SeqChunked", () -> {
+        expect(seq).toBeInstanceOf(SeqChunked.class);
+      });
+      SeqExemplaryChecks.checks(seq);
+      SeqPropertyChecks.checks(seq);
+    });
+    describe("a view on a chunked seq", () -> {
+      val seq = new SeqBuilder<Integer>(0, 2).addAll(9, 9, 1, 2, 2, 4, 3, 9).result().subSequenceView(2, 7);
+      it("should be a SeqChunked", () -> {
+        expect(seq).toBeInstanceOf(SeqChunked.class);
+      });
+      SeqExemplaryChecks.checks(seq);
+      SeqPropertyChecks.checks(seq);
+    });
+
+    describe("bulk operations", () -> {
+      val seq = new SeqBuilder<Integer>(0, 3).addElements(Seq.rangeExclusive(0, 100)).result();
+      it("toArray / subSequence / concat should copy chunk by chunk", () -> {
+        expect(seq.toArray(Integer.class).length).toEqual(100);
+        expect(seq.subSequence(5, 21)).toEqual(Seq.rangeExclusive(5, 21));
+        expect(seq.subSequenceView(8, 8)).toEqual(Seq.empty());
+        expect(Seq.concat(seq.subSequenceView(90, 95), seq.subSequenceView(3, 11))).toEqual(
+          Seq.concat(Seq.rangeExclusive(90, 95), Seq.rangeExclusive(3, 11)));
+      });
+    });
+  }
+}
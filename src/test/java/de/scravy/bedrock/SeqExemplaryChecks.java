@@ -189,6 +189,22 @@ class SeqExemplaryChecks {
       it("should rotate the seq by 6", () -> expect(seq.rotated(6)).toEqual(Seq.of(3, 1, 2, 2, 4)));
     });
 
+    describe("rotatedView", () -> {
+      it("should agree with rotated", () -> {
+        for (int amount = -11; amount <= 11; amount += 1) {
+          expect(seq.rotatedView(amount)).toEqual(seq.rotated(amount));
+        }
+      });
+      it("should handle extreme amounts", () -> {
+        expect(seq.rotatedView(Integer.MIN_VALUE)).toEqual(seq.rotated(Integer.MIN_VALUE));
+        expect(seq.rotatedView(Integer.MAX_VALUE)).toEqual(seq.rotated(Integer.MAX_VALUE));
+      });
+    });
+
+    describe("reversedView", () -> {
+      it("should reverse the seq", () -> expect(seq.reversedView()).toEqual(Seq.of(3, 4, 2, 2, 1)));
+    });
+
     final Consumer<Supplier<Seq<Integer>>> tailChecks = f -> {
       it("should return the last four elements", () -> expect(f.get()).toEqual(Seq.of(2, 2, 4, 3)));
     };
@@ -458,6 +474,13 @@ class SeqExemplaryChecks {
       });
     });
 
+    describe("symmetricDifference", () -> {
+      it("should form the symmetric difference", () -> {
+        expect(seq.symmetricDifference(Seq.of(3, 7, 2, 5, 7))).toEqual(Seq.of(1, 4, 7, 5));
+        expect(Seq.of(3, 7, 2, 5, 7).symmetricDifference(seq)).toEqual(Seq.of(7, 5, 1, 4));
+      });
+    });
+
     describe("zipWithIndex", () -> {
       it("should create a list of pair zipped with indices", () -> {
         expect(seq.zipWithIndex()).toEqual(Seq.of(
@@ -4,9 +4,15 @@ import com.greghaskins.spectrum.Spectrum;
 import lombok.val;
 import org.junit.runner.RunWith;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
 import java.util.function.IntFunction;
 
 import static com.greghaskins.spectrum.Spectrum.describe;
@@ -32,6 +38,63 @@ public class SeqGeneratedTest {
         val memoizingSeq = Seq.ofGeneratorMemoizing(generator, data.length);
         SeqExemplaryChecks.checks(memoizingSeq);
         SeqPropertyChecks.checks(memoizingSeq);
+        it("should compute every element at most once when shared between threads", () -> {
+          final int length = 1000;
+          val calls = new AtomicIntegerArray(length);
+          final Seq<Integer> shared = Seq.ofGeneratorMemoizing(i -> {
+            calls.incrementAndGet(i);
+            Thread.yield();
+            return i * i;
+          }, length);
+          val pool = Executors.newFixedThreadPool(8);
+          try {
+            val futures = new ArrayList<Future<Long>>();
+            for (int t = 0; t < 8; t += 1) {
+              final int offset = t * 97;
+              futures.add(pool.submit(() -> {
+                long sum = 0;
+                for (int i = 0; i < length; i += 1) {
+                  sum += shared.get((i + offset) % length);
+                }
+                return sum;
+              }));
+            }
+            for (final Future<Long> future : futures) {
+              expect(future.get()).toEqual(332833500L);
+            }
+          } finally {
+            pool.shutdown();
+          }
+          for (int i = 0; i < length; i += 1) {
+            expect(calls.get(i)).toEqual(1);
+          }
+        });
+        it("should cache null results", () -> {
+          val calls = new AtomicInteger();
+          final Seq<String> nulls = Seq.ofGeneratorMemoizing(i -> {
+            calls.incrementAndGet();
+            return null;
+          }, 3);
+          expect(nulls.get(1)).toBeNull();
+          expect(nulls.get(1)).toBeNull();
+          expect(calls.get()).toEqual(1);
+        });
+        it("should retry an element whose computation failed", () -> {
+          val fail = new AtomicBoolean(true);
+          final Seq<Integer> flaky = Seq.ofGeneratorMemoizing(i -> {
+            if (fail.getAndSet(false)) {
+              throw new IllegalStateException();
+            }
+            return i;
+          }, 3);
+          expect(() -> flaky.get(2)).toThrow(IllegalStateException.class);
+          expect(flaky.get(2)).toEqual(2);
+        });
+        it("should detect an element that depends on itself", () -> {
+          val self = Box.<Seq<Integer>>box(null);
+          self.accept(Seq.ofGeneratorMemoizing(i -> self.get().get(i), 3));
+          expect(() -> self.get().get(0)).toThrow(IllegalStateException.class);
+        });
       });
       describe("reversed twice", () -> {
         val rev = seq.reversed().reversed();
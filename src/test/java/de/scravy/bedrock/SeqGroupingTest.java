@@ -0,0 +1,89 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.math.BigDecimal;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class SeqGroupingTest {
+
+  {
+    val random = new Random(20);
+    val events = Seq.rangeExclusive(0, 50_000).map(i -> Pair.of(random.nextInt(1000) - 500, i)).trimmedToSize();
+    final ArrayMap<Integer, Seq<Pair<Integer, Integer>>> expected = events.toArrayMap(Pair::getFirst);
+
+    describe("toMap / toArrayMap", () -> {
+      it("should keep the order of the elements within a group", () -> {
+        val m = Seq.of(3, 1, 4, 1, 5, 9, 2, 6, 5, 3).toMap(x -> x % 3);
+        expect(m.apply(0)).toEqual(Seq.of(3, 9, 6, 3));
+        expect(m.apply(1)).toEqual(Seq.of(1, 4, 1));
+        expect(m.apply(2)).toEqual(Seq.of(5, 2, 5));
+      });
+      it("should support null keys in toMap", () -> {
+        val m = Seq.of("a", null, "b").toMap(x -> x == null ? null : "x");
+        expect(m.apply(null)).toEqual(Seq.of((String) null));
+        expect(m.apply("x")).toEqual(Seq.of("a", "b"));
+      });
+      it("should sort the keys of the ArrayMap", () -> {
+        expect(expected.keys()).toEqual(expected.keys().sorted());
+        expect(expected.values().map(Seq::length).foldl(Integer::sum, 0)).toEqual(50_000);
+        expect(events.toMap(Pair::getFirst).toMap()).toEqual(expected.toMap());
+      });
+      it("should merge keys which compare as equal in toArrayMap", () -> {
+        val numbers = Seq.of("1.0", "2", "1.00", "1.0", "2.0", "3").map(BigDecimal::new);
+        final ArrayMap<BigDecimal, Seq<BigDecimal>> m = numbers.toArrayMap(x -> x);
+        expect(m.size()).toEqual(3);
+        expect(m.keys().map(BigDecimal::toString)).toEqual(Seq.of("1.0", "2", "3"));
+        expect(m.apply(new BigDecimal("1.00")).map(BigDecimal::toString)).toEqual(Seq.of("1.0", "1.00", "1.0"));
+        expect(m.apply(new BigDecimal("2")).map(BigDecimal::toString)).toEqual(Seq.of("2", "2.0"));
+        expect(m.apply(new BigDecimal("3.000")).length()).toEqual(1);
+      });
+    });
+
+    describe("toArrayMapOnInt", () -> {
+      it("should group dense keys like toArrayMap", () -> {
+        expect(events.toArrayMapOnInt(Pair::getFirst)).toEqual(expected);
+      });
+      it("should group sparse keys like toArrayMap", () -> {
+        val sparse = events.map(p -> Pair.of(p.getFirst() * 1_000_003, p.getSecond()));
+        expect(sparse.toArrayMapOnInt(Pair::getFirst)).toEqual(sparse.toArrayMap(Pair::getFirst));
+      });
+      it("should handle extreme keys and a single group", () -> {
+        val extremes = Seq.of(Integer.MAX_VALUE, Integer.MIN_VALUE, 0, Integer.MAX_VALUE);
+        expect(extremes.toArrayMapOnInt(x -> x)).toEqual(extremes.toArrayMap(x -> x));
+        expect(Seq.of(7, 7, 7).toArrayMapOnInt(x -> x)).toEqual(ArrayMap.of(Pair.of(7, Seq.of(7, 7, 7))));
+        expect(Seq.<Integer>empty().toArrayMapOnInt(x -> x)).toEqual(ArrayMap.empty());
+      });
+    });
+
+    describe("toArrayMapOnLong", () -> {
+      it("should group dense keys like toArrayMap", () -> {
+        val longs = events.map(p -> Pair.of((long) p.getFirst(), p.getSecond()));
+        expect(longs.toArrayMapOnLong(Pair::getFirst)).toEqual(longs.toArrayMap(Pair::getFirst));
+      });
+      it("should group sparse and extreme keys like toArrayMap", () -> {
+        val longs = events.map(p -> Pair.of(p.getFirst() * 0x1_0000_0001L, p.getSecond()));
+        expect(longs.toArrayMapOnLong(Pair::getFirst)).toEqual(longs.toArrayMap(Pair::getFirst));
+        val extremes = Seq.of(Long.MAX_VALUE, Long.MIN_VALUE, 0L, Long.MIN_VALUE);
+        expect(extremes.toArrayMapOnLong(x -> x)).toEqual(extremes.toArrayMap(x -> x));
+      });
+    });
+
+    describe("parallel toMap", () -> {
+      it("should yield the same groups as the sequential one", () -> {
+        val pool = new ForkJoinPool(4);
+        expect(events.par(pool).toMap(Pair::getFirst).toMap()).toEqual(expected.toMap());
+        expect(Seq.<Integer>empty().par().toMap(x -> x).isEmpty()).toBeTrue();
+      });
+    });
+  }
+}
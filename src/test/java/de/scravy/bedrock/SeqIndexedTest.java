@@ -0,0 +1,74 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class SeqIndexedTest {
+
+  {
+    describe("an indexed seq", () -> {
+      val seq = Seq.of(1, 2, 2, 4, 3).indexed();
+      it("should be a SeqIndexed", () -> {
+        expect(seq).toBeInstanceOf(SeqIndexed.class);
+        expect(seq.indexed() == seq).toBeTrue();
+      });
+      SeqExemplaryChecks.checks(seq);
+      SeqPropertyChecks.checks(seq);
+    });
+    describe("a view on an indexed seq", () -> {
+      val seq = Seq.of(2, 4, 1, 2, 2, 4, 3, 1, 2).indexed().subSequenceView(2, 7);
+      it("should be a SeqIndexed", () -> {
+        expect(seq).toBeInstanceOf(SeqIndexed.class);
+      });
+      SeqExemplaryChecks.checks(seq);
+      SeqPropertyChecks.checks(seq);
+    });
+    describe("an indexed seq containing null values", () -> {
+      val seq = Seq.of(3, null, 4, 12, null, null).indexed();
+      SeqPropertyChecks.checks(seq);
+      it("should find null", () -> {
+        expect(seq.find(null)).toEqual(1);
+        expect(seq.findLast(null)).toEqual(5);
+        expect(seq.count(null)).toEqual(3);
+      });
+    });
+
+    describe("lookups", () -> {
+      val n = 10_000;
+      val plain = Seq.rangeExclusive(0, n).map(x -> x % 1000).trimmedToSize();
+      val indexed = plain.indexed();
+      it("find / findLast / contains / count should agree with the linear scans", () -> {
+        for (int i = -1; i <= 1000; i += 7) {
+          expect(indexed.find(i)).toEqual(plain.find(i));
+          expect(indexed.findLast(i)).toEqual(plain.findLast(i));
+          expect(indexed.contains(i)).toEqual(plain.contains(i));
+          expect(indexed.count(i)).toEqual(plain.count(i));
+        }
+      });
+      it("lookups in views should agree with the linear scans", () -> {
+        val view = indexed.subSequenceView(1500, 4200);
+        val plainView = plain.subSequenceView(1500, 4200);
+        for (int i = -1; i <= 1000; i += 7) {
+          expect(view.find(i)).toEqual(plainView.find(i));
+          expect(view.findLast(i)).toEqual(plainView.findLast(i));
+          expect(view.count(i)).toEqual(plainView.count(i));
+        }
+        val narrow = indexed.subSequenceView(10, 20);
+        expect(narrow.find(5)).toEqual(-1);
+        expect(narrow.findLast(5)).toEqual(-1);
+        expect(narrow.count(15)).toEqual(1);
+      });
+      it("an empty seq should not be wrapped", () -> {
+        expect(Seq.empty().indexed()).toEqual(Seq.empty());
+        expect(indexed.subSequenceView(5, 5)).toEqual(Seq.empty());
+      });
+    });
+  }
+}
@@ -0,0 +1,113 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.SneakyThrows;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class SeqMappedTest {
+
+  @SneakyThrows
+  private static Path writeInts(final int... values) {
+    val path = Files.createTempFile("bedrock", ".bin");
+    path.toFile().deleteOnExit();
+    val buffer = ByteBuffer.allocate(values.length * 4);
+    for (final int value : values) {
+      buffer.putInt(value);
+    }
+    Files.write(path, buffer.array());
+    return path;
+  }
+
+  @SneakyThrows
+  private static Seq<Integer> mapInts(final Path path, final int cacheSize, final int segmentShift) {
+    try (val channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      return SeqMapped.map(channel, 4, ByteBuffer::getInt, cacheSize, segmentShift);
+    }
+  }
+
+  {
+    val path = writeInts(1, 2, 2, 4, 3);
+
+    describe("a mapped seq", () -> {
+      val seq = mapInts(path, 0, SeqMapped.MAXIMUM_SEGMENT_SHIFT);
+      it("should be a SeqMapped", () -> {
+        expect(seq).toBeInstanceOf(SeqMapped.class);
+      });
+      SeqExemplaryChecks.checks(seq);
+      SeqPropertyChecks.checks(seq);
+    });
+    describe("a mapped seq with a cache and several segments", () -> {
+      val seq = mapInts(path, 2, 3);
+      SeqExemplaryChecks.checks(seq);
+      SeqPropertyChecks.checks(seq);
+    });
+    describe("a view on a mapped seq", () -> {
+      val seq = mapInts(writeInts(7, 1, 2, 2, 4, 3, 8), 4, 4).subSequenceView(1, 6);
+      it("should be a SeqMapped", () -> {
+        expect(seq).toBeInstanceOf(SeqMapped.class);
+      });
+      SeqExemplaryChecks.checks(seq);
+      SeqPropertyChecks.checks(seq);
+    });
+
+    describe("Seq.mapped", () -> {
+      it("should decode composite records", () -> {
+        val file = Files.createTempFile("bedrock", ".bin");
+        file.toFile().deleteOnExit();
+        val buffer = ByteBuffer.allocate(1000 * 12);
+        for (int i = 0; i < 1000; i += 1) {
+          buffer.putInt(i).putLong(i * 1000L);
+        }
+        Files.write(file, buffer.array());
+        final Seq<Pair<Integer, Long>> seq = Seq.mapped(file, 12, (b, offset) -> Pair.of(b.getInt(offset), b.getLong(offset + 4)));
+        expect(seq.length()).toEqual(1000);
+        expect(seq.get(999)).toEqual(Pair.of(999, 999_000L));
+        expect(seq.filter(p -> p.getFirst() % 100 == 0).length()).toEqual(10);
+        expect(seq.foldl((sum, p) -> sum + p.getSecond(), 0L)).toEqual(499_500_000L);
+      });
+      it("should cache decoded records", () -> {
+        val calls = Box.box(0);
+        try (val channel = FileChannel.open(path, StandardOpenOption.READ)) {
+          final Seq<Integer> seq = Seq.mapped(channel, 4, (b, offset) -> {
+            calls.accept(calls.get() + 1);
+            return b.getInt(offset);
+          }, 8);
+          expect(seq.get(3)).toEqual(4);
+          expect(seq.get(3)).toEqual(4);
+          expect(calls.get()).toEqual(1);
+        }
+      });
+      it("should serialize the decoded records", () -> {
+        val bytes = new ByteArrayOutputStream();
+        try (val out = new ObjectOutputStream(bytes)) {
+          out.writeObject(mapInts(path, 0, SeqMapped.MAXIMUM_SEGMENT_SHIFT));
+        }
+        try (val in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+          expect(in.readObject()).toEqual(Seq.of(1, 2, 2, 4, 3));
+        }
+      });
+      it("should reject malformed files", () -> {
+        expect(() -> Seq.mapped(path, 3, ByteBuffer::get)).toThrow(IllegalArgumentException.class);
+        expect(() -> Seq.mapped(path, 0, ByteBuffer::get)).toThrow(IllegalArgumentException.class);
+        expect(Seq.mapped(writeInts(), 4, ByteBuffer::getInt)).toEqual(Seq.empty());
+      });
+    });
+  }
+}
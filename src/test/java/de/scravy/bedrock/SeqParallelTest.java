@@ -0,0 +1,76 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.util.Comparator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class SeqParallelTest {
+
+  {
+    val seq = Seq.rangeExclusive(0, 100_000).map(x -> (x * 7919) % 10_007).trimmedToSize();
+    val pool = new ForkJoinPool(4);
+
+    describe("parallel operations should yield the same results as the sequential ones", () -> {
+      it("map", () -> {
+        expect(seq.par(pool).map(x -> x + 1)).toEqual(seq.map(x -> x + 1));
+      });
+      it("filter / filterNot", () -> {
+        expect(seq.par(pool).filter(x -> x % 3 == 0)).toEqual(seq.filter(x -> x % 3 == 0));
+        expect(seq.par(pool).filterNot(x -> x % 3 == 0)).toEqual(seq.filterNot(x -> x % 3 == 0));
+        expect(seq.par(pool).filter(x -> false)).toEqual(Seq.empty());
+      });
+      it("countBy / count", () -> {
+        expect(seq.par(pool).countBy(x -> x > 5000)).toEqual(seq.countBy(x -> x > 5000));
+        expect(seq.par(pool).count(42)).toEqual(seq.count(42));
+      });
+      it("reduce", () -> {
+        expect(seq.par(pool).reduce(0, Integer::sum)).toEqual(seq.foldl(Integer::sum, 0));
+        expect(seq.par(pool).reduce(Monoid.intSum())).toEqual(seq.foldl(Integer::sum, 0));
+      });
+      it("mapReduce", () -> {
+        expect(seq.par(pool).mapReduce(Integer::longValue, Monoid.longSum())).toEqual(Seq.longSum(seq.map(Integer::longValue)));
+      });
+      it("forEach", () -> {
+        val sum = new AtomicLong();
+        seq.par(pool).forEach(sum::addAndGet);
+        expect(sum.get()).toEqual(Seq.longSum(seq.map(Integer::longValue)));
+      });
+      it("distinct", () -> {
+        expect(seq.par(pool).distinct()).toEqual(seq.distinct());
+        expect(Seq.of(1, null, 2, null, 1).par().distinct()).toEqual(Seq.of(1, null, 2));
+      });
+      it("sortedBy / sorted", () -> {
+        expect(seq.par(pool).sortedBy(Comparator.reverseOrder())).toEqual(seq.sortedBy(Comparator.reverseOrder()));
+        expect(seq.par().sorted()).toEqual(seq.sorted());
+      });
+    });
+
+    describe("on an empty seq", () -> {
+      val empty = Seq.<Integer>empty().par();
+      it("should return empty results", () -> {
+        expect(empty.map(x -> x)).toEqual(Seq.empty());
+        expect(empty.filter(x -> true)).toEqual(Seq.empty());
+        expect(empty.countBy(x -> true)).toEqual(0);
+        expect(empty.reduce(0, Integer::sum)).toEqual(0);
+        expect(empty.reduce(Monoid.intProduct())).toEqual(1);
+        expect(empty.mapReduce(x -> x, Monoid.intSum())).toEqual(0);
+        expect(empty.distinct()).toEqual(Seq.empty());
+        expect(empty.sortedBy(Comparator.naturalOrder())).toEqual(Seq.empty());
+        expect(empty.sorted()).toEqual(Seq.empty());
+        empty.forEach(x -> {
+          throw new AssertionError();
+        });
+      });
+    });
+  }
+}
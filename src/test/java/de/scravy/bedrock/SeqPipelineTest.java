@@ -0,0 +1,115 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.util.Optional;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class SeqPipelineTest {
+
+  {
+    val seq = Seq.rangeInclusive(1, 10);
+
+    describe("intermediate operations", () -> {
+      it("map", () -> {
+        expect(seq.lazy().map(x -> x * 2).toSeq()).toEqual(seq.map(x -> x * 2));
+      });
+      it("filter / filterNot", () -> {
+        expect(seq.lazy().filter(x -> x % 2 == 0).toSeq()).toEqual(Seq.of(2, 4, 6, 8, 10));
+        expect(seq.lazy().filterNot(x -> x % 2 == 0).toSeq()).toEqual(Seq.of(1, 3, 5, 7, 9));
+      });
+      it("flatMap", () -> {
+        expect(Seq.of(1, 2, 3).lazy().flatMap(x -> Seq.of(x, x)).toSeq()).toEqual(Seq.of(1, 1, 2, 2, 3, 3));
+      });
+      it("flatMap should stop early when downstream does not want more elements", () -> {
+        expect(Seq.of(1, 2, 3).lazy().flatMap(x -> Seq.of(x, x)).take(3).toSeq()).toEqual(Seq.of(1, 1, 2));
+      });
+      it("takeWhile / dropWhile", () -> {
+        expect(seq.lazy().takeWhile(x -> x < 4).toSeq()).toEqual(Seq.of(1, 2, 3));
+        expect(seq.lazy().dropWhile(x -> x < 8).toSeq()).toEqual(Seq.of(8, 9, 10));
+      });
+      it("take", () -> {
+        expect(seq.lazy().take(2).toSeq()).toEqual(Seq.of(1, 2));
+        expect(seq.lazy().take(0).toSeq()).toEqual(Seq.empty());
+      });
+      it("should fuse several operators", () -> {
+        val result = seq.lazy()
+          .map(x -> x * 3)
+          .filter(x -> x % 2 == 1)
+          .map(Object::toString)
+          .takeWhile(s -> s.length() < 2)
+          .toSeq();
+        expect(result).toEqual(Seq.of("3", "9"));
+      });
+      it("should not evaluate anything before a terminal operation is invoked", () -> {
+        val calls = Box.intBox(0);
+        val pipeline = seq.lazy().map(x -> {
+          calls.inc();
+          return x;
+        }).filter(x -> true);
+        expect(calls.getValue()).toEqual(0);
+        pipeline.count();
+        expect(calls.getValue()).toEqual(10);
+      });
+      it("stateful stages should start afresh for every terminal operation", () -> {
+        val pipeline = seq.lazy().dropWhile(x -> x < 9);
+        expect(pipeline.toSeq()).toEqual(Seq.of(9, 10));
+        expect(pipeline.toSeq()).toEqual(Seq.of(9, 10));
+      });
+    });
+
+    describe("random access", () -> {
+      it("should be available after map", () -> {
+        val calls = Box.intBox(0);
+        val pipeline = seq.lazy().map(x -> {
+          calls.inc();
+          return x * 10;
+        });
+        expect(pipeline.isRandomAccess()).toBeTrue();
+        expect(pipeline.get(4)).toEqual(50);
+        expect(calls.getValue()).toEqual(1);
+        expect(() -> pipeline.get(10)).toThrow(IndexOutOfBoundsException.class);
+      });
+      it("should not be available after filter", () -> {
+        val pipeline = seq.lazy().filter(x -> true);
+        expect(pipeline.isRandomAccess()).toBeFalse();
+        expect(() -> pipeline.get(0)).toThrow(UnsupportedOperationException.class);
+      });
+    });
+
+    describe("terminal operations", () -> {
+      it("foldl", () -> {
+        expect(seq.lazy().filter(x -> x > 5).foldl(Integer::sum, 0)).toEqual(40);
+      });
+      it("count / countBy", () -> {
+        expect(seq.lazy().map(x -> x).count()).toEqual(10);
+        expect(seq.lazy().filter(x -> x > 5).count()).toEqual(5);
+        expect(seq.lazy().countBy(x -> x > 7)).toEqual(3);
+      });
+      it("forEach", () -> {
+        val sum = Box.intBox(0);
+        seq.lazy().filter(x -> x < 4).forEach(sum::add);
+        expect(sum.getValue()).toEqual(6);
+      });
+      it("findFirst / exists / forAll", () -> {
+        expect(seq.lazy().map(x -> x * x).findFirst(x -> x > 20)).toEqual(Optional.of(25));
+        expect(seq.lazy().findFirst(x -> x > 20)).toEqual(Optional.empty());
+        expect(seq.lazy().exists(x -> x == 3)).toBeTrue();
+        expect(seq.lazy().exists(x -> x == 11)).toBeFalse();
+        expect(seq.lazy().forAll(x -> x > 0)).toBeTrue();
+        expect(seq.lazy().forAll(x -> x > 1)).toBeFalse();
+      });
+      it("toSeq on an empty source", () -> {
+        expect(Seq.<Integer>empty().lazy().map(x -> x).toSeq()).toEqual(Seq.empty());
+        expect(Seq.<Integer>empty().lazy().filter(x -> true).toSeq()).toEqual(Seq.empty());
+      });
+    });
+  }
+}
@@ -5,6 +5,7 @@ import lombok.val;
 
 import java.util.Comparator;
 import java.util.HashMap;
+import java.util.Spliterator;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
@@ -36,6 +37,31 @@ class SeqPropertyChecks {
       it("length() == 0 == isEmpty()", () -> expect(seq.length() == 0 == seq.isEmpty()).toBeTrue());
     });
 
+    describe("spliterator + stream", () -> {
+      it("should be sized, subsized, immutable and ordered", () -> {
+        val spliterator = seq.spliterator();
+        expect(spliterator.hasCharacteristics(Spliterator.SIZED)).toBeTrue();
+        expect(spliterator.hasCharacteristics(Spliterator.SUBSIZED)).toBeTrue();
+        expect(spliterator.hasCharacteristics(Spliterator.IMMUTABLE)).toBeTrue();
+        expect(spliterator.hasCharacteristics(Spliterator.ORDERED)).toBeTrue();
+        expect(spliterator.getExactSizeIfKnown()).toEqual((long) seq.length());
+      });
+      it("splitting should partition the seq", () -> {
+        val right = seq.spliterator();
+        val left = right.trySplit();
+        val b = Seq.<Integer>builder();
+        if (left != null) {
+          left.forEachRemaining(b::add);
+        }
+        right.forEachRemaining(b::add);
+        expect(b.result()).toEqual(seq);
+      });
+      it("a parallel stream collected into a Seq should yield the same seq", () -> {
+        expect(seq.stream().parallel().collect(Seq.collector())).toEqual(seq);
+        expect(seq.stream().parallel().collect(Seq.parallelCollector())).toEqual(seq);
+      });
+    });
+
     describe("builder + forEach", () -> {
       it("iterating and building a new Seq should yield the same seq", () -> {
         val b = Seq.builder();
@@ -0,0 +1,69 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class SeqRopeTest {
+
+  {
+    describe("a concatenation of several seqs", () -> {
+      val seq = Seq.concatView(Seq.of(1, 2), Seq.empty(), Seq.of(2, 4, 9).takeView(2), Seq.of(3).reversed());
+      it("should be a SeqRope", () -> {
+        expect(seq).toBeInstanceOf(SeqRope.class);
+      });
+      SeqExemplaryChecks.checks(seq);
+      SeqPropertyChecks.checks(seq);
+    });
+    describe("a view on a concatenation", () -> {
+      val seq = Seq.concatView(Seq.of(7, 1), Seq.of(2, 2), Seq.of(4, 3, 8)).subSequenceView(1, 6);
+      SeqExemplaryChecks.checks(seq);
+      SeqPropertyChecks.checks(seq);
+    });
+
+    describe("repeated concatenation", () -> {
+      it("should not nest ropes", () -> {
+        Seq<Integer> seq = Seq.empty();
+        for (int i = 0; i < 100; i += 1) {
+          seq = Seq.concatView(seq, Seq.rangeExclusive(i * 100, (i + 1) * 100).trimmedToSize());
+        }
+        expect(seq).toBeInstanceOf(SeqRope.class);
+        expect(seq).toEqual(Seq.rangeExclusive(0, 10_000));
+        for (int i = 0; i < 10_000; i += 97) {
+          expect(seq.get(i)).toEqual(i);
+        }
+      });
+      it("should flatten when fragmented into many small pieces", () -> {
+        Seq<Integer> seq = Seq.empty();
+        for (int i = 0; i <= SeqRope.FLATTEN_THRESHOLD; i += 1) {
+          seq = Seq.concatView(seq, Seq.of(i));
+        }
+        expect(seq).toBeInstanceOf(SeqSimple.class);
+        expect(seq).toEqual(Seq.rangeInclusive(0, SeqRope.FLATTEN_THRESHOLD));
+      });
+      it("should return the only non-empty component", () -> {
+        val s = Seq.of(1, 2, 3);
+        expect(Seq.concatView(Seq.empty(), s, Seq.empty()) == s).toBeTrue();
+      });
+    });
+
+    describe("bulk copies", () -> {
+      val seq = Seq.concatView(Seq.of(1, 2, 3), Seq.of(0, 4, 5).dropView(1), Seq.rangeInclusive(6, 8));
+      it("toArray / trimmedToSize / subSequence", () -> {
+        expect(seq.toArray(Integer.class).length).toEqual(8);
+        expect(seq.trimmedToSize()).toEqual(Seq.rangeInclusive(1, 8));
+        expect(seq.subSequence(2, 7)).toEqual(Seq.rangeInclusive(3, 7));
+        expect(seq.subSequenceView(3, 3)).toEqual(Seq.empty());
+      });
+      it("concat should copy component arrays", () -> {
+        expect(Seq.concat(seq, Seq.of(9).persistent(), Seq.of(10))).toEqual(Seq.rangeInclusive(1, 10));
+      });
+    });
+  }
+}
@@ -0,0 +1,88 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class SeqSelectionTest {
+
+  {
+    describe("bottomK / topK", () -> {
+      val seq = Seq.of(5, 3, 8, 1, 9, 2, 7);
+      it("should return the smallest / largest elements in order", () -> {
+        expect(seq.bottomK(3, Comparator.naturalOrder())).toEqual(Seq.of(1, 2, 3));
+        expect(seq.topK(3, Comparator.naturalOrder())).toEqual(Seq.of(9, 8, 7));
+        expect(seq.bottomKOnInt(2, x -> -x)).toEqual(Seq.of(9, 8));
+        expect(seq.topKOnInt(2, x -> -x)).toEqual(Seq.of(1, 2));
+      });
+      it("should handle k out of range", () -> {
+        expect(seq.bottomK(0, Comparator.naturalOrder())).toEqual(Seq.empty());
+        expect(seq.topK(-1, Comparator.naturalOrder())).toEqual(Seq.empty());
+        expect(seq.bottomK(10, Comparator.naturalOrder())).toEqual(seq.sorted());
+        expect(Seq.<Integer>empty().topKOnInt(3, x -> x)).toEqual(Seq.empty());
+      });
+      it("should keep equal elements in the order of a stable sort", () -> {
+        val pairs = Seq.of(Pair.of(1, "a"), Pair.of(0, "b"), Pair.of(1, "c"), Pair.of(0, "d"), Pair.of(1, "e"));
+        final Comparator<Pair<Integer, String>> byFirst = Comparator.comparing(Pair::getFirst);
+        expect(pairs.bottomK(3, byFirst)).toEqual(pairs.sortedBy(byFirst).take(3));
+        expect(pairs.topK(3, byFirst)).toEqual(pairs.sortedBy(byFirst.reversed()).take(3));
+        expect(pairs.bottomKOnInt(3, Pair::getFirst)).toEqual(pairs.sortedBy(byFirst).take(3));
+        expect(pairs.topKOnInt(3, Pair::getFirst)).toEqual(pairs.sortedBy(byFirst.reversed()).take(3));
+      });
+      it("should agree with sorting on random input", () -> {
+        val random = new Random(42);
+        val input = Seq.rangeExclusive(0, 5000).map(i -> random.nextInt(1000));
+        for (final int k : new int[]{1, 10, 100, 4999}) {
+          expect(input.bottomK(k, Comparator.naturalOrder())).toEqual(input.sorted().take(k));
+          expect(input.topK(k, Comparator.naturalOrder())).toEqual(input.sortedBy(Comparator.reverseOrder()).take(k));
+          expect(input.topKOnInt(k, x -> x)).toEqual(input.sortedBy(Comparator.reverseOrder()).take(k));
+        }
+      });
+    });
+
+    describe("nthElement", () -> {
+      it("should return the element at the given index of the sorted seq", () -> {
+        val random = new Random(7);
+        val input = Seq.rangeExclusive(0, 3000).map(i -> random.nextInt(100));
+        val sorted = input.sorted();
+        for (int i = 0; i < input.length(); i += 131) {
+          expect(input.nthElement(i)).toEqual(sorted.get(i));
+          expect(input.nthElement(i, Comparator.reverseOrder())).toEqual(sorted.get(input.length() - i - 1));
+        }
+      });
+      it("should accept null values", () -> {
+        expect(Seq.of(3, null, 1).nthElement(0)).toEqual(null);
+        expect(Seq.of(3, null, 1).nthElement(2)).toEqual(3);
+      });
+      it("should throw for invalid indices", () -> {
+        expect(() -> Seq.of(1, 2).nthElement(2)).toThrow(IndexOutOfBoundsException.class);
+        expect(() -> Seq.of(1, 2).nthElement(-1)).toThrow(IndexOutOfBoundsException.class);
+      });
+      it("should handle many duplicates", () -> {
+        val input = Seq.concat(Seq.rangeExclusive(0, 4096).map(x -> 1), Seq.rangeExclusive(0, 64));
+        expect(input.nthElement(3000)).toEqual(1);
+        expect(input.nthElement(4159)).toEqual(63);
+        expect(input.mapToInt(x -> x).nthElement(0)).toEqual(0);
+      });
+    });
+
+    describe("partiallySorted", () -> {
+      it("should sort the first k elements and keep the rest in order", () -> {
+        expect(Seq.of(5, 3, 8, 1, 9, 2, 7).partiallySorted(3)).toEqual(Seq.of(1, 2, 3, 5, 8, 9, 7));
+        expect(Seq.of(5, 3, 8).partiallySorted(5)).toEqual(Seq.of(3, 5, 8));
+        expect(Seq.of(5, 3, 8).partiallySorted(0)).toEqual(Seq.of(5, 3, 8));
+        expect(Seq.of(5, 3, 8).partiallySortedBy(1, Comparator.reverseOrder())).toEqual(Seq.of(8, 5, 3));
+        expect(Seq.empty().partiallySorted(2)).toEqual(Seq.empty());
+      });
+    });
+  }
+}
@@ -47,6 +47,34 @@ public class SeqSimpleSortedTest {
       });
     });
 
+    describe("merge based without() / intersect() / symmetricDifference()", () -> {
+      val seq1 = Seq.of(null, 1, 2, 5, 4, 3, 3, 2).sorted();
+      val seq2 = Seq.of(4, 2, 6, 7, 7, 9, 10, 12, -1, 3, 0).sorted();
+      it("without should keep duplicates and produce a sorted seq", () -> {
+        expect(seq1.without(seq2)).toEqual(Seq.of(null, 1, 5));
+        expect(seq1.without(seq2)).toBeInstanceOf(SeqSimpleSorted.class);
+        expect(Seq.of(1, 1, 2).sorted().without(Seq.of(2).sorted())).toEqual(Seq.of(1, 1));
+      });
+      it("intersect should produce a distinct sorted seq", () -> {
+        expect(seq1.intersect(seq2)).toEqual(Seq.of(2, 3, 4));
+        expect(seq1.intersect(seq2)).toBeInstanceOf(SeqSimpleSorted.class);
+        expect(seq1.intersect(Seq.of(3, 2, 3))).toEqual(Seq.of(2, 3));
+      });
+      it("symmetricDifference should produce a distinct sorted seq", () -> {
+        expect(seq1.symmetricDifference(seq2)).toEqual(Seq.of(null, -1, 0, 1, 5, 6, 7, 9, 10, 12));
+        expect(seq1.symmetricDifference(Seq.of(7, 3))).toEqual(Seq.of(null, 1, 2, 4, 5, 7));
+      });
+      it("should agree with the hash based implementations", () -> {
+        final Seq<Seq<Integer>> seqs = Seq.of(2, null, 2, 4).permutations().flatMap(Seq::tails).map(Seq::sorted);
+        seqs.forEach(seqL -> seqs.forEach(seqR -> {
+          val l = seqL.trimmedToSize().subSequenceView(0, seqL.length());
+          expect(seqL.without(seqR)).toEqual(l.without(seqR.map(x -> x)));
+          expect(seqL.intersect(seqR)).toEqual(l.intersect(seqR.map(x -> x)));
+          expect(Set.ofSeq(seqL.symmetricDifference(seqR))).toEqual(Set.ofSeq(l.symmetricDifference(seqR.map(x -> x))));
+        }));
+      });
+    });
+
     describe("minimum()", () -> {
       it("should find minimum in sorted seq", () -> {
         expect(Seq.of(1, 2, 3).sorted().minimum()).toEqual(1);
@@ -0,0 +1,60 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.util.Comparator;
+import java.util.Random;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class SeqSortingTest {
+
+  {
+    describe("sortedOn", () -> {
+      val pairs = Seq.of(Pair.of(3, "a"), Pair.of(1, "b"), Pair.of(3, "c"), Pair.of(-2, "d"), Pair.of(1, "e"));
+      val expected = Seq.of(Pair.of(-2, "d"), Pair.of(1, "b"), Pair.of(1, "e"), Pair.of(3, "a"), Pair.of(3, "c"));
+      it("should sort stably by the extracted key", () -> {
+        expect(pairs.sortedOn(Pair::getFirst)).toEqual(expected);
+        expect(pairs.sortedOnInt(Pair::getFirst)).toEqual(expected);
+        expect(pairs.sortedOnLong(p -> (long) p.getFirst())).toEqual(expected);
+        expect(pairs.sortedOnDouble(p -> (double) p.getFirst())).toEqual(expected);
+      });
+      it("should return a SeqSimple", () -> {
+        expect(pairs.sortedOn(Pair::getFirst)).toBeInstanceOf(SeqSimple.class);
+        expect(pairs.sortedOnInt(Pair::getFirst)).toBeInstanceOf(SeqSimple.class);
+      });
+      it("should compute every key exactly once", () -> {
+        val calls = Box.box(0);
+        val result = Seq.rangeExclusive(0, 1000).reversed().sortedOn(x -> {
+          calls.accept(calls.get() + 1);
+          return x;
+        });
+        expect(result).toEqual(Seq.rangeExclusive(0, 1000));
+        expect(calls.get()).toEqual(1000);
+      });
+      it("should handle empty seqs and extreme keys", () -> {
+        expect(Seq.<Integer>empty().sortedOn(x -> x)).toEqual(Seq.empty());
+        expect(Seq.<Integer>empty().sortedOnInt(x -> x)).toEqual(Seq.empty());
+        val extremes = Seq.of(Integer.MAX_VALUE, 0, Integer.MIN_VALUE, -1, 1);
+        expect(extremes.sortedOnInt(x -> x)).toEqual(extremes.sorted());
+        expect(Seq.of(Long.MAX_VALUE, Long.MIN_VALUE, 0L).sortedOnLong(x -> x)).toEqual(Seq.of(Long.MIN_VALUE, 0L, Long.MAX_VALUE));
+      });
+      it("should agree with a stable sortedBy on random input", () -> {
+        val random = new Random(3);
+        val input = Seq.rangeExclusive(0, 5000).map(i -> Pair.of(random.nextInt(200), i));
+        final Comparator<Pair<Integer, Integer>> byFirst = Comparator.comparing(Pair::getFirst);
+        val expectedRandom = input.sortedBy(byFirst);
+        expect(input.sortedOn(Pair::getFirst)).toEqual(expectedRandom);
+        expect(input.sortedOnInt(Pair::getFirst)).toEqual(expectedRandom);
+        expect(input.sortedOnLong(Pair::getFirst)).toEqual(expectedRandom);
+        expect(input.sortedOnDouble(p -> p.getFirst() / 7.0)).toEqual(expectedRandom);
+      });
+    });
+  }
+}
@@ -31,6 +31,23 @@ public class SeqTest {
       });
     });
 
+    describe("without / intersect / symmetricDifference on large seqs", () -> {
+      val left = Seq.rangeExclusive(0, 20_000).map(x -> (x * 31) % 20_000).trimmedToSize();
+      val right = Seq.rangeExclusive(10_000, 30_000).trimmedToSize();
+      it("without", () -> {
+        val result = left.without(right);
+        expect(result.length()).toEqual(10_000);
+        expect(result).toEqual(left.filter(x -> x < 10_000));
+      });
+      it("intersect", () -> {
+        expect(left.intersect(right)).toEqual(left.filter(x -> x >= 10_000));
+      });
+      it("symmetricDifference", () -> {
+        expect(left.symmetricDifference(right))
+          .toEqual(Seq.concat(left.filter(x -> x < 10_000), Seq.rangeExclusive(20_000, 30_000)));
+      });
+    });
+
     describe("static methods", () -> {
       describe("empty", () -> {
         it("should produce a sequence of size 0", () -> {
@@ -447,5 +464,34 @@ public class SeqTest {
         expect(() -> seq.get(10)).toThrow(IndexOutOfBoundsException.class);
       });
     });
+    describe("chunked/windowed/batchStream", () -> {
+      val seq = Seq.rangeInclusive(1, 7);
+      it("chunked", () -> {
+        expect(seq.chunked(3)).toEqual(Seq.of(Seq.of(1, 2, 3), Seq.of(4, 5, 6), Seq.of(7)));
+        expect(seq.chunked(7)).toEqual(Seq.of(seq));
+        expect(seq.chunked(10)).toEqual(Seq.of(seq));
+        expect(Seq.empty().chunked(2)).toEqual(Seq.empty());
+        expect(() -> seq.chunked(0)).toThrow(IllegalArgumentException.class);
+      });
+      it("chunks should be views", () -> {
+        expect(seq.trimmedToSize().chunked(2).get(1)).toBeInstanceOf(SeqSimpleView.class);
+      });
+      it("windowed", () -> {
+        expect(seq.windowed(5)).toEqual(Seq.of(Seq.of(1, 2, 3, 4, 5), Seq.of(2, 3, 4, 5, 6), Seq.of(3, 4, 5, 6, 7)));
+        expect(seq.windowed(3, 2)).toEqual(Seq.of(Seq.of(1, 2, 3), Seq.of(3, 4, 5), Seq.of(5, 6, 7)));
+        expect(seq.windowed(2, 4)).toEqual(Seq.of(Seq.of(1, 2), Seq.of(5, 6)));
+        expect(seq.windowed(8)).toEqual(Seq.empty());
+        expect(() -> seq.windowed(2, 0)).toThrow(IllegalArgumentException.class);
+      });
+      it("batchStream", () -> {
+        expect(Seq.rangeExclusive(0, 10_000).batchStream(1000).parallel().mapToInt(Seq::length).sum()).toEqual(10_000);
+        expect(seq.batchStream(4).count()).toEqual(2L);
+      });
+      it("should be lazy", () -> {
+        final Seq<Seq<Integer>> chunks = Seq.rangeExclusive(0, 10_000_000).chunked(1000);
+        expect(chunks.length()).toEqual(10_000);
+        expect(chunks.get(9_999).last()).toEqual(9_999_999);
+      });
+    });
   }
 }
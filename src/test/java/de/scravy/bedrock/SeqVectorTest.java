@@ -0,0 +1,105 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class SeqVectorTest {
+
+  {
+    describe("a persistent seq", () -> {
+      val seq = Seq.of(1, 2, 2, 4, 3).persistent();
+      it("should be a SeqVector", () -> {
+        expect(seq).toBeInstanceOf(SeqVector.class);
+        expect(seq.persistent() == seq).toBeTrue();
+      });
+      SeqExemplaryChecks.checks(seq);
+      SeqPropertyChecks.checks(seq);
+    });
+    describe("a persistent seq built by appending and prepending", () -> {
+      val seq = Seq.<Integer>empty().persistent().appended(2).appended(4).appended(3).prepended(2).prepended(1);
+      SeqExemplaryChecks.checks(seq);
+      SeqPropertyChecks.checks(seq);
+    });
+    describe("a slice of a large persistent seq", () -> {
+      val seq = Seq.concat(Seq.rangeExclusive(0, 1000), Seq.of(1, 2, 2, 4, 3), Seq.rangeExclusive(0, 1000))
+        .persistent()
+        .subSequence(1000, 1005);
+      SeqExemplaryChecks.checks(seq);
+      SeqPropertyChecks.checks(seq);
+    });
+
+    describe("persistent operations", () -> {
+      val n = 10_000;
+      it("appended should match a list being appended to", () -> {
+        Seq<Integer> seq = Seq.<Integer>empty().persistent();
+        val list = new ArrayList<Integer>();
+        for (int i = 0; i < n; i += 1) {
+          seq = seq.appended(i);
+          list.add(i);
+        }
+        expect(seq).toEqual(Seq.ofCollection(list));
+        expect(seq.get(n / 2)).toEqual(n / 2);
+      });
+      it("prepended should match a list being prepended to", () -> {
+        Seq<Integer> seq = Seq.<Integer>empty().persistent();
+        val list = new ArrayList<Integer>();
+        for (int i = 0; i < n; i += 1) {
+          seq = seq.prepended(i);
+          list.add(0, i);
+        }
+        expect(seq).toEqual(Seq.ofCollection(list));
+      });
+      it("updated should not modify the original", () -> {
+        val original = Seq.rangeExclusive(0, n).persistent();
+        val updated = original.updated(1234, -1);
+        expect(original.get(1234)).toEqual(1234);
+        expect(updated.get(1234)).toEqual(-1);
+        expect(updated.get(1235)).toEqual(1235);
+        expect(updated.length()).toEqual(n);
+        expect(() -> original.updated(n, 0)).toThrow(IndexOutOfBoundsException.class);
+      });
+      it("appendedAll should concatenate", () -> {
+        Seq<Integer> seq = Seq.<Integer>empty().persistent();
+        for (int i = 0; i < 100; i += 1) {
+          seq = seq.appendedAll(Seq.rangeExclusive(i * 37, (i + 1) * 37).persistent());
+        }
+        expect(seq).toEqual(Seq.rangeExclusive(0, 3700));
+        expect(Seq.of(1).persistent().appendedAll(Seq.of(2, 3))).toEqual(Seq.of(1, 2, 3));
+      });
+      it("subSequence should slice", () -> {
+        val seq = Seq.rangeExclusive(0, n).persistent();
+        expect(seq.subSequence(33, 4567)).toEqual(Seq.rangeExclusive(33, 4567));
+        expect(seq.subSequence(0, n)).toEqual(seq);
+        expect(seq.subSequence(10, 5)).toEqual(Seq.empty());
+        expect(seq.subSequenceView(n - 3, n + 10)).toEqual(Seq.of(n - 3, n - 2, n - 1));
+      });
+      it("equals and hashCode should agree with the non-persistent seq", () -> {
+        val plain = Seq.rangeExclusive(0, 100).trimmedToSize();
+        val vector = plain.persistent();
+        expect(vector).toEqual(plain);
+        expect(vector.hashCode()).toEqual(plain.hashCode());
+        expect(vector.toArray(Integer.class).length).toEqual(100);
+      });
+    });
+
+    describe("the non-persistent fallbacks", () -> {
+      it("appended / prepended / updated / appendedAll", () -> {
+        val seq = Seq.of(1, 2, 3);
+        expect(seq.appended(4)).toEqual(Seq.of(1, 2, 3, 4));
+        expect(seq.prepended(0)).toEqual(Seq.of(0, 1, 2, 3));
+        expect(seq.updated(1, 5)).toEqual(Seq.of(1, 5, 3));
+        expect(seq.appendedAll(Seq.of(4, 5))).toEqual(Seq.of(1, 2, 3, 4, 5));
+        expect(seq).toEqual(Seq.of(1, 2, 3));
+      });
+    });
+  }
+}
@@ -3,9 +3,11 @@ package de.scravy.bedrock;
 import com.greghaskins.spectrum.Spectrum;
 import org.junit.runner.RunWith;
 
+import java.time.DayOfWeek;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.Random;
 import java.util.TreeSet;
 
 import static com.greghaskins.spectrum.Spectrum.describe;
@@ -96,6 +98,195 @@ public class SetTest {
         expect(Set.empty().toString()).toEqual("∅");
       });
     });
+
+    describe("hashed", () -> {
+      final Set<String> plain = Set.ofSeq(Seq.rangeExclusive(0, 1000).<String>map(i -> "s" + i));
+      final Set<String> hashed = plain.hashed();
+      it("should be equal to the plain Set", () -> {
+        expect(hashed).toEqual(plain);
+        expect(hashed.hashCode()).toEqual(plain.hashCode());
+        expect(hashed.toSeq()).toEqual(plain.toSeq());
+        expect(hashed.isHashed()).toBeTrue();
+        expect(plain.isHashed()).toBeFalse();
+        expect(hashed.hashed() == hashed).toBeTrue();
+        expect(Set.empty().hashed() == Set.empty()).toBeTrue();
+      });
+      it("contains / containsAll / containsAny", () -> {
+        expect(hashed.contains("s999")).toBeTrue();
+        expect(hashed.contains("s1000")).toBeFalse();
+        expect(hashed.contains(null)).toBeFalse();
+        expect(hashed.containsAll(Seq.of("s1", "s2"))).toBeTrue();
+        expect(hashed.containsAll(Set.of("s1", "x"))).toBeFalse();
+        expect(hashed.containsAny(Set.of("x", "s7"))).toBeTrue();
+        expect(hashed.containsAny(Seq.of("x", "y"))).toBeFalse();
+      });
+      it("should derive plain Sets", () -> {
+        expect(hashed.filter(x -> x.endsWith("0")).isHashed()).toBeFalse();
+        expect(hashed.union(Set.of("x")).contains("x")).toBeTrue();
+      });
+    });
+
+    describe("bitmap", () -> {
+      it("should back dense Sets of Integers and enum constants", () -> {
+        expect(Set.of(3, 1, 2).isBitmap()).toBeTrue();
+        expect(Set.of(DayOfWeek.FRIDAY, DayOfWeek.MONDAY).isBitmap()).toBeTrue();
+        expect(Set.of(0, 1_000_000).isBitmap()).toBeFalse();
+        expect(Set.of(Integer.MIN_VALUE, Integer.MAX_VALUE).isBitmap()).toBeFalse();
+        expect(Set.of(1, null).isBitmap()).toBeFalse();
+        expect(Set.of("a", "b").isBitmap()).toBeFalse();
+        expect(Set.ofSeq(Seq.rangeInclusive(Integer.MAX_VALUE - 100, Integer.MAX_VALUE)).isBitmap()).toBeTrue();
+        expect(Set.ofSeq(Seq.rangeInclusive(Integer.MIN_VALUE, Integer.MIN_VALUE + 100)).isBitmap()).toBeTrue();
+      });
+      it("should behave like an array backed Set", () -> {
+        final Set<DayOfWeek> days = Set.of(DayOfWeek.SUNDAY, DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY);
+        expect(days.toSeq()).toEqual(Seq.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.SUNDAY));
+        expect(days.toSeq() == days.toSeq()).toBeTrue();
+        expect(days.toString()).toEqual("{MONDAY, WEDNESDAY, SUNDAY}");
+        expect(days.hashCode()).toEqual(days.toSeq().hashCode());
+        expect(days.size()).toEqual(3);
+        expect(days.minimum()).toEqual(DayOfWeek.MONDAY);
+        expect(days.maximum()).toEqual(DayOfWeek.SUNDAY);
+        expect(days.contains(DayOfWeek.WEDNESDAY)).toBeTrue();
+        expect(days.contains(DayOfWeek.TUESDAY)).toBeFalse();
+        expect(days.contains(null)).toBeFalse();
+        expect(days.containsAll(Seq.of(DayOfWeek.MONDAY, DayOfWeek.SUNDAY))).toBeTrue();
+        expect(days.forAll(d -> d != DayOfWeek.FRIDAY)).toBeTrue();
+        expect(days.exists(d -> d == DayOfWeek.FRIDAY)).toBeFalse();
+        expect(days.contains(days.draw())).toBeTrue();
+        expect(days.filter(d -> d.getValue() < 7)).toEqual(Set.of(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY));
+        expect(days.hashed() == days).toBeTrue();
+        expect(days.toList()).toEqual(Arrays.asList(DayOfWeek.MONDAY, DayOfWeek.WEDNESDAY, DayOfWeek.SUNDAY));
+        final Set<Integer> negative = Set.of(-1, -64, -65, 0, 63, 64);
+        expect(negative.toSeq()).toEqual(Seq.of(-65, -64, -1, 0, 63, 64));
+        expect(negative.contains(-65)).toBeTrue();
+        expect(negative.contains(-66)).toBeFalse();
+        expect(negative.contains(65)).toBeFalse();
+      });
+      it("should switch to an array if a result is too sparse", () -> {
+        final Set<Integer> dense = Set.ofSeq(Seq.rangeExclusive(0, 128)).union(Set.of(1_000_000));
+        expect(dense.isBitmap()).toBeFalse();
+        expect(dense.size()).toEqual(129);
+        final Set<Integer> sparse = dense.intersect(Set.of(0, 1_000_000));
+        expect(sparse).toEqual(Set.of(0, 1_000_000));
+        final Set<Integer> wide = Set.ofSeq(Seq.concat(Seq.rangeExclusive(0, 64), Seq.rangeExclusive(256, 320)));
+        expect(wide.isBitmap()).toBeTrue();
+        expect(wide.filter(i -> i % 64 == 0).isBitmap()).toBeFalse();
+        expect(wide.filter(i -> i % 64 == 0)).toEqual(Set.of(0, 256));
+        expect(wide.without(Set.of(0, 1, 2))).toEqual(wide.filter(i -> i > 2));
+      });
+      it("should be built from unboxed codes by the SetBuilder", () -> {
+        final SetBuilder<Integer> builder = Set.builder();
+        for (int i = 0; i < 10_000; i += 1) {
+          builder.add(i % 100);
+        }
+        expect(Seq.ofIterable(builder)).toEqual(Seq.rangeExclusive(0, 100));
+        final Set<Integer> result = builder.result();
+        expect(result.isBitmap()).toBeTrue();
+        expect(result).toEqual(Set.ofSeq(Seq.rangeExclusive(0, 100)));
+        builder.add(null);
+        expect(builder.result()).toEqual(Set.ofSeq(Seq.rangeExclusive(0, 100).prepended(null)));
+        expect(Set.<Integer>builder().add(7).add(-1_000_000_000).result().toSeq()).toEqual(Seq.of(-1_000_000_000, 7));
+        expect(Seq.of(DayOfWeek.MONDAY, DayOfWeek.SUNDAY).stream().collect(Set.builder()).isBitmap()).toBeTrue();
+        expect(Set.<Integer>builder().result()).toEqual(Set.empty());
+      });
+      final Random random = new Random(23);
+      final int[] spreads = {1, 3, 1_000_003};
+      for (final int spreadX : spreads) {
+        for (final int spreadY : spreads) {
+          it("should agree with java.util.TreeSet for spreads " + spreadX + " and " + spreadY, () -> {
+            final TreeSet<Integer> a = new TreeSet<>();
+            final TreeSet<Integer> b = new TreeSet<>();
+            for (int i = 0; i < 500; i += 1) {
+              a.add((random.nextInt(1000) - 500) * spreadX);
+              b.add((random.nextInt(1000) - 500) * spreadY);
+            }
+            final Set<Integer> x = Set.ofCollection(a);
+            final Set<Integer> y = Set.ofCollection(b);
+            final TreeSet<Integer> union = new TreeSet<>(a);
+            union.addAll(b);
+            final TreeSet<Integer> intersection = new TreeSet<>(a);
+            intersection.retainAll(b);
+            final TreeSet<Integer> difference = new TreeSet<>(a);
+            difference.removeAll(b);
+            expect(x.union(y).toSeq()).toEqual(Seq.ofCollection(union));
+            expect(x.intersect(y).toSeq()).toEqual(Seq.ofCollection(intersection));
+            expect(x.without(y).toSeq()).toEqual(Seq.ofCollection(difference));
+            expect(x.union(y)).toEqual(Set.ofCollection(union));
+            expect(x.intersect(y)).toEqual(Set.ofCollection(intersection));
+            expect(x.without(y)).toEqual(Set.ofCollection(difference));
+            expect(Set.unionAll(Seq.of(x, y, x.intersect(y)))).toEqual(Set.ofCollection(union));
+            expect(x.containsAll(y)).toEqual(a.containsAll(b));
+            expect(x.containsAll(x.intersect(y))).toBeTrue();
+            expect(x.containsAny(y)).toEqual(!intersection.isEmpty());
+            expect(x.containsAny(x.without(y))).toEqual(!difference.isEmpty());
+            expect(x.minimum()).toEqual(a.first());
+            expect(x.maximum()).toEqual(a.last());
+            for (int i = -600; i < 600; i += 1) {
+              expect(x.contains(i * spreadX)).toEqual(a.contains(i * spreadX));
+            }
+          });
+        }
+      }
+    });
+
+    describe("merge operations", () -> {
+      final Random random = new Random(21);
+      final int[][] sizes = {{1, 1}, {5, 300}, {300, 5}, {200, 250}, {1000, 3}, {3, 1000}, {64, 64}};
+      for (final int[] size : sizes) {
+        it("should agree with java.util.TreeSet for sizes " + size[0] + " and " + size[1], () -> {
+          final TreeSet<Integer> a = new TreeSet<>();
+          final TreeSet<Integer> b = new TreeSet<>();
+          while (a.size() < size[0]) {
+            a.add(random.nextInt(2000));
+          }
+          while (b.size() < size[1]) {
+            b.add(random.nextInt(2000));
+          }
+          final Set<Integer> x = Set.ofCollection(a);
+          final Set<Integer> y = Set.ofCollection(b);
+          final TreeSet<Integer> intersection = new TreeSet<>(a);
+          intersection.retainAll(b);
+          expect(x.intersect(y)).toEqual(Set.ofCollection(intersection));
+          final TreeSet<Integer> difference = new TreeSet<>(a);
+          difference.removeAll(b);
+          expect(x.without(y)).toEqual(Set.ofCollection(difference));
+          expect(x.containsAll(y)).toEqual(a.containsAll(b));
+          expect(x.containsAll(x.intersect(y))).toBeTrue();
+          expect(x.containsAny(y)).toEqual(!intersection.isEmpty());
+          expect(x.containsAny(x.without(y))).toEqual(!difference.isEmpty());
+        });
+      }
+      it("should return the same Set if nothing is removed", () -> {
+        final Set<Integer> set = Set.of(1, 3, 5);
+        expect(set.without(Set.of(2, 4)) == set).toBeTrue();
+        expect(set.intersect(Set.of(1, 2, 3, 4, 5)) == set).toBeTrue();
+        expect(set.intersect(Set.of(2, 4))).toEqual(Set.empty());
+      });
+      it("containsAll / containsAny with empty Sets", () -> {
+        expect(Set.of(1).containsAll(Set.empty())).toBeTrue();
+        expect(Set.<Integer>empty().containsAll(Set.empty())).toBeTrue();
+        expect(Set.of(1).containsAny(Set.empty())).toBeFalse();
+        expect(Set.of(1, 2).containsAll(Set.of(1, 2, 3))).toBeFalse();
+      });
+      it("unionAll", () -> {
+        expect(Set.unionAll(Seq.of(Set.of(1, 5), Set.empty(), Set.of(2, 5, 9), Set.of(0, 9))))
+          .toEqual(Set.of(0, 1, 2, 5, 9));
+        expect(Set.unionAll(Seq.<Set<Integer>>empty())).toEqual(Set.empty());
+        final Set<Integer> single = Set.of(4, 2);
+        expect(Set.unionAll(Seq.of(Set.empty(), single)) == single).toBeTrue();
+        final ArrayList<Set<Integer>> sets = new ArrayList<>();
+        final TreeSet<Integer> all = new TreeSet<>();
+        for (int i = 0; i < 50; i += 1) {
+          final TreeSet<Integer> part = new TreeSet<>();
+          for (int j = 0; j < 40; j += 1) {
+            part.add(random.nextInt(1000));
+          }
+          all.addAll(part);
+          sets.add(Set.ofCollection(part));
+        }
+        expect(Set.unionAll(Seq.ofCollection(sets))).toEqual(Set.ofCollection(all));
+      });
+    });
   }
 
 }
@@ -0,0 +1,199 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class TrieMapTest {
+
+  /**
+   * A key with a poor hash function, so that many keys collide.
+   */
+  @RequiredArgsConstructor
+  @EqualsAndHashCode
+  private static final class Key {
+    private final int id;
+    @EqualsAndHashCode.Exclude
+    private final int hash;
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+
+  private static Key key(final int id) {
+    return new Key(id, id % 7 == 0 ? 42 : id % 500);
+  }
+
+  private static <K, V> void expectSame(final TrieMap<K, V> trieMap, final Map<K, V> map) {
+    expect(trieMap.size()).toEqual(map.size());
+    expect(trieMap.toMap()).toEqual(map);
+    expect(trieMap).toEqual(TrieMap.ofMap(map));
+    expect(trieMap.hashCode()).toEqual(TrieMap.ofMap(map).hashCode());
+    expect(trieMap.keys().length()).toEqual(map.size());
+    expect(trieMap.values().length()).toEqual(map.size());
+    for (final Map.Entry<K, V> entry : map.entrySet()) {
+      expect(trieMap.get(entry.getKey())).toEqual(Optional.ofNullable(entry.getValue()));
+    }
+  }
+
+  {
+    describe("a TrieMap", () -> {
+      val map = TrieMap.of(Pair.of("a", 1), Pair.of("b", 2), Pair.of(null, 3), Pair.of("c", null));
+      it("get / containsKey / size", () -> {
+        expect(map.size()).toEqual(4);
+        expect(map.get("a")).toEqual(Optional.of(1));
+        expect(map.get(null)).toEqual(Optional.of(3));
+        expect(map.get("c")).toEqual(Optional.empty());
+        expect(map.containsKey("c")).toBeTrue();
+        expect(map.containsKey("d")).toBeFalse();
+        expect(map.apply("b")).toEqual(2);
+        expect(TrieMap.empty().isEmpty()).toBeTrue();
+      });
+      it("put / remove should not modify the original", () -> {
+        val updated = map.put("a", 10).put("d", 4).remove(null);
+        expect(updated.get("a")).toEqual(Optional.of(10));
+        expect(updated.get("d")).toEqual(Optional.of(4));
+        expect(updated.containsKey(null)).toBeFalse();
+        expect(updated.size()).toEqual(4);
+        expect(map.get("a")).toEqual(Optional.of(1));
+        expect(map.containsKey(null)).toBeTrue();
+        expect(map.put("a", 1) == map).toBeTrue();
+        expect(map.remove("x") == map).toBeTrue();
+        expect(TrieMap.of(Pair.of("x", 1)).remove("x") == TrieMap.<String, Integer>empty()).toBeTrue();
+      });
+      it("union should prefer the values of the left hand side", () -> {
+        val other = TrieMap.of(Pair.of("a", 100), Pair.of("e", 5));
+        val union = map.union(other);
+        expect(union.size()).toEqual(5);
+        expect(union.get("a")).toEqual(Optional.of(1));
+        expect(union.get("e")).toEqual(Optional.of(5));
+        expect(map.union(map) == map).toBeTrue();
+        expect(map.union(TrieMap.empty()) == map).toBeTrue();
+        expect(TrieMap.<String, Integer>empty().union(map) == map).toBeTrue();
+      });
+      it("intersect / without", () -> {
+        val other = TrieMap.of(Pair.of("a", 100), Pair.of("c", 0), Pair.of("e", 5));
+        expect(map.intersect(other)).toEqual(TrieMap.of(Pair.of("a", 1), Pair.of("c", null)));
+        expect(map.without(other)).toEqual(TrieMap.of(Pair.of("b", 2), Pair.of(null, 3)));
+        expect(map.intersect(map) == map).toBeTrue();
+        expect(map.without(map)).toEqual(TrieMap.empty());
+      });
+      it("should only be equal to TrieMaps with the same entries", () -> {
+        val arrayMap = ArrayMap.of(Pair.of("x", 1), Pair.of("y", 2));
+        val trieMap = TrieMap.of(Pair.of("y", 2), Pair.of("x", 1));
+        expect(trieMap.equals(TrieMap.ofMap(arrayMap.toMap()))).toBeTrue();
+        expect(trieMap.equals(arrayMap)).toBeFalse();
+        expect(trieMap.equals(TrieMap.of(Pair.of("y", 2), Pair.of("x", 3)))).toBeFalse();
+        expect(trieMap.equals(TrieMap.of(Pair.of("y", 2)))).toBeFalse();
+        expect(trieMap.equals("xy")).toBeFalse();
+        expect(TrieMap.empty().equals(Mapping.empty())).toBeFalse();
+        expect(TrieMap.empty().hashCode()).toEqual(0);
+        expect(trieMap.equals(TrieMap.of(Pair.of("y", 2), Pair.of("x", null)))).toBeFalse();
+        expect(TrieMap.of(Pair.of("x", 1)).toString()).toEqual("{ x = 1 }");
+      });
+    });
+
+    describe("a TrieMapBuilder", () -> {
+      it("should build a map in place", () -> {
+        val builder = TrieMap.<Integer, Integer>builder();
+        for (int i = 0; i < 10_000; i += 1) {
+          builder.add(i, i * i);
+        }
+        builder.remove(5).remove(-1);
+        expect(builder.size()).toEqual(9_999);
+        val first = builder.result();
+        builder.add(5, 25).add(1, -1);
+        val second = builder.result();
+        expect(first.size()).toEqual(9_999);
+        expect(first.get(1)).toEqual(Optional.of(1));
+        expect(first.containsKey(5)).toBeFalse();
+        expect(second.size()).toEqual(10_000);
+        expect(second.get(1)).toEqual(Optional.of(-1));
+        expect(Seq.ofIterable(builder).length()).toEqual(10_000);
+        expect(TrieMap.<Integer, Integer>builder().isEmpty()).toBeTrue();
+      });
+      it("toBuilder should not modify the original", () -> {
+        val original = TrieMap.of(Pair.of(1, "a"), Pair.of(2, "b"));
+        val changed = original.toBuilder().add(3, "c").remove(1).result();
+        expect(original).toEqual(TrieMap.of(Pair.of(1, "a"), Pair.of(2, "b")));
+        expect(changed).toEqual(TrieMap.of(Pair.of(2, "b"), Pair.of(3, "c")));
+      });
+    });
+
+    describe("random operations should agree with java.util.HashMap", () -> {
+      val random = new Random(24);
+      for (final int range : new int[]{50, 2_000, 100_000}) {
+        it("for keys out of " + range, () -> {
+          final Map<Key, Integer> expected = new HashMap<>();
+          final TrieMapBuilder<Key, Integer> builder = TrieMap.builder();
+          TrieMap<Key, Integer> persistent = TrieMap.empty();
+          for (int i = 0; i < 5_000; i += 1) {
+            final Key key = key(random.nextInt(range));
+            if (random.nextInt(3) == 0) {
+              expected.remove(key);
+              builder.remove(key);
+              persistent = persistent.remove(key);
+            } else {
+              expected.put(key, i);
+              builder.add(key, i);
+              persistent = persistent.put(key, i);
+            }
+          }
+          expectSame(persistent, expected);
+          expectSame(builder.result(), expected);
+          final Map<Key, Integer> other = new HashMap<>();
+          for (int i = 0; i < 3_000; i += 1) {
+            other.put(key(random.nextInt(range)), -i);
+          }
+          final TrieMap<Key, Integer> otherTrieMap = TrieMap.ofMap(other);
+          final Map<Key, Integer> union = new HashMap<>(other);
+          union.putAll(expected);
+          expectSame(persistent.union(otherTrieMap), union);
+          final Map<Key, Integer> intersection = new HashMap<>(expected);
+          intersection.keySet().retainAll(other.keySet());
+          expectSame(persistent.intersect(otherTrieMap), intersection);
+          final Map<Key, Integer> difference = new HashMap<>(expected);
+          difference.keySet().removeAll(other.keySet());
+          expectSame(persistent.without(otherTrieMap), difference);
+          final TrieMap<Key, Integer> updated = persistent.put(key(range), 0).remove(key(0));
+          expectSame(updated.union(persistent), union(updated, persistent));
+          expectSame(persistent.intersect(updated), intersection(persistent, updated));
+          expectSame(updated.without(persistent), difference(updated, persistent));
+        });
+      }
+    });
+  }
+
+  private static <K, V> Map<K, V> union(final TrieMap<K, V> a, final TrieMap<K, V> b) {
+    final Map<K, V> result = new HashMap<>(b.toMap());
+    result.putAll(a.toMap());
+    return result;
+  }
+
+  private static <K, V> Map<K, V> intersection(final TrieMap<K, V> a, final TrieMap<K, V> b) {
+    final Map<K, V> result = new HashMap<>(a.toMap());
+    result.keySet().retainAll(b.toMap().keySet());
+    return result;
+  }
+
+  private static <K, V> Map<K, V> difference(final TrieMap<K, V> a, final TrieMap<K, V> b) {
+    final Map<K, V> result = new HashMap<>(a.toMap());
+    result.keySet().removeAll(b.toMap().keySet());
+    return result;
+  }
+}
@@ -0,0 +1,98 @@
+package de.scravy.bedrock;
+
+import com.greghaskins.spectrum.Spectrum;
+import lombok.val;
+import org.junit.runner.RunWith;
+
+import java.util.HashSet;
+import java.util.Random;
+
+import static com.greghaskins.spectrum.Spectrum.describe;
+import static com.greghaskins.spectrum.Spectrum.it;
+import static com.mscharhag.oleaster.matcher.Matchers.expect;
+
+@SuppressWarnings({"ClassInitializerMayBeStatic", "CodeBlock2Expr"})
+@RunWith(Spectrum.class)
+public class TrieSetTest {
+
+  {
+    describe("a TrieSet", () -> {
+      val set = TrieSet.of("a", "b", null, "b");
+      it("contains / size", () -> {
+        expect(set.size()).toEqual(3);
+        expect(set.contains("a")).toBeTrue();
+        expect(set.contains(null)).toBeTrue();
+        expect(set.contains("c")).toBeFalse();
+        expect(TrieSet.empty().isEmpty()).toBeTrue();
+        expect(TrieSet.empty().toString()).toEqual("∅");
+        expect(TrieSet.of(1).toString()).toEqual("{1}");
+      });
+      it("add / remove should not modify the original", () -> {
+        val updated = set.add("c").remove("a");
+        expect(updated).toEqual(TrieSet.of("b", "c", null));
+        expect(set).toEqual(TrieSet.of("a", "b", null));
+        expect(set.add("a") == set).toBeTrue();
+        expect(set.remove("x") == set).toBeTrue();
+      });
+      it("union / intersect / without", () -> {
+        val other = TrieSet.of("b", "c");
+        expect(set.union(other)).toEqual(TrieSet.of("a", "b", "c", null));
+        expect(set.intersect(other)).toEqual(TrieSet.of("b"));
+        expect(set.without(other)).toEqual(TrieSet.of("a", null));
+        expect(set.union(set) == set).toBeTrue();
+        expect(set.without(set)).toEqual(TrieSet.empty());
+      });
+      it("equals / hashCode", () -> {
+        expect(TrieSet.of(1, 2, 3).hashCode()).toEqual(6);
+        expect(TrieSet.of(1, 2, 3).equals(TrieSet.of(3, 2, 1))).toBeTrue();
+        expect(TrieSet.of(1, 2, 3).equals(TrieSet.of(3, 2))).toBeFalse();
+        expect(TrieSet.of(1, 2, 3).equals(TrieSet.of(3, 2, 4))).toBeFalse();
+        expect(TrieSet.of(1).equals(Set.of(1))).toBeFalse();
+      });
+      it("toBuilder / toSeq", () -> {
+        val original = TrieSet.ofIterable(Seq.rangeExclusive(0, 1000));
+        val builder = original.toBuilder();
+        Seq.rangeExclusive(0, 500).forEach(builder::remove);
+        val half = builder.result();
+        expect(half.size()).toEqual(500);
+        expect(builder.size()).toEqual(500);
+        expect(builder.isEmpty()).toBeFalse();
+        expect(Seq.ofIterable(builder).sorted()).toEqual(Seq.rangeExclusive(500, 1000));
+        expect(original.size()).toEqual(1000);
+        expect(half.toSeq().sorted()).toEqual(Seq.rangeExclusive(500, 1000));
+      });
+    });
+
+    describe("random operations should agree with java.util.HashSet", () -> {
+      val random = new Random(24);
+      it("for many elements", () -> {
+        final HashSet<Long> a = new HashSet<>();
+        final HashSet<Long> b = new HashSet<>();
+        TrieSet<Long> x = TrieSet.empty();
+        final TrieSetBuilder<Long> y = TrieSet.builder();
+        for (int i = 0; i < 20_000; i += 1) {
+          final long element = random.nextInt(30_000) * 0x1_0000_0001L;
+          a.add(element);
+          x = x.add(element);
+          b.add(element + 1);
+          y.add(element + 1);
+        }
+        final TrieSet<Long> z = y.result();
+        expect(x.size()).toEqual(a.size());
+        expect(new HashSet<>(x.toList())).toEqual(a);
+        final HashSet<Long> union = new HashSet<>(a);
+        union.addAll(b);
+        expect(new HashSet<>(x.union(z).toList())).toEqual(union);
+        final HashSet<Long> intersection = new HashSet<>(a);
+        intersection.retainAll(b);
+        expect(new HashSet<>(x.intersect(z).toList())).toEqual(intersection);
+        final HashSet<Long> difference = new HashSet<>(a);
+        difference.removeAll(b);
+        expect(new HashSet<>(x.without(z).toList())).toEqual(difference);
+        expect(x.union(z).size()).toEqual(union.size());
+        expect(x.intersect(z).size()).toEqual(intersection.size());
+        expect(x.without(z).size()).toEqual(difference.size());
+      });
+    });
+  }
+}